@@ -0,0 +1,235 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.benchmarks;
+
+import com.fordfrog.ruian2pgsql.convertors.InputSource;
+import com.fordfrog.ruian2pgsql.utils.Namespaces;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Generates data for benchmarks.
+ *
+ * @author fordfrog
+ */
+public class BenchmarkData {
+
+    /**
+     * Creates new instance of BenchmarkData.
+     */
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates exchange format document with given number of AdresniMisto,
+     * Parcela and StavebniObjekt elements. Structure of the elements follows
+     * the real exchange format files, including geometry.
+     *
+     * @param items number of elements of each type
+     *
+     * @return document
+     */
+    public static String createExchangeFormat(final int items) {
+        final StringBuilder sbString = new StringBuilder(items * 2_500);
+        sbString.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sbString.append("<vf:VymennyFormat xmlns:vf=\"");
+        sbString.append(Namespaces.VYMENNY_FORMAT_TYPY);
+        sbString.append("\" xmlns:gml=\"");
+        sbString.append(Namespaces.GML);
+        sbString.append("\" xmlns:am=\"");
+        sbString.append(Namespaces.ADR_MISTO_INT_TYPY);
+        sbString.append("\" xmlns:pa=\"");
+        sbString.append(Namespaces.PARCELA_INT_TYPY);
+        sbString.append("\" xmlns:so=\"");
+        sbString.append(Namespaces.STAV_OBJ_INT_TYPY);
+        sbString.append("\" xmlns:com=\"");
+        sbString.append(Namespaces.COMMON_TYPY);
+        sbString.append("\" gml:id=\"VF.1\">\n");
+        sbString.append("<vf:Hlavicka><vf:TypZaznamu>ST</vf:TypZaznamu>"
+                + "<vf:TypDavky>U</vf:TypDavky>"
+                + "<vf:Datum>2024-01-31T00:00:00</vf:Datum>"
+                + "<vf:Transakce od=\"1\" do=\"2\"/></vf:Hlavicka>\n");
+        sbString.append("<vf:Data>\n<vf:Parcely>\n");
+
+        for (int i = 1; i <= items; i++) {
+            sbString.append("<vf:Parcela gml:id=\"PA.");
+            sbString.append(i);
+            sbString.append("\"><pa:Id>");
+            sbString.append(i);
+            sbString.append("</pa:Id><pa:Nespravny>false</pa:Nespravny>"
+                    + "<pa:KmenoveCislo>");
+            sbString.append(i % 3000);
+            sbString.append("</pa:KmenoveCislo><pa:PododdeleniCisla>");
+            sbString.append(i % 7);
+            sbString.append("</pa:PododdeleniCisla>"
+                    + "<pa:VymeraParcely>1234</pa:VymeraParcely>"
+                    + "<pa:KatastralniUzemi><kui:Kod xmlns:kui=\"urn:cz:isvs:"
+                    + "ruian:schemas:KatUzIntTypy:v1\">727181</kui:Kod>"
+                    + "</pa:KatastralniUzemi><pa:PlatiOd>"
+                    + "2015-03-01T00:00:00</pa:PlatiOd><pa:IdTransakce>");
+            sbString.append(1_000_000 + i);
+            sbString.append("</pa:IdTransakce><pa:RizeniId>");
+            sbString.append(2_000_000 + i);
+            sbString.append("</pa:RizeniId><pa:Geometrie><pa:DefinicniBod>"
+                    + "<gml:Point gml:id=\"DPA.");
+            sbString.append(i);
+            sbString.append("\" srsName=\"urn:ogc:def:crs:EPSG::5514\" "
+                    + "srsDimension=\"2\"><gml:pos>");
+            appendCoordinates(sbString, i, 1);
+            sbString.append("</gml:pos></gml:Point></pa:DefinicniBod>"
+                    + "<pa:OriginalniHranice><gml:MultiSurface gml:id=\"OHPA.");
+            sbString.append(i);
+            sbString.append("\" srsName=\"urn:ogc:def:crs:EPSG::5514\" "
+                    + "srsDimension=\"2\"><gml:surfaceMember><gml:Polygon "
+                    + "gml:id=\"OHPA.");
+            sbString.append(i);
+            sbString.append(".1\"><gml:exterior><gml:LinearRing><gml:posList>");
+            appendCoordinates(sbString, i, 24);
+            sbString.append("</gml:posList></gml:LinearRing></gml:exterior>"
+                    + "</gml:Polygon></gml:surfaceMember></gml:MultiSurface>"
+                    + "</pa:OriginalniHranice></pa:Geometrie></vf:Parcela>\n");
+        }
+
+        sbString.append("</vf:Parcely>\n<vf:StavebniObjekty>\n");
+
+        for (int i = 1; i <= items; i++) {
+            sbString.append("<vf:StavebniObjekt gml:id=\"SO.");
+            sbString.append(i);
+            sbString.append("\"><so:Kod>");
+            sbString.append(i);
+            sbString.append("</so:Kod><so:Nespravny>false</so:Nespravny>"
+                    + "<so:CislaDomovni><com:CisloDomovni>");
+            sbString.append(i % 500);
+            sbString.append("</com:CisloDomovni></so:CislaDomovni>"
+                    + "<so:IdentifikacniParcela><pai:Id xmlns:pai=\"urn:cz:isvs:"
+                    + "ruian:schemas:ParcelaIntTypy:v1\">");
+            sbString.append(i);
+            sbString.append("</pai:Id></so:IdentifikacniParcela>"
+                    + "<so:TypStavebnihoObjektuKod>1</so:TypStavebnihoObjektuKod>"
+                    + "<so:ZpusobVyuzitiKod>7</so:ZpusobVyuzitiKod>"
+                    + "<so:PlatiOd>2015-03-01T00:00:00</so:PlatiOd>"
+                    + "<so:IdTransakce>");
+            sbString.append(1_000_000 + i);
+            sbString.append("</so:IdTransakce><so:Geometrie><so:DefinicniBod>"
+                    + "<gml:Point gml:id=\"DSO.");
+            sbString.append(i);
+            sbString.append("\" srsName=\"urn:ogc:def:crs:EPSG::5514\" "
+                    + "srsDimension=\"2\"><gml:pos>");
+            appendCoordinates(sbString, i, 1);
+            sbString.append("</gml:pos></gml:Point></so:DefinicniBod>"
+                    + "</so:Geometrie></vf:StavebniObjekt>\n");
+        }
+
+        sbString.append("</vf:StavebniObjekty>\n<vf:AdresniMista>\n");
+
+        for (int i = 1; i <= items; i++) {
+            sbString.append("<vf:AdresniMisto gml:id=\"AD.");
+            sbString.append(i);
+            sbString.append("\"><am:Kod>");
+            sbString.append(i);
+            sbString.append("</am:Kod><am:Nespravny>false</am:Nespravny>"
+                    + "<am:CisloDomovni>");
+            sbString.append(i % 500);
+            sbString.append("</am:CisloDomovni><am:Psc>11000</am:Psc>"
+                    + "<am:StavebniObjekt><soi:Kod xmlns:soi=\"urn:cz:isvs:"
+                    + "ruian:schemas:StavObjIntTypy:v1\">");
+            sbString.append(i);
+            sbString.append("</soi:Kod></am:StavebniObjekt>"
+                    + "<am:PlatiOd>2015-03-01T00:00:00</am:PlatiOd>"
+                    + "<am:IdTransakce>");
+            sbString.append(1_000_000 + i);
+            sbString.append("</am:IdTransakce><am:Geometrie><am:DefinicniBod>"
+                    + "<gml:Point gml:id=\"DAD.");
+            sbString.append(i);
+            sbString.append("\" srsName=\"urn:ogc:def:crs:EPSG::5514\" "
+                    + "srsDimension=\"2\"><gml:pos>");
+            appendCoordinates(sbString, i, 1);
+            sbString.append("</gml:pos></gml:Point></am:DefinicniBod>"
+                    + "</am:Geometrie></vf:AdresniMisto>\n");
+        }
+
+        sbString.append("</vf:AdresniMista>\n</vf:Data>\n"
+                + "</vf:VymennyFormat>\n");
+
+        return sbString.toString();
+    }
+
+    /**
+     * Appends coordinates of given number of points in S-JTSK. The first
+     * point is repeated at the end if more than one point is requested, so
+     * that the points form closed ring.
+     *
+     * @param sbString string builder
+     * @param seed     seed of the coordinates
+     * @param points   number of points
+     */
+    public static void appendCoordinates(final StringBuilder sbString,
+            final int seed, final int points) {
+        for (int i = 0; i < points; i++) {
+            if (i > 0) {
+                sbString.append(' ');
+            }
+
+            final int point = i == points - 1 && points > 1 ? 0 : i;
+            sbString.append(-744_000 - seed % 10_000 - point * 3);
+            sbString.append('.');
+            sbString.append(10 + (seed * 7 + point) % 90);
+            sbString.append(' ');
+            sbString.append(-1_046_000 - seed % 20_000 - point * 5);
+            sbString.append('.');
+            sbString.append(10 + (seed * 13 + point) % 90);
+        }
+    }
+
+    /**
+     * Reads decompressed XML content of given file. If the file is ZIP
+     * archive, the first XML entry is read.
+     *
+     * @param file file path
+     *
+     * @return XML content
+     *
+     * @throws IOException Thrown if problem occurred while reading the file.
+     */
+    public static byte[] readXml(final Path file) throws IOException {
+        try (final InputStream inputStream =
+                InputSource.openXmlStream(InputSource.forFile(file))) {
+            if (inputStream == null) {
+                throw new IOException("File " + file + " contains no XML");
+            }
+
+            final ByteArrayOutputStream outputStream =
+                    new ByteArrayOutputStream(1_048_576);
+            final byte[] buffer = new byte[65_536];
+            int count = inputStream.read(buffer);
+
+            while (count != -1) {
+                outputStream.write(buffer, 0, count);
+                count = inputStream.read(buffer);
+            }
+
+            return outputStream.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,355 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.benchmarks;
+
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
+import com.fordfrog.ruian2pgsql.utils.Namespaces;
+import com.fordfrog.ruian2pgsql.utils.VfrStreamReader;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares dispatch of elements using nested switches on namespace and local
+ * name with dispatch using {@link ElementTable}. Element names are taken from
+ * generated exchange format document in the order of the document, so the
+ * mix of elements corresponds to Parcela, StavebniObjekt and AdresniMisto
+ * data including geometry. Results are in elements per second.
+ *
+ * @author fordfrog
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ElementDispatchBenchmark {
+
+    /**
+     * Number of dispatched elements per invocation.
+     */
+    private static final int ELEMENTS = 100_000;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 1;
+    /**
+     * Token of Id element.
+     */
+    private static final int ID = 2;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 3;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 4;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 5;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 6;
+    /**
+     * Token of CisloDomovni element.
+     */
+    private static final int CISLO_DOMOVNI = 7;
+    /**
+     * Token of KmenoveCislo element.
+     */
+    private static final int KMENOVE_CISLO = 8;
+    /**
+     * Token of ZpusobVyuzitiKod element.
+     */
+    private static final int ZPUSOB_VYUZITI_KOD = 9;
+    /**
+     * Token of gml:Point element.
+     */
+    private static final int POINT = 10;
+    /**
+     * Token of gml:pos element.
+     */
+    private static final int POS = 11;
+    /**
+     * Token of gml:posList element.
+     */
+    private static final int POS_LIST = 12;
+    /**
+     * Token of gml:Polygon element.
+     */
+    private static final int POLYGON = 13;
+    /**
+     * Element table.
+     */
+    private static final ElementTable TABLE = new ElementTable()
+            .add(Namespaces.ADR_MISTO_INT_TYPY, "Kod", KOD)
+            .add(Namespaces.ADR_MISTO_INT_TYPY, "IdTransakce", ID_TRANSAKCE)
+            .add(Namespaces.ADR_MISTO_INT_TYPY, "PlatiOd", PLATI_OD)
+            .add(Namespaces.ADR_MISTO_INT_TYPY, "Nespravny", NESPRAVNY)
+            .add(Namespaces.ADR_MISTO_INT_TYPY, "Geometrie", GEOMETRIE)
+            .add(Namespaces.ADR_MISTO_INT_TYPY, "CisloDomovni", CISLO_DOMOVNI)
+            .add(Namespaces.PARCELA_INT_TYPY, "Id", ID)
+            .add(Namespaces.PARCELA_INT_TYPY, "IdTransakce", ID_TRANSAKCE)
+            .add(Namespaces.PARCELA_INT_TYPY, "PlatiOd", PLATI_OD)
+            .add(Namespaces.PARCELA_INT_TYPY, "Nespravny", NESPRAVNY)
+            .add(Namespaces.PARCELA_INT_TYPY, "Geometrie", GEOMETRIE)
+            .add(Namespaces.PARCELA_INT_TYPY, "KmenoveCislo", KMENOVE_CISLO)
+            .add(Namespaces.STAV_OBJ_INT_TYPY, "Kod", KOD)
+            .add(Namespaces.STAV_OBJ_INT_TYPY, "IdTransakce", ID_TRANSAKCE)
+            .add(Namespaces.STAV_OBJ_INT_TYPY, "PlatiOd", PLATI_OD)
+            .add(Namespaces.STAV_OBJ_INT_TYPY, "Nespravny", NESPRAVNY)
+            .add(Namespaces.STAV_OBJ_INT_TYPY, "Geometrie", GEOMETRIE)
+            .add(Namespaces.STAV_OBJ_INT_TYPY, "ZpusobVyuzitiKod",
+                    ZPUSOB_VYUZITI_KOD)
+            .add(Namespaces.GML, "Point", POINT)
+            .add(Namespaces.GML, "pos", POS)
+            .add(Namespaces.GML, "posList", POS_LIST)
+            .add(Namespaces.GML, "Polygon", POLYGON);
+    /**
+     * Namespaces of elements in document order.
+     */
+    private String[] namespaces;
+    /**
+     * Local names of elements in document order.
+     */
+    private String[] localNames;
+
+    /**
+     * Reads element names from generated document, names are repeated to
+     * fill {@link #ELEMENTS} entries.
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    @Setup
+    public void setUp() throws XMLStreamException {
+        namespaces = new String[ELEMENTS];
+        localNames = new String[ELEMENTS];
+
+        final byte[] document = BenchmarkData.createExchangeFormat(500)
+                .getBytes(StandardCharsets.UTF_8);
+        int count = 0;
+
+        while (count < ELEMENTS) {
+            final XMLStreamReader reader =
+                    new VfrStreamReader(new ByteArrayInputStream(document));
+
+            while (reader.hasNext() && count < ELEMENTS) {
+                if (reader.next() == XMLStreamReader.START_ELEMENT) {
+                    namespaces[count] = reader.getNamespaceURI();
+                    localNames[count] = reader.getLocalName();
+                    count++;
+                }
+            }
+
+            reader.close();
+        }
+    }
+
+    /**
+     * Dispatches elements using nested switches on strings.
+     *
+     * @return sum of tokens
+     */
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public int stringSwitch() {
+        int sum = 0;
+
+        for (int i = 0; i < ELEMENTS; i++) {
+            sum += dispatchStrings(namespaces[i], localNames[i]);
+        }
+
+        return sum;
+    }
+
+    /**
+     * Dispatches elements using element table.
+     *
+     * @return sum of tokens
+     */
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public int elementTable() {
+        int sum = 0;
+
+        for (int i = 0; i < ELEMENTS; i++) {
+            switch (TABLE.get(namespaces[i], localNames[i])) {
+                case KOD:
+                    sum += KOD;
+                    break;
+                case ID:
+                    sum += ID;
+                    break;
+                case ID_TRANSAKCE:
+                    sum += ID_TRANSAKCE;
+                    break;
+                case PLATI_OD:
+                    sum += PLATI_OD;
+                    break;
+                case NESPRAVNY:
+                    sum += NESPRAVNY;
+                    break;
+                case GEOMETRIE:
+                    sum += GEOMETRIE;
+                    break;
+                case CISLO_DOMOVNI:
+                    sum += CISLO_DOMOVNI;
+                    break;
+                case KMENOVE_CISLO:
+                    sum += KMENOVE_CISLO;
+                    break;
+                case ZPUSOB_VYUZITI_KOD:
+                    sum += ZPUSOB_VYUZITI_KOD;
+                    break;
+                case POINT:
+                    sum += POINT;
+                    break;
+                case POS:
+                    sum += POS;
+                    break;
+                case POS_LIST:
+                    sum += POS_LIST;
+                    break;
+                case POLYGON:
+                    sum += POLYGON;
+                    break;
+                default:
+            }
+        }
+
+        return sum;
+    }
+
+    /**
+     * Dispatches element the way the convertors did before element tables
+     * were introduced.
+     *
+     * @param namespace namespace
+     * @param localName local name
+     *
+     * @return token
+     */
+    private static int dispatchStrings(final String namespace,
+            final String localName) {
+        switch (namespace) {
+            case Namespaces.ADR_MISTO_INT_TYPY:
+                switch (localName) {
+                    case "Kod":
+                        return KOD;
+                    case "IdTransakce":
+                        return ID_TRANSAKCE;
+                    case "PlatiOd":
+                        return PLATI_OD;
+                    case "Nespravny":
+                        return NESPRAVNY;
+                    case "Geometrie":
+                        return GEOMETRIE;
+                    case "CisloDomovni":
+                        return CISLO_DOMOVNI;
+                    default:
+                        return 0;
+                }
+            case Namespaces.PARCELA_INT_TYPY:
+                switch (localName) {
+                    case "Id":
+                        return ID;
+                    case "IdTransakce":
+                        return ID_TRANSAKCE;
+                    case "PlatiOd":
+                        return PLATI_OD;
+                    case "Nespravny":
+                        return NESPRAVNY;
+                    case "Geometrie":
+                        return GEOMETRIE;
+                    case "KmenoveCislo":
+                        return KMENOVE_CISLO;
+                    default:
+                        return 0;
+                }
+            case Namespaces.STAV_OBJ_INT_TYPY:
+                switch (localName) {
+                    case "Kod":
+                        return KOD;
+                    case "IdTransakce":
+                        return ID_TRANSAKCE;
+                    case "PlatiOd":
+                        return PLATI_OD;
+                    case "Nespravny":
+                        return NESPRAVNY;
+                    case "Geometrie":
+                        return GEOMETRIE;
+                    case "ZpusobVyuzitiKod":
+                        return ZPUSOB_VYUZITI_KOD;
+                    default:
+                        return 0;
+                }
+            case Namespaces.GML:
+                switch (localName) {
+                    case "Point":
+                        return POINT;
+                    case "pos":
+                        return POS;
+                    case "posList":
+                        return POS_LIST;
+                    case "Polygon":
+                        return POLYGON;
+                    default:
+                        return 0;
+                }
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args command line arguments
+     *
+     * @throws RunnerException Thrown if the benchmark failed.
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(
+                ElementDispatchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.benchmarks;
+
+import com.fordfrog.ruian2pgsql.gml.CoordinateReader;
+import com.fordfrog.ruian2pgsql.gml.CoordinateSequence;
+import com.fordfrog.ruian2pgsql.gml.Point;
+import com.fordfrog.ruian2pgsql.utils.Namespaces;
+import com.fordfrog.ruian2pgsql.utils.VfrStreamReader;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares parsing of posList element by splitting its text, which was used
+ * before, with {@link CoordinateReader}. Coordinates have the same format as
+ * S-JTSK coordinates of Parcela boundaries. Results are in posList elements
+ * per second.
+ *
+ * @author fordfrog
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PosListBenchmark {
+
+    /**
+     * Number of points in posList.
+     */
+    @Param({"20", "200", "2000"})
+    private int points;
+    /**
+     * Document with single posList element.
+     */
+    private byte[] document;
+
+    /**
+     * Creates the document.
+     */
+    @Setup
+    public void setUp() {
+        final StringBuilder sbString = new StringBuilder(points * 24 + 100);
+        sbString.append("<gml:posList xmlns:gml=\"");
+        sbString.append(Namespaces.GML);
+        sbString.append("\">");
+        BenchmarkData.appendCoordinates(sbString, 12_345, points);
+        sbString.append("</gml:posList>");
+        document = sbString.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Splits text of posList and creates point for each pair of values.
+     *
+     * @return parsed points
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    @Benchmark
+    public List<Point> split() throws XMLStreamException {
+        final XMLStreamReader reader = createReader();
+        final String[] parts = reader.getElementText().split(" ");
+        final List<Point> result = new ArrayList<>(100);
+
+        for (int i = 0; i < parts.length; i += 2) {
+            result.add(new Point(Double.parseDouble(parts[i]),
+                    Double.parseDouble(parts[i + 1])));
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads coordinates using {@link CoordinateReader}.
+     *
+     * @return parsed coordinates
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    @Benchmark
+    public CoordinateSequence coordinateReader() throws XMLStreamException {
+        final CoordinateSequence sequence = new CoordinateSequence(64);
+        CoordinateReader.read(createReader(), sequence);
+
+        return sequence;
+    }
+
+    /**
+     * Creates reader positioned at start of posList element.
+     *
+     * @return XML stream reader
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    private XMLStreamReader createReader() throws XMLStreamException {
+        final XMLStreamReader reader =
+                new VfrStreamReader(new ByteArrayInputStream(document));
+        reader.nextTag();
+
+        return reader;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args command line arguments
+     *
+     * @throws RunnerException Thrown if the benchmark failed.
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(
+                PosListBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.benchmarks;
+
+import com.fordfrog.ruian2pgsql.utils.Utils;
+import java.util.Calendar;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares parsing of timestamps using regular expression and
+ * {@link Calendar}, which was used before, with
+ * {@link Utils#parseEpochSeconds(java.lang.String)}. Values are new string
+ * instances, as returned by XML reader, picked from given number of distinct
+ * timestamps, so with small number of distinct values most values are taken
+ * from cache. Results are in values per second.
+ *
+ * @author fordfrog
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimestampBenchmark {
+
+    /**
+     * Number of parsed values per invocation.
+     */
+    private static final int VALUES = 100_000;
+    /**
+     * Pattern for parsing timestamp value from string.
+     */
+    private static final Pattern PATTERN_TIMESTAMP = Pattern.compile(
+            "^(\\d{4})-(\\d{2})-(\\d{2})T(\\d{2}):(\\d{2}):(\\d{2})$");
+    /**
+     * Number of distinct timestamps.
+     */
+    @Param({"1000", "100000"})
+    private int distinct;
+    /**
+     * Timestamp values.
+     */
+    private String[] values;
+
+    /**
+     * Generates timestamp values.
+     */
+    @Setup
+    public void setUp() {
+        final Random random = new Random(1);
+        final String[] distinctValues = new String[distinct];
+
+        for (int i = 0; i < distinct; i++) {
+            distinctValues[i] = String.format("%04d-%02d-%02dT00:00:00",
+                    1990 + random.nextInt(30), 1 + random.nextInt(12),
+                    1 + random.nextInt(28));
+        }
+
+        values = new String[VALUES];
+
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = new String(
+                    distinctValues[random.nextInt(distinct)].toCharArray());
+        }
+    }
+
+    /**
+     * Parses timestamps using regular expression and calendar.
+     *
+     * @return sum of parsed values
+     */
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public long regex() {
+        long sum = 0;
+
+        for (int i = 0; i < VALUES; i++) {
+            sum += parseRegex(values[i]);
+        }
+
+        return sum;
+    }
+
+    /**
+     * Parses timestamps using {@link Utils}.
+     *
+     * @return sum of parsed values
+     */
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public long utils() {
+        long sum = 0;
+
+        for (int i = 0; i < VALUES; i++) {
+            sum += Utils.parseEpochSeconds(values[i]);
+        }
+
+        return sum;
+    }
+
+    /**
+     * Parses timestamp the way Utils did before.
+     *
+     * @param value string value
+     *
+     * @return number of seconds since epoch
+     */
+    private static long parseRegex(final String value) {
+        final Matcher matcher = PATTERN_TIMESTAMP.matcher(value);
+
+        if (!matcher.matches()) {
+            throw new RuntimeException("Invalid timestamp value: " + value);
+        }
+
+        final Calendar calendar =
+                Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.clear();
+        calendar.set(
+                Integer.parseInt(matcher.group(1)),
+                Integer.parseInt(matcher.group(2)) - 1,
+                Integer.parseInt(matcher.group(3)),
+                Integer.parseInt(matcher.group(4)),
+                Integer.parseInt(matcher.group(5)),
+                Integer.parseInt(matcher.group(6)));
+
+        return calendar.getTimeInMillis() / 1_000L;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args command line arguments
+     *
+     * @throws RunnerException Thrown if the benchmark failed.
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(
+                TimestampBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.benchmarks;
+
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.utils.XmlReaderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares XML parsers on exchange format document. By default generated
+ * document containing the high-volume Parcela, StavebniObjekt and
+ * AdresniMisto elements is read, real file (for example state file) can be
+ * set using parameter file (-p file=...). Reader factory is created once per
+ * trial, the same way as the convertors cache it.
+ *
+ * @author fordfrog
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlParserBenchmark {
+
+    /**
+     * Parser name.
+     */
+    @Param({Config.XML_PARSER_JDK, Config.XML_PARSER_WOODSTOX,
+        Config.XML_PARSER_AALTO, Config.XML_PARSER_VFR})
+    private String parser;
+    /**
+     * Path to input file (.xml, .xml.gz or .zip), empty for generated
+     * document.
+     */
+    @Param("")
+    private String file;
+    /**
+     * Number of items of each type in generated document.
+     */
+    @Param("2000")
+    private int items;
+    /**
+     * Document content.
+     */
+    private byte[] document;
+    /**
+     * Reader factory.
+     */
+    private XmlReaderFactory readerFactory;
+
+    /**
+     * Loads or generates the document and creates reader factory.
+     *
+     * @throws IOException Thrown if problem occurred while reading the file.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        if (file.isEmpty()) {
+            document = BenchmarkData.createExchangeFormat(items).getBytes(
+                    StandardCharsets.UTF_8);
+        } else {
+            // decompressed in advance so that only parsing is measured
+            document = BenchmarkData.readXml(Paths.get(file));
+        }
+
+        readerFactory = new XmlReaderFactory(parser);
+    }
+
+    /**
+     * Reads the document.
+     *
+     * @param blackhole blackhole
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    @Benchmark
+    public void read(final Blackhole blackhole) throws XMLStreamException {
+        read(readerFactory.createReader(new ByteArrayInputStream(document)),
+                blackhole);
+    }
+
+    /**
+     * Reads all events of the document, consuming element names, attributes
+     * and text the way the convertors do.
+     *
+     * @param reader    XML stream reader
+     * @param blackhole blackhole
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    private static void read(final XMLStreamReader reader,
+            final Blackhole blackhole) throws XMLStreamException {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamReader.START_ELEMENT:
+                    blackhole.consume(reader.getNamespaceURI());
+                    blackhole.consume(reader.getLocalName());
+
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        blackhole.consume(reader.getAttributeValue(i));
+                    }
+
+                    break;
+                case XMLStreamReader.CHARACTERS:
+                    blackhole.consume(reader.getText());
+                    break;
+                default:
+            }
+        }
+
+        reader.close();
+    }
+
+    /**
+     * Runs the benchmark. Arguments are JMH command line options, for example
+     * -p file=/path/to/state/file.xml.zip.
+     *
+     * @param args command line arguments
+     *
+     * @throws CommandLineOptionException Thrown if arguments are invalid.
+     * @throws RunnerException            Thrown if the benchmark failed.
+     */
+    public static void main(final String[] args)
+            throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder().parent(new CommandLineOptions(args))
+                .include(XmlParserBenchmark.class.getSimpleName()).build())
+                .run();
+    }
+}
@@ -22,7 +22,9 @@
 package com.fordfrog.ruian2pgsql;
 
 import com.fordfrog.ruian2pgsql.convertors.MainConvertor;
+import com.fordfrog.ruian2pgsql.gml.GeometryUtils;
 import com.fordfrog.ruian2pgsql.utils.Log;
+import com.fordfrog.ruian2pgsql.utils.XmlReaderFactory;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
@@ -63,9 +65,32 @@ public class App {
 
         for (int i = 0; i < args.length; i++) {
             switch (args[i]) {
+                case "--batch-size":
+                    i++;
+                    Config.setBatchSize(Integer.parseInt(args[i]));
+                    break;
+                case "--commit-interval":
+                    i++;
+                    Config.setCommitInterval(Integer.parseInt(args[i]));
+                    break;
+                case "--commit-items":
+                    i++;
+                    Config.setCommitItems(Integer.parseInt(args[i]));
+                    break;
+                case "--commit-size":
+                    i++;
+                    Config.setCommitInputSize(Integer.parseInt(args[i]));
+                    break;
+                case "--concurrent-indexes":
+                    Config.setConcurrentIndexes(true);
+                    break;
                 case "--convert-to-ewkt":
                     Config.setConvertToEWKT(true);
                     break;
+                case "--coordinate-precision":
+                    i++;
+                    Config.setCoordinatePrecision(Double.parseDouble(args[i]));
+                    break;
                 case "--create-tables":
                     Config.setCreateTables(true);
                     break;
@@ -83,29 +108,84 @@ public class App {
                 case "--debug":
                     Config.setDebug(true);
                     break;
+                case "--geometry-encoding":
+                    i++;
+                    Config.setGeometryEncoding(args[i]);
+                    break;
                 case "--ignore-invalid-gml":
                     Config.setIgnoreInvalidGML(true);
                     break;
+                case "--index-threads":
+                    i++;
+                    Config.setIndexThreads(Integer.parseInt(args[i]));
+                    break;
                 case "--input-dir":
                     i++;
                     Config.setInputDirPath(Paths.get(args[i]));
                     break;
+                case "--key-cache-memory":
+                    i++;
+                    Config.setKeyCacheMemory(Integer.parseInt(args[i]));
+                    break;
                 case "--log-file":
                     i++;
                     Config.setLogFilePath(Paths.get(args[i]));
                     break;
+                case "--maintenance-work-mem":
+                    i++;
+                    Config.setMaintenanceWorkMem(args[i]);
+                    break;
                 case "--no-gis":
                     Config.setNoGis(true);
                     break;
+                case "--parallel-maintenance-workers":
+                    i++;
+                    Config.setParallelMaintenanceWorkers(
+                            Integer.valueOf(args[i]));
+                    break;
+                case "--pipeline-buffer":
+                    i++;
+                    Config.setPipelineBufferSize(Integer.parseInt(args[i]));
+                    break;
+                case "--plan-diffs":
+                    Config.setPlanDiffs(true);
+                    break;
+                case "--read-ahead":
+                    i++;
+                    Config.setReadAheadBuffers(Integer.parseInt(args[i]));
+                    break;
+                case "--rebuild-indexes":
+                    Config.setRebuildIndexes(true);
+                    break;
                 case "--reset-transaction-ids":
                     Config.setResetTransactionIds(true);
                     break;
+                case "--resume":
+                    Config.setResume(true);
+                    break;
+                case "--staging":
+                    Config.setStaging(true);
+                    break;
+                case "--threads":
+                    i++;
+                    Config.setThreads(Integer.parseInt(args[i]));
+                    break;
                 case "--truncate-all":
                     Config.setTruncateAll(true);
                     break;
                 case "--linearize-ewkt":
                      Config.setLinearizeEWKT(true);
                      break;
+                case "--upsert":
+                    Config.setUpsert(true);
+                    break;
+                case "--use-copy":
+                    Config.setUseCopy(true);
+                    break;
+                case "--xml-parser":
+                    i++;
+                    Config.setXmlParser(args[i]);
+                    break;
                 default:
                     throw new RuntimeException(
                             "Unsupported command line switch: " + args[i]);
@@ -124,6 +204,118 @@ public class App {
                 "Switch --linearize-ewkt without --convert-to-ewkt is not supported.");
         }
 
+        if (!Config.GEOMETRY_ENCODING_EWKT.equals(Config.getGeometryEncoding())
+                && !Config.GEOMETRY_ENCODING_EWKB.equals(
+                        Config.getGeometryEncoding())) {
+            throw new RuntimeException("Switch --geometry-encoding supports "
+                    + "values " + Config.GEOMETRY_ENCODING_EWKT + " and "
+                    + Config.GEOMETRY_ENCODING_EWKB + ".");
+        }
+
+        if (Config.GEOMETRY_ENCODING_EWKB.equals(
+                Config.getGeometryEncoding())) {
+            if (!Config.isConvertToEWKT()) {
+                throw new RuntimeException("Switch --geometry-encoding ewkb "
+                        + "without --convert-to-ewkt is not supported.");
+            } else if (Config.isMysqlDriver()) {
+                throw new RuntimeException("Switch --geometry-encoding ewkb "
+                        + "is not supported with MySQL.");
+            } else if (Config.isUseCopy() || Config.isStaging()) {
+                throw new RuntimeException("Switch --geometry-encoding ewkb "
+                        + "is not supported with --use-copy or --staging.");
+            }
+        }
+
+        if (Config.getCoordinatePrecision() != 0) {
+            final long scale = Config.getCoordinateScale();
+
+            if (Config.getCoordinatePrecision() < 0
+                    || !GeometryUtils.isPowerOfTen(scale)
+                    || Math.abs(1 / Config.getCoordinatePrecision() - scale)
+                    > scale * 1e-9) {
+                throw new RuntimeException("Switch --coordinate-precision "
+                        + "supports powers of ten from 1 to 0.000000001.");
+            } else if (!Config.isConvertToEWKT()) {
+                throw new RuntimeException("Switch --coordinate-precision "
+                        + "without --convert-to-ewkt is not supported.");
+            }
+        }
+
+        if (Config.getThreads() < 1) {
+            throw new RuntimeException(
+                    "Switch --threads requires positive number of threads.");
+        }
+
+        if (Config.getKeyCacheMemory() > 0 && Config.getThreads() > 1) {
+            throw new RuntimeException("Switch --key-cache-memory is not "
+                    + "supported with --threads.");
+        }
+
+        if (Config.getIndexThreads() < 1) {
+            throw new RuntimeException("Switch --index-threads requires "
+                    + "positive number of threads.");
+        }
+
+        if (!XmlReaderFactory.isSupported(Config.getXmlParser())) {
+            throw new RuntimeException("Switch --xml-parser supports values "
+                    + Config.XML_PARSER_STAX + ", " + Config.XML_PARSER_JDK
+                    + ", " + Config.XML_PARSER_WOODSTOX + ", "
+                    + Config.XML_PARSER_AALTO + " and " + Config.XML_PARSER_VFR
+                    + ".");
+        }
+
+        if (Config.getPipelineBufferSize() > 0
+                && Config.isIgnoreInvalidGML()) {
+            throw new RuntimeException("Switch --pipeline-buffer is not "
+                    + "supported with --ignore-invalid-gml.");
+        }
+
+        if (Config.isUpsert() && Config.isMysqlDriver()) {
+            throw new RuntimeException(
+                    "Switch --upsert is not supported with MySQL.");
+        }
+
+        if (Config.isRebuildIndexes() && Config.isMysqlDriver()) {
+            throw new RuntimeException(
+                    "Switch --rebuild-indexes is not supported with MySQL.");
+        }
+
+        if (Config.isConcurrentIndexes() && !Config.isRebuildIndexes()) {
+            throw new RuntimeException("Switch --concurrent-indexes without "
+                    + "--rebuild-indexes is not supported.");
+        }
+
+        if (Config.isResume()
+                && (Config.isCreateTables() || Config.isTruncateAll())) {
+            throw new RuntimeException("Switch --resume is not supported with "
+                    + "--create-tables or --truncate-all.");
+        }
+
+        if (Config.isStaging()) {
+            if (Config.isMysqlDriver()) {
+                throw new RuntimeException(
+                        "Switch --staging is not supported with MySQL.");
+            } else if (!Config.isNoGis() && (!Config.isConvertToEWKT()
+                    || Config.getDestinationSrid() != null)) {
+                throw new RuntimeException("Switch --staging requires either "
+                        + "--no-gis or --convert-to-ewkt without --dest-srid.");
+            }
+        }
+
+        if (Config.isUseCopy()) {
+            if (!Config.isCreateTables() && !Config.isTruncateAll()) {
+                throw new RuntimeException("Switch --use-copy is supported "
+                        + "only with --create-tables or --truncate-all.");
+            } else if (Config.isMysqlDriver()) {
+                throw new RuntimeException(
+                        "Switch --use-copy is not supported with MySQL.");
+            } else if (!Config.isNoGis() && (!Config.isConvertToEWKT()
+                    || Config.getDestinationSrid() != null)) {
+                throw new RuntimeException("Switch --use-copy requires either "
+                        + "--no-gis or --convert-to-ewkt without --dest-srid.");
+            }
+        }
+
         try (@SuppressWarnings("UseOfSystemOutOrSystemErr")
                 final Writer logFile = new OutputStreamWriter(
                         Config.getLogFilePath() == null ? System.out
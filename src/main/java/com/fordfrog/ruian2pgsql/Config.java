@@ -30,6 +30,34 @@ import java.nio.file.Path;
  */
 public class Config {
 
+    /**
+     * Geometries converted from GML are sent to database as EWKB.
+     */
+    public static final String GEOMETRY_ENCODING_EWKB = "ewkb";
+    /**
+     * Geometries converted from GML are sent to database as EWKT.
+     */
+    public static final String GEOMETRY_ENCODING_EWKT = "ewkt";
+    /**
+     * Aalto StAX parser.
+     */
+    public static final String XML_PARSER_AALTO = "aalto";
+    /**
+     * StAX parser of the JDK.
+     */
+    public static final String XML_PARSER_JDK = "jdk";
+    /**
+     * Default StAX parser found on class path.
+     */
+    public static final String XML_PARSER_STAX = "stax";
+    /**
+     * Byte-level parser specialised for exchange format.
+     */
+    public static final String XML_PARSER_VFR = "vfr";
+    /**
+     * Woodstox StAX parser.
+     */
+    public static final String XML_PARSER_WOODSTOX = "woodstox";
     /**
      * Path to input directory.
      */
@@ -85,10 +113,110 @@ public class Config {
      * Precision used for linear approximation of curved objects.
      */
     private static double linearPrecision = 0.01;
+    /**
+     * Precision grid of coordinates of geometries converted from GML, power
+     * of ten, for example 0.01, or zero if coordinates are not snapped to
+     * grid.
+     */
+    private static double coordinatePrecision;
     /**
      * Whether EWKT geometries should be linearized before they are stored in database.
      */
     private static boolean linearizeEWKT;
+    /**
+     * Whether new items should be written to database using COPY instead of
+     * INSERT statements.
+     */
+    private static boolean useCopy;
+    /**
+     * Number of items that are written to database in single batch, values
+     * lower than 2 disable batches.
+     */
+    private static int batchSize;
+    /**
+     * Whether items should be saved using INSERT ... ON CONFLICT statement.
+     */
+    private static boolean upsert;
+    /**
+     * Memory budget of key caches in megabytes, values lower than 1 disable
+     * key caches.
+     */
+    private static int keyCacheMemory;
+    /**
+     * Number of threads that process input files in parallel.
+     */
+    private static int threads = 1;
+    /**
+     * Size of buffer of pipelined writes in megabytes, values lower than 1
+     * disable pipelined writes.
+     */
+    private static int pipelineBufferSize;
+    /**
+     * Number of buffers of read-ahead stage, values lower than 1 disable the
+     * read-ahead stage.
+     */
+    private static int readAheadBuffers;
+    /**
+     * XML parser that is used for reading input files.
+     */
+    private static String xmlParser = XML_PARSER_STAX;
+    /**
+     * Encoding of geometries that are converted from GML.
+     */
+    private static String geometryEncoding = GEOMETRY_ENCODING_EWKT;
+    /**
+     * Whether items should be copied to staging tables and merged into the
+     * tables using set-based statements.
+     */
+    private static boolean staging;
+    /**
+     * Whether secondary indexes should be dropped before data are loaded and
+     * created again afterwards.
+     */
+    private static boolean rebuildIndexes;
+    /**
+     * Whether dropped indexes should be created using CREATE INDEX
+     * CONCURRENTLY.
+     */
+    private static boolean concurrentIndexes;
+    /**
+     * Number of connections that are used to create indexes.
+     */
+    private static int indexThreads = 1;
+    /**
+     * Value of maintenance_work_mem that is set for sessions creating
+     * indexes, null if default value should be used.
+     */
+    private static String maintenanceWorkMem;
+    /**
+     * Value of max_parallel_maintenance_workers that is set for sessions
+     * creating indexes, null if default value should be used.
+     */
+    private static Integer parallelMaintenanceWorkers;
+    /**
+     * Number of saved items after which transaction is committed, values
+     * lower than 1 disable the limit.
+     */
+    private static int commitItems;
+    /**
+     * Size of parsed input in megabytes after which transaction is committed,
+     * values lower than 1 disable the limit.
+     */
+    private static int commitInputSize;
+    /**
+     * Number of seconds after which transaction is committed, values lower
+     * than 1 disable the limit.
+     */
+    private static int commitInterval;
+    /**
+     * Whether files that were completed by previous import should be skipped
+     * and partially processed files continued from their last checkpoint.
+     */
+    private static boolean resume;
+    /**
+     * Whether processing of diff files should be planned using their headers.
+     */
+    private static boolean planDiffs;
 
     /**
      * Getter for {@link #inputDirPath}.
@@ -326,6 +454,36 @@ public class Config {
         return linearPrecision;
     }
 
+    /**
+     * Getter for {@link #coordinatePrecision}.
+     *
+     * @return {@link #coordinatePrecision}
+     */
+    public static double getCoordinatePrecision() {
+        return coordinatePrecision;
+    }
+
+    /**
+     * Setter for {@link #coordinatePrecision}.
+     *
+     * @param coordinatePrecision {@link #coordinatePrecision}
+     */
+    public static void setCoordinatePrecision(
+            final double coordinatePrecision) {
+        Config.coordinatePrecision = coordinatePrecision;
+    }
+
+    /**
+     * Returns scale of coordinates, that is number of grid steps per unit.
+     *
+     * @return scale of coordinates or zero if coordinates are not snapped to
+     *         grid
+     */
+    public static long getCoordinateScale() {
+        return coordinatePrecision > 0 ? Math.round(1 / coordinatePrecision)
+                : 0;
+    }
+
     /**
      * Getter for {@link #linearizeEWKT}.
      *
@@ -344,6 +502,378 @@ public class Config {
         Config.linearizeEWKT = linearizeEWKT;
     }
 
+    /**
+     * Getter for {@link #useCopy}.
+     *
+     * @return {@link #useCopy}
+     */
+    public static boolean isUseCopy() {
+        return useCopy;
+    }
+
+    /**
+     * Setter for {@link #useCopy}.
+     *
+     * @param useCopy {@link #useCopy}
+     */
+    public static void setUseCopy(final boolean useCopy) {
+        Config.useCopy = useCopy;
+    }
+
+    /**
+     * Getter for {@link #batchSize}.
+     *
+     * @return {@link #batchSize}
+     */
+    public static int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Setter for {@link #batchSize}.
+     *
+     * @param batchSize {@link #batchSize}
+     */
+    public static void setBatchSize(final int batchSize) {
+        Config.batchSize = batchSize;
+    }
+
+    /**
+     * Getter for {@link #upsert}.
+     *
+     * @return {@link #upsert}
+     */
+    public static boolean isUpsert() {
+        return upsert;
+    }
+
+    /**
+     * Setter for {@link #upsert}.
+     *
+     * @param upsert {@link #upsert}
+     */
+    public static void setUpsert(final boolean upsert) {
+        Config.upsert = upsert;
+    }
+
+    /**
+     * Getter for {@link #keyCacheMemory}.
+     *
+     * @return {@link #keyCacheMemory}
+     */
+    public static int getKeyCacheMemory() {
+        return keyCacheMemory;
+    }
+
+    /**
+     * Setter for {@link #keyCacheMemory}.
+     *
+     * @param keyCacheMemory {@link #keyCacheMemory}
+     */
+    public static void setKeyCacheMemory(final int keyCacheMemory) {
+        Config.keyCacheMemory = keyCacheMemory;
+    }
+
+    /**
+     * Getter for {@link #threads}.
+     *
+     * @return {@link #threads}
+     */
+    public static int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Setter for {@link #threads}.
+     *
+     * @param threads {@link #threads}
+     */
+    public static void setThreads(final int threads) {
+        Config.threads = threads;
+    }
+
+    /**
+     * Getter for {@link #pipelineBufferSize}.
+     *
+     * @return {@link #pipelineBufferSize}
+     */
+    public static int getPipelineBufferSize() {
+        return pipelineBufferSize;
+    }
+
+    /**
+     * Setter for {@link #pipelineBufferSize}.
+     *
+     * @param pipelineBufferSize {@link #pipelineBufferSize}
+     */
+    public static void setPipelineBufferSize(final int pipelineBufferSize) {
+        Config.pipelineBufferSize = pipelineBufferSize;
+    }
+
+    /**
+     * Getter for {@link #xmlParser}.
+     *
+     * @return {@link #xmlParser}
+     */
+    public static String getXmlParser() {
+        return xmlParser;
+    }
+
+    /**
+     * Setter for {@link #xmlParser}.
+     *
+     * @param xmlParser {@link #xmlParser}
+     */
+    public static void setXmlParser(final String xmlParser) {
+        Config.xmlParser = xmlParser;
+    }
+
+    /**
+     * Getter for {@link #geometryEncoding}.
+     *
+     * @return {@link #geometryEncoding}
+     */
+    public static String getGeometryEncoding() {
+        return geometryEncoding;
+    }
+
+    /**
+     * Setter for {@link #geometryEncoding}.
+     *
+     * @param geometryEncoding {@link #geometryEncoding}
+     */
+    public static void setGeometryEncoding(final String geometryEncoding) {
+        Config.geometryEncoding = geometryEncoding;
+    }
+
+    /**
+     * Returns true if geometries converted from GML are sent to database as
+     * EWKB, otherwise false.
+     *
+     * @return true if geometries are sent as EWKB, otherwise false
+     */
+    public static boolean isEWKB() {
+        return convertToEWKT
+                && GEOMETRY_ENCODING_EWKB.equals(geometryEncoding);
+    }
+
+    /**
+     * Getter for {@link #readAheadBuffers}.
+     *
+     * @return {@link #readAheadBuffers}
+     */
+    public static int getReadAheadBuffers() {
+        return readAheadBuffers;
+    }
+
+    /**
+     * Setter for {@link #readAheadBuffers}.
+     *
+     * @param readAheadBuffers {@link #readAheadBuffers}
+     */
+    public static void setReadAheadBuffers(final int readAheadBuffers) {
+        Config.readAheadBuffers = readAheadBuffers;
+    }
+
+    /**
+     * Getter for {@link #staging}.
+     *
+     * @return {@link #staging}
+     */
+    public static boolean isStaging() {
+        return staging;
+    }
+
+    /**
+     * Setter for {@link #staging}.
+     *
+     * @param staging {@link #staging}
+     */
+    public static void setStaging(final boolean staging) {
+        Config.staging = staging;
+    }
+
+    /**
+     * Getter for {@link #rebuildIndexes}.
+     *
+     * @return {@link #rebuildIndexes}
+     */
+    public static boolean isRebuildIndexes() {
+        return rebuildIndexes;
+    }
+
+    /**
+     * Setter for {@link #rebuildIndexes}.
+     *
+     * @param rebuildIndexes {@link #rebuildIndexes}
+     */
+    public static void setRebuildIndexes(final boolean rebuildIndexes) {
+        Config.rebuildIndexes = rebuildIndexes;
+    }
+
+    /**
+     * Getter for {@link #concurrentIndexes}.
+     *
+     * @return {@link #concurrentIndexes}
+     */
+    public static boolean isConcurrentIndexes() {
+        return concurrentIndexes;
+    }
+
+    /**
+     * Setter for {@link #concurrentIndexes}.
+     *
+     * @param concurrentIndexes {@link #concurrentIndexes}
+     */
+    public static void setConcurrentIndexes(final boolean concurrentIndexes) {
+        Config.concurrentIndexes = concurrentIndexes;
+    }
+
+    /**
+     * Getter for {@link #indexThreads}.
+     *
+     * @return {@link #indexThreads}
+     */
+    public static int getIndexThreads() {
+        return indexThreads;
+    }
+
+    /**
+     * Setter for {@link #indexThreads}.
+     *
+     * @param indexThreads {@link #indexThreads}
+     */
+    public static void setIndexThreads(final int indexThreads) {
+        Config.indexThreads = indexThreads;
+    }
+
+    /**
+     * Getter for {@link #maintenanceWorkMem}.
+     *
+     * @return {@link #maintenanceWorkMem}
+     */
+    public static String getMaintenanceWorkMem() {
+        return maintenanceWorkMem;
+    }
+
+    /**
+     * Setter for {@link #maintenanceWorkMem}.
+     *
+     * @param maintenanceWorkMem {@link #maintenanceWorkMem}
+     */
+    public static void setMaintenanceWorkMem(final String maintenanceWorkMem) {
+        Config.maintenanceWorkMem = maintenanceWorkMem;
+    }
+
+    /**
+     * Getter for {@link #parallelMaintenanceWorkers}.
+     *
+     * @return {@link #parallelMaintenanceWorkers}
+     */
+    public static Integer getParallelMaintenanceWorkers() {
+        return parallelMaintenanceWorkers;
+    }
+
+    /**
+     * Setter for {@link #parallelMaintenanceWorkers}.
+     *
+     * @param parallelMaintenanceWorkers {@link #parallelMaintenanceWorkers}
+     */
+    public static void setParallelMaintenanceWorkers(
+            final Integer parallelMaintenanceWorkers) {
+        Config.parallelMaintenanceWorkers = parallelMaintenanceWorkers;
+    }
+
+    /**
+     * Getter for {@link #commitItems}.
+     *
+     * @return {@link #commitItems}
+     */
+    public static int getCommitItems() {
+        return commitItems;
+    }
+
+    /**
+     * Setter for {@link #commitItems}.
+     *
+     * @param commitItems {@link #commitItems}
+     */
+    public static void setCommitItems(final int commitItems) {
+        Config.commitItems = commitItems;
+    }
+
+    /**
+     * Getter for {@link #commitInputSize}.
+     *
+     * @return {@link #commitInputSize}
+     */
+    public static int getCommitInputSize() {
+        return commitInputSize;
+    }
+
+    /**
+     * Setter for {@link #commitInputSize}.
+     *
+     * @param commitInputSize {@link #commitInputSize}
+     */
+    public static void setCommitInputSize(final int commitInputSize) {
+        Config.commitInputSize = commitInputSize;
+    }
+
+    /**
+     * Getter for {@link #commitInterval}.
+     *
+     * @return {@link #commitInterval}
+     */
+    public static int getCommitInterval() {
+        return commitInterval;
+    }
+
+    /**
+     * Setter for {@link #commitInterval}.
+     *
+     * @param commitInterval {@link #commitInterval}
+     */
+    public static void setCommitInterval(final int commitInterval) {
+        Config.commitInterval = commitInterval;
+    }
+
+    /**
+     * Getter for {@link #resume}.
+     *
+     * @return {@link #resume}
+     */
+    public static boolean isResume() {
+        return resume;
+    }
+
+    /**
+     * Setter for {@link #resume}.
+     *
+     * @param resume {@link #resume}
+     */
+    public static void setResume(final boolean resume) {
+        Config.resume = resume;
+    }
+
+    /**
+     * Getter for {@link #planDiffs}.
+     *
+     * @return {@link #planDiffs}
+     */
+    public static boolean isPlanDiffs() {
+        return planDiffs;
+    }
+
+    /**
+     * Setter for {@link #planDiffs}.
+     *
+     * @param planDiffs {@link #planDiffs}
+     */
+    public static void setPlanDiffs(final boolean planDiffs) {
+        Config.planDiffs = planDiffs;
+    }
+
     /**
      * Creates new instance of Config.
      */
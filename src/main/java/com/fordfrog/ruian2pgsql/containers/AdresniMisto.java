@@ -21,95 +21,160 @@
  */
 package com.fordfrog.ruian2pgsql.containers;
 
-import java.util.Date;
-
 /**
- * Container for AdresniMisto information.
+ * Container for AdresniMisto information. Values are stored as primitives and
+ * whether a value is null is tracked in {@link #nulls}, dates are stored as
+ * number of days since epoch. Value of field that is null is undefined.
  *
  * @author fordfrog
  */
-public class AdresniMisto implements ItemWithDefinicniBod, ItemWithEmergency {
-
-    private Integer kod;
-    private Boolean nespravny;
-    private Integer adrpPsc;
-    private Integer uliceKod;
-    private Integer voKod;
-    private Integer stavobjKod;
-    private Integer cisloDomovni;
-    private Integer cisloOrientacniHodnota;
+public class AdresniMisto implements ItemWithDefinicniBod, ItemWithEmergency,
+        Reusable {
+
+    private static final int KOD = 1;
+    private static final int NESPRAVNY = 1 << 1;
+    private static final int ADRP_PSC = 1 << 2;
+    private static final int ULICE_KOD = 1 << 3;
+    private static final int VO_KOD = 1 << 4;
+    private static final int STAVOBJ_KOD = 1 << 5;
+    private static final int CISLO_DOMOVNI = 1 << 6;
+    private static final int CISLO_ORIENTACNI_HODNOTA = 1 << 7;
+    private static final int ID_TRANS_RUIAN = 1 << 8;
+    private static final int PLATI_OD = 1 << 9;
+    private static final int ZMENA_GRAFIKY = 1 << 10;
+    private static final int NZ_ID_GLOBALNI = 1 << 11;
+    /**
+     * Bitmask of values that are null.
+     */
+    private int nulls = -1;
+    private int kod;
+    private boolean nespravny;
+    private int adrpPsc;
+    private int uliceKod;
+    private int voKod;
+    private int stavobjKod;
+    private int cisloDomovni;
+    private int cisloOrientacniHodnota;
     private String cisloOrientacniPismeno;
-    private Long idTransRuian;
-    private Date platiOd;
-    private Boolean zmenaGrafiky;
-    private Long nzIdGlobalni;
-    private String definicniBod;
-    private String zachranka;
-    private String hasici;
-
-    public Integer getKod() {
+    private long idTransRuian;
+    private int platiOd;
+    private boolean zmenaGrafiky;
+    private long nzIdGlobalni;
+    private GeometryValue definicniBod;
+    private GeometryValue zachranka;
+    private GeometryValue hasici;
+
+    @Override
+    public void reset() {
+        nulls = -1;
+        cisloOrientacniPismeno = null;
+        definicniBod = null;
+        zachranka = null;
+        hasici = null;
+    }
+
+    public boolean hasKod() {
+        return (nulls & KOD) == 0;
+    }
+
+    public int getKod() {
         return kod;
     }
 
-    public void setKod(final Integer kod) {
+    public void setKod(final int kod) {
         this.kod = kod;
+        nulls &= ~KOD;
     }
 
-    public Boolean getNespravny() {
+    public boolean hasNespravny() {
+        return (nulls & NESPRAVNY) == 0;
+    }
+
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NESPRAVNY;
+    }
+
+    public boolean hasAdrpPsc() {
+        return (nulls & ADRP_PSC) == 0;
     }
 
-    public Integer getAdrpPsc() {
+    public int getAdrpPsc() {
         return adrpPsc;
     }
 
-    public void setAdrpPsc(final Integer adrpPsc) {
+    public void setAdrpPsc(final int adrpPsc) {
         this.adrpPsc = adrpPsc;
+        nulls &= ~ADRP_PSC;
     }
 
-    public Integer getUliceKod() {
+    public boolean hasUliceKod() {
+        return (nulls & ULICE_KOD) == 0;
+    }
+
+    public int getUliceKod() {
         return uliceKod;
     }
 
-    public void setUliceKod(final Integer uliceKod) {
+    public void setUliceKod(final int uliceKod) {
         this.uliceKod = uliceKod;
+        nulls &= ~ULICE_KOD;
+    }
+
+    public boolean hasVoKod() {
+        return (nulls & VO_KOD) == 0;
     }
 
-    public Integer getVoKod() {
+    public int getVoKod() {
         return voKod;
     }
 
-    public void setVoKod(final Integer voKod) {
+    public void setVoKod(final int voKod) {
         this.voKod = voKod;
+        nulls &= ~VO_KOD;
     }
 
-    public Integer getStavobjKod() {
+    public boolean hasStavobjKod() {
+        return (nulls & STAVOBJ_KOD) == 0;
+    }
+
+    public int getStavobjKod() {
         return stavobjKod;
     }
 
-    public void setStavobjKod(final Integer stavobjKod) {
+    public void setStavobjKod(final int stavobjKod) {
         this.stavobjKod = stavobjKod;
+        nulls &= ~STAVOBJ_KOD;
+    }
+
+    public boolean hasCisloDomovni() {
+        return (nulls & CISLO_DOMOVNI) == 0;
     }
 
-    public Integer getCisloDomovni() {
+    public int getCisloDomovni() {
         return cisloDomovni;
     }
 
-    public void setCisloDomovni(final Integer cisloDomovni) {
+    public void setCisloDomovni(final int cisloDomovni) {
         this.cisloDomovni = cisloDomovni;
+        nulls &= ~CISLO_DOMOVNI;
     }
 
-    public Integer getCisloOrientacniHodnota() {
+    public boolean hasCisloOrientacniHodnota() {
+        return (nulls & CISLO_ORIENTACNI_HODNOTA) == 0;
+    }
+
+    public int getCisloOrientacniHodnota() {
         return cisloOrientacniHodnota;
     }
 
-    public void setCisloOrientacniHodnota(
-            final Integer cisloOrientacniHodnota) {
+    public void setCisloOrientacniHodnota(final int cisloOrientacniHodnota) {
         this.cisloOrientacniHodnota = cisloOrientacniHodnota;
+        nulls &= ~CISLO_ORIENTACNI_HODNOTA;
     }
 
     public String getCisloOrientacniPismeno() {
@@ -120,68 +185,85 @@ public class AdresniMisto implements ItemWithDefinicniBod, ItemWithEmergency {
         this.cisloOrientacniPismeno = cisloOrientacniPismeno;
     }
 
-    public Long getIdTransRuian() {
+    public boolean hasIdTransRuian() {
+        return (nulls & ID_TRANS_RUIAN) == 0;
+    }
+
+    public long getIdTransRuian() {
         return idTransRuian;
     }
 
-    public void setIdTransRuian(final Long idTransRuian) {
+    public void setIdTransRuian(final long idTransRuian) {
         this.idTransRuian = idTransRuian;
+        nulls &= ~ID_TRANS_RUIAN;
     }
 
-    @SuppressWarnings("ReturnOfDateField")
-    public Date getPlatiOd() {
+    public boolean hasPlatiOd() {
+        return (nulls & PLATI_OD) == 0;
+    }
+
+    public int getPlatiOd() {
         return platiOd;
     }
 
-    @SuppressWarnings("AssignmentToDateFieldFromParameter")
-    public void setPlatiOd(final Date platiOd) {
+    public void setPlatiOd(final int platiOd) {
         this.platiOd = platiOd;
+        nulls &= ~PLATI_OD;
+    }
+
+    public boolean hasZmenaGrafiky() {
+        return (nulls & ZMENA_GRAFIKY) == 0;
     }
 
-    public Boolean getZmenaGrafiky() {
+    public boolean getZmenaGrafiky() {
         return zmenaGrafiky;
     }
 
-    public void setZmenaGrafiky(final Boolean zmenaGrafiky) {
+    public void setZmenaGrafiky(final boolean zmenaGrafiky) {
         this.zmenaGrafiky = zmenaGrafiky;
+        nulls &= ~ZMENA_GRAFIKY;
     }
 
-    public Long getNzIdGlobalni() {
+    public boolean hasNzIdGlobalni() {
+        return (nulls & NZ_ID_GLOBALNI) == 0;
+    }
+
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NZ_ID_GLOBALNI;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public GeometryValue getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final GeometryValue definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getZachranka() {
+    public GeometryValue getZachranka() {
         return zachranka;
     }
 
     @Override
-    public void setZachranka(final String zachranka) {
+    public void setZachranka(final GeometryValue zachranka) {
         this.zachranka = zachranka;
     }
 
     @Override
-    public String getHasici() {
+    public GeometryValue getHasici() {
         return hasici;
     }
 
     @Override
-    public void setHasici(final String hasici) {
+    public void setHasici(final GeometryValue hasici) {
         this.hasici = hasici;
     }
-
 }
@@ -26,7 +26,7 @@ package com.fordfrog.ruian2pgsql.containers;
  *
  * @author fordfrog
  */
-public class BonitovanyDil {
+public class BonitovanyDil implements Reusable {
 
     private Long parcelaId;
     private Integer bpejKod;
@@ -34,6 +34,15 @@ public class BonitovanyDil {
     private Long idTransRuian;
     private Long rizeniId;
 
+    @Override
+    public void reset() {
+        parcelaId = null;
+        bpejKod = null;
+        vymera = null;
+        idTransRuian = null;
+        rizeniId = null;
+    }
+
     public Long getParcelaId() {
         return parcelaId;
     }
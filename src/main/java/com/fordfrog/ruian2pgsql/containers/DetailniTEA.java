@@ -28,7 +28,7 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class DetailniTEA {
+public class DetailniTEA implements Reusable {
 
     private Integer kod;
     private Integer stavobjKod;
@@ -46,6 +46,25 @@ public class DetailniTEA {
     private Date platiOd;
     private Long nzIdGlobalni;
 
+    @Override
+    public void reset() {
+        kod = null;
+        stavobjKod = null;
+        adresniMistoKod = null;
+        nespravny = null;
+        pocetBytu = null;
+        pocetPodlazi = null;
+        druhKonstrukceKod = null;
+        pripojKanalSitKod = null;
+        pripojPlynKod = null;
+        pripojVodovodKod = null;
+        pripojElEnergie = null;
+        zpusobVytapeniKod = null;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = null;
+    }
+
     public Integer getKod() {
         return kod;
     }
@@ -0,0 +1,87 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.containers;
+
+/**
+ * Geometry of item in the form in which it is sent to database, either GML or
+ * EWKT text, or EWKB bytes.
+ *
+ * @author fordfrog
+ */
+public final class GeometryValue {
+
+    /**
+     * GML or EWKT text, null if the geometry is stored as bytes.
+     */
+    private final String text;
+    /**
+     * EWKB bytes, null if the geometry is stored as text.
+     */
+    private final byte[] bytes;
+
+    /**
+     * Creates new instance of GeometryValue stored as text.
+     *
+     * @param text {@link #text}
+     */
+    public GeometryValue(final String text) {
+        this.text = text;
+        this.bytes = null;
+    }
+
+    /**
+     * Creates new instance of GeometryValue stored as bytes.
+     *
+     * @param bytes {@link #bytes}
+     */
+    public GeometryValue(final byte[] bytes) {
+        this.text = null;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Getter for {@link #text}.
+     *
+     * @return {@link #text}
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Getter for {@link #bytes}.
+     *
+     * @return {@link #bytes}
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Checks whether the geometry is stored as EWKB bytes.
+     *
+     * @return true if the geometry is stored as bytes, otherwise false
+     */
+    public boolean isBinary() {
+        return bytes != null;
+    }
+}
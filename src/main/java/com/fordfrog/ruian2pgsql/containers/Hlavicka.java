@@ -28,7 +28,7 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class Hlavicka {
+public class Hlavicka implements Reusable {
 
     private String verzeVfr;
     private String typZaznamu;
@@ -45,6 +45,24 @@ public class Hlavicka {
     private Date platnostDatKIsui;
     private Date platnostDatKIskn;
 
+    @Override
+    public void reset() {
+        verzeVfr = null;
+        typZaznamu = null;
+        typDavky = null;
+        typSouboru = null;
+        datum = null;
+        transakceOdId = null;
+        transakceOdZapsano = null;
+        transakceDoId = null;
+        transakceDoZapsano = null;
+        predchoziSoubor = null;
+        plnySoubor = null;
+        metadata = null;
+        platnostDatKIsui = null;
+        platnostDatKIskn = null;
+    }
+
     public String getVerzeVfr() {
         return verzeVfr;
     }
@@ -28,7 +28,7 @@ package com.fordfrog.ruian2pgsql.containers;
  */
 public interface ItemWithDefinicniBod {
 
-    String getDefinicniBod();
+    GeometryValue getDefinicniBod();
 
-    void setDefinicniBod(String definicniBod);
+    void setDefinicniBod(GeometryValue definicniBod);
 }
@@ -28,7 +28,7 @@ package com.fordfrog.ruian2pgsql.containers;
  */
 public interface ItemWithDefinicniCara {
 
-    String getDefinicniCara();
+    GeometryValue getDefinicniCara();
 
-    void setDefinicniCara(String definicniCara);
+    void setDefinicniCara(GeometryValue definicniCara);
 }
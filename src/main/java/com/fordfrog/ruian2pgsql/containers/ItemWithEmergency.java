@@ -28,11 +28,11 @@ package com.fordfrog.ruian2pgsql.containers;
  */
 public interface ItemWithEmergency {
 
-    String getHasici();
+    GeometryValue getHasici();
 
-    void setHasici(String hasici);
+    void setHasici(GeometryValue hasici);
 
-    String getZachranka();
+    GeometryValue getZachranka();
 
-    void setZachranka(String zachranka);
+    void setZachranka(GeometryValue zachranka);
 }
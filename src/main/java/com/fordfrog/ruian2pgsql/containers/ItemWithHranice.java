@@ -28,7 +28,7 @@ package com.fordfrog.ruian2pgsql.containers;
  */
 public interface ItemWithHranice {
 
-    String getHranice();
+    GeometryValue getHranice();
 
-    void setHranice(String hranice);
+    void setHranice(GeometryValue hranice);
 }
@@ -29,7 +29,7 @@ import java.util.Date;
  * @author fordfrog
  */
 public class KatastralniUzemi implements ItemWithDefinicniBod, ItemWithHranice,
-        ItemWithMluvCharPad {
+        ItemWithMluvCharPad, Reusable {
 
     private Integer kod;
     private String nazev;
@@ -46,10 +46,32 @@ public class KatastralniUzemi implements ItemWithDefinicniBod, ItemWithHranice,
     private Date platiOd;
     private Long nzIdGlobalni;
     private Long rizeniId;
-    private String definicniBod;
-    private String hranice;
+    private GeometryValue definicniBod;
+    private GeometryValue hranice;
     private Date datumVzniku;
 
+    @Override
+    public void reset() {
+        kod = null;
+        nazev = null;
+        nespravny = null;
+        obecKod = null;
+        maDkm = false;
+        mluvCharPad2 = null;
+        mluvCharPad3 = null;
+        mluvCharPad4 = null;
+        mluvCharPad5 = null;
+        mluvCharPad6 = null;
+        mluvCharPad7 = null;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = null;
+        rizeniId = null;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+    }
+
     public Integer getKod() {
         return kod;
     }
@@ -185,22 +207,22 @@ public class KatastralniUzemi implements ItemWithDefinicniBod, ItemWithHranice,
     }
 
     @Override
-    public String getDefinicniBod() {
+    public GeometryValue getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final GeometryValue definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public GeometryValue getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(String hranice) {
+    public void setHranice(GeometryValue hranice) {
         this.hranice = hranice;
     }
 
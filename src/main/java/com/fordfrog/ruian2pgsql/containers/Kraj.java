@@ -28,7 +28,7 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class Kraj implements ItemWithDefinicniBod, ItemWithHranice {
+public class Kraj implements ItemWithDefinicniBod, ItemWithHranice, Reusable {
 
     private Integer kod;
     private String nazev;
@@ -38,10 +38,25 @@ public class Kraj implements ItemWithDefinicniBod, ItemWithHranice {
     private Date platiOd;
     private Long nzIdGlobalni;
     private Boolean zmenaGrafiky;
-    private String definicniBod;
-    private String hranice;
+    private GeometryValue definicniBod;
+    private GeometryValue hranice;
     private Date datumVzniku;
 
+    @Override
+    public void reset() {
+        kod = null;
+        nazev = null;
+        nespravny = null;
+        statKod = null;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = null;
+        zmenaGrafiky = null;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+    }
+
     public Integer getKod() {
         return kod;
     }
@@ -109,22 +124,22 @@ public class Kraj implements ItemWithDefinicniBod, ItemWithHranice {
     }
 
     @Override
-    public String getDefinicniBod() {
+    public GeometryValue getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final GeometryValue definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public GeometryValue getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final GeometryValue hranice) {
         this.hranice = hranice;
     }
 
@@ -29,7 +29,7 @@ import java.util.Date;
  * @author fordfrog
  */
 public class Momc implements ItemWithDefinicniBod, ItemWithHranice,
-        ItemWithMluvCharPad {
+        ItemWithMluvCharPad, Reusable {
 
     private Integer kod;
     private String nazev;
@@ -51,10 +51,37 @@ public class Momc implements ItemWithDefinicniBod, ItemWithHranice,
     private Long idTransRuian;
     private Date platiOd;
     private Long nzIdGlobalni;
-    private String definicniBod;
-    private String hranice;
+    private GeometryValue definicniBod;
+    private GeometryValue hranice;
     private Date datumVzniku;
 
+    @Override
+    public void reset() {
+        kod = null;
+        nazev = null;
+        nespravny = null;
+        obecKod = null;
+        mopKod = null;
+        spravobvKod = null;
+        mluvCharPad2 = null;
+        mluvCharPad3 = null;
+        mluvCharPad4 = null;
+        mluvCharPad5 = null;
+        mluvCharPad6 = null;
+        mluvCharPad7 = null;
+        zmenaGrafiky = null;
+        vlajkaText = null;
+        vlajkaObrazek = null;
+        znakText = null;
+        znakObrazek = null;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = null;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+    }
+
     public Integer getKod() {
         return kod;
     }
@@ -234,22 +261,22 @@ public class Momc implements ItemWithDefinicniBod, ItemWithHranice,
     }
 
     @Override
-    public String getDefinicniBod() {
+    public GeometryValue getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final GeometryValue definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public GeometryValue getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final GeometryValue hranice) {
         this.hranice = hranice;
     }
 
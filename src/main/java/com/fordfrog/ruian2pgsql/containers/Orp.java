@@ -28,7 +28,7 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class Orp implements ItemWithDefinicniBod, ItemWithHranice {
+public class Orp implements ItemWithDefinicniBod, ItemWithHranice, Reusable {
 
     private Integer kod;
     private String nazev;
@@ -39,11 +39,28 @@ public class Orp implements ItemWithDefinicniBod, ItemWithHranice {
     private Date platiOd;
     private Long nzIdGlobalni;
     private Boolean zmenaGrafiky;
-    private String definicniBod;
-    private String hranice;
+    private GeometryValue definicniBod;
+    private GeometryValue hranice;
     private Date datumVzniku;
     private Integer okresKod;
 
+    @Override
+    public void reset() {
+        kod = null;
+        nazev = null;
+        nespravny = null;
+        vuscKod = null;
+        spravniObecKod = null;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = null;
+        zmenaGrafiky = null;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+        okresKod = null;
+    }
+
     public Integer getKod() {
         return kod;
     }
@@ -119,22 +136,22 @@ public class Orp implements ItemWithDefinicniBod, ItemWithHranice {
     }
 
     @Override
-    public String getDefinicniBod() {
+    public GeometryValue getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final GeometryValue definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public GeometryValue getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final GeometryValue hranice) {
         this.hranice = hranice;
     }
 
@@ -21,145 +21,227 @@
  */
 package com.fordfrog.ruian2pgsql.containers;
 
-import java.util.Date;
-
 /**
- * Container for Parcela information.
+ * Container for Parcela information. Values are stored as primitives and
+ * whether a value is null is tracked in {@link #nulls}, dates are stored as
+ * number of days since epoch. Value of field that is null is undefined.
  *
  * @author fordfrog
  */
-public class Parcela implements ItemWithDefinicniBod, ItemWithHranice {
-
-    private Long id;
-    private Boolean nespravny;
-    private Integer katuzKod;
-    private Integer druhPozemkuKod;
-    private Integer druhCislovaniKod;
-    private Integer kmenoveCislo;
-    private Integer poddeleniCisla;
-    private Long vymeraParcely;
-    private Long idTransRuian;
-    private Integer zpusobVyuPozKod;
-    private Long rizeniId;
-    private Date platiOd;
-    private String definicniBod;
-    private String hranice;
-
-    public Long getId() {
+public class Parcela implements ItemWithDefinicniBod, ItemWithHranice,
+        Reusable {
+
+    private static final int ID = 1;
+    private static final int NESPRAVNY = 1 << 1;
+    private static final int KATUZ_KOD = 1 << 2;
+    private static final int DRUH_POZEMKU_KOD = 1 << 3;
+    private static final int DRUH_CISLOVANI_KOD = 1 << 4;
+    private static final int KMENOVE_CISLO = 1 << 5;
+    private static final int PODDELENI_CISLA = 1 << 6;
+    private static final int VYMERA_PARCELY = 1 << 7;
+    private static final int ID_TRANS_RUIAN = 1 << 8;
+    private static final int ZPUSOB_VYU_POZ_KOD = 1 << 9;
+    private static final int RIZENI_ID = 1 << 10;
+    private static final int PLATI_OD = 1 << 11;
+    /**
+     * Bitmask of values that are null.
+     */
+    private int nulls = -1;
+    private long id;
+    private boolean nespravny;
+    private int katuzKod;
+    private int druhPozemkuKod;
+    private int druhCislovaniKod;
+    private int kmenoveCislo;
+    private int poddeleniCisla;
+    private long vymeraParcely;
+    private long idTransRuian;
+    private int zpusobVyuPozKod;
+    private long rizeniId;
+    private int platiOd;
+    private GeometryValue definicniBod;
+    private GeometryValue hranice;
+
+    @Override
+    public void reset() {
+        nulls = -1;
+        definicniBod = null;
+        hranice = null;
+    }
+
+    public boolean hasId() {
+        return (nulls & ID) == 0;
+    }
+
+    public long getId() {
         return id;
     }
 
-    public void setId(final Long id) {
+    public void setId(final long id) {
         this.id = id;
+        nulls &= ~ID;
     }
 
-    public Boolean getNespravny() {
+    public boolean hasNespravny() {
+        return (nulls & NESPRAVNY) == 0;
+    }
+
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NESPRAVNY;
+    }
+
+    public boolean hasKatuzKod() {
+        return (nulls & KATUZ_KOD) == 0;
     }
 
-    public Integer getKatuzKod() {
+    public int getKatuzKod() {
         return katuzKod;
     }
 
-    public void setKatuzKod(final Integer katuzKod) {
+    public void setKatuzKod(final int katuzKod) {
         this.katuzKod = katuzKod;
+        nulls &= ~KATUZ_KOD;
     }
 
-    public Integer getDruhPozemkuKod() {
+    public boolean hasDruhPozemkuKod() {
+        return (nulls & DRUH_POZEMKU_KOD) == 0;
+    }
+
+    public int getDruhPozemkuKod() {
         return druhPozemkuKod;
     }
 
-    public void setDruhPozemkuKod(final Integer druhPozemkuKod) {
+    public void setDruhPozemkuKod(final int druhPozemkuKod) {
         this.druhPozemkuKod = druhPozemkuKod;
+        nulls &= ~DRUH_POZEMKU_KOD;
+    }
+
+    public boolean hasDruhCislovaniKod() {
+        return (nulls & DRUH_CISLOVANI_KOD) == 0;
     }
 
-    public Integer getDruhCislovaniKod() {
+    public int getDruhCislovaniKod() {
         return druhCislovaniKod;
     }
 
-    public void setDruhCislovaniKod(final Integer druhCislovaniKod) {
+    public void setDruhCislovaniKod(final int druhCislovaniKod) {
         this.druhCislovaniKod = druhCislovaniKod;
+        nulls &= ~DRUH_CISLOVANI_KOD;
     }
 
-    public Integer getKmenoveCislo() {
+    public boolean hasKmenoveCislo() {
+        return (nulls & KMENOVE_CISLO) == 0;
+    }
+
+    public int getKmenoveCislo() {
         return kmenoveCislo;
     }
 
-    public void setKmenoveCislo(final Integer kmenoveCislo) {
+    public void setKmenoveCislo(final int kmenoveCislo) {
         this.kmenoveCislo = kmenoveCislo;
+        nulls &= ~KMENOVE_CISLO;
+    }
+
+    public boolean hasPoddeleniCisla() {
+        return (nulls & PODDELENI_CISLA) == 0;
     }
 
-    public Integer getPoddeleniCisla() {
+    public int getPoddeleniCisla() {
         return poddeleniCisla;
     }
 
-    public void setPoddeleniCisla(final Integer poddeleniCisla) {
+    public void setPoddeleniCisla(final int poddeleniCisla) {
         this.poddeleniCisla = poddeleniCisla;
+        nulls &= ~PODDELENI_CISLA;
     }
 
-    public Long getVymeraParcely() {
+    public boolean hasVymeraParcely() {
+        return (nulls & VYMERA_PARCELY) == 0;
+    }
+
+    public long getVymeraParcely() {
         return vymeraParcely;
     }
 
-    public void setVymeraParcely(final Long vymeraParcely) {
+    public void setVymeraParcely(final long vymeraParcely) {
         this.vymeraParcely = vymeraParcely;
+        nulls &= ~VYMERA_PARCELY;
+    }
+
+    public boolean hasIdTransRuian() {
+        return (nulls & ID_TRANS_RUIAN) == 0;
     }
 
-    public Long getIdTransRuian() {
+    public long getIdTransRuian() {
         return idTransRuian;
     }
 
-    public void setIdTransRuian(final Long idTransRuian) {
+    public void setIdTransRuian(final long idTransRuian) {
         this.idTransRuian = idTransRuian;
+        nulls &= ~ID_TRANS_RUIAN;
+    }
+
+    public boolean hasZpusobVyuPozKod() {
+        return (nulls & ZPUSOB_VYU_POZ_KOD) == 0;
     }
 
-    public Integer getZpusobVyuPozKod() {
+    public int getZpusobVyuPozKod() {
         return zpusobVyuPozKod;
     }
 
-    public void setZpusobVyuPozKod(final Integer zpusobVyuPozKod) {
+    public void setZpusobVyuPozKod(final int zpusobVyuPozKod) {
         this.zpusobVyuPozKod = zpusobVyuPozKod;
+        nulls &= ~ZPUSOB_VYU_POZ_KOD;
     }
 
-    public Long getRizeniId() {
+    public boolean hasRizeniId() {
+        return (nulls & RIZENI_ID) == 0;
+    }
+
+    public long getRizeniId() {
         return rizeniId;
     }
 
-    public void setRizeniId(final Long rizeniId) {
+    public void setRizeniId(final long rizeniId) {
         this.rizeniId = rizeniId;
+        nulls &= ~RIZENI_ID;
+    }
+
+    public boolean hasPlatiOd() {
+        return (nulls & PLATI_OD) == 0;
     }
 
-    @SuppressWarnings("ReturnOfDateField")
-    public Date getPlatiOd() {
+    public int getPlatiOd() {
         return platiOd;
     }
 
-    @SuppressWarnings("AssignmentToDateFieldFromParameter")
-    public void setPlatiOd(final Date platiOd) {
+    public void setPlatiOd(final int platiOd) {
         this.platiOd = platiOd;
+        nulls &= ~PLATI_OD;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public GeometryValue getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final GeometryValue definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public GeometryValue getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final GeometryValue hranice) {
         this.hranice = hranice;
     }
 }
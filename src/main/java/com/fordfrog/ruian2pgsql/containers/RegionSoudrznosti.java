@@ -29,7 +29,7 @@ import java.util.Date;
  * @author fordfrog
  */
 public class RegionSoudrznosti implements ItemWithDefinicniBod,
-        ItemWithHranice {
+        ItemWithHranice, Reusable {
 
     private Integer kod;
     private String nazev;
@@ -40,10 +40,26 @@ public class RegionSoudrznosti implements ItemWithDefinicniBod,
     private Date platiOd;
     private Long nzIdGlobalni;
     private Boolean zmenaGrafiky;
-    private String definicniBod;
-    private String hranice;
+    private GeometryValue definicniBod;
+    private GeometryValue hranice;
     private Date datumVzniku;
 
+    @Override
+    public void reset() {
+        kod = null;
+        nazev = null;
+        nespravny = null;
+        statKod = null;
+        idTransRuian = null;
+        nutsLau = null;
+        platiOd = null;
+        nzIdGlobalni = null;
+        zmenaGrafiky = null;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+    }
+
     public Integer getKod() {
         return kod;
     }
@@ -119,22 +135,22 @@ public class RegionSoudrznosti implements ItemWithDefinicniBod,
     }
 
     @Override
-    public String getDefinicniBod() {
+    public GeometryValue getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final GeometryValue definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public GeometryValue getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final GeometryValue hranice) {
         this.hranice = hranice;
     }
 
@@ -28,7 +28,8 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class SpravniObvod implements ItemWithDefinicniBod, ItemWithHranice {
+public class SpravniObvod implements ItemWithDefinicniBod, ItemWithHranice,
+        Reusable {
 
     private Integer kod;
     private String nazev;
@@ -39,8 +40,23 @@ public class SpravniObvod implements ItemWithDefinicniBod, ItemWithHranice {
     private Date platiOd;
     private Long nzIdGlobalni;
     private Boolean zmenaGrafiky;
-    private String definicniBod;
-    private String hranice;
+    private GeometryValue definicniBod;
+    private GeometryValue hranice;
+
+    @Override
+    public void reset() {
+        kod = null;
+        nazev = null;
+        nespravny = null;
+        obecKod = null;
+        spravniMomcKod = null;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = null;
+        zmenaGrafiky = null;
+        definicniBod = null;
+        hranice = null;
+    }
 
     public Integer getKod() {
         return kod;
@@ -117,22 +133,22 @@ public class SpravniObvod implements ItemWithDefinicniBod, ItemWithHranice {
     }
 
     @Override
-    public String getDefinicniBod() {
+    public GeometryValue getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final GeometryValue definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public GeometryValue getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final GeometryValue hranice) {
         this.hranice = hranice;
     }
 }
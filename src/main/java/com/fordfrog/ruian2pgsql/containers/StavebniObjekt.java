@@ -21,110 +21,179 @@
  */
 package com.fordfrog.ruian2pgsql.containers;
 
-import java.util.Date;
-
 /**
- * Container for StavebniObjekt element.
+ * Container for StavebniObjekt element. Values are stored as primitives and
+ * whether a value is null is tracked in {@link #nulls}, dates are stored as
+ * number of days since epoch. Value of field that is null is undefined.
  *
  * @author fordfrog
  */
-public class StavebniObjekt implements ItemWithDefinicniBod, ItemWithHranice {
-
-    private Integer kod;
-    private Boolean nespravny;
-    private Long identifikacniParcelaId;
-    private Integer momcKod;
-    private Integer cobceKod;
-    private Long budovaId;
-    private Integer[] cislaDomovni;
-    private Date dokonceni;
-    private Integer jeVytahKod;
-    private Boolean zmenaGrafiky;
-    private Integer druhKonstrukceKod;
-    private Boolean zmenaDetailu;
-    private Integer obestavenyProstor;
-    private Integer pocetBytu;
-    private Integer pocetPodlazi;
-    private Integer podlahovaPlocha;
-    private Boolean pripojElEnergie;
-    private Integer pripojKanalSitKod;
-    private Integer pripojPlynKod;
-    private Integer pripojVodovodKod;
-    private Integer typKod;
-    private Integer zastavenaPlocha;
-    private Integer zpusobVytapeniKod;
-    private Integer zpusobVyuzitiKod;
-    private Long idTransRuian;
-    private Date platiOd;
-    private Long nzIdGlobalni;
-    private String definicniBod;
-    private String hranice;
-
-    public Integer getKod() {
+public class StavebniObjekt implements ItemWithDefinicniBod, ItemWithHranice,
+        Reusable {
+
+    private static final int KOD = 1;
+    private static final int NESPRAVNY = 1 << 1;
+    private static final int IDENTIFIKACNI_PARCELA_ID = 1 << 2;
+    private static final int MOMC_KOD = 1 << 3;
+    private static final int COBCE_KOD = 1 << 4;
+    private static final int BUDOVA_ID = 1 << 5;
+    private static final int DOKONCENI = 1 << 6;
+    private static final int JE_VYTAH_KOD = 1 << 7;
+    private static final int ZMENA_GRAFIKY = 1 << 8;
+    private static final int DRUH_KONSTRUKCE_KOD = 1 << 9;
+    private static final int ZMENA_DETAILU = 1 << 10;
+    private static final int OBESTAVENY_PROSTOR = 1 << 11;
+    private static final int POCET_BYTU = 1 << 12;
+    private static final int POCET_PODLAZI = 1 << 13;
+    private static final int PODLAHOVA_PLOCHA = 1 << 14;
+    private static final int PRIPOJ_EL_ENERGIE = 1 << 15;
+    private static final int PRIPOJ_KANAL_SIT_KOD = 1 << 16;
+    private static final int PRIPOJ_PLYN_KOD = 1 << 17;
+    private static final int PRIPOJ_VODOVOD_KOD = 1 << 18;
+    private static final int TYP_KOD = 1 << 19;
+    private static final int ZASTAVENA_PLOCHA = 1 << 20;
+    private static final int ZPUSOB_VYTAPENI_KOD = 1 << 21;
+    private static final int ZPUSOB_VYUZITI_KOD = 1 << 22;
+    private static final int ID_TRANS_RUIAN = 1 << 23;
+    private static final int PLATI_OD = 1 << 24;
+    private static final int NZ_ID_GLOBALNI = 1 << 25;
+    /**
+     * Bitmask of values that are null.
+     */
+    private int nulls = -1;
+    private int kod;
+    private boolean nespravny;
+    private long identifikacniParcelaId;
+    private int momcKod;
+    private int cobceKod;
+    private long budovaId;
+    private int[] cislaDomovni;
+    private int dokonceni;
+    private int jeVytahKod;
+    private boolean zmenaGrafiky;
+    private int druhKonstrukceKod;
+    private boolean zmenaDetailu;
+    private int obestavenyProstor;
+    private int pocetBytu;
+    private int pocetPodlazi;
+    private int podlahovaPlocha;
+    private boolean pripojElEnergie;
+    private int pripojKanalSitKod;
+    private int pripojPlynKod;
+    private int pripojVodovodKod;
+    private int typKod;
+    private int zastavenaPlocha;
+    private int zpusobVytapeniKod;
+    private int zpusobVyuzitiKod;
+    private long idTransRuian;
+    private int platiOd;
+    private long nzIdGlobalni;
+    private GeometryValue definicniBod;
+    private GeometryValue hranice;
+
+    @Override
+    public void reset() {
+        nulls = -1;
+        cislaDomovni = null;
+        definicniBod = null;
+        hranice = null;
+    }
+
+    public boolean hasKod() {
+        return (nulls & KOD) == 0;
+    }
+
+    public int getKod() {
         return kod;
     }
 
-    public void setKod(final Integer kod) {
+    public void setKod(final int kod) {
         this.kod = kod;
+        nulls &= ~KOD;
     }
 
-    public Boolean getNespravny() {
+    public boolean hasNespravny() {
+        return (nulls & NESPRAVNY) == 0;
+    }
+
+    public boolean getNespravny() {
         return nespravny;
     }
 
-    public void setNespravny(final Boolean nespravny) {
+    public void setNespravny(final boolean nespravny) {
         this.nespravny = nespravny;
+        nulls &= ~NESPRAVNY;
+    }
+
+    public boolean hasIdentifikacniParcelaId() {
+        return (nulls & IDENTIFIKACNI_PARCELA_ID) == 0;
     }
 
-    public Long getIdentifikacniParcelaId() {
+    public long getIdentifikacniParcelaId() {
         return identifikacniParcelaId;
     }
 
-    public void setIdentifikacniParcelaId(final Long identifikacniParcelaId) {
+    public void setIdentifikacniParcelaId(final long identifikacniParcelaId) {
         this.identifikacniParcelaId = identifikacniParcelaId;
+        nulls &= ~IDENTIFIKACNI_PARCELA_ID;
     }
 
-    public Integer getMomcKod() {
+    public boolean hasMomcKod() {
+        return (nulls & MOMC_KOD) == 0;
+    }
+
+    public int getMomcKod() {
         return momcKod;
     }
 
-    public void setMomcKod(final Integer momcKod) {
+    public void setMomcKod(final int momcKod) {
         this.momcKod = momcKod;
+        nulls &= ~MOMC_KOD;
+    }
+
+    public boolean hasCobceKod() {
+        return (nulls & COBCE_KOD) == 0;
     }
 
-    public Integer getCobceKod() {
+    public int getCobceKod() {
         return cobceKod;
     }
 
-    public void setCobceKod(final Integer cobceKod) {
+    public void setCobceKod(final int cobceKod) {
         this.cobceKod = cobceKod;
+        nulls &= ~COBCE_KOD;
     }
 
-    public Long getBudovaId() {
+    public boolean hasBudovaId() {
+        return (nulls & BUDOVA_ID) == 0;
+    }
+
+    public long getBudovaId() {
         return budovaId;
     }
 
-    public void setBudovaId(final Long budovaId) {
+    public void setBudovaId(final long budovaId) {
         this.budovaId = budovaId;
+        nulls &= ~BUDOVA_ID;
     }
 
     @SuppressWarnings("ReturnOfCollectionOrArrayField")
-    public Integer[] getCislaDomovni() {
+    public int[] getCislaDomovni() {
         return cislaDomovni;
     }
 
     @SuppressWarnings("AssignmentToCollectionOrArrayFieldFromParameter")
-    public void setCislaDomovni(final Integer[] cislaDomovni) {
+    public void setCislaDomovni(final int[] cislaDomovni) {
         this.cislaDomovni = cislaDomovni;
     }
 
-    public void addCisloDomovni(final Integer cisloDomovni) {
-        final Integer[] newArray;
+    public void addCisloDomovni(final int cisloDomovni) {
+        final int[] newArray;
 
         if (cislaDomovni == null) {
-            newArray = new Integer[1];
+            newArray = new int[1];
         } else {
-            newArray = new Integer[cislaDomovni.length + 1];
+            newArray = new int[cislaDomovni.length + 1];
             System.arraycopy(cislaDomovni, 0, newArray, 0, cislaDomovni.length);
         }
 
@@ -132,187 +201,283 @@ public class StavebniObjekt implements ItemWithDefinicniBod, ItemWithHranice {
         cislaDomovni = newArray;
     }
 
-    @SuppressWarnings("ReturnOfDateField")
-    public Date getDokonceni() {
+    public boolean hasDokonceni() {
+        return (nulls & DOKONCENI) == 0;
+    }
+
+    public int getDokonceni() {
         return dokonceni;
     }
 
-    @SuppressWarnings("AssignmentToDateFieldFromParameter")
-    public void setDokonceni(final Date dokonceni) {
+    public void setDokonceni(final int dokonceni) {
         this.dokonceni = dokonceni;
+        nulls &= ~DOKONCENI;
     }
 
-    public Integer getJeVytahKod() {
+    public boolean hasJeVytahKod() {
+        return (nulls & JE_VYTAH_KOD) == 0;
+    }
+
+    public int getJeVytahKod() {
         return jeVytahKod;
     }
 
-    public void setJeVytahKod(final Integer jeVytahKod) {
+    public void setJeVytahKod(final int jeVytahKod) {
         this.jeVytahKod = jeVytahKod;
+        nulls &= ~JE_VYTAH_KOD;
+    }
+
+    public boolean hasZmenaGrafiky() {
+        return (nulls & ZMENA_GRAFIKY) == 0;
     }
 
-    public Boolean getZmenaGrafiky() {
+    public boolean getZmenaGrafiky() {
         return zmenaGrafiky;
     }
 
-    public void setZmenaGrafiky(final Boolean zmenaGrafiky) {
+    public void setZmenaGrafiky(final boolean zmenaGrafiky) {
         this.zmenaGrafiky = zmenaGrafiky;
+        nulls &= ~ZMENA_GRAFIKY;
+    }
+
+    public boolean hasDruhKonstrukceKod() {
+        return (nulls & DRUH_KONSTRUKCE_KOD) == 0;
     }
 
-    public Integer getDruhKonstrukceKod() {
+    public int getDruhKonstrukceKod() {
         return druhKonstrukceKod;
     }
 
-    public void setDruhKonstrukceKod(final Integer druhKonstrukceKod) {
+    public void setDruhKonstrukceKod(final int druhKonstrukceKod) {
         this.druhKonstrukceKod = druhKonstrukceKod;
+        nulls &= ~DRUH_KONSTRUKCE_KOD;
     }
 
-    public Boolean getZmenaDetailu() {
+    public boolean hasZmenaDetailu() {
+        return (nulls & ZMENA_DETAILU) == 0;
+    }
+
+    public boolean getZmenaDetailu() {
         return zmenaDetailu;
     }
 
-    public void setZmenaDetailu(final Boolean zmenaDetailu) {
+    public void setZmenaDetailu(final boolean zmenaDetailu) {
         this.zmenaDetailu = zmenaDetailu;
+        nulls &= ~ZMENA_DETAILU;
+    }
+
+    public boolean hasObestavenyProstor() {
+        return (nulls & OBESTAVENY_PROSTOR) == 0;
     }
 
-    public Integer getObestavenyProstor() {
+    public int getObestavenyProstor() {
         return obestavenyProstor;
     }
 
-    public void setObestavenyProstor(final Integer obestavenyProstor) {
+    public void setObestavenyProstor(final int obestavenyProstor) {
         this.obestavenyProstor = obestavenyProstor;
+        nulls &= ~OBESTAVENY_PROSTOR;
     }
 
-    public Integer getPocetBytu() {
+    public boolean hasPocetBytu() {
+        return (nulls & POCET_BYTU) == 0;
+    }
+
+    public int getPocetBytu() {
         return pocetBytu;
     }
 
-    public void setPocetBytu(final Integer pocetBytu) {
+    public void setPocetBytu(final int pocetBytu) {
         this.pocetBytu = pocetBytu;
+        nulls &= ~POCET_BYTU;
+    }
+
+    public boolean hasPocetPodlazi() {
+        return (nulls & POCET_PODLAZI) == 0;
     }
 
-    public Integer getPocetPodlazi() {
+    public int getPocetPodlazi() {
         return pocetPodlazi;
     }
 
-    public void setPocetPodlazi(final Integer pocetPodlazi) {
+    public void setPocetPodlazi(final int pocetPodlazi) {
         this.pocetPodlazi = pocetPodlazi;
+        nulls &= ~POCET_PODLAZI;
     }
 
-    public Integer getPodlahovaPlocha() {
+    public boolean hasPodlahovaPlocha() {
+        return (nulls & PODLAHOVA_PLOCHA) == 0;
+    }
+
+    public int getPodlahovaPlocha() {
         return podlahovaPlocha;
     }
 
-    public void setPodlahovaPlocha(final Integer podlahovaPlocha) {
+    public void setPodlahovaPlocha(final int podlahovaPlocha) {
         this.podlahovaPlocha = podlahovaPlocha;
+        nulls &= ~PODLAHOVA_PLOCHA;
+    }
+
+    public boolean hasPripojElEnergie() {
+        return (nulls & PRIPOJ_EL_ENERGIE) == 0;
     }
 
-    public Boolean getPripojElEnergie() {
+    public boolean getPripojElEnergie() {
         return pripojElEnergie;
     }
 
-    public void setPripojElEnergie(final Boolean pripojElEnergie) {
+    public void setPripojElEnergie(final boolean pripojElEnergie) {
         this.pripojElEnergie = pripojElEnergie;
+        nulls &= ~PRIPOJ_EL_ENERGIE;
+    }
+
+    public boolean hasPripojKanalSitKod() {
+        return (nulls & PRIPOJ_KANAL_SIT_KOD) == 0;
     }
 
-    public Integer getPripojKanalSitKod() {
+    public int getPripojKanalSitKod() {
         return pripojKanalSitKod;
     }
 
-    public void setPripojKanalSitKod(final Integer pripojKanalSitKod) {
+    public void setPripojKanalSitKod(final int pripojKanalSitKod) {
         this.pripojKanalSitKod = pripojKanalSitKod;
+        nulls &= ~PRIPOJ_KANAL_SIT_KOD;
     }
 
-    public Integer getPripojPlynKod() {
+    public boolean hasPripojPlynKod() {
+        return (nulls & PRIPOJ_PLYN_KOD) == 0;
+    }
+
+    public int getPripojPlynKod() {
         return pripojPlynKod;
     }
 
-    public void setPripojPlynKod(final Integer pripojPlynKod) {
+    public void setPripojPlynKod(final int pripojPlynKod) {
         this.pripojPlynKod = pripojPlynKod;
+        nulls &= ~PRIPOJ_PLYN_KOD;
+    }
+
+    public boolean hasPripojVodovodKod() {
+        return (nulls & PRIPOJ_VODOVOD_KOD) == 0;
     }
 
-    public Integer getPripojVodovodKod() {
+    public int getPripojVodovodKod() {
         return pripojVodovodKod;
     }
 
-    public void setPripojVodovodKod(final Integer pripojVodovodKod) {
+    public void setPripojVodovodKod(final int pripojVodovodKod) {
         this.pripojVodovodKod = pripojVodovodKod;
+        nulls &= ~PRIPOJ_VODOVOD_KOD;
     }
 
-    public Integer getTypKod() {
+    public boolean hasTypKod() {
+        return (nulls & TYP_KOD) == 0;
+    }
+
+    public int getTypKod() {
         return typKod;
     }
 
-    public void setTypKod(final Integer typKod) {
+    public void setTypKod(final int typKod) {
         this.typKod = typKod;
+        nulls &= ~TYP_KOD;
+    }
+
+    public boolean hasZastavenaPlocha() {
+        return (nulls & ZASTAVENA_PLOCHA) == 0;
     }
 
-    public Integer getZastavenaPlocha() {
+    public int getZastavenaPlocha() {
         return zastavenaPlocha;
     }
 
-    public void setZastavenaPlocha(final Integer zastavenaPlocha) {
+    public void setZastavenaPlocha(final int zastavenaPlocha) {
         this.zastavenaPlocha = zastavenaPlocha;
+        nulls &= ~ZASTAVENA_PLOCHA;
     }
 
-    public Integer getZpusobVytapeniKod() {
+    public boolean hasZpusobVytapeniKod() {
+        return (nulls & ZPUSOB_VYTAPENI_KOD) == 0;
+    }
+
+    public int getZpusobVytapeniKod() {
         return zpusobVytapeniKod;
     }
 
-    public void setZpusobVytapeniKod(final Integer zpusobVytapeniKod) {
+    public void setZpusobVytapeniKod(final int zpusobVytapeniKod) {
         this.zpusobVytapeniKod = zpusobVytapeniKod;
+        nulls &= ~ZPUSOB_VYTAPENI_KOD;
+    }
+
+    public boolean hasZpusobVyuzitiKod() {
+        return (nulls & ZPUSOB_VYUZITI_KOD) == 0;
     }
 
-    public Integer getZpusobVyuzitiKod() {
+    public int getZpusobVyuzitiKod() {
         return zpusobVyuzitiKod;
     }
 
-    public void setZpusobVyuzitiKod(final Integer zpusobVyuzitiKod) {
+    public void setZpusobVyuzitiKod(final int zpusobVyuzitiKod) {
         this.zpusobVyuzitiKod = zpusobVyuzitiKod;
+        nulls &= ~ZPUSOB_VYUZITI_KOD;
+    }
+
+    public boolean hasIdTransRuian() {
+        return (nulls & ID_TRANS_RUIAN) == 0;
     }
 
-    public Long getIdTransRuian() {
+    public long getIdTransRuian() {
         return idTransRuian;
     }
 
-    public void setIdTransRuian(final Long idTransRuian) {
+    public void setIdTransRuian(final long idTransRuian) {
         this.idTransRuian = idTransRuian;
+        nulls &= ~ID_TRANS_RUIAN;
     }
 
-    @SuppressWarnings("ReturnOfDateField")
-    public Date getPlatiOd() {
+    public boolean hasPlatiOd() {
+        return (nulls & PLATI_OD) == 0;
+    }
+
+    public int getPlatiOd() {
         return platiOd;
     }
 
-    @SuppressWarnings("AssignmentToDateFieldFromParameter")
-    public void setPlatiOd(final Date platiOd) {
+    public void setPlatiOd(final int platiOd) {
         this.platiOd = platiOd;
+        nulls &= ~PLATI_OD;
+    }
+
+    public boolean hasNzIdGlobalni() {
+        return (nulls & NZ_ID_GLOBALNI) == 0;
     }
 
-    public Long getNzIdGlobalni() {
+    public long getNzIdGlobalni() {
         return nzIdGlobalni;
     }
 
-    public void setNzIdGlobalni(final Long nzIdGlobalni) {
+    public void setNzIdGlobalni(final long nzIdGlobalni) {
         this.nzIdGlobalni = nzIdGlobalni;
+        nulls &= ~NZ_ID_GLOBALNI;
     }
 
     @Override
-    public String getDefinicniBod() {
+    public GeometryValue getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final GeometryValue definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public GeometryValue getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final GeometryValue hranice) {
         this.hranice = hranice;
     }
 }
@@ -28,7 +28,7 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class Ulice implements ItemWithDefinicniCara {
+public class Ulice implements ItemWithDefinicniCara, Reusable {
 
     private Integer kod;
     private String nazev;
@@ -38,7 +38,20 @@ public class Ulice implements ItemWithDefinicniCara {
     private Date platiOd;
     private Long nzIdGlobalni;
     private Boolean zmenaGrafiky;
-    private String definicniCara;
+    private GeometryValue definicniCara;
+
+    @Override
+    public void reset() {
+        kod = null;
+        nazev = null;
+        nespravny = null;
+        obecKod = null;
+        idTransRuian = null;
+        platiOd = null;
+        nzIdGlobalni = null;
+        zmenaGrafiky = null;
+        definicniCara = null;
+    }
 
     public Integer getKod() {
         return kod;
@@ -107,12 +120,12 @@ public class Ulice implements ItemWithDefinicniCara {
     }
 
     @Override
-    public String getDefinicniCara() {
+    public GeometryValue getDefinicniCara() {
         return definicniCara;
     }
 
     @Override
-    public void setDefinicniCara(final String definicniCara) {
+    public void setDefinicniCara(final GeometryValue definicniCara) {
         this.definicniCara = definicniCara;
     }
 }
@@ -28,7 +28,8 @@ import java.util.Date;
  *
  * @author fordfrog
  */
-public class VolebniOkrsek implements ItemWithDefinicniBod, ItemWithHranice {
+public class VolebniOkrsek implements ItemWithDefinicniBod, ItemWithHranice,
+        Reusable {
 
     private Integer kod;
     private Integer cislo;
@@ -40,8 +41,24 @@ public class VolebniOkrsek implements ItemWithDefinicniBod, ItemWithHranice {
     private Date platiDo;
     private Long idTransRuian;
     private Long nzIdGlobalni;
-    private String definicniBod;
-    private String hranice;
+    private GeometryValue definicniBod;
+    private GeometryValue hranice;
+
+    @Override
+    public void reset() {
+        kod = null;
+        cislo = null;
+        nespravny = null;
+        obecKod = null;
+        momcKod = null;
+        poznamka = null;
+        platiOd = null;
+        platiDo = null;
+        idTransRuian = null;
+        nzIdGlobalni = null;
+        definicniBod = null;
+        hranice = null;
+    }
 
     public Integer getKod() {
         return kod;
@@ -129,22 +146,22 @@ public class VolebniOkrsek implements ItemWithDefinicniBod, ItemWithHranice {
     }
 
     @Override
-    public String getDefinicniBod() {
+    public GeometryValue getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final GeometryValue definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public GeometryValue getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final GeometryValue hranice) {
         this.hranice = hranice;
     }
 }
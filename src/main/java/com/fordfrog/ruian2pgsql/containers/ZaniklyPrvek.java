@@ -26,12 +26,19 @@ package com.fordfrog.ruian2pgsql.containers;
  *
  * @author fordfrog
  */
-public class ZaniklyPrvek {
+public class ZaniklyPrvek implements Reusable {
 
     private String typPrvkuKod;
     private Long prvekId;
     private Long idTransakce;
 
+    @Override
+    public void reset() {
+        typPrvkuKod = null;
+        prvekId = null;
+        idTransakce = null;
+    }
+
     public String getTypPrvkuKod() {
         return typPrvkuKod;
     }
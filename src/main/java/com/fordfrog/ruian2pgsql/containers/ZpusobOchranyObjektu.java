@@ -26,7 +26,7 @@ package com.fordfrog.ruian2pgsql.containers;
  *
  * @author fordfrog
  */
-public class ZpusobOchranyObjektu {
+public class ZpusobOchranyObjektu implements Reusable {
 
     private Integer stavobjKod;
     private Integer kod;
@@ -34,6 +34,15 @@ public class ZpusobOchranyObjektu {
     private Long idTransRuian;
     private Long rizeniId;
 
+    @Override
+    public void reset() {
+        stavobjKod = null;
+        kod = null;
+        zpusobOchranyKod = null;
+        idTransRuian = null;
+        rizeniId = null;
+    }
+
     public Integer getStavobjKod() {
         return stavobjKod;
     }
@@ -26,7 +26,7 @@ package com.fordfrog.ruian2pgsql.containers;
  *
  * @author fordfrog
  */
-public class ZpusobOchranyPozemku {
+public class ZpusobOchranyPozemku implements Reusable {
 
     private Integer kod;
     private Integer zpusobOchranyKod;
@@ -34,6 +34,15 @@ public class ZpusobOchranyPozemku {
     private Long idTransRuian;
     private Long rizeniId;
 
+    @Override
+    public void reset() {
+        kod = null;
+        zpusobOchranyKod = null;
+        parcelaId = null;
+        idTransRuian = null;
+        rizeniId = null;
+    }
+
     public Integer getKod() {
         return kod;
     }
@@ -29,7 +29,7 @@ import java.util.Date;
  * @author fordfrog
  */
 public class Zsj implements ItemWithDefinicniBod, ItemWithHranice,
-        ItemWithMluvCharPad {
+        ItemWithMluvCharPad, Reusable {
 
     private Integer kod;
     private String nazev;
@@ -47,10 +47,33 @@ public class Zsj implements ItemWithDefinicniBod, ItemWithHranice,
     private Boolean zmenaGrafiky;
     private Long nzIdGlobalni;
     private Long idTransRuian;
-    private String definicniBod;
-    private String hranice;
+    private GeometryValue definicniBod;
+    private GeometryValue hranice;
     private Date datumVzniku;
 
+    @Override
+    public void reset() {
+        kod = null;
+        nazev = null;
+        nespravny = null;
+        katuzKod = null;
+        charakterZsjKod = null;
+        mluvCharPad2 = null;
+        mluvCharPad3 = null;
+        mluvCharPad4 = null;
+        mluvCharPad5 = null;
+        mluvCharPad6 = null;
+        mluvCharPad7 = null;
+        vymera = null;
+        platiOd = null;
+        zmenaGrafiky = null;
+        nzIdGlobalni = null;
+        idTransRuian = null;
+        definicniBod = null;
+        hranice = null;
+        datumVzniku = null;
+    }
+
     public Integer getKod() {
         return kod;
     }
@@ -194,22 +217,22 @@ public class Zsj implements ItemWithDefinicniBod, ItemWithHranice,
     }
 
     @Override
-    public String getDefinicniBod() {
+    public GeometryValue getDefinicniBod() {
         return definicniBod;
     }
 
     @Override
-    public void setDefinicniBod(final String definicniBod) {
+    public void setDefinicniBod(final GeometryValue definicniBod) {
         this.definicniBod = definicniBod;
     }
 
     @Override
-    public String getHranice() {
+    public GeometryValue getHranice() {
         return hranice;
     }
 
     @Override
-    public void setHranice(final String hranice) {
+    public void setHranice(final GeometryValue hranice) {
         this.hranice = hranice;
     }
 
@@ -22,11 +22,31 @@
 package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.containers.Reusable;
+import com.fordfrog.ruian2pgsql.utils.CopyWriter;
+import com.fordfrog.ruian2pgsql.utils.InsertStatement;
+import com.fordfrog.ruian2pgsql.utils.Log;
+import com.fordfrog.ruian2pgsql.utils.ParameterRecorder;
+import com.fordfrog.ruian2pgsql.utils.TransactionIdCache;
 import com.fordfrog.ruian2pgsql.utils.XMLUtils;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
@@ -37,12 +57,85 @@ import javax.xml.stream.XMLStreamReader;
  *
  * @author fordfrog
  */
-public abstract class AbstractSaveConvertor<T> implements Convertor {
+public abstract class AbstractSaveConvertor<T extends Reusable>
+        implements Convertor {
 
     /**
-     * Class of objects that will be saved to the database.
+     * Maximum number of rows that are buffered for COPY before they are sent
+     * to database.
      */
-    private final Class<T> clazz;
+    private static final int COPY_MAX_ROWS = 10_000;
+    /**
+     * Maximum size of rows in bytes that are buffered for COPY before they are
+     * sent to database.
+     */
+    private static final int COPY_MAX_SIZE = 16 * 1_024 * 1_024;
+    /**
+     * SQL state reported by PostgreSQL on unique constraint violation.
+     */
+    private static final String SQL_STATE_UNIQUE_VIOLATION = "23505";
+    /**
+     * Estimated size of item in bytes that is used for pipelined writes if
+     * XML parser does not report character offsets.
+     */
+    private static final int DEFAULT_ITEM_SIZE = 1_024;
+    /**
+     * Estimated size of pipelined writes that do not save items, in bytes.
+     */
+    private static final int SMALL_WRITE_SIZE = 64;
+    /**
+     * Minimum number of saved items that are kept for reuse.
+     */
+    private static final int ITEM_POOL_SIZE = 256;
+    /**
+     * Prefix of names of staging tables.
+     */
+    protected static final String STAGING_TABLE_PREFIX = "stg_";
+    /**
+     * Transaction id of items that do not know their transaction id.
+     */
+    protected static final long NO_TRANSACTION_ID = Long.MIN_VALUE;
+    /**
+     * Pattern for parsing statement that checks whether item with given key
+     * exists.
+     */
+    private static final Pattern PATTERN_EXISTS = Pattern.compile(
+            "^SELECT 1 FROM (\\w+) WHERE (\\w+) = \\?$",
+            Pattern.CASE_INSENSITIVE);
+    /**
+     * Pattern for checking that update statement is guarded by key and
+     * transaction id, in this order.
+     */
+    private static final Pattern PATTERN_UPDATE_GUARD = Pattern.compile(
+            ".* WHERE (\\w+) = \\? AND id_trans_ruian <= \\?$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    /**
+     * Save convertors registered for each database connection.
+     */
+    private static final Map<Connection, List<AbstractSaveConvertor<?>>> CONVERTORS =
+            new IdentityHashMap<>(4);
+    /**
+     * Statistics of save convertors that were unregistered, by table name.
+     * Values are number of saved items, saving time in nanoseconds and number
+     * of skipped items. Guarded by {@link #CONVERTORS}.
+     */
+    private static final Map<String, long[]> UNREGISTERED_STATISTICS =
+            new HashMap<>(64);
+    /**
+     * Factory of objects that will be saved to the database.
+     */
+    private final ItemFactory<T> factory;
+    /**
+     * Saved items that can be reused. Items are returned to the pool once
+     * they are not referenced by buffers, possibly on writer thread if
+     * writes are pipelined.
+     */
+    private final BlockingQueue<T> freeItems;
+    /**
+     * Whether the item that is being saved was buffered and will be returned
+     * to {@link #freeItems} once the buffer is written.
+     */
+    private boolean itemBuffered;
     /**
      * Namespace of the processed element.
      */
@@ -67,11 +160,96 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
      * Prepared statement for update of existing item.
      */
     private final PreparedStatement pstmUpdate;
+    /**
+     * Name of the table the items are inserted to, null if the convertor does
+     * not insert items.
+     */
+    private final String tableName;
+    /**
+     * Parameter recorder used for collecting of row values for COPY.
+     */
+    private final ParameterRecorder parameterRecorder;
+    /**
+     * Writer for COPY of new items, null if COPY is not used.
+     */
+    private final CopyWriter copyWriter;
+    /**
+     * Items that are buffered in {@link #copyWriter}.
+     */
+    private final List<T> copyItems;
+    /**
+     * SQL statement that merges staging table into the table, null if staging
+     * tables are not used.
+     */
+    private final String sqlStagingMerge;
+    /**
+     * Whether staging table was created in current transaction or before.
+     */
+    private boolean stagingTableCreated;
+    /**
+     * Whether items are identified by single key that is set by
+     * {@link #fillExists(java.sql.PreparedStatement, java.lang.Object)}.
+     */
+    private final boolean keyed;
+    /**
+     * Whether items are saved using single INSERT ... ON CONFLICT statement
+     * instead of checking existence and then inserting or updating the item.
+     */
+    private final boolean upsert;
+    /**
+     * Prepared statement for checking which items of the batch exist, null if
+     * existence of items must be checked one by one.
+     */
+    private final PreparedStatement pstmExistsBatch;
+    /**
+     * Items waiting to be saved in batch, null if batches are not used.
+     */
+    private final List<T> batchItems;
+    /**
+     * Number of items added to batch of {@link #pstmInsert}.
+     */
+    private int batchInsertCount;
+    /**
+     * Number of items added to batch of {@link #pstmUpdate}.
+     */
+    private int batchUpdateCount;
+    /**
+     * Number of saved items.
+     */
+    private long savedCount;
+    /**
+     * Time spent in saving of items, in nanoseconds.
+     */
+    private long saveNanos;
+    /**
+     * Number of items that were not saved because newer version of the item
+     * was already stored.
+     */
+    private long skippedCount;
+    /**
+     * Cache of keys and transaction ids of stored items, null if it is not
+     * used.
+     */
+    private final TransactionIdCache transactionIdCache;
+    /**
+     * Writer that executes database writes on separate thread, null if writes
+     * are not pipelined.
+     */
+    private final PipelineWriter pipelineWriter;
+    /**
+     * Policy that commits transaction while file is being processed, null if
+     * transaction is committed once per file.
+     */
+    private final CommitPolicy commitPolicy;
+    /**
+     * Import journal, null if it is not used.
+     */
+    private final ImportJournal journal;
 
     /**
      * Creates new instance of AbstractSaveConvertor.
      *
-     * @param clazz          {@link #clazz}
+     * @param factory        {@link #factory}
      * @param namespace      {@link #namespace}
      * @param localName      {@link #localName}
      * @param con            database connection
@@ -88,17 +266,25 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
      * @throws SQLException Thrown if problem occurred while preparing
      *                      statements.
      */
-    public AbstractSaveConvertor(Class<T> clazz, final String namespace,
+    public AbstractSaveConvertor(final ItemFactory<T> factory,
+            final String namespace,
             final String localName, final Connection con,
             final String sqlExists, final String sqlInsert,
             final String sqlUpdate, final String sqlInsertNoGis,
             final String sqlUpdateNoGis) throws SQLException {
-        this.clazz = clazz;
+        this.factory = factory;
         this.namespace = namespace;
         this.localName = localName;
         this.connection = con;
         this.pstmExists =
                 sqlExists == null ? null : con.prepareStatement(sqlExists);
+        this.pipelineWriter = PipelineWriter.getInstance(con);
+        this.commitPolicy = CommitPolicy.getInstance(con);
+        this.journal = ImportJournal.getInstance(con);
+
+        final Matcher matcher = sqlExists == null
+                ? null : PATTERN_EXISTS.matcher(sqlExists);
+        keyed = matcher != null && matcher.matches();
 
         String sqlInsertAdj = Config.isNoGis() ? sqlInsertNoGis : sqlInsert;
         String sqlUpdateAdj = Config.isNoGis() ? sqlUpdateNoGis : sqlUpdate;
@@ -108,6 +294,80 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
             sqlUpdateAdj = fixSql(sqlUpdateAdj);
         }
 
+        upsert = Config.isUpsert() && keyed && sqlInsertAdj != null
+                && sqlUpdateAdj != null;
+
+        final boolean staging = Config.isStaging() && keyed
+                && sqlInsertAdj != null && sqlUpdateAdj != null;
+
+        if (sqlInsertAdj == null) {
+            tableName = null;
+            copyWriter = null;
+            copyItems = null;
+            sqlStagingMerge = null;
+        } else {
+            final InsertStatement insertStatement =
+                    InsertStatement.parse(sqlInsertAdj);
+            tableName = insertStatement.getTableName();
+
+            if (upsert) {
+                sqlInsertAdj = createUpsertSql(
+                        sqlInsertAdj, insertStatement, matcher.group(2));
+            }
+
+            if (staging) {
+                checkCopySupported(insertStatement);
+                copyWriter = new CopyWriter(con,
+                        STAGING_TABLE_PREFIX + tableName,
+                        insertStatement.getColumnList());
+                copyItems = null;
+                sqlStagingMerge =
+                        createStagingMergeSql(insertStatement, matcher.group(2));
+            } else if (Config.isUseCopy()) {
+                checkCopySupported(insertStatement);
+                copyWriter = new CopyWriter(con, tableName,
+                        insertStatement.getColumnList());
+                copyItems = new ArrayList<>(1_024);
+                sqlStagingMerge = null;
+            } else {
+                copyWriter = null;
+                copyItems = null;
+                sqlStagingMerge = null;
+            }
+        }
+
+        if (keyed && copyWriter == null && sqlUpdateAdj != null) {
+            final Matcher updateMatcher =
+                    PATTERN_UPDATE_GUARD.matcher(sqlUpdateAdj);
+            transactionIdCache = updateMatcher.matches()
+                    && updateMatcher.group(1).equals(matcher.group(2))
+                    ? TransactionIdCache.getInstance(
+                            matcher.group(1), matcher.group(2))
+                    : null;
+        } else {
+            transactionIdCache = null;
+        }
+
+        if (Config.getBatchSize() > 1 && copyWriter == null) {
+            batchItems = new ArrayList<>(Config.getBatchSize());
+            pstmExistsBatch = keyed && !upsert && !Config.isMysqlDriver()
+                    ? con.prepareStatement("SELECT " + matcher.group(2)
+                            + " FROM " + matcher.group(1) + " WHERE "
+                            + matcher.group(2) + " = ANY(?)")
+                    : null;
+        } else {
+            batchItems = null;
+            pstmExistsBatch = null;
+        }
+
+        // buffered items must fit to the pool so that they can be reused
+        freeItems = new ArrayBlockingQueue<>(Math.max(ITEM_POOL_SIZE,
+                copyItems != null ? COPY_MAX_ROWS
+                        : batchItems != null ? Config.getBatchSize() : 0));
+
+        parameterRecorder =
+                copyWriter != null ? new ParameterRecorder(con) : null;
+
         if (sqlInsertAdj != null) {
             sqlInsertAdj = formatGeometry(sqlInsertAdj);
         }
@@ -120,6 +380,152 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
                 ? null : con.prepareStatement(sqlInsertAdj);
         this.pstmUpdate = sqlUpdateAdj == null
                 ? null : con.prepareStatement(sqlUpdateAdj);
+
+        synchronized (CONVERTORS) {
+            List<AbstractSaveConvertor<?>> convertors = CONVERTORS.get(con);
+
+            if (convertors == null) {
+                convertors = new ArrayList<>(32);
+                CONVERTORS.put(con, convertors);
+            }
+
+            convertors.add(this);
+        }
+    }
+
+    /**
+     * Flushes buffered data of all save convertors that use specified
+     * connection. Must be called before the transaction is committed.
+     *
+     * @param con database connection
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public static void flushAll(final Connection con) throws SQLException {
+        final List<AbstractSaveConvertor<?>> convertors;
+
+        synchronized (CONVERTORS) {
+            convertors = CONVERTORS.get(con);
+        }
+
+        if (convertors == null) {
+            return;
+        }
+
+        for (final AbstractSaveConvertor<?> convertor : convertors) {
+            convertor.flush();
+        }
+    }
+
+    /**
+     * Discards buffered data of all save convertors that use specified
+     * connection. Must be called when the transaction is rolled back.
+     *
+     * @param con database connection
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public static void discardAll(final Connection con) throws SQLException {
+        final List<AbstractSaveConvertor<?>> convertors;
+
+        synchronized (CONVERTORS) {
+            convertors = CONVERTORS.get(con);
+        }
+
+        if (convertors == null) {
+            return;
+        }
+
+        for (final AbstractSaveConvertor<?> convertor : convertors) {
+            convertor.discard();
+        }
+
+        // caches might contain items of the rolled back transaction
+        TransactionIdCache.resetAll();
+    }
+
+    /**
+     * Removes save convertors that use specified connection from registry.
+     * Their statistics are kept for {@link #logStatistics()}. Must be called
+     * before the connection is closed.
+     *
+     * @param con database connection
+     */
+    public static void unregisterAll(final Connection con) {
+        synchronized (CONVERTORS) {
+            final List<AbstractSaveConvertor<?>> convertors =
+                    CONVERTORS.remove(con);
+
+            if (convertors == null) {
+                return;
+            }
+
+            for (final AbstractSaveConvertor<?> convertor : convertors) {
+                convertor.addStatistics(UNREGISTERED_STATISTICS);
+            }
+        }
+    }
+
+    /**
+     * Outputs number of saved items and saving speed for each table to the
+     * log.
+     */
+    public static void logStatistics() {
+        final Map<String, long[]> statistics = new TreeMap<>();
+
+        synchronized (CONVERTORS) {
+            for (final Map.Entry<String, long[]> entry
+                    : UNREGISTERED_STATISTICS.entrySet()) {
+                statistics.put(entry.getKey(), entry.getValue().clone());
+            }
+
+            for (final List<AbstractSaveConvertor<?>> convertors
+                    : CONVERTORS.values()) {
+                for (final AbstractSaveConvertor<?> convertor : convertors) {
+                    convertor.addStatistics(statistics);
+                }
+            }
+        }
+
+        for (final Map.Entry<String, long[]> entry : statistics.entrySet()) {
+            final long count = entry.getValue()[0];
+            final long millis = entry.getValue()[1] / 1_000_000;
+
+            Log.write("Table " + entry.getKey() + ": " + count
+                    + " rows saved in " + millis + " ms ("
+                    + (millis == 0 ? count : count * 1_000 / millis)
+                    + " rows/s)"
+                    + (entry.getValue()[2] == 0 ? ""
+                    : ", " + entry.getValue()[2] + " older rows skipped"));
+        }
+
+        TransactionIdCache.logStatistics();
+    }
+
+    /**
+     * Adds statistics of the convertor to statistics of its table.
+     *
+     * @param statistics statistics by table name, values are number of saved
+     *                   items, saving time in nanoseconds and number of
+     *                   skipped items
+     */
+    private void addStatistics(final Map<String, long[]> statistics) {
+        if (tableName == null || savedCount == 0) {
+            return;
+        }
+
+        long[] values = statistics.get(tableName);
+
+        if (values == null) {
+            values = new long[3];
+            statistics.put(tableName, values);
+        }
+
+        values[0] += savedCount;
+        values[1] += saveNanos;
+        values[2] += skippedCount;
     }
 
     /**
@@ -147,15 +553,16 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
     @Override
     public void convert(final XMLStreamReader reader) throws XMLStreamException,
             SQLException {
-        final T item;
+        final T item = takeItem();
+        initItem(item);
 
-        try {
-            item = clazz.newInstance();
-        } catch (final IllegalAccessException | InstantiationException ex) {
-            throw new RuntimeException("Failed to instantiate class "
-                    + clazz.getName(), ex);
+        if (commitPolicy != null) {
+            commitPolicy.enterItem();
         }
 
+        final int startOffset = pipelineWriter == null
+                ? -1 : reader.getLocation().getCharacterOffset();
+
         while (reader.hasNext()) {
             final int event = reader.next();
 
@@ -165,7 +572,24 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
                     break;
                 case XMLStreamReader.END_ELEMENT:
                     if (XMLUtils.isSameElement(namespace, localName, reader)) {
-                        saveData(item);
+                        final int endOffset = pipelineWriter == null
+                                && commitPolicy == null
+                                ? -1 : reader.getLocation().getCharacterOffset();
+                        final boolean topLevel =
+                                commitPolicy != null && commitPolicy.exitItem();
+
+                        if (pipelineWriter == null) {
+                            save(item, endOffset, topLevel);
+                        } else {
+                            pipelineWriter.submit(new PipelineWriter.Write() {
+                                @Override
+                                public void execute() throws SQLException {
+                                    save(item, endOffset, topLevel);
+                                }
+                            }, startOffset < 0 || endOffset < startOffset
+                                    ? DEFAULT_ITEM_SIZE
+                                    : 2 * (endOffset - startOffset));
+                        }
 
                         return;
                     }
@@ -175,6 +599,239 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
         }
     }
 
+    /**
+     * Takes item from the pool of saved items, or creates new item if the
+     * pool is empty.
+     *
+     * @return item with initial values
+     */
+    private T takeItem() {
+        final T item = freeItems.poll();
+
+        return item == null ? factory.create() : item;
+    }
+
+    /**
+     * Resets the item and returns it to the pool. Items that do not fit to
+     * the pool are left to garbage collector.
+     *
+     * @param item item that is not referenced anymore
+     */
+    private void releaseItem(final T item) {
+        item.reset();
+        freeItems.offer(item);
+    }
+
+    /**
+     * Initializes item taken from the pool before its elements are
+     * processed. Convertors can use it to store state that is needed when the
+     * item is saved, because the item might be saved on another thread after
+     * other items were already parsed.
+     *
+     * @param item item
+     */
+    protected void initItem(final T item) {
+    }
+
+    /**
+     * Saves the item and records saving statistics. If commit policy is
+     * used, the item is skipped if it was committed before, and the
+     * transaction might be committed after the item is saved.
+     *
+     * @param item      item to be saved
+     * @param endOffset character offset of the end of the item element, or -1
+     *                  if it is not known
+     * @param topLevel  whether the item is not nested in other item
+     *
+     * @throws SQLException Thrown if problem occurred while saving item into
+     *                      database.
+     */
+    private void save(final T item, final int endOffset,
+            final boolean topLevel) throws SQLException {
+        if (commitPolicy != null && !commitPolicy.itemParsed(endOffset)) {
+            releaseItem(item);
+
+            return;
+        }
+
+        final long startNanos = System.nanoTime();
+        saveData(item);
+        saveNanos += System.nanoTime() - startNanos;
+        savedCount++;
+
+        if (itemBuffered) {
+            itemBuffered = false;
+        } else {
+            releaseItem(item);
+        }
+
+        if (journal != null) {
+            journal.itemSaved();
+        }
+
+        if (commitPolicy != null) {
+            commitPolicy.itemSaved(topLevel);
+        }
+    }
+
+    /**
+     * Executes statement that has single key parameter, typically statement
+     * deleting child items of the item. If writes are pipelined, the
+     * statement is executed on the writer thread.
+     *
+     * @param pstm prepared statement
+     * @param key  key parameter
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    protected void executeWithKey(final PreparedStatement pstm,
+            final Object key) throws SQLException {
+        if (Config.isDryRun()) {
+            return;
+        }
+
+        if (pipelineWriter == null) {
+            executeWithKeyNow(pstm, key);
+        } else {
+            pipelineWriter.submit(new PipelineWriter.Write() {
+                @Override
+                public void execute() throws SQLException {
+                    executeWithKeyNow(pstm, key);
+                }
+            }, SMALL_WRITE_SIZE);
+        }
+    }
+
+    /**
+     * Executes statement that has single key parameter. The statement is
+     * skipped if processing of the file is resumed and the statement was
+     * committed before.
+     *
+     * @param pstm prepared statement
+     * @param key  key parameter
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void executeWithKeyNow(final PreparedStatement pstm,
+            final Object key) throws SQLException {
+        if (commitPolicy != null && commitPolicy.isResuming()) {
+            return;
+        }
+
+        pstm.clearParameters();
+        pstm.setObject(1, key);
+        pstm.execute();
+    }
+
+    /**
+     * Checks whether values of the insert statement can be written using
+     * COPY. Each value must be either plain parameter or geometry parameter.
+     * Geometry parameters are only supported with EWKT that PostGIS accepts as
+     * geometry input, which is verified when command line switches are
+     * parsed.
+     *
+     * @param insertStatement insert statement
+     */
+    private static void checkCopySupported(
+            final InsertStatement insertStatement) {
+        for (final String value : insertStatement.getValues()) {
+            if (!"?".equals(value) && !"%FUNCTION%(?)".equals(value)) {
+                throw new RuntimeException("COPY is not supported for table "
+                        + insertStatement.getTableName() + ", value " + value
+                        + " is not a plain parameter");
+            }
+        }
+    }
+
+    /**
+     * Creates INSERT ... ON CONFLICT statement from INSERT statement. On
+     * conflict, all columns are updated the same way as the UPDATE statements
+     * of the convertors do, including the check that the item in database is
+     * not newer than the saved one.
+     *
+     * @param sqlInsert       INSERT statement
+     * @param insertStatement parsed INSERT statement
+     * @param keyColumn       name of key column
+     *
+     * @return INSERT ... ON CONFLICT statement
+     */
+    private static String createUpsertSql(final String sqlInsert,
+            final InsertStatement insertStatement, final String keyColumn) {
+        final StringBuilder sbSQL = new StringBuilder(sqlInsert.length() * 3);
+        sbSQL.append(sqlInsert);
+        sbSQL.append(" ON CONFLICT (");
+        sbSQL.append(keyColumn);
+        sbSQL.append(") DO UPDATE SET ");
+
+        for (final String column : insertStatement.getColumns()) {
+            if (!column.equals(keyColumn)) {
+                sbSQL.append(column);
+                sbSQL.append(" = EXCLUDED.");
+                sbSQL.append(column);
+                sbSQL.append(", ");
+            }
+        }
+
+        sbSQL.append("item_timestamp = timezone('utc', now()), "
+                + "deleted = false WHERE ");
+        sbSQL.append(insertStatement.getTableName());
+        sbSQL.append(".id_trans_ruian <= EXCLUDED.id_trans_ruian");
+
+        return sbSQL.toString();
+    }
+
+    /**
+     * Creates statement that merges rows from staging table into the table.
+     * If the staging table contains more rows with the same key, the row with
+     * the highest transaction id is used, or the last one if transaction ids
+     * are equal.
+     *
+     * @param insertStatement parsed INSERT statement
+     * @param keyColumn       name of key column
+     *
+     * @return merge statement
+     */
+    private static String createStagingMergeSql(
+            final InsertStatement insertStatement, final String keyColumn) {
+        final String columns = insertStatement.getColumnList();
+
+        return createUpsertSql("INSERT INTO " + insertStatement.getTableName()
+                + " (" + columns + ") SELECT DISTINCT ON (" + keyColumn + ") "
+                + columns + " FROM " + STAGING_TABLE_PREFIX
+                + insertStatement.getTableName() + " ORDER BY " + keyColumn
+                + ", id_trans_ruian DESC, ctid DESC",
+                insertStatement, keyColumn);
+    }
+
+    /**
+     * Creates temporary staging table with the same structure as the table,
+     * if it does not exist yet. Temporary tables are not written to WAL and
+     * are private to the connection, so each connection has its own staging
+     * tables.
+     *
+     * @param con              database connection
+     * @param stagingTableName name of staging table
+     * @param tableName        name of the table, null if the staging table
+     *                         does not mirror any table
+     * @param columns          column definitions, used if table name is null
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    protected static void createStagingTable(final Connection con,
+            final String stagingTableName, final String tableName,
+            final String columns) throws SQLException {
+        try (final Statement stm = con.createStatement()) {
+            stm.execute("CREATE TEMPORARY TABLE IF NOT EXISTS "
+                    + stagingTableName + " ("
+                    + (tableName == null
+                            ? columns : "LIKE " + tableName
+                            + " INCLUDING DEFAULTS") + ")");
+        }
+    }
+
     /**
      * Fixes SQL statement.
      *
@@ -207,7 +864,9 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
         }
 
 	String geomFunction;
-        if (Config.isConvertToEWKT()) {
+        if (Config.isEWKB()) {
+            geomFunction = "ST_GeomFromEWKB";
+        } else if (Config.isConvertToEWKT()) {
             geomFunction = "ST_GeomFromEWKT";
         } else {
             geomFunction = "ST_GeomFromGML";
@@ -228,7 +887,11 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
      * {@link #updateItem(java.sql.Connection, java.lang.Object)} is called,
      * otherwise {@link #insertItem(java.sql.Connection, java.lang.Object)} is
      * called. Testing for whether item exists is performed via
-     * {@link #exists(java.sql.Connection, java.lang.Object)}.
+     * {@link #exists(java.sql.Connection, java.lang.Object)}. If upsert is
+     * used, {@link #insertItem(java.sql.Connection, java.lang.Object)} is
+     * called directly. If key cache is used, existence of the item is checked
+     * in the cache and the item is skipped if newer version of it is already
+     * stored.
      *
      * @param item item to be saved
      *
@@ -240,13 +903,109 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
             return;
         }
 
-        if (exists(item)) {
+        if (transactionIdCache != null
+                && transactionIdCache.isAvailable(connection)
+                && saveCachedItem(item)) {
+            return;
+        }
+
+        if (copyWriter != null || upsert) {
+            // tables are known to be empty when COPY is used, duplicate items
+            // are resolved in flush(), upsert resolves existing items itself
+            insertItem(item);
+        } else if (batchItems != null) {
+            batchItems.add(item);
+            itemBuffered = true;
+
+            if (batchItems.size() >= Config.getBatchSize()) {
+                saveBatchItems();
+            }
+        } else if (exists(item)) {
             updateItem(item);
         } else {
             insertItem(item);
         }
     }
 
+    /**
+     * Saves the item data into database, checking existence of the item in
+     * {@link #transactionIdCache}. Items without known transaction id are left
+     * to the regular path.
+     *
+     * @param item item to be saved
+     *
+     * @return true if the item was processed, false if the cache is not
+     *         available anymore or transaction id of the item is not known
+     *
+     * @throws SQLException Thrown if problem occurred while saving item into
+     *                      database.
+     */
+    private boolean saveCachedItem(final T item) throws SQLException {
+        final long transactionId = getTransactionId(item);
+
+        if (transactionId == NO_TRANSACTION_ID) {
+            return false;
+        }
+
+        final long key = getKey(item);
+        final long storedTransactionId =
+                transactionIdCache.get(connection, key);
+
+        if (storedTransactionId == TransactionIdCache.NOT_AVAILABLE) {
+            return false;
+        } else if (storedTransactionId == TransactionIdCache.NO_VALUE) {
+            insertItem(item);
+        } else if (storedTransactionId > transactionId) {
+            // update would not modify the stored item anyway
+            skippedCount++;
+
+            return true;
+        } else if (upsert) {
+            insertItem(item);
+        } else {
+            updateItem(item);
+        }
+
+        transactionIdCache.put(key, transactionId);
+
+        return true;
+    }
+
+    /**
+     * Discards data that are buffered and were not sent to database yet.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    protected void discard() throws SQLException {
+        if (copyWriter != null) {
+            copyWriter.clear();
+        }
+
+        if (copyItems != null) {
+            copyItems.clear();
+        }
+
+        // staging table is dropped if its creation is rolled back
+        stagingTableCreated = false;
+        // buffered items are dropped, the item is not returned to the pool
+        itemBuffered = false;
+
+        if (batchItems != null) {
+            batchItems.clear();
+
+            if (batchInsertCount > 0) {
+                pstmInsert.clearBatch();
+                batchInsertCount = 0;
+            }
+
+            if (batchUpdateCount > 0) {
+                pstmUpdate.clearBatch();
+                batchUpdateCount = 0;
+            }
+        }
+    }
+
     /**
      * Checks whether item already exists.
      * {@link #fillExists(java.sql.PreparedStatement, java.lang.Object)} is
@@ -271,7 +1030,8 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
     /**
      * Inserts item into database. Before statement execution,
      * {@link #fill(java.sql.PreparedStatement, java.lang.Object, boolean)} is
-     * called to get prepared statement parameters filled.
+     * called to get prepared statement parameters filled. If COPY or batches
+     * are used, the item is only buffered and it is written to database later.
      *
      * @param item item to be saved
      *
@@ -279,15 +1039,291 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
      *                      database.
      */
     protected void insertItem(final T item) throws SQLException {
+        if (copyWriter != null) {
+            parameterRecorder.clear();
+            fill(parameterRecorder.getStatement(), item, false);
+            copyWriter.addRow(parameterRecorder);
+
+            if (copyItems != null) {
+                copyItems.add(item);
+                itemBuffered = true;
+            }
+
+            if (copyWriter.getRowCount() >= COPY_MAX_ROWS
+                    || copyWriter.getSize() >= COPY_MAX_SIZE) {
+                writeCopyItems();
+            }
+        } else if (batchItems != null) {
+            pstmInsert.clearParameters();
+            fill(pstmInsert, item, false);
+            pstmInsert.addBatch();
+            batchInsertCount++;
+
+            if (batchInsertCount >= Config.getBatchSize()) {
+                executeBatches();
+            }
+        } else {
+            executeInsert(item);
+        }
+    }
+
+    /**
+     * Inserts item into database using INSERT statement.
+     *
+     * @param item item to be saved
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void executeInsert(final T item) throws SQLException {
         pstmInsert.clearParameters();
         fill(pstmInsert, item, false);
         pstmInsert.execute();
     }
 
+    /**
+     * Called when whole collection of items was converted. Writes buffered
+     * items to database so that batches do not span multiple collections. If
+     * writes are pipelined, the items are written on the writer thread.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public void endCollection() throws SQLException {
+        if (pipelineWriter == null) {
+            flush();
+        } else {
+            pipelineWriter.submit(new PipelineWriter.Write() {
+                @Override
+                public void execute() throws SQLException {
+                    flush();
+                }
+            }, SMALL_WRITE_SIZE);
+        }
+    }
+
+    /**
+     * Writes buffered items to database. If COPY fails because some of the
+     * items already exist, the items are saved one by one using the standard
+     * INSERT and UPDATE statements.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public void flush() throws SQLException {
+        final long startNanos = System.nanoTime();
+
+        try {
+            writeBuffered();
+        } finally {
+            saveNanos += System.nanoTime() - startNanos;
+        }
+    }
+
+    /**
+     * Writes buffered items to database.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void writeBuffered() throws SQLException {
+        if (copyWriter != null) {
+            writeCopyItems();
+        }
+
+        if (batchItems != null) {
+            saveBatchItems();
+            executeBatches();
+        }
+    }
+
+    /**
+     * Writes items buffered for COPY to database. If COPY fails because some
+     * of the items already exist, the items are saved one by one using the
+     * standard INSERT and UPDATE statements.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void writeCopyItems() throws SQLException {
+        if (copyWriter.getRowCount() == 0) {
+            return;
+        } else if (sqlStagingMerge != null) {
+            writeStagingItems();
+
+            return;
+        }
+
+        final Savepoint savepoint = connection.setSavepoint();
+
+        try {
+            copyWriter.flush();
+            connection.releaseSavepoint(savepoint);
+        } catch (final SQLException ex) {
+            if (!SQL_STATE_UNIQUE_VIOLATION.equals(ex.getSQLState())) {
+                throw ex;
+            }
+
+            connection.rollback(savepoint);
+
+            Log.write("Duplicate items found while copying data to table "
+                    + tableName + ", saving " + copyItems.size()
+                    + " items one by one");
+
+            for (final T item : copyItems) {
+                if (pstmUpdate != null && exists(item)) {
+                    updateItem(item);
+                } else {
+                    executeInsert(item);
+                }
+            }
+        } finally {
+            releaseItems(copyItems);
+        }
+    }
+
+    /**
+     * Copies buffered items to staging table and merges the staging table
+     * into the table.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void writeStagingItems() throws SQLException {
+        final String stagingTableName = STAGING_TABLE_PREFIX + tableName;
+
+        if (!stagingTableCreated) {
+            createStagingTable(connection, stagingTableName, tableName, null);
+            stagingTableCreated = true;
+        }
+
+        copyWriter.flush();
+
+        try (final Statement stm = connection.createStatement()) {
+            stm.execute(sqlStagingMerge);
+            stm.execute("TRUNCATE " + stagingTableName);
+        }
+    }
+
+    /**
+     * Saves items waiting in {@link #batchItems}. Existence of the items is
+     * checked at once for the whole batch if possible, and the items are then
+     * added to batches of INSERT and UPDATE statements.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void saveBatchItems() throws SQLException {
+        if (batchItems.isEmpty()) {
+            return;
+        }
+
+        final Long[] keys = keyed ? getKeys(batchItems) : null;
+        final Set<Long> existingKeys =
+                pstmExistsBatch == null ? null : findExisting(keys);
+        final Set<Long> batchKeys =
+                keyed ? new HashSet<Long>(batchItems.size() * 2) : null;
+
+        for (int i = 0; i < batchItems.size(); i++) {
+            final T item = batchItems.get(i);
+            boolean itemExists = existingKeys == null
+                    ? exists(item) : existingKeys.contains(keys[i]);
+
+            // item might be present in the batch more than once, only its first
+            // occurrence is inserted
+            if (!itemExists && batchKeys != null) {
+                itemExists = !batchKeys.add(keys[i]);
+            }
+
+            if (itemExists) {
+                updateItem(item);
+            } else {
+                insertItem(item);
+            }
+        }
+
+        releaseItems(batchItems);
+    }
+
+    /**
+     * Returns buffered items to the pool and clears the buffer.
+     *
+     * @param items buffered items
+     */
+    private void releaseItems(final List<T> items) {
+        for (final T item : items) {
+            releaseItem(item);
+        }
+
+        items.clear();
+    }
+
+    /**
+     * Returns keys of the items.
+     *
+     * @param items list of items
+     *
+     * @return array of keys
+     */
+    private Long[] getKeys(final List<T> items) {
+        final Long[] keys = new Long[items.size()];
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = getKey(items.get(i));
+        }
+
+        return keys;
+    }
+
+    /**
+     * Finds which of the keys exist in database.
+     *
+     * @param keys array of keys
+     *
+     * @return set of existing keys
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private Set<Long> findExisting(final Long[] keys) throws SQLException {
+        final Set<Long> result = new HashSet<>(keys.length * 2);
+
+        pstmExistsBatch.clearParameters();
+        pstmExistsBatch.setArray(1, connection.createArrayOf("bigint", keys));
+
+        try (final ResultSet rs = pstmExistsBatch.executeQuery()) {
+            while (rs.next()) {
+                result.add(rs.getLong(1));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Executes batches of INSERT and UPDATE statements. Inserts are executed
+     * first as the updates might refer to items inserted in the same batch.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void executeBatches() throws SQLException {
+        if (batchInsertCount > 0) {
+            pstmInsert.executeBatch();
+            batchInsertCount = 0;
+        }
+
+        if (batchUpdateCount > 0) {
+            pstmUpdate.executeBatch();
+            batchUpdateCount = 0;
+        }
+    }
+
     /**
      * Updates item in database. Before statement execution,
      * {@link #fill(java.sql.PreparedStatement, java.lang.Object, boolean)} is
-     * called to get prepared statement parameters filled.
+     * called to get prepared statement parameters filled. If batches are used,
+     * the item is only added to the batch and it is written to database later.
      *
      * @param item item to be saved
      *
@@ -296,7 +1332,17 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
     protected void updateItem(final T item) throws SQLException {
         pstmUpdate.clearParameters();
         fill(pstmUpdate, item, true);
-        pstmUpdate.execute();
+
+        if (batchItems == null) {
+            pstmUpdate.execute();
+        } else {
+            pstmUpdate.addBatch();
+            batchUpdateCount++;
+
+            if (batchUpdateCount >= Config.getBatchSize()) {
+                executeBatches();
+            }
+        }
     }
 
     /**
@@ -326,6 +1372,46 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
     protected abstract void fillExists(PreparedStatement pstm, T item)
             throws SQLException;
 
+    /**
+     * Returns key of the item, the value that
+     * {@link #fillExists(java.sql.PreparedStatement, java.lang.Object)} sets
+     * as the only parameter. Must be overridden by convertors that check
+     * existence of items by single key column.
+     *
+     * @param item item of the element
+     *
+     * @return item key
+     */
+    protected long getKey(final T item) {
+        throw new UnsupportedOperationException(
+                "Convertor does not provide item keys");
+    }
+
+    /**
+     * Returns RUIAN transaction id of the item, the value that guards the
+     * update statement. Must be overridden by convertors whose items are
+     * checked against {@link #transactionIdCache}.
+     *
+     * @param item item of the element
+     *
+     * @return transaction id or {@link #NO_TRANSACTION_ID} if it is not known
+     */
+    protected long getTransactionId(final T item) {
+        return NO_TRANSACTION_ID;
+    }
+
+    /**
+     * Converts transaction id to the value returned by
+     * {@link #getTransactionId(java.lang.Object)}.
+     *
+     * @param transactionId transaction id or null
+     *
+     * @return transaction id or {@link #NO_TRANSACTION_ID} if it is null
+     */
+    protected static long toTransactionId(final Long transactionId) {
+        return transactionId == null ? NO_TRANSACTION_ID : transactionId;
+    }
+
     /**
      * Fills prepared statement parameters for insertion or update.
      *
@@ -339,4 +1425,19 @@ public abstract class AbstractSaveConvertor<T> implements Convertor {
      */
     protected abstract void fill(PreparedStatement pstm, T item,
             boolean update) throws SQLException;
+
+    /**
+     * Factory of items that are saved to the database.
+     *
+     * @param <T> class of items
+     */
+    public interface ItemFactory<T> {
+
+        /**
+         * Creates new item.
+         *
+         * @return new item
+         */
+        T create();
+    }
 }
@@ -23,8 +23,10 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.AdresniMisto;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
+import com.fordfrog.ruian2pgsql.utils.StringCache;
 import com.fordfrog.ruian2pgsql.utils.Utils;
 import com.fordfrog.ruian2pgsql.utils.XMLUtils;
 import java.sql.Connection;
@@ -44,6 +46,75 @@ public class AdresniMistoConvertor extends AbstractSaveConvertor<AdresniMisto> {
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.ADR_MISTO_INT_TYPY;
+    /**
+     * Token of CisloDomovni element.
+     */
+    private static final int CISLO_DOMOVNI = 1;
+    /**
+     * Token of CisloOrientacni element.
+     */
+    private static final int CISLO_ORIENTACNI = 2;
+    /**
+     * Token of CisloOrientacniPismeno element.
+     */
+    private static final int CISLO_ORIENTACNI_PISMENO = 3;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 4;
+    /**
+     * Token of GlobalniIdNavrhuZmeny element.
+     */
+    private static final int GLOBALNI_ID_NAVRHU_ZMENY = 5;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 6;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 7;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 8;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 9;
+    /**
+     * Token of Psc element.
+     */
+    private static final int PSC = 10;
+    /**
+     * Token of StavebniObjekt element.
+     */
+    private static final int STAVEBNI_OBJEKT = 11;
+    /**
+     * Token of Ulice element.
+     */
+    private static final int ULICE = 12;
+    /**
+     * Token of VOKod element.
+     */
+    private static final int VOKOD = 13;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "CisloDomovni", CISLO_DOMOVNI)
+            .add(NAMESPACE, "CisloOrientacni", CISLO_ORIENTACNI)
+            .add(NAMESPACE, "CisloOrientacniPismeno", CISLO_ORIENTACNI_PISMENO)
+            .add(NAMESPACE, "Geometrie", GEOMETRIE)
+            .add(NAMESPACE, "GlobalniIdNavrhuZmeny", GLOBALNI_ID_NAVRHU_ZMENY)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "PlatiOd", PLATI_OD)
+            .add(NAMESPACE, "Psc", PSC)
+            .add(NAMESPACE, "StavebniObjekt", STAVEBNI_OBJEKT)
+            .add(NAMESPACE, "Ulice", ULICE)
+            .add(NAMESPACE, "VOKod", VOKOD);
     /**
      * SQL statement for checking whether the item exists.
      */
@@ -91,6 +162,26 @@ public class AdresniMistoConvertor extends AbstractSaveConvertor<AdresniMisto> {
             + "nz_id_globalni = ?, item_timestamp = timezone('utc', now()), "
             + "deleted = false "
             + "WHERE kod = ? AND id_trans_ruian <= ?";
+    /**
+     * Factory of AdresniMisto items.
+     */
+    private static final ItemFactory<AdresniMisto> ITEM_FACTORY =
+            new ItemFactory<AdresniMisto>() {
+                @Override
+                public AdresniMisto create() {
+                    return new AdresniMisto();
+                }
+            };
+    /**
+     * Maximum number of cached CisloOrientacniPismeno values.
+     */
+    private static final int PISMENO_CACHE_SIZE = 64;
+    /**
+     * Cache of CisloOrientacniPismeno values, there are just few distinct
+     * values.
+     */
+    private final StringCache pismenoCache =
+            new StringCache(PISMENO_CACHE_SIZE);
 
     /**
      * Creates new instance of AdresniMistoConvertor.
@@ -101,7 +192,7 @@ public class AdresniMistoConvertor extends AbstractSaveConvertor<AdresniMisto> {
      *                      database.
      */
     public AdresniMistoConvertor(final Connection con) throws SQLException {
-        super(AdresniMisto.class, Namespaces.VYMENNY_FORMAT_TYPY,
+        super(ITEM_FACTORY, Namespaces.VYMENNY_FORMAT_TYPY,
                 "AdresniMisto", con, SQL_EXISTS, SQL_INSERT, SQL_UPDATE,
                 SQL_INSERT_NO_GIS, SQL_UPDATE_NO_GIS);
     }
@@ -112,23 +203,25 @@ public class AdresniMistoConvertor extends AbstractSaveConvertor<AdresniMisto> {
             final boolean update) throws SQLException {
         final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
         int index = 1;
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstmEx.setInt(index++, item.getAdrpPsc());
-        pstmEx.setInt(index++, item.getUliceKod());
-        pstmEx.setInt(index++, item.getVoKod());
-        pstm.setInt(index++, item.getStavobjKod());
-        pstm.setInt(index++, item.getCisloDomovni());
-        pstmEx.setInt(index++, item.getCisloOrientacniHodnota());
+        pstmEx.setBoolean(index++, item.hasNespravny(), item.getNespravny());
+        pstmEx.setInt(index++, item.hasAdrpPsc(), item.getAdrpPsc());
+        pstmEx.setInt(index++, item.hasUliceKod(), item.getUliceKod());
+        pstmEx.setInt(index++, item.hasVoKod(), item.getVoKod());
+        pstmEx.setInt(index++, item.hasStavobjKod(), item.getStavobjKod());
+        pstmEx.setInt(index++, item.hasCisloDomovni(), item.getCisloDomovni());
+        pstmEx.setInt(index++, item.hasCisloOrientacniHodnota(),
+                item.getCisloOrientacniHodnota());
         pstm.setString(index++, item.getCisloOrientacniPismeno());
-        pstm.setLong(index++, item.getIdTransRuian());
-        pstmEx.setDate(index++, item.getPlatiOd());
-        pstmEx.setBoolean(index++, item.getZmenaGrafiky());
-        pstm.setLong(index++, item.getNzIdGlobalni());
+        pstmEx.setLong(index++, item.hasIdTransRuian(), item.getIdTransRuian());
+        pstmEx.setDate(index++, item.hasPlatiOd(), item.getPlatiOd());
+        pstmEx.setBoolean(index++, item.hasZmenaGrafiky(),
+                item.getZmenaGrafiky());
+        pstmEx.setLong(index++, item.hasNzIdGlobalni(), item.getNzIdGlobalni());
 
         if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getZachranka());
-            pstm.setString(index++, item.getHasici());
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getZachranka());
+            pstmEx.setGeometry(index++, item.getHasici());
         }
 
         pstm.setInt(index++, item.getKod());
@@ -144,64 +237,68 @@ public class AdresniMistoConvertor extends AbstractSaveConvertor<AdresniMisto> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected long getKey(final AdresniMisto item) {
+        return item.getKod();
+    }
+
+    @Override
+    protected long getTransactionId(final AdresniMisto item) {
+        return item.getIdTransRuian();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final AdresniMisto item) throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "CisloDomovni":
-                        item.setCisloDomovni(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "CisloOrientacni":
-                        item.setCisloOrientacniHodnota(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "CisloOrientacniPismeno":
-                        item.setCisloOrientacniPismeno(reader.getElementText());
-                        break;
-                    case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
-                        break;
-                    case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "Psc":
-                        item.setAdrpPsc(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "StavebniObjekt":
-                        item.setStavobjKod(
-                                Utils.getStavebniObjektKod(reader, NAMESPACE));
-                        break;
-                    case "Ulice":
-                        item.setUliceKod(Utils.getUliceKod(reader, NAMESPACE));
-                        break;
-                    case "VOKod":
-                        item.setVoKod(Integer.parseInt(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case CISLO_DOMOVNI:
+                item.setCisloDomovni(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case CISLO_ORIENTACNI:
+                item.setCisloOrientacniHodnota(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case CISLO_ORIENTACNI_PISMENO:
+                item.setCisloOrientacniPismeno(
+                        pismenoCache.get(reader.getElementText()));
+                break;
+            case GEOMETRIE:
+                Utils.processGeometrie(
+                        reader, getConnection(), item, NAMESPACE);
+                break;
+            case GLOBALNI_ID_NAVRHU_ZMENY:
+                item.setNzIdGlobalni(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KOD:
+                item.setKod(Integer.parseInt(reader.getElementText()));
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.parseBoolean(reader.getElementText()));
+                break;
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseEpochDays(reader.getElementText()));
+                break;
+            case PSC:
+                item.setAdrpPsc(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case STAVEBNI_OBJEKT:
+                item.setStavobjKod(
+                        Utils.getStavebniObjektKod(reader, NAMESPACE));
+                break;
+            case ULICE:
+                item.setUliceKod(Utils.getUliceKod(reader, NAMESPACE));
+                break;
+            case VOKOD:
+                item.setVoKod(Integer.parseInt(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
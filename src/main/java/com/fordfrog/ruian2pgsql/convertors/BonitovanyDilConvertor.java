@@ -22,6 +22,7 @@
 package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.containers.BonitovanyDil;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.XMLUtils;
 import java.sql.Connection;
@@ -42,12 +43,51 @@ public class BonitovanyDilConvertor
      * Namespace of the element sub-elements.
      */
     private static final String NAMESPACE = Namespaces.COMMON_TYPY;
+    /**
+     * Token of BonitovanaJednotkaKod element.
+     */
+    private static final int BONITOVANA_JEDNOTKA_KOD = 1;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 2;
+    /**
+     * Token of IdTranskace element.
+     */
+    private static final int ID_TRANSKACE = 3;
+    /**
+     * Token of RizeniId element.
+     */
+    private static final int RIZENI_ID = 4;
+    /**
+     * Token of Vymera element.
+     */
+    private static final int VYMERA = 5;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "BonitovanaJednotkaKod", BONITOVANA_JEDNOTKA_KOD)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "IdTranskace", ID_TRANSKACE)
+            .add(NAMESPACE, "RizeniId", RIZENI_ID)
+            .add(NAMESPACE, "Vymera", VYMERA);
     /**
      * SQL statement for insertion of new item.
      */
     private static final String SQL_INSERT = "INSERT INTO rn_bonit_dily_parcel "
             + "(parcela_id, bpej_kod, vymera, id_trans_ruian, rizeni_id) "
             + "VALUES (?, ?, ?, ?, ?)";
+    /**
+     * Factory of BonitovanyDil items.
+     */
+    private static final ItemFactory<BonitovanyDil> ITEM_FACTORY =
+            new ItemFactory<BonitovanyDil>() {
+                @Override
+                public BonitovanyDil create() {
+                    return new BonitovanyDil();
+                }
+            };
     /**
      * Id of parent Parcela.
      */
@@ -62,20 +102,25 @@ public class BonitovanyDilConvertor
      *                      database.I
      */
     public BonitovanyDilConvertor(final Connection con) throws SQLException {
-        super(BonitovanyDil.class, NAMESPACE, "BonitovanyDil", con, null,
+        super(ITEM_FACTORY, NAMESPACE, "BonitovanyDil", con, null,
                 SQL_INSERT, null, SQL_INSERT, null);
     }
 
     @Override
     protected void fill(final PreparedStatement pstm, final BonitovanyDil item,
             final boolean update) throws SQLException {
-        pstm.setLong(1, parcelaId);
+        pstm.setLong(1, item.getParcelaId());
         pstm.setInt(2, item.getBpejKod());
         pstm.setInt(3, item.getVymera());
         pstm.setLong(4, item.getIdTransRuian());
         pstm.setLong(5, item.getRizeniId());
     }
 
+    @Override
+    protected void initItem(final BonitovanyDil item) {
+        item.setParcelaId(parcelaId);
+    }
+
     @Override
     protected void fillExists(final PreparedStatement pstm,
             final BonitovanyDil item) throws SQLException {
@@ -85,30 +130,23 @@ public class BonitovanyDilConvertor
     @Override
     protected void processElement(final XMLStreamReader reader,
             final BonitovanyDil item) throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "BonitovanaJednotkaKod":
-                        item.setBpejKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "IdTransakce":
-                    case "IdTranskace":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "RizeniId":
-                        item.setRizeniId(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Vymera":
-                        item.setVymera(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case BONITOVANA_JEDNOTKA_KOD:
+                item.setBpejKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case ID_TRANSAKCE:
+            case ID_TRANSKACE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case RIZENI_ID:
+                item.setRizeniId(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case VYMERA:
+                item.setVymera(
+                        Integer.parseInt(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
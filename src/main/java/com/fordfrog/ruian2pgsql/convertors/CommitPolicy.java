@@ -0,0 +1,309 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.utils.Log;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Commits transaction of single connection while a file is being processed,
+ * after configured number of saved items, amount of parsed input or time
+ * elapsed since the last commit. Each commit records checkpoint consisting of
+ * file name and position of the last committed element in the file. The
+ * position is character offset of the end of the element in decompressed XML
+ * data. Transaction is committed only after top-level items (items that are
+ * not nested in other items), so that processing of the file can be resumed
+ * from the checkpoint by skipping all elements that end before it.
+ *
+ * @author fordfrog
+ */
+public class CommitPolicy {
+
+    /**
+     * Policies registered for each database connection.
+     */
+    private static final Map<Connection, CommitPolicy> POLICIES =
+            new IdentityHashMap<>(10);
+    /**
+     * Database connection.
+     */
+    private final Connection connection;
+    /**
+     * Maximum number of items saved in single transaction, 0 if not limited.
+     */
+    private final long maxItems;
+    /**
+     * Maximum number of characters of input parsed in single transaction, 0
+     * if not limited.
+     */
+    private final long maxInput;
+    /**
+     * Maximum duration of single transaction in milliseconds, 0 if not
+     * limited.
+     */
+    private final long maxDuration;
+    /**
+     * Import journal, null if it is not used.
+     */
+    private final ImportJournal journal;
+    /**
+     * Name of processed file.
+     */
+    private String fileName;
+    /**
+     * Position of the end of the last saved element in the file.
+     */
+    private long position;
+    /**
+     * Character offset of the last saved element as reported by XML reader,
+     * which wraps around for files larger than 2 GB.
+     */
+    private int lastOffset;
+    /**
+     * Number of items saved since the last commit.
+     */
+    private long items;
+    /**
+     * Position of the last committed element in the file.
+     */
+    private long committedPosition;
+    /**
+     * Timestamp of the last commit.
+     */
+    private long commitTimestamp;
+    /**
+     * Number of commits in the file.
+     */
+    private int commitCount;
+    /**
+     * Position up to which elements of the file were committed before, so
+     * they are skipped.
+     */
+    private long resumePosition;
+    /**
+     * Number of items that are being parsed, which is greater than one for
+     * nested items.
+     */
+    private int depth;
+
+    /**
+     * Creates new instance of CommitPolicy and registers it for the
+     * connection.
+     *
+     * @param con database connection
+     */
+    public CommitPolicy(final Connection con) {
+        connection = con;
+        maxItems = Math.max(Config.getCommitItems(), 0);
+        maxInput = Math.max(Config.getCommitInputSize(), 0) * 1_024L * 1_024L;
+        maxDuration = Math.max(Config.getCommitInterval(), 0) * 1_000L;
+        journal = ImportJournal.getInstance(con);
+
+        synchronized (POLICIES) {
+            POLICIES.put(con, this);
+        }
+    }
+
+    /**
+     * Checks whether any commit limit is configured or import is resumed.
+     *
+     * @return true if transactions should be committed also within files or
+     *         files might be resumed from checkpoints, otherwise false
+     */
+    public static boolean isEnabled() {
+        return Config.getCommitItems() > 0 || Config.getCommitInputSize() > 0
+                || Config.getCommitInterval() > 0 || Config.isResume();
+    }
+
+    /**
+     * Returns policy registered for the connection.
+     *
+     * @param con database connection
+     *
+     * @return policy or null if transactions are committed once per file
+     */
+    public static CommitPolicy getInstance(final Connection con) {
+        synchronized (POLICIES) {
+            return POLICIES.get(con);
+        }
+    }
+
+    /**
+     * Removes policy registered for the connection. Must be called before the
+     * connection is closed.
+     *
+     * @param con database connection
+     */
+    public static void unregister(final Connection con) {
+        synchronized (POLICIES) {
+            POLICIES.remove(con);
+        }
+    }
+
+    /**
+     * Starts processing of new file.
+     *
+     * @param fileName       file name
+     * @param resumePosition {@link #resumePosition}
+     */
+    public void startFile(final String fileName, final long resumePosition) {
+        this.fileName = fileName;
+        this.resumePosition = resumePosition;
+        position = 0;
+        lastOffset = 0;
+        items = 0;
+        committedPosition = resumePosition;
+        commitTimestamp = System.currentTimeMillis();
+        commitCount = 0;
+        depth = 0;
+    }
+
+    /**
+     * Records start of parsing of item. Must be called on the parsing thread.
+     */
+    public void enterItem() {
+        depth++;
+    }
+
+    /**
+     * Records end of parsing of item. Must be called on the parsing thread.
+     *
+     * @return true if the item is top-level item, otherwise false
+     */
+    public boolean exitItem() {
+        depth--;
+
+        return depth == 0;
+    }
+
+    /**
+     * Records position of parsed item. Must be called on the thread that
+     * writes to the connection, before the item is saved.
+     *
+     * @param offset character offset of the end of the item element, or -1 if
+     *               it is not known
+     *
+     * @return true if the item should be saved, false if it was committed
+     *         before and is skipped because processing of the file is resumed
+     */
+    public boolean itemParsed(final int offset) {
+        if (offset != -1) {
+            // offsets are int values that wrap around, only the difference
+            // from the previous offset is used
+            position += (offset - lastOffset) & 0xffffffffL;
+            lastOffset = offset;
+        }
+
+        return position > resumePosition;
+    }
+
+    /**
+     * Checks whether elements are skipped because they were committed before.
+     * Writes that are not bound to items, like deletion of child items, must
+     * be skipped too.
+     *
+     * @return true if the elements are skipped, otherwise false
+     */
+    public boolean isResuming() {
+        return position < resumePosition;
+    }
+
+    /**
+     * Records saved item and commits the transaction if the item is top-level
+     * item and any of the limits was reached. Must be called on the thread
+     * that writes to the connection.
+     *
+     * @param topLevel whether the item is top-level item
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public void itemSaved(final boolean topLevel) throws SQLException {
+        items++;
+
+        if (!topLevel) {
+            return;
+        }
+
+        if (maxItems > 0 && items >= maxItems
+                || maxInput > 0 && position - committedPosition >= maxInput
+                || maxDuration > 0 && System.currentTimeMillis()
+                - commitTimestamp >= maxDuration) {
+            commit();
+            Log.write("Checkpoint " + commitCount + ": file " + fileName
+                    + " committed up to position " + committedPosition);
+        }
+    }
+
+    /**
+     * Writes buffered data of all save convertors, records checkpoint and
+     * commits the transaction.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void commit() throws SQLException {
+        AbstractSaveConvertor.flushAll(connection);
+
+        if (journal != null) {
+            journal.checkpoint(position);
+        }
+
+        connection.commit();
+
+        items = 0;
+        committedPosition = position;
+        commitTimestamp = System.currentTimeMillis();
+        commitCount++;
+    }
+
+    /**
+     * Getter for {@link #fileName}.
+     *
+     * @return {@link #fileName}
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Getter for {@link #committedPosition}.
+     *
+     * @return {@link #committedPosition}
+     */
+    public long getCommittedPosition() {
+        return committedPosition;
+    }
+
+    /**
+     * Getter for {@link #commitCount}.
+     *
+     * @return {@link #commitCount}
+     */
+    public int getCommitCount() {
+        return commitCount;
+    }
+}
@@ -22,6 +22,7 @@
 package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.containers.DetailniTEA;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -43,6 +44,75 @@ public class DetailniTEAConvertor extends AbstractSaveConvertor<DetailniTEA> {
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.STAV_OBJ_INT_TYPY;
+    /**
+     * Token of AdresniMistoKod element.
+     */
+    private static final int ADRESNI_MISTO_KOD = 1;
+    /**
+     * Token of DruhKonstrukceKod element.
+     */
+    private static final int DRUH_KONSTRUKCE_KOD = 2;
+    /**
+     * Token of GlobalniIdNavrhuZmeny element.
+     */
+    private static final int GLOBALNI_ID_NAVRHU_ZMENY = 3;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 4;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 5;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 6;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 7;
+    /**
+     * Token of PocetBytu element.
+     */
+    private static final int POCET_BYTU = 8;
+    /**
+     * Token of PocetPodlazi element.
+     */
+    private static final int POCET_PODLAZI = 9;
+    /**
+     * Token of PripojeniKanalizaceKod element.
+     */
+    private static final int PRIPOJENI_KANALIZACE_KOD = 10;
+    /**
+     * Token of PripojeniPlynKod element.
+     */
+    private static final int PRIPOJENI_PLYN_KOD = 11;
+    /**
+     * Token of PripojeniVodovodKod element.
+     */
+    private static final int PRIPOJENI_VODOVOD_KOD = 12;
+    /**
+     * Token of ZpusobVytapeniKod element.
+     */
+    private static final int ZPUSOB_VYTAPENI_KOD = 13;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "AdresniMistoKod", ADRESNI_MISTO_KOD)
+            .add(NAMESPACE, "DruhKonstrukceKod", DRUH_KONSTRUKCE_KOD)
+            .add(NAMESPACE, "GlobalniIdNavrhuZmeny", GLOBALNI_ID_NAVRHU_ZMENY)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "PlatiOd", PLATI_OD)
+            .add(NAMESPACE, "PocetBytu", POCET_BYTU)
+            .add(NAMESPACE, "PocetPodlazi", POCET_PODLAZI)
+            .add(NAMESPACE, "PripojeniKanalizaceKod", PRIPOJENI_KANALIZACE_KOD)
+            .add(NAMESPACE, "PripojeniPlynKod", PRIPOJENI_PLYN_KOD)
+            .add(NAMESPACE, "PripojeniVodovodKod", PRIPOJENI_VODOVOD_KOD)
+            .add(NAMESPACE, "ZpusobVytapeniKod", ZPUSOB_VYTAPENI_KOD);
     /**
      * SQL statement for insertion of new item.
      */
@@ -52,6 +122,16 @@ public class DetailniTEAConvertor extends AbstractSaveConvertor<DetailniTEA> {
             + "pripoj_plyn_kod, pripoj_vodovod_kod, pripoj_el_energie, "
             + "zpusob_vytapeni_kod, id_trans_ruian, plati_od, nz_id_globalni) "
             + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    /**
+     * Factory of DetailniTEA items.
+     */
+    private static final ItemFactory<DetailniTEA> ITEM_FACTORY =
+            new ItemFactory<DetailniTEA>() {
+                @Override
+                public DetailniTEA create() {
+                    return new DetailniTEA();
+                }
+            };
     /**
      * Id of parent StavebniObjekt.
      */
@@ -66,7 +146,7 @@ public class DetailniTEAConvertor extends AbstractSaveConvertor<DetailniTEA> {
      *                      database.I
      */
     public DetailniTEAConvertor(final Connection con) throws SQLException {
-        super(DetailniTEA.class, NAMESPACE, "DetailniTEA", con, null,
+        super(ITEM_FACTORY, NAMESPACE, "DetailniTEA", con, null,
                 SQL_INSERT, null, SQL_INSERT, null);
     }
 
@@ -75,7 +155,7 @@ public class DetailniTEAConvertor extends AbstractSaveConvertor<DetailniTEA> {
             final boolean update) throws SQLException {
         final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
         pstmEx.setInt(1, item.getKod());
-        pstm.setInt(2, stavebniObjektId);
+        pstm.setInt(2, item.getStavobjKod());
         pstmEx.setInt(3, item.getAdresniMistoKod());
         pstmEx.setBoolean(4, item.getNespravny());
         pstmEx.setInt(5, item.getPocetBytu());
@@ -91,6 +171,11 @@ public class DetailniTEAConvertor extends AbstractSaveConvertor<DetailniTEA> {
         pstmEx.setLong(15, item.getNzIdGlobalni());
     }
 
+    @Override
+    protected void initItem(final DetailniTEA item) {
+        item.setStavobjKod(stavebniObjektId);
+    }
+
     @Override
     protected void fillExists(final PreparedStatement pstm,
             final DetailniTEA item) throws SQLException {
@@ -100,64 +185,57 @@ public class DetailniTEAConvertor extends AbstractSaveConvertor<DetailniTEA> {
     @Override
     protected void processElement(final XMLStreamReader reader,
             final DetailniTEA item) throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "AdresniMistoKod":
-                        item.setAdresniMistoKod(
-                                Utils.getAdresniMistoKod(reader, NAMESPACE));
-                        break;
-                    case "DruhKonstrukceKod":
-                        item.setDruhKonstrukceKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "PocetBytu":
-                        item.setPocetBytu(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "PocetPodlazi":
-                        item.setPocetPodlazi(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "PripojeniKanalizaceKod":
-                        item.setPripojKanalSitKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "PripojeniPlynKod":
-                        item.setPripojPlynKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "PripojeniVodovodKod":
-                        item.setPripojVodovodKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "ZpusobVytapeniKod":
-                        item.setZpusobVytapeniKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case ADRESNI_MISTO_KOD:
+                item.setAdresniMistoKod(
+                        Utils.getAdresniMistoKod(reader, NAMESPACE));
+                break;
+            case DRUH_KONSTRUKCE_KOD:
+                item.setDruhKonstrukceKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case GLOBALNI_ID_NAVRHU_ZMENY:
+                item.setNzIdGlobalni(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KOD:
+                item.setKod(Integer.parseInt(reader.getElementText()));
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.valueOf(reader.getElementText()));
+                break;
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case POCET_BYTU:
+                item.setPocetBytu(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case POCET_PODLAZI:
+                item.setPocetPodlazi(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case PRIPOJENI_KANALIZACE_KOD:
+                item.setPripojKanalSitKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case PRIPOJENI_PLYN_KOD:
+                item.setPripojPlynKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case PRIPOJENI_VODOVOD_KOD:
+                item.setPripojVodovodKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case ZPUSOB_VYTAPENI_KOD:
+                item.setZpusobVytapeniKod(
+                        Integer.parseInt(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -0,0 +1,362 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.containers.Hlavicka;
+import com.fordfrog.ruian2pgsql.utils.Log;
+import com.fordfrog.ruian2pgsql.utils.Namespaces;
+import com.fordfrog.ruian2pgsql.utils.XmlReaderFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Plans processing of change (diff) files using their headers. Headers of all
+ * input files are read first, without parsing the data. Diff files (files
+ * whose header contains both TransakceOd and TransakceDo) whose transaction
+ * range is already covered by the database or by full files of the same
+ * import are dropped, the remaining diff files are ordered into chain by
+ * their transaction ranges and the chain is checked for gaps. Other files are
+ * processed before the diff files in their original order.
+ *
+ * @author fordfrog
+ */
+public class DiffPlanner {
+
+    /**
+     * SQL statement that reads the last transaction id of completely
+     * processed files from import journal.
+     */
+    private static final String SQL_SELECT_LAST_JOURNAL_TRANSACTION =
+            "SELECT max(CASE WHEN status = '"
+            + ImportJournal.STATUS_COMPLETED + "' THEN transakce_do_id END) "
+            + "FROM import_journal";
+    /**
+     * SQL statement that reads the last transaction id that is stored in
+     * database.
+     */
+    private static final String SQL_SELECT_LAST_TRANSACTION =
+            "SELECT max(transakce_do_id) FROM hlavicka";
+    /**
+     * Files that are not diff files.
+     */
+    private final List<Path> fullFiles = new ArrayList<>(10);
+    /**
+     * Diff files in the order in which they must be processed.
+     */
+    private final List<DiffFile> diffFiles = new ArrayList<>(10);
+
+    /**
+     * Creates new instance of DiffPlanner.
+     */
+    private DiffPlanner() {
+    }
+
+    /**
+     * Reads headers of input files and plans their processing.
+     *
+     * @param con   database connection
+     * @param files sorted list of input files
+     *
+     * @return plan
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    public static DiffPlanner plan(final Connection con,
+            final List<Path> files) throws XMLStreamException, SQLException {
+        final DiffPlanner planner = new DiffPlanner();
+        final HlavickaConvertor hlavickaConvertor = new HlavickaConvertor(con);
+        final XmlReaderFactory readerFactory =
+                new XmlReaderFactory(Config.getXmlParser());
+        final List<DiffFile> candidates = new ArrayList<>(files.size());
+        long lastTransactionId = getLastTransactionId(con);
+
+        for (final Path file : files) {
+            final Hlavicka header = readHeader(hlavickaConvertor, readerFactory, file);
+
+            if (header != null && header.getTransakceOdId() != null
+                    && header.getTransakceDoId() != null) {
+                candidates.add(new DiffFile(file, header));
+            } else {
+                planner.fullFiles.add(file);
+
+                if (header != null && header.getTransakceDoId() != null) {
+                    lastTransactionId = Math.max(
+                            lastTransactionId, header.getTransakceDoId());
+                }
+            }
+        }
+
+        Collections.sort(candidates, new Comparator<DiffFile>() {
+            @Override
+            public int compare(final DiffFile o1, final DiffFile o2) {
+                final int result = Integer.compare(o1.header.getTransakceOdId(),
+                        o2.header.getTransakceOdId());
+
+                return result != 0 ? result : Integer.compare(
+                        o1.header.getTransakceDoId(),
+                        o2.header.getTransakceDoId());
+            }
+        });
+
+        DiffFile previous = null;
+
+        for (final DiffFile diffFile : candidates) {
+            final int transakceOdId = diffFile.header.getTransakceOdId();
+            final int transakceDoId = diffFile.header.getTransakceDoId();
+
+            if (transakceDoId <= lastTransactionId) {
+                Log.write("Transactions " + transakceOdId + "-" + transakceDoId
+                        + " of file " + diffFile.file
+                        + " are already imported, skipping it");
+
+                continue;
+            }
+
+            // transaction ranges of consecutive files either share boundary
+            // transaction or follow each other
+            if (lastTransactionId > 0
+                    && transakceOdId > lastTransactionId + 1) {
+                throw new RuntimeException("Diff chain has gap between "
+                        + "transaction " + lastTransactionId + " and "
+                        + "transaction " + transakceOdId + " of file "
+                        + diffFile.file);
+            }
+
+            if (previous != null && !previous.isPredecessorOf(diffFile)) {
+                Log.write("Warning: file " + diffFile.file + " declares "
+                        + "previous file " + diffFile.header.getPredchoziSoubor()
+                        + " but follows file " + previous.file);
+            }
+
+            planner.diffFiles.add(diffFile);
+            lastTransactionId = transakceDoId;
+            previous = diffFile;
+        }
+
+        Log.write("Planned " + planner.fullFiles.size() + " full file(s) and "
+                + planner.diffFiles.size() + " diff file(s), "
+                + (candidates.size() - planner.diffFiles.size())
+                + " diff file(s) skipped");
+
+        return planner;
+    }
+
+    /**
+     * Returns files that are not diff files, in their original order.
+     *
+     * @return list of files
+     */
+    public List<Path> getFullFiles() {
+        return Collections.unmodifiableList(fullFiles);
+    }
+
+    /**
+     * Returns diff files in the order in which they must be processed.
+     *
+     * @return list of files
+     */
+    public List<Path> getDiffFiles() {
+        final List<Path> result = new ArrayList<>(diffFiles.size());
+
+        for (final DiffFile diffFile : diffFiles) {
+            result.add(diffFile.file);
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads the last transaction id that is stored in database. Import
+     * journal is preferred because header of partially processed file is
+     * stored in hlavicka table too. If the journal contains no completed file
+     * with known transaction range, hlavicka table is used. Hlavicka table is used for databases
+     * that were imported before import journal was introduced.
+     *
+     * @param con database connection
+     *
+     * @return transaction id or 0 if database does not contain any data
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private static long getLastTransactionId(final Connection con)
+            throws SQLException {
+        if (Config.isCreateTables() || Config.isTruncateAll()) {
+            return 0;
+        }
+
+        try (final Statement stm = con.createStatement()) {
+            if (!Config.isDryRun()) {
+                try (final ResultSet rs = stm.executeQuery(
+                        SQL_SELECT_LAST_JOURNAL_TRANSACTION)) {
+                    // journal without completed file falls back to hlavicka
+                    if (rs.next() && rs.getObject(1) != null) {
+                        return rs.getLong(1);
+                    }
+                }
+            }
+
+            try (final ResultSet rs =
+                    stm.executeQuery(SQL_SELECT_LAST_TRANSACTION)) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Reads header of the file. Only the beginning of the file is parsed.
+     *
+     * @param hlavickaConvertor Hlavicka convertor
+     * @param readerFactory     XML reader factory
+     * @param file              file path
+     *
+     * @return header or null if the file does not contain header of exchange
+     *         format
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    private static Hlavicka readHeader(
+            final HlavickaConvertor hlavickaConvertor,
+            final XmlReaderFactory readerFactory, final Path file)
+            throws XMLStreamException {
+        final String fileName = file.toString();
+
+        if (!fileName.endsWith(".xml.gz") && !fileName.endsWith(".xml.zip")
+                && !fileName.endsWith(".xml")) {
+            return null;
+        }
+
+        try (final InputStream inputStream =
+                InputSource.openXmlStream(InputSource.forFile(file))) {
+            if (inputStream == null) {
+                return null;
+            }
+
+            final XMLStreamReader reader =
+                    readerFactory.createReader(inputStream);
+
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamReader.START_ELEMENT) {
+                        continue;
+                    }
+
+                    if (Namespaces.VYMENNY_FORMAT_TYPY.equals(
+                            reader.getNamespaceURI())) {
+                        switch (reader.getLocalName()) {
+                            case "Hlavicka":
+                                return hlavickaConvertor.readHeader(reader);
+                            case "VymennyFormat":
+                                break;
+                            default:
+                                return null;
+                        }
+                    } else {
+                        return null;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeException("Failed to read input file", ex);
+        }
+
+        return null;
+    }
+
+    /**
+     * Diff file and its header.
+     */
+    private static class DiffFile {
+
+        /**
+         * File path.
+         */
+        private final Path file;
+        /**
+         * File header.
+         */
+        private final Hlavicka header;
+
+        /**
+         * Creates new instance of DiffFile.
+         *
+         * @param file   {@link #file}
+         * @param header {@link #header}
+         */
+        DiffFile(final Path file, final Hlavicka header) {
+            this.file = file;
+            this.header = header;
+        }
+
+        /**
+         * Checks whether this file can be predecessor of the other file
+         * according to PredchoziSoubor of the other file. If the other file
+         * does not declare its predecessor, any file is accepted.
+         *
+         * @param other the other file
+         *
+         * @return true if this file can be predecessor of the other file,
+         *         otherwise false
+         */
+        boolean isPredecessorOf(final DiffFile other) {
+            final String predecessor = other.header.getPredchoziSoubor();
+
+            return predecessor == null || predecessor.isEmpty()
+                    || getBaseName(file.getFileName().toString()).equals(
+                            getBaseName(predecessor));
+        }
+
+        /**
+         * Returns file name without directory and extensions.
+         *
+         * @param fileName file name
+         *
+         * @return base name
+         */
+        private static String getBaseName(final String fileName) {
+            final int slash = Math.max(
+                    fileName.lastIndexOf('/'), fileName.lastIndexOf('\\'));
+            final String name = fileName.substring(slash + 1);
+            final int dot = name.indexOf('.');
+
+            return dot == -1 ? name : name.substring(0, dot);
+        }
+    }
+}
@@ -0,0 +1,445 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.utils.Log;
+import com.fordfrog.ruian2pgsql.utils.Namespaces;
+import com.fordfrog.ruian2pgsql.utils.ReadAheadInputStream;
+import com.fordfrog.ruian2pgsql.utils.XMLUtils;
+import com.fordfrog.ruian2pgsql.utils.XmlReaderFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Converts RÚIAN data files into database using single database connection.
+ * Each file is committed in separate transaction, unless {@link CommitPolicy}
+ * commits the transaction also while the file is being processed. If pipelined writes are
+ * enabled, database writes are executed by {@link PipelineWriter} while the
+ * file is being parsed.
+ *
+ * @author fordfrog
+ */
+public class FileConvertor {
+
+    /**
+     * Size of each buffer of read-ahead stage.
+     */
+    private static final int READ_AHEAD_BUFFER_SIZE = 1_024 * 1_024;
+    /**
+     * Database connection.
+     */
+    private final Connection connection;
+    /**
+     * Exchange format convertor instance.
+     */
+    private final ExchangeFormatConvertor exchangeFormatConvertor;
+    /**
+     * Special exchange format convertor instance.
+     */
+    private final SpecialExchangeFormatConvertor specialExchangeFormatConvertor;
+    /**
+     * Pipeline writer, null if writes are not pipelined.
+     */
+    private final PipelineWriter pipelineWriter;
+    /**
+     * Policy that commits transaction while file is being processed, null if
+     * transaction is committed once per file.
+     */
+    private final CommitPolicy commitPolicy;
+    /**
+     * Import journal, null if it is not used.
+     */
+    private final ImportJournal journal;
+    /**
+     * Factory of XML readers, created once for all files.
+     */
+    private final XmlReaderFactory readerFactory =
+            new XmlReaderFactory(Config.getXmlParser());
+
+    /**
+     * Creates new instance of FileConvertor.
+     *
+     * @param con database connection
+     *
+     * @throws SQLException Thrown if problem occurred while initializing
+     *                      convertors.
+     */
+    public FileConvertor(final Connection con) throws SQLException {
+        connection = con;
+        // writer must be registered before save convertors are created
+        pipelineWriter = Config.getPipelineBufferSize() > 0
+                ? new PipelineWriter(con,
+                        Config.getPipelineBufferSize() * 1_024L * 1_024L)
+                : null;
+        journal = Config.isDryRun() ? null : new ImportJournal(con);
+        commitPolicy = CommitPolicy.isEnabled() ? new CommitPolicy(con) : null;
+        exchangeFormatConvertor = new ExchangeFormatConvertor(con);
+        specialExchangeFormatConvertor = new SpecialExchangeFormatConvertor(con);
+    }
+
+    /**
+     * Getter for {@link #connection}.
+     *
+     * @return {@link #connection}
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Converts single input file into database and commits the changes. ZIP
+     * files are read entry by entry and each XML entry is committed
+     * separately.
+     *
+     * @param file file path
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    public void convert(final Path file) throws XMLStreamException,
+            SQLException {
+        final String fileName = file.toString();
+
+        if (!fileName.endsWith(".xml.gz") && !fileName.endsWith(".zip")
+                && !fileName.endsWith(".xml")) {
+            Log.write("Unsupported file extension, ignoring file " + file);
+
+            return;
+        }
+
+        convert(InputSource.forFile(file));
+    }
+
+    /**
+     * Converts input source into database and commits the changes. Entries
+     * of ZIP archives, including entries of nested archives, are streamed one
+     * by one and each XML entry is committed separately.
+     *
+     * @param source input source
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    public void convert(final InputSource source) throws XMLStreamException,
+            SQLException {
+        if (source.getName().endsWith(".zip")) {
+            InputSource.readZip(source, true, new InputSource.EntryHandler() {
+                @Override
+                public void handle(final InputSource entrySource,
+                        final boolean nestedZip)
+                        throws XMLStreamException, SQLException {
+                    convertXml(entrySource);
+                }
+            });
+        } else {
+            convertXml(source);
+        }
+    }
+
+    /**
+     * Converts source containing single XML document and commits the changes.
+     *
+     * @param source input source
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    private void convertXml(final InputSource source)
+            throws XMLStreamException, SQLException {
+        final long startTimestamp = System.currentTimeMillis();
+
+        final long resumePosition = startFile(source);
+
+        if (resumePosition < 0) {
+            return;
+        }
+
+        Log.write("Processing file " + source.getName()
+                + (resumePosition == 0 ? ""
+                        : " from position " + resumePosition));
+        Log.flush();
+
+        processFile(source);
+
+        if (pipelineWriter == null) {
+            commit(startTimestamp);
+        } else {
+            pipelineWriter.submit(new PipelineWriter.Write() {
+                @Override
+                public void execute() throws SQLException {
+                    commit(startTimestamp);
+                }
+            }, 0);
+            pipelineWriter.sync();
+        }
+
+        Log.write("File " + source.getName() + " processed in "
+                + (System.currentTimeMillis() - startTimestamp) + " ms");
+        Log.flush();
+    }
+
+    /**
+     * Records the source in import journal. If import is resumed, checks
+     * whether the source was already processed before.
+     *
+     * @param source input source
+     *
+     * @return position from which the source should be processed, or -1 if
+     *         the source was completed before and should be skipped
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private long startFile(final InputSource source) throws SQLException {
+        final String fileName = source.getFileName();
+        long resumePosition = 0;
+
+        if (journal != null) {
+            final long fileSize = source.getSize();
+            // content of streamed entries cannot be identified in advance,
+            // they are never skipped
+            final String contentHash = source.getContentHash();
+            final String hash = contentHash == null ? "" : contentHash;
+
+            if (Config.isResume()) {
+                final ImportJournal.Entry entry = journal.getEntry(fileName);
+
+                if (entry != null && entry.matches(fileSize, hash)) {
+                    if (entry.isCompleted()) {
+                        Log.write("File " + source.getName() + " was already "
+                                + "processed, skipping it");
+
+                        return -1;
+                    }
+
+                    // character offsets differ between parsers
+                    if (entry.getCheckpoint() > 0 && !Config.getXmlParser()
+                            .equals(entry.getXmlParser())) {
+                        throw new RuntimeException("File " + source.getName()
+                                + " was partially processed using XML parser "
+                                + entry.getXmlParser() + ", it can be resumed "
+                                + "only using --xml-parser "
+                                + entry.getXmlParser());
+                    }
+
+                    resumePosition = entry.getCheckpoint();
+                }
+            }
+
+            journal.startFile(fileName, fileSize, hash, resumePosition);
+        }
+
+        if (commitPolicy != null) {
+            commitPolicy.startFile(fileName, resumePosition);
+        }
+
+        return resumePosition;
+    }
+
+    /**
+     * Writes buffered data, marks the file as completed in import journal and
+     * commits the transaction.
+     *
+     * @param startTimestamp timestamp when processing of the file started
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private void commit(final long startTimestamp) throws SQLException {
+        AbstractSaveConvertor.flushAll(connection);
+
+        if (journal != null) {
+            journal.completeFile(
+                    System.currentTimeMillis() - startTimestamp);
+        }
+
+        connection.commit();
+    }
+
+    /**
+     * Rolls back changes of file that failed to be converted. If commit policy
+     * is used, only changes since the last checkpoint are rolled back.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public void rollback() throws SQLException {
+        if (pipelineWriter != null) {
+            pipelineWriter.abort();
+        }
+
+        AbstractSaveConvertor.discardAll(connection);
+        connection.rollback();
+
+        if (commitPolicy != null && commitPolicy.getCommitCount() > 0) {
+            Log.write("File " + commitPolicy.getFileName() + " was committed "
+                    + "up to position " + commitPolicy.getCommittedPosition()
+                    + " before the failure");
+        }
+    }
+
+    /**
+     * Stops pipeline writer thread, if there is any, and removes objects
+     * registered for the connection so that they can be garbage collected.
+     * Connection is not closed.
+     */
+    public void close() {
+        release(connection);
+    }
+
+    /**
+     * Stops pipeline writer thread registered for the connection, if there is
+     * any, and removes objects registered for the connection. Can be used
+     * also if creation of file convertor failed. Connection is not closed.
+     *
+     * @param con database connection
+     */
+    static void release(final Connection con) {
+        final PipelineWriter writer = PipelineWriter.getInstance(con);
+
+        if (writer != null) {
+            writer.close();
+        }
+
+        PipelineWriter.unregister(con);
+        CommitPolicy.unregister(con);
+        ImportJournal.unregister(con);
+        AbstractSaveConvertor.unregisterAll(con);
+    }
+
+    /**
+     * Processes single XML document. If read-ahead stage is enabled, the
+     * document is read and inflated on separate thread and time that parsing
+     * spent waiting for input is logged.
+     *
+     * @param source input source
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    private void processFile(final InputSource source)
+            throws XMLStreamException, SQLException {
+        if (Config.getReadAheadBuffers() < 1) {
+            // byte-level parser benefits from reading mapped files directly
+            try (final InputStream inputStream = InputSource.openXmlStream(
+                    source, Config.XML_PARSER_VFR.equals(
+                            Config.getXmlParser()))) {
+                readInputStream(inputStream);
+            } catch (final IOException ex) {
+                throw new RuntimeException("Failed to read input file", ex);
+            }
+
+            return;
+        }
+
+        final long startTimestamp = System.currentTimeMillis();
+
+        try (final ReadAheadInputStream inputStream = new ReadAheadInputStream(
+                source.openStream(), source.getName().endsWith(".gz"),
+                READ_AHEAD_BUFFER_SIZE, Config.getReadAheadBuffers())) {
+            readInputStream(inputStream);
+
+            final long waitTime = inputStream.getWaitTime();
+            Log.write("Input of file " + source.getName() + ": read and "
+                    + "inflated in " + inputStream.getReadTime() + " ms, "
+                    + "processed in " + (System.currentTimeMillis()
+                    - startTimestamp - waitTime) + " ms, waiting for input "
+                    + waitTime + " ms");
+        } catch (final IOException ex) {
+            throw new RuntimeException("Failed to read input file", ex);
+        }
+    }
+
+    /**
+     * Reads input stream and processes the XML content using parser selected
+     * by {@link Config#getXmlParser()}.
+     *
+     * @param inputStream input stream containing XML data
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    private void readInputStream(final InputStream inputStream)
+            throws XMLStreamException, SQLException {
+        final XMLStreamReader reader = readerFactory.createReader(inputStream);
+
+        while (reader.hasNext()) {
+            final int event = reader.next();
+
+            if (event == XMLStreamReader.START_ELEMENT) {
+                processElement(reader);
+            }
+        }
+    }
+
+    /**
+     * Processes elements and its sub-elements.
+     *
+     * @param reader XML stream reader
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    private void processElement(final XMLStreamReader reader)
+            throws XMLStreamException, SQLException {
+        switch (reader.getNamespaceURI()) {
+            case Namespaces.VYMENNY_FORMAT_TYPY:
+                switch (reader.getLocalName()) {
+                    case "VymennyFormat":
+                        exchangeFormatConvertor.convert(reader);
+                        break;
+                    default:
+                        XMLUtils.processUnsupported(reader);
+                }
+                break;
+            case Namespaces.SPECIALNI_VYMENNY_FORMAT_TYPY:
+                switch (reader.getLocalName()) {
+                    case "SpecialniVymennyFormat":
+                        specialExchangeFormatConvertor.convert(reader);
+                        break;
+                    default:
+                        XMLUtils.processUnsupported(reader);
+                }
+                break;
+            default:
+                XMLUtils.processUnsupported(reader);
+        }
+    }
+}
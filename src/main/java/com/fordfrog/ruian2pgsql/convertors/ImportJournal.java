@@ -0,0 +1,441 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.Config;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Journal of processed input files that is stored in import_journal table.
+ * For each file it records its size, content hash, transaction range from
+ * its header, status, last checkpoint, XML parser, duration and number of
+ * saved items.
+ * Journal rows are written in the same transactions as the data, so the
+ * journal always matches committed data. Journal is used to skip completed
+ * files and to continue partially processed files from their last checkpoint
+ * when import is resumed.
+ *
+ * @author fordfrog
+ */
+public class ImportJournal {
+
+    /**
+     * Status of file that is being processed or that failed.
+     */
+    public static final String STATUS_PROCESSING = "processing";
+    /**
+     * Status of file that was processed completely.
+     */
+    public static final String STATUS_COMPLETED = "completed";
+    /**
+     * SQL statement that creates journal table.
+     */
+    private static final String SQL_CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS import_journal ("
+            + "file_name varchar(255) NOT NULL PRIMARY KEY, "
+            + "file_size bigint NOT NULL, "
+            + "content_hash varchar(64) NOT NULL, "
+            + "status varchar(20) NOT NULL, "
+            + "checkpoint bigint NOT NULL, "
+            + "xml_parser varchar(20) NOT NULL, "
+            + "transakce_od_id integer, "
+            + "transakce_do_id integer, "
+            + "started timestamp NULL, "
+            + "finished timestamp NULL, "
+            + "duration bigint, "
+            + "item_count bigint)";
+    /**
+     * SQL statement that reads journal entry of file.
+     */
+    private static final String SQL_SELECT = "SELECT file_size, content_hash, "
+            + "status, checkpoint, xml_parser FROM import_journal "
+            + "WHERE file_name = ?";
+    /**
+     * SQL statement that deletes journal entry of file.
+     */
+    private static final String SQL_DELETE =
+            "DELETE FROM import_journal WHERE file_name = ?";
+    /**
+     * SQL statement that creates journal entry of file.
+     */
+    private static final String SQL_INSERT = "INSERT INTO import_journal "
+            + "(file_name, file_size, content_hash, status, checkpoint, "
+            + "xml_parser, started, item_count) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    /**
+     * SQL statement that marks file that is resumed as being processed.
+     */
+    private static final String SQL_UPDATE_RESUMED = "UPDATE import_journal "
+            + "SET status = ?, started = ? WHERE file_name = ?";
+    /**
+     * SQL statement that records checkpoint of file.
+     */
+    private static final String SQL_UPDATE_CHECKPOINT = "UPDATE import_journal "
+            + "SET checkpoint = ?, transakce_od_id = coalesce(?, "
+            + "transakce_od_id), transakce_do_id = coalesce(?, "
+            + "transakce_do_id), item_count = item_count + ? "
+            + "WHERE file_name = ?";
+    /**
+     * SQL statement that marks file as completed.
+     */
+    private static final String SQL_UPDATE_COMPLETED = "UPDATE import_journal "
+            + "SET status = ?, transakce_od_id = coalesce(?, transakce_od_id), "
+            + "transakce_do_id = coalesce(?, transakce_do_id), "
+            + "item_count = item_count + ?, finished = ?, duration = ? "
+            + "WHERE file_name = ?";
+    /**
+     * Journals registered for each database connection.
+     */
+    private static final Map<Connection, ImportJournal> JOURNALS =
+            new IdentityHashMap<>(10);
+    /**
+     * Database connection.
+     */
+    private final Connection connection;
+    /**
+     * Name of processed file.
+     */
+    private String fileName;
+    /**
+     * Transaction id from which the file contains changes, null if it is not
+     * known yet.
+     */
+    private Integer transakceOdId;
+    /**
+     * Transaction id up to which the file contains changes, null if it is not
+     * known yet.
+     */
+    private Integer transakceDoId;
+    /**
+     * Number of items saved since the journal entry was updated.
+     */
+    private long itemCount;
+
+    /**
+     * Creates new instance of ImportJournal and registers it for the
+     * connection.
+     *
+     * @param con database connection
+     */
+    public ImportJournal(final Connection con) {
+        connection = con;
+
+        synchronized (JOURNALS) {
+            JOURNALS.put(con, this);
+        }
+    }
+
+    /**
+     * Returns journal registered for the connection.
+     *
+     * @param con database connection
+     *
+     * @return journal or null if journal is not used
+     */
+    public static ImportJournal getInstance(final Connection con) {
+        synchronized (JOURNALS) {
+            return JOURNALS.get(con);
+        }
+    }
+
+    /**
+     * Removes journal registered for the connection. Must be called before the
+     * connection is closed.
+     *
+     * @param con database connection
+     */
+    public static void unregister(final Connection con) {
+        synchronized (JOURNALS) {
+            JOURNALS.remove(con);
+        }
+    }
+
+    /**
+     * Creates journal table if it does not exist yet.
+     *
+     * @param con database connection
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public static void createTable(final Connection con) throws SQLException {
+        try (final Statement stm = con.createStatement()) {
+            stm.execute(SQL_CREATE_TABLE);
+        }
+    }
+
+    /**
+     * Removes all journal entries. Used when all data are removed.
+     *
+     * @param con database connection
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public static void clear(final Connection con) throws SQLException {
+        try (final Statement stm = con.createStatement()) {
+            stm.execute("DELETE FROM import_journal");
+        }
+    }
+
+    /**
+     * Reads journal entry of the file.
+     *
+     * @param fileName file name
+     *
+     * @return journal entry or null if the file is not in the journal
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public Entry getEntry(final String fileName) throws SQLException {
+        try (final PreparedStatement pstm =
+                connection.prepareStatement(SQL_SELECT)) {
+            pstm.setString(1, fileName);
+
+            try (final ResultSet rs = pstm.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+
+                return new Entry(rs.getLong(1), rs.getString(2),
+                        rs.getString(3), rs.getLong(4), rs.getString(5));
+            }
+        }
+    }
+
+    /**
+     * Creates journal entry for file that starts to be processed. Existing
+     * entry of the file is replaced, unless processing of the file is resumed
+     * from checkpoint.
+     *
+     * @param fileName   file name
+     * @param fileSize   file size
+     * @param hash       content hash
+     * @param checkpoint position from which the file is processed
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public void startFile(final String fileName, final long fileSize,
+            final String hash, final long checkpoint) throws SQLException {
+        this.fileName = fileName;
+        transakceOdId = null;
+        transakceDoId = null;
+        itemCount = 0;
+
+        if (checkpoint > 0) {
+            try (final PreparedStatement pstm =
+                    connection.prepareStatement(SQL_UPDATE_RESUMED)) {
+                pstm.setString(1, STATUS_PROCESSING);
+                pstm.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+                pstm.setString(3, fileName);
+                pstm.execute();
+            }
+
+            return;
+        }
+
+        try (final PreparedStatement pstm =
+                connection.prepareStatement(SQL_DELETE)) {
+            pstm.setString(1, fileName);
+            pstm.execute();
+        }
+
+        try (final PreparedStatement pstm =
+                connection.prepareStatement(SQL_INSERT)) {
+            pstm.setString(1, fileName);
+            pstm.setLong(2, fileSize);
+            pstm.setString(3, hash);
+            pstm.setString(4, STATUS_PROCESSING);
+            pstm.setLong(5, checkpoint);
+            pstm.setString(6, Config.getXmlParser());
+            pstm.setTimestamp(7, new Timestamp(System.currentTimeMillis()));
+            pstm.execute();
+        }
+    }
+
+    /**
+     * Records transaction range of the file header.
+     *
+     * @param transakceOdId {@link #transakceOdId}
+     * @param transakceDoId {@link #transakceDoId}
+     */
+    public void setTransactionRange(final Integer transakceOdId,
+            final Integer transakceDoId) {
+        this.transakceOdId = transakceOdId;
+        this.transakceDoId = transakceDoId;
+    }
+
+    /**
+     * Records saved item.
+     */
+    public void itemSaved() {
+        itemCount++;
+    }
+
+    /**
+     * Records checkpoint of the file. Must be called in the transaction that
+     * is going to be committed.
+     *
+     * @param position position of the last committed element in the file
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public void checkpoint(final long position) throws SQLException {
+        try (final PreparedStatement pstm =
+                connection.prepareStatement(SQL_UPDATE_CHECKPOINT)) {
+            pstm.setLong(1, position);
+            pstm.setObject(2, transakceOdId);
+            pstm.setObject(3, transakceDoId);
+            pstm.setLong(4, itemCount);
+            pstm.setString(5, fileName);
+            pstm.execute();
+        }
+
+        itemCount = 0;
+    }
+
+    /**
+     * Marks the file as completed. Must be called in the transaction that is
+     * going to be committed.
+     *
+     * @param duration processing duration in milliseconds
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public void completeFile(final long duration) throws SQLException {
+        try (final PreparedStatement pstm =
+                connection.prepareStatement(SQL_UPDATE_COMPLETED)) {
+            pstm.setString(1, STATUS_COMPLETED);
+            pstm.setObject(2, transakceOdId);
+            pstm.setObject(3, transakceDoId);
+            pstm.setLong(4, itemCount);
+            pstm.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+            pstm.setLong(6, duration);
+            pstm.setString(7, fileName);
+            pstm.execute();
+        }
+
+        itemCount = 0;
+    }
+
+    /**
+     * Journal entry of single file.
+     */
+    public static class Entry {
+
+        /**
+         * File size.
+         */
+        private final long fileSize;
+        /**
+         * Content hash.
+         */
+        private final String hash;
+        /**
+         * Processing status.
+         */
+        private final String status;
+        /**
+         * Position of the last committed element in the file.
+         */
+        private final long checkpoint;
+        /**
+         * XML parser that computed the checkpoint. Parsers compute character
+         * offsets differently, so checkpoint can be used only by the same
+         * parser.
+         */
+        private final String xmlParser;
+
+        /**
+         * Creates new instance of Entry.
+         *
+         * @param fileSize   {@link #fileSize}
+         * @param hash       {@link #hash}
+         * @param status     {@link #status}
+         * @param checkpoint {@link #checkpoint}
+         * @param xmlParser  {@link #xmlParser}
+         */
+        public Entry(final long fileSize, final String hash,
+                final String status, final long checkpoint,
+                final String xmlParser) {
+            this.fileSize = fileSize;
+            this.hash = hash;
+            this.status = status;
+            this.checkpoint = checkpoint;
+            this.xmlParser = xmlParser;
+        }
+
+        /**
+         * Checks whether the entry belongs to file with given size and
+         * content hash.
+         *
+         * @param fileSize file size
+         * @param hash     content hash
+         *
+         * @return true if the file matches, otherwise false, also if the hash
+         *         is empty because content of the file was not known in
+         *         advance
+         */
+        public boolean matches(final long fileSize, final String hash) {
+            return this.fileSize == fileSize && !hash.isEmpty()
+                    && this.hash.equals(hash);
+        }
+
+        /**
+         * Checks whether the file was processed completely.
+         *
+         * @return true if the file was processed completely, otherwise false
+         */
+        public boolean isCompleted() {
+            return STATUS_COMPLETED.equals(status);
+        }
+
+        /**
+         * Getter for {@link #checkpoint}.
+         *
+         * @return {@link #checkpoint}
+         */
+        public long getCheckpoint() {
+            return checkpoint;
+        }
+
+        /**
+         * Getter for {@link #xmlParser}.
+         *
+         * @return {@link #xmlParser}
+         */
+        public String getXmlParser() {
+            return xmlParser;
+        }
+    }
+}
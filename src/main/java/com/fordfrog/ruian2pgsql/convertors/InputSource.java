@@ -0,0 +1,475 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.utils.Log;
+import com.fordfrog.ruian2pgsql.utils.MappedInputStream;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Source of input data, either file on disk, entry of ZIP archive that is
+ * being streamed, or content of source that was read into memory. Content
+ * of the source is returned as it is stored, so it might be compressed
+ * according to extension of the source name.
+ *
+ * @author fordfrog
+ */
+public abstract class InputSource {
+
+    /**
+     * Size of buffers used for reading and decompressing sources.
+     */
+    private static final int BUFFER_SIZE = 65_536;
+    /**
+     * Name of the source that is written to log.
+     */
+    private final String name;
+    /**
+     * Name of the source that is used in import journal. For files it is file
+     * name without directory, for entries it is prefixed with names of
+     * containing archives.
+     */
+    private final String fileName;
+
+    /**
+     * Creates new instance of InputSource.
+     *
+     * @param name     {@link #name}
+     * @param fileName {@link #fileName}
+     */
+    protected InputSource(final String name, final String fileName) {
+        this.name = name;
+        this.fileName = fileName;
+    }
+
+    /**
+     * Handler of XML entries of ZIP archives.
+     */
+    public interface EntryHandler {
+
+        /**
+         * Handles single entry. The entry content must be read before the
+         * method returns.
+         *
+         * @param source    entry source
+         * @param nestedZip whether the entry is nested ZIP archive
+         *
+         * @throws XMLStreamException Thrown if problem occurred while reading
+         *                            XML stream.
+         * @throws SQLException       Thrown if problem occurred while
+         *                            communicating with database.
+         */
+        void handle(InputSource source, boolean nestedZip)
+                throws XMLStreamException, SQLException;
+    }
+
+    /**
+     * Creates source of file on disk.
+     *
+     * @param file file path
+     *
+     * @return source
+     */
+    public static InputSource forFile(final Path file) {
+        return new InputSource(
+                file.toString(), file.getFileName().toString()) {
+            @Override
+            public long getSize() {
+                try {
+                    return Files.size(file);
+                } catch (final IOException ex) {
+                    throw new RuntimeException(
+                            "Failed to read input file", ex);
+                }
+            }
+
+            @Override
+            public String getContentHash() {
+                // reading whole file would take as long as parsing it,
+                // modification time together with size identifies it well
+                try {
+                    return "mtime:" + Files.getLastModifiedTime(file)
+                            .toMillis();
+                } catch (final IOException ex) {
+                    throw new RuntimeException(
+                            "Failed to read input file", ex);
+                }
+            }
+
+            @Override
+            public InputStream openStream() throws IOException {
+                return Files.newInputStream(file);
+            }
+
+            @Override
+            public InputStream openMappedStream() throws IOException {
+                return new MappedInputStream(file);
+            }
+        };
+    }
+
+    /**
+     * Reads content of source into memory, so that it can be processed after
+     * the source is closed, typically after streamed ZIP archive moves to its
+     * next entry.
+     *
+     * @param source input source
+     *
+     * @return source of content held in memory
+     *
+     * @throws IOException Thrown if problem occurred while reading the source.
+     */
+    public static InputSource readContent(final InputSource source)
+            throws IOException {
+        final long size = source.getSize();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(
+                size > 0 && size < Integer.MAX_VALUE
+                ? (int) size : BUFFER_SIZE);
+        final byte[] buffer = new byte[BUFFER_SIZE];
+
+        try (final InputStream inputStream = source.openStream()) {
+            int count = inputStream.read(buffer);
+
+            while (count != -1) {
+                output.write(buffer, 0, count);
+                count = inputStream.read(buffer);
+            }
+        }
+
+        final byte[] data = output.toByteArray();
+        final String hash = source.getContentHash();
+
+        return new InputSource(source.getName(), source.getFileName()) {
+            @Override
+            public long getSize() {
+                return size;
+            }
+
+            @Override
+            public String getContentHash() {
+                return hash;
+            }
+
+            @Override
+            public InputStream openStream() {
+                return new ByteArrayInputStream(data);
+            }
+        };
+    }
+
+    /**
+     * Creates source of entry of ZIP archive that is being streamed. The
+     * source can be opened only once, while the ZIP input stream is
+     * positioned at the entry.
+     *
+     * @param parent   source of the archive
+     * @param entry    ZIP entry
+     * @param zipInput ZIP input stream positioned at the entry
+     *
+     * @return source
+     */
+    public static InputSource forEntry(final InputSource parent,
+            final ZipEntry entry, final ZipInputStream zipInput) {
+        return new InputSource(parent.getName() + "/" + entry.getName(),
+                parent.getFileName() + "/" + entry.getName()) {
+            @Override
+            public long getSize() {
+                return entry.getSize();
+            }
+
+            @Override
+            public String getContentHash() {
+                return getEntryHash(entry);
+            }
+
+            @Override
+            public InputStream openStream() {
+                // closing the entry stream must not close the archive
+                return new FilterInputStream(zipInput) {
+                    @Override
+                    public void close() {
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Reads all entries of ZIP archive, including entries of nested ZIP
+     * archives. Handler is called for each XML entry (.xml or .xml.gz) and
+     * each nested ZIP archive if nested archives should not be expanded.
+     * Other entries are ignored.
+     *
+     * @param source       source of the archive
+     * @param expandNested whether entries of nested archives should be read
+     *                     too, otherwise nested archives are passed to the
+     *                     handler
+     * @param handler      entry handler
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    public static void readZip(final InputSource source,
+            final boolean expandNested, final EntryHandler handler)
+            throws XMLStreamException, SQLException {
+        try (final InputStream inputStream = source.openStream();
+                final ZipInputStream zipInput = new ZipInputStream(
+                        new BufferedInputStream(inputStream, BUFFER_SIZE))) {
+            readZip(source, zipInput, expandNested, handler);
+        } catch (final IOException ex) {
+            throw new RuntimeException(
+                    "Failed to read ZIP archive " + source.getName(), ex);
+        }
+    }
+
+    /**
+     * Reads all entries of ZIP input stream.
+     *
+     * @param source       source of the archive
+     * @param zipInput     ZIP input stream
+     * @param expandNested whether entries of nested archives should be read
+     *                     too
+     * @param handler      entry handler
+     *
+     * @throws IOException        Thrown if problem occurred while reading the
+     *                            archive.
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    private static void readZip(final InputSource source,
+            final ZipInputStream zipInput, final boolean expandNested,
+            final EntryHandler handler)
+            throws IOException, XMLStreamException, SQLException {
+        ZipEntry entry = zipInput.getNextEntry();
+
+        while (entry != null) {
+            final String entryName = entry.getName();
+
+            if (entry.isDirectory()) {
+                // nothing to read
+            } else if (entryName.endsWith(".zip")) {
+                final InputSource entrySource =
+                        forEntry(source, entry, zipInput);
+
+                if (expandNested) {
+                    try (final ZipInputStream nestedInput =
+                            new ZipInputStream(entrySource.openStream())) {
+                        readZip(entrySource, nestedInput, true, handler);
+                    }
+                } else {
+                    handler.handle(entrySource, true);
+                }
+            } else if (entryName.endsWith(".xml")
+                    || entryName.endsWith(".xml.gz")) {
+                handler.handle(forEntry(source, entry, zipInput), false);
+            } else {
+                Log.write("Unsupported entry extension, ignoring entry "
+                        + source.getName() + "/" + entryName);
+            }
+
+            zipInput.closeEntry();
+            entry = zipInput.getNextEntry();
+        }
+    }
+
+    /**
+     * Opens stream with XML data of the source. Compressed sources are
+     * decompressed. From ZIP archives the first XML entry is read, which is
+     * enough for archives with single entry.
+     *
+     * @param source source
+     *
+     * @return input stream
+     *
+     * @throws IOException Thrown if problem occurred while opening the source.
+     */
+    public static InputStream openXmlStream(final InputSource source)
+            throws IOException {
+        return openXmlStream(source, false);
+    }
+
+    /**
+     * Opens stream with XML data of the source. Compressed sources are
+     * decompressed. From ZIP archives the first XML entry is read, which is
+     * enough for archives with single entry.
+     *
+     * @param source source
+     * @param mapped whether uncompressed files should be read through memory
+     *               mapping
+     *
+     * @return input stream
+     *
+     * @throws IOException Thrown if problem occurred while opening the source.
+     */
+    public static InputStream openXmlStream(final InputSource source,
+            final boolean mapped) throws IOException {
+        final String name = source.getName();
+
+        if (mapped && !name.endsWith(".gz") && !name.endsWith(".zip")) {
+            return source.openMappedStream();
+        }
+
+        final InputStream inputStream = source.openStream();
+
+        try {
+            if (source.getName().endsWith(".gz")) {
+                return new GZIPInputStream(new BufferedInputStream(
+                        inputStream, BUFFER_SIZE), BUFFER_SIZE);
+            } else if (source.getName().endsWith(".zip")) {
+                final InputStream result = openFirstEntry(new ZipInputStream(
+                        new BufferedInputStream(inputStream, BUFFER_SIZE)));
+
+                if (result == null) {
+                    inputStream.close();
+                }
+
+                return result;
+            } else {
+                return new BufferedInputStream(inputStream, BUFFER_SIZE);
+            }
+        } catch (final IOException ex) {
+            inputStream.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Positions ZIP input stream at the first XML entry, descending into
+     * nested archives.
+     *
+     * @param zipInput ZIP input stream
+     *
+     * @return stream with XML data of the entry, or null if the archive does
+     *         not contain any XML entry
+     *
+     * @throws IOException Thrown if problem occurred while reading the
+     *                     archive.
+     */
+    private static InputStream openFirstEntry(final ZipInputStream zipInput)
+            throws IOException {
+        ZipEntry entry = zipInput.getNextEntry();
+
+        while (entry != null) {
+            if (entry.getName().endsWith(".xml")) {
+                return zipInput;
+            } else if (entry.getName().endsWith(".xml.gz")) {
+                return new GZIPInputStream(zipInput, BUFFER_SIZE);
+            } else if (entry.getName().endsWith(".zip")) {
+                final InputStream result =
+                        openFirstEntry(new ZipInputStream(zipInput));
+
+                if (result != null) {
+                    return result;
+                }
+            }
+
+            entry = zipInput.getNextEntry();
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns hash of ZIP entry that is based on its CRC and size.
+     *
+     * @param entry ZIP entry
+     *
+     * @return hash or null if CRC is not known before the entry is read,
+     *         which is the case of entries followed by data descriptor
+     */
+    private static String getEntryHash(final ZipEntry entry) {
+        return entry.getCrc() == -1 ? null : String.format(
+                "crc32:%08x:%d", entry.getCrc(), entry.getSize());
+    }
+
+    /**
+     * Getter for {@link #name}.
+     *
+     * @return {@link #name}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for {@link #fileName}.
+     *
+     * @return {@link #fileName}
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Returns size of stored content.
+     *
+     * @return size in bytes or -1 if it is not known
+     */
+    public abstract long getSize();
+
+    /**
+     * Returns hash identifying content of the source together with its size.
+     * The hash is cheap to compute, it is based on CRC of ZIP entries and on
+     * modification time of files.
+     *
+     * @return hash or null if it cannot be computed before the source is
+     *         read
+     */
+    public abstract String getContentHash();
+
+    /**
+     * Opens stream with stored content of the source.
+     *
+     * @return input stream
+     *
+     * @throws IOException Thrown if problem occurred while opening the source.
+     */
+    public abstract InputStream openStream() throws IOException;
+
+    /**
+     * Opens stream with stored content of the source that is read through
+     * memory mapping, if the source supports it.
+     *
+     * @return input stream
+     *
+     * @throws IOException Thrown if problem occurred while opening the source.
+     */
+    public InputStream openMappedStream() throws IOException {
+        return openStream();
+    }
+}
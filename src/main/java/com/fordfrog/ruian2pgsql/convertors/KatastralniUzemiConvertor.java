@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.KatastralniUzemi;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -45,6 +46,71 @@ public class KatastralniUzemiConvertor
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.KAT_UZ_INT_TYPY;
+    /**
+     * Token of DatumVzniku element.
+     */
+    private static final int DATUM_VZNIKU = 1;
+    /**
+     * Token of ExistujeDigitalniMapa element.
+     */
+    private static final int EXISTUJE_DIGITALNI_MAPA = 2;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 3;
+    /**
+     * Token of GlobalniIdNavrhuZmeny element.
+     */
+    private static final int GLOBALNI_ID_NAVRHU_ZMENY = 4;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 5;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 6;
+    /**
+     * Token of MluvnickeCharakteristiky element.
+     */
+    private static final int MLUVNICKE_CHARAKTERISTIKY = 7;
+    /**
+     * Token of Nazev element.
+     */
+    private static final int NAZEV = 8;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 9;
+    /**
+     * Token of Obec element.
+     */
+    private static final int OBEC = 10;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 11;
+    /**
+     * Token of RizeniId element.
+     */
+    private static final int RIZENI_ID = 12;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "DatumVzniku", DATUM_VZNIKU)
+            .add(NAMESPACE, "ExistujeDigitalniMapa", EXISTUJE_DIGITALNI_MAPA)
+            .add(NAMESPACE, "Geometrie", GEOMETRIE)
+            .add(NAMESPACE, "GlobalniIdNavrhuZmeny", GLOBALNI_ID_NAVRHU_ZMENY)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE,
+                    "MluvnickeCharakteristiky", MLUVNICKE_CHARAKTERISTIKY)
+            .add(NAMESPACE, "Nazev", NAZEV)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "Obec", OBEC)
+            .add(NAMESPACE, "PlatiOd", PLATI_OD)
+            .add(NAMESPACE, "RizeniId", RIZENI_ID);
     /**
      * SQL statement for testing whether the item already exists.
      */
@@ -94,6 +160,16 @@ public class KatastralniUzemiConvertor
             + "rizeni_id = ?, datum_vzniku = ?, item_timestamp = timezone('utc', now()), "
             + "deleted = false "
             + "WHERE kod = ? AND id_trans_ruian <= ?";
+    /**
+     * Factory of KatastralniUzemi items.
+     */
+    private static final ItemFactory<KatastralniUzemi> ITEM_FACTORY =
+            new ItemFactory<KatastralniUzemi>() {
+                @Override
+                public KatastralniUzemi create() {
+                    return new KatastralniUzemi();
+                }
+            };
 
     /**
      * Creates new instance of KatastralniUzemiConvertor.
@@ -104,7 +180,7 @@ public class KatastralniUzemiConvertor
      *                      database.
      */
     public KatastralniUzemiConvertor(final Connection con) throws SQLException {
-        super(KatastralniUzemi.class, Namespaces.VYMENNY_FORMAT_TYPY,
+        super(ITEM_FACTORY, Namespaces.VYMENNY_FORMAT_TYPY,
                 "KatastralniUzemi", con, SQL_EXISTS, SQL_INSERT, SQL_UPDATE,
                 SQL_INSERT_NO_GIS, SQL_UPDATE_NO_GIS);
     }
@@ -132,8 +208,8 @@ public class KatastralniUzemiConvertor
         pstmEx.setLong(index++, item.getRizeniId());
 
         if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -150,60 +226,63 @@ public class KatastralniUzemiConvertor
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected long getKey(final KatastralniUzemi item) {
+        return item.getKod();
+    }
+
+    @Override
+    protected long getTransactionId(final KatastralniUzemi item) {
+        return toTransactionId(item.getIdTransRuian());
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final KatastralniUzemi item) throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "DatumVzniku":
-                        item.setDatumVzniku(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "ExistujeDigitalniMapa":
-                        item.setMaDkm("true".equals(reader.getElementText()));
-                        break;
-                    case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
-                        break;
-                    case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "MluvnickeCharakteristiky":
-                        Utils.processMluvnickeCharakteristiky(
-                                reader, item, NAMESPACE);
-                        break;
-                    case "Nazev":
-                        item.setNazev(reader.getElementText());
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "Obec":
-                        item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
-                        break;
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "RizeniId":
-                        item.setRizeniId(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case DATUM_VZNIKU:
+                item.setDatumVzniku(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case EXISTUJE_DIGITALNI_MAPA:
+                item.setMaDkm("true".equals(reader.getElementText()));
+                break;
+            case GEOMETRIE:
+                Utils.processGeometrie(
+                        reader, getConnection(), item, NAMESPACE);
+                break;
+            case GLOBALNI_ID_NAVRHU_ZMENY:
+                item.setNzIdGlobalni(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KOD:
+                item.setKod(Integer.parseInt(reader.getElementText()));
+                break;
+            case MLUVNICKE_CHARAKTERISTIKY:
+                Utils.processMluvnickeCharakteristiky(
+                        reader, item, NAMESPACE);
+                break;
+            case NAZEV:
+                item.setNazev(reader.getElementText());
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.valueOf(reader.getElementText()));
+                break;
+            case OBEC:
+                item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
+                break;
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case RIZENI_ID:
+                item.setRizeniId(
+                        Long.parseLong(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
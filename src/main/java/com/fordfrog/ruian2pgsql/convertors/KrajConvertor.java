@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.Kraj;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -44,6 +45,55 @@ public class KrajConvertor extends AbstractSaveConvertor<Kraj> {
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.KRAJ_INT_TYPY;
+    /**
+     * Token of DatumVzniku element.
+     */
+    private static final int DATUM_VZNIKU = 1;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 2;
+    /**
+     * Token of GlobalniIdNavrhuZmeny element.
+     */
+    private static final int GLOBALNI_ID_NAVRHU_ZMENY = 3;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 4;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 5;
+    /**
+     * Token of Nazev element.
+     */
+    private static final int NAZEV = 6;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 7;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 8;
+    /**
+     * Token of Stat element.
+     */
+    private static final int STAT = 9;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "DatumVzniku", DATUM_VZNIKU)
+            .add(NAMESPACE, "Geometrie", GEOMETRIE)
+            .add(NAMESPACE, "GlobalniIdNavrhuZmeny", GLOBALNI_ID_NAVRHU_ZMENY)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE, "Nazev", NAZEV)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "PlatiOd", PLATI_OD)
+            .add(NAMESPACE, "Stat", STAT);
     /**
      * SQL statement for testing whether the item already exists.
      */
@@ -80,7 +130,16 @@ public class KrajConvertor extends AbstractSaveConvertor<Kraj> {
             + "plati_od = ?, nz_id_globalni = ?, zmena_grafiky = ?, datum_vzniku = ?, "
             + "item_timestamp = timezone('utc', now()), deleted = false "
             + "WHERE kod = ? AND id_trans_ruian <= ?";
-
+    /**
+     * Factory of Kraj items.
+     */
+    private static final ItemFactory<Kraj> ITEM_FACTORY =
+            new ItemFactory<Kraj>() {
+                @Override
+                public Kraj create() {
+                    return new Kraj();
+                }
+            };
     /**
      * Creates new instance of KrajConvertor.
      *
@@ -90,7 +149,7 @@ public class KrajConvertor extends AbstractSaveConvertor<Kraj> {
      *                      database.
      */
     public KrajConvertor(final Connection con) throws SQLException {
-        super(Kraj.class, Namespaces.VYMENNY_FORMAT_TYPY, "Kraj", con,
+        super(ITEM_FACTORY, Namespaces.VYMENNY_FORMAT_TYPY, "Kraj", con,
                 SQL_EXISTS, SQL_INSERT, SQL_UPDATE, SQL_INSERT_NO_GIS,
                 SQL_UPDATE_NO_GIS);
     }
@@ -110,8 +169,8 @@ public class KrajConvertor extends AbstractSaveConvertor<Kraj> {
         pstmEx.setBoolean(index++, item.getZmenaGrafiky());
 
         if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -128,50 +187,53 @@ public class KrajConvertor extends AbstractSaveConvertor<Kraj> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected long getKey(final Kraj item) {
+        return item.getKod();
+    }
+
+    @Override
+    protected long getTransactionId(final Kraj item) {
+        return toTransactionId(item.getIdTransRuian());
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader, final Kraj item)
             throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "DatumVzniku":
-                        item.setDatumVzniku(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
-                        break;
-                    case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Kod":
-                        item.setKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Nazev":
-                        item.setNazev(reader.getElementText());
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "Stat":
-                        item.setStatKod(Utils.getStatKod(reader, NAMESPACE));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case DATUM_VZNIKU:
+                item.setDatumVzniku(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case GEOMETRIE:
+                Utils.processGeometrie(
+                        reader, getConnection(), item, NAMESPACE);
+                break;
+            case GLOBALNI_ID_NAVRHU_ZMENY:
+                item.setNzIdGlobalni(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KOD:
+                item.setKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case NAZEV:
+                item.setNazev(reader.getElementText());
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.valueOf(reader.getElementText()));
+                break;
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case STAT:
+                item.setStatKod(Utils.getStatKod(reader, NAMESPACE));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
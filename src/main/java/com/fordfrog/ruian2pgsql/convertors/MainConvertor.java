@@ -23,14 +23,11 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.gml.GMLUtils;
+import com.fordfrog.ruian2pgsql.utils.IndexManager;
 import com.fordfrog.ruian2pgsql.utils.Log;
-import com.fordfrog.ruian2pgsql.utils.Namespaces;
-import com.fordfrog.ruian2pgsql.utils.XMLUtils;
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -43,12 +40,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.XMLStreamReader;
 
 /**
  * Converts RÚIAN data into PostgreSQL database.
@@ -57,16 +49,6 @@ import javax.xml.stream.XMLStreamReader;
  */
 public class MainConvertor {
 
-    /**
-     * Exchange format convertor instance.
-     */
-    private static ExchangeFormatConvertor exchangeFormatConvertor;
-
-    /**
-     * Special exchange format convertor instance.
-     */
-    private static SpecialExchangeFormatConvertor specialExchangeFormatConvertor;
-
     /**
      * Creates new instance of MainConvertor.
      */
@@ -74,7 +56,7 @@ public class MainConvertor {
     }
 
     /**
-     * Converts all files with .xml.gz and .xml extensions from specified
+     * Converts all files with .xml.gz, .xml and .zip extensions from specified
      * directory into database.
      *
      * @throws XMLStreamException Thrown if problem occurred while reading XML
@@ -88,10 +70,7 @@ public class MainConvertor {
 
         try (final Connection con = DriverManager.getConnection(
                 Config.getDbConnectionUrl())) {
-            exchangeFormatConvertor = new ExchangeFormatConvertor(con);
-            specialExchangeFormatConvertor = new SpecialExchangeFormatConvertor(con);
-
-            
+            final FileConvertor fileConvertor = new FileConvertor(con);
             con.setAutoCommit(false);
 
             if (Config.isCreateTables()) {
@@ -119,6 +98,14 @@ public class MainConvertor {
                 runSQLFromResource(con, "/sql/truncate_all.sql");
             }
 
+            if (!Config.isDryRun()) {
+                ImportJournal.createTable(con);
+
+                if (Config.isCreateTables() || Config.isTruncateAll()) {
+                    ImportJournal.clear(con);
+                }
+            }
+
             if (Config.isResetTransactionIds()) {
                 Log.write("Resetting transaction ids...");
                 runSQLFromResource(con, "/sql/reset_transaction_ids.sql");
@@ -134,27 +121,87 @@ public class MainConvertor {
                 GMLUtils.setMultipointBugWorkaround(true);
             }
 
+            final List<IndexManager.Index> droppedIndexes;
+
+            if (Config.isRebuildIndexes() && !Config.isCreateTables()) {
+                Log.write("Dropping indexes...");
+                droppedIndexes = IndexManager.dropIndexes(con);
+            } else {
+                droppedIndexes = null;
+            }
+
             con.commit();
 
-            for (final Path file : getInputFiles(Config.getInputDirPath())) {
-                processFile(file);
-                con.commit();
+            final List<Path> files;
+            final List<Path> diffFiles;
+
+            if (Config.isPlanDiffs()) {
+                final DiffPlanner planner = DiffPlanner.plan(
+                        con, getInputFiles(Config.getInputDirPath()));
+                files = planner.getFullFiles();
+                diffFiles = planner.getDiffFiles();
+            } else {
+                files = getInputFiles(Config.getInputDirPath());
+                diffFiles = Collections.emptyList();
+            }
+
+            boolean imported = false;
+
+            try {
+                if (Config.getThreads() > 1) {
+                    ParallelConvertor.convert(files, fileConvertor);
+                } else {
+                    for (final Path file : files) {
+                        fileConvertor.convert(file);
+                    }
+                }
+
+                // diff files depend on each other so they are always
+                // processed one by one
+                for (final Path file : diffFiles) {
+                    fileConvertor.convert(file);
+                }
+
+                imported = true;
+            } finally {
+                fileConvertor.close();
+
+                // indexes are created even if import failed so that the
+                // database is not left without them
+                if (droppedIndexes != null) {
+                    try {
+                        con.rollback();
+                        Log.write("Creating " + droppedIndexes.size()
+                                + " dropped indexes...");
+                        IndexManager.createIndexes(con, droppedIndexes);
+                    } catch (final SQLException | RuntimeException ex) {
+                        // failure of import is more important than failure
+                        // of index creation so it must not be hidden
+                        if (imported) {
+                            throw ex;
+                        }
+
+                        Log.write("Failed to create dropped indexes: "
+                                + ex.getMessage());
+                    }
+                }
             }
 
             if (Config.isCreateTables()) {
                 Log.write("Creating indexes...");
 
-                if (Config.isNoGis() || Config.isMysqlDriver()) {
-                    if (Config.isMysqlDriver()) {
-                        runSQLFromResource(con, "/sql/schema_no_gis_mysql_idx.sql");
-                    } else {
-                        runSQLFromResource(con, "/sql/schema_no_gis_idx.sql");
-                    }
+                if (Config.isMysqlDriver()) {
+                    runSQLFromResource(con, "/sql/schema_no_gis_mysql_idx.sql");
+                } else if (Config.isNoGis()) {
+                    IndexManager.createIndexes(con, IndexManager.readIndexes(
+                            "/sql/schema_no_gis_idx.sql"));
                 } else {
-                    runSQLFromResource(con, "/sql/schema_idx.sql");
+                    IndexManager.createIndexes(con,
+                            IndexManager.readIndexes("/sql/schema_idx.sql"));
                 }
             }
 
+            AbstractSaveConvertor.logStatistics();
             Log.write("Total duration: "
                     + (System.currentTimeMillis() - startTimestamp) + " ms");
         }
@@ -239,119 +286,4 @@ public class MainConvertor {
 
         return result;
     }
-
-    /**
-     * Processes single input file.
-     *
-     * @param file file path
-     *
-     * @throws UnsupportedEncodingException Thrown if UTF-8 encoding is not
-     *                                      supported.
-     * @throws XMLStreamException           Thrown if problem occurred while
-     *                                      reading XML stream.
-     * @throws SQLException                 Thrown if problem occurred while
-     *                                      communicating with database.
-     */
-    private static void processFile(final Path file) throws XMLStreamException,
-            SQLException {
-        final String fileName = file.toString();
-
-        if (fileName.endsWith(".xml.gz") || fileName.endsWith(".xml.zip") || fileName.endsWith(".xml")) {
-            final long startTimestamp = System.currentTimeMillis();
-
-            Log.write("Processing file " + file);
-            Log.flush();
-
-            try (final InputStream inputStream = Files.newInputStream(file)) {
-                if (fileName.endsWith(".gz")) {
-                    readInputStream(new GZIPInputStream(inputStream));
-                } 
-                else if (fileName.endsWith(".zip")) {
-                	ZipFile zif = new ZipFile(fileName);
-                	ZipEntry ze = zif.entries().nextElement();
-                	readInputStream(zif.getInputStream(ze));
-                	zif.close();
-				}
-                else {
-                    readInputStream(inputStream);
-                }
-            } catch (final IOException ex) {
-                throw new RuntimeException("Failed to read input file", ex);
-            }
-
-            Log.write("File processed in "
-                    + (System.currentTimeMillis() - startTimestamp) + " ms");
-            Log.flush();
-        } else {
-            Log.write("Unsupported file extension, ignoring file " + file);
-        }
-    }
-
-    /**
-     * Reads input stream and processes the XML content.
-     *
-     * @param inputStream input stream containing XML data
-     *
-     * @throws XMLStreamException Thrown if problem occurred while reading XML
-     *                            stream.
-     * @throws SQLException       Thrown if problem occurred while communicating
-     *                            with database.
-     */
-    private static void readInputStream(final InputStream inputStream)
-            throws XMLStreamException, SQLException {
-        final XMLInputFactory xMLInputFactory = XMLInputFactory.newInstance();
-
-        final XMLStreamReader reader;
-
-        try {
-            reader = xMLInputFactory.createXMLStreamReader(
-                    new InputStreamReader(inputStream, "UTF-8"));
-        } catch (final UnsupportedEncodingException ex) {
-            throw new RuntimeException("UTF-8 encoding is not supported", ex);
-        }
-
-        while (reader.hasNext()) {
-            final int event = reader.next();
-
-            if (event == XMLStreamReader.START_ELEMENT) {
-                processElement(reader);
-            }
-        }
-    }
-
-    /**
-     * Processes elements and its sub-elements.
-     *
-     * @param reader XML stream reader
-     *
-     * @throws XMLStreamException Thrown if problem occurred while reading XML
-     *                            stream.
-     * @throws SQLException       Thrown if problem occurred while communicating
-     *                            with database.
-     */
-    private static void processElement(final XMLStreamReader reader)
-            throws XMLStreamException, SQLException {
-        switch (reader.getNamespaceURI()) {
-            case Namespaces.VYMENNY_FORMAT_TYPY:
-                switch (reader.getLocalName()) {
-                    case "VymennyFormat":
-                        exchangeFormatConvertor.convert(reader);
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-                break;
-            case Namespaces.SPECIALNI_VYMENNY_FORMAT_TYPY:
-                switch (reader.getLocalName()) {
-                    case "SpecialniVymennyFormat":
-                        specialExchangeFormatConvertor.convert(reader);
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-                break;
-            default:
-                XMLUtils.processUnsupported(reader);
-        }
-    }
 }
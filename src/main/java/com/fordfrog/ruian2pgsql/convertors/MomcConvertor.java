@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.Momc;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -44,6 +45,81 @@ public class MomcConvertor extends AbstractSaveConvertor<Momc> {
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.MOMC_INT_TYPY;
+    /**
+     * Token of DatumVzniku element.
+     */
+    private static final int DATUM_VZNIKU = 1;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 2;
+    /**
+     * Token of GlobalniIdNavrhuZmeny element.
+     */
+    private static final int GLOBALNI_ID_NAVRHU_ZMENY = 3;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 4;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 5;
+    /**
+     * Token of MluvnickeCharakteristiky element.
+     */
+    private static final int MLUVNICKE_CHARAKTERISTIKY = 6;
+    /**
+     * Token of Mop element.
+     */
+    private static final int MOP = 7;
+    /**
+     * Token of Nazev element.
+     */
+    private static final int NAZEV = 8;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 9;
+    /**
+     * Token of Obec element.
+     */
+    private static final int OBEC = 10;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 11;
+    /**
+     * Token of SpravniObvod element.
+     */
+    private static final int SPRAVNI_OBVOD = 12;
+    /**
+     * Token of VlajkaText element.
+     */
+    private static final int VLAJKA_TEXT = 13;
+    /**
+     * Token of ZnakText element.
+     */
+    private static final int ZNAK_TEXT = 14;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "DatumVzniku", DATUM_VZNIKU)
+            .add(NAMESPACE, "Geometrie", GEOMETRIE)
+            .add(NAMESPACE, "GlobalniIdNavrhuZmeny", GLOBALNI_ID_NAVRHU_ZMENY)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE,
+                    "MluvnickeCharakteristiky", MLUVNICKE_CHARAKTERISTIKY)
+            .add(NAMESPACE, "Mop", MOP)
+            .add(NAMESPACE, "Nazev", NAZEV)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "Obec", OBEC)
+            .add(NAMESPACE, "PlatiOd", PLATI_OD)
+            .add(NAMESPACE, "SpravniObvod", SPRAVNI_OBVOD)
+            .add(NAMESPACE, "VlajkaText", VLAJKA_TEXT)
+            .add(NAMESPACE, "ZnakText", ZNAK_TEXT);
     /**
      * SQL statement for checking whether the item already exists.
      */
@@ -97,6 +173,16 @@ public class MomcConvertor extends AbstractSaveConvertor<Momc> {
             + "id_trans_ruian = ?, plati_od = ?, nz_id_globalni = ?, datum_vzniku = ?, "
             + "item_timestamp = timezone('utc', now()), deleted = false "
             + "WHERE kod = ? AND id_trans_ruian <= ?";
+    /**
+     * Factory of Momc items.
+     */
+    private static final ItemFactory<Momc> ITEM_FACTORY =
+            new ItemFactory<Momc>() {
+                @Override
+                public Momc create() {
+                    return new Momc();
+                }
+            };
 
     /**
      * Creates new instance of MomcConvertor.
@@ -107,7 +193,7 @@ public class MomcConvertor extends AbstractSaveConvertor<Momc> {
      *                      database.
      */
     public MomcConvertor(final Connection con) throws SQLException {
-        super(Momc.class, Namespaces.VYMENNY_FORMAT_TYPY, "Momc", con,
+        super(ITEM_FACTORY, Namespaces.VYMENNY_FORMAT_TYPY, "Momc", con,
                 SQL_EXISTS, SQL_INSERT, SQL_UPDATE, SQL_INSERT_NO_GIS,
                 SQL_UPDATE_NO_GIS);
     }
@@ -139,8 +225,8 @@ public class MomcConvertor extends AbstractSaveConvertor<Momc> {
         pstm.setLong(index++, item.getNzIdGlobalni());
 
         if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -157,67 +243,70 @@ public class MomcConvertor extends AbstractSaveConvertor<Momc> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected long getKey(final Momc item) {
+        return item.getKod();
+    }
+
+    @Override
+    protected long getTransactionId(final Momc item) {
+        return toTransactionId(item.getIdTransRuian());
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader, final Momc item)
             throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "DatumVzniku":
-                        item.setDatumVzniku(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
-                        break;
-                    case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Kod":
-                        item.setKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "MluvnickeCharakteristiky":
-                        Utils.processMluvnickeCharakteristiky(
-                                reader, item, NAMESPACE);
-                        break;
-                    case "Mop":
-                        item.setMopKod(Utils.getMopKod(reader, NAMESPACE));
-                        break;
-                    case "Nazev":
-                        item.setNazev(reader.getElementText());
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "Obec":
-                        item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
-                        break;
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "SpravniObvod":
-                        item.setSpravobvKod(
-                                Utils.getSpravniObvodKod(reader, NAMESPACE));
-                        break;
-                    case "VlajkaText":
-                        item.setVlajkaText(reader.getElementText());
-                        break;
-                    case "ZnakText":
-                        item.setZnakText(reader.getElementText());
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case DATUM_VZNIKU:
+                item.setDatumVzniku(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case GEOMETRIE:
+                Utils.processGeometrie(
+                        reader, getConnection(), item, NAMESPACE);
+                break;
+            case GLOBALNI_ID_NAVRHU_ZMENY:
+                item.setNzIdGlobalni(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KOD:
+                item.setKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case MLUVNICKE_CHARAKTERISTIKY:
+                Utils.processMluvnickeCharakteristiky(
+                        reader, item, NAMESPACE);
+                break;
+            case MOP:
+                item.setMopKod(Utils.getMopKod(reader, NAMESPACE));
+                break;
+            case NAZEV:
+                item.setNazev(reader.getElementText());
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.valueOf(reader.getElementText()));
+                break;
+            case OBEC:
+                item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
+                break;
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case SPRAVNI_OBVOD:
+                item.setSpravobvKod(
+                        Utils.getSpravniObvodKod(reader, NAMESPACE));
+                break;
+            case VLAJKA_TEXT:
+                item.setVlajkaText(reader.getElementText());
+                break;
+            case ZNAK_TEXT:
+                item.setZnakText(reader.getElementText());
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
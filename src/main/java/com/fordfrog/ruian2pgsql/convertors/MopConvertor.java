@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.Mop;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -44,6 +45,55 @@ public class MopConvertor extends AbstractSaveConvertor<Mop> {
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.MOP_INT_TYPY;
+    /**
+     * Token of DatumVzniku element.
+     */
+    private static final int DATUM_VZNIKU = 1;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 2;
+    /**
+     * Token of GlobalniIdNavrhuZmeny element.
+     */
+    private static final int GLOBALNI_ID_NAVRHU_ZMENY = 3;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 4;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 5;
+    /**
+     * Token of Nazev element.
+     */
+    private static final int NAZEV = 6;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 7;
+    /**
+     * Token of Obec element.
+     */
+    private static final int OBEC = 8;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 9;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "DatumVzniku", DATUM_VZNIKU)
+            .add(NAMESPACE, "Geometrie", GEOMETRIE)
+            .add(NAMESPACE, "GlobalniIdNavrhuZmeny", GLOBALNI_ID_NAVRHU_ZMENY)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE, "Nazev", NAZEV)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "Obec", OBEC)
+            .add(NAMESPACE, "PlatiOd", PLATI_OD);
     /**
      * SQL statement for checking whether the item already exists.
      */
@@ -80,7 +130,16 @@ public class MopConvertor extends AbstractSaveConvertor<Mop> {
             + "plati_od = ?, nz_id_globalni = ?, zmena_grafiky = ?, datum_vzniku = ?, "
             + "item_timestamp = timezone('utc', now()), deleted = false "
             + "WHERE kod = ? AND id_trans_ruian <= ?";
-
+    /**
+     * Factory of Mop items.
+     */
+    private static final ItemFactory<Mop> ITEM_FACTORY =
+            new ItemFactory<Mop>() {
+                @Override
+                public Mop create() {
+                    return new Mop();
+                }
+            };
     /**
      * Creates new instance of MopConvertor.
      *
@@ -90,8 +149,9 @@ public class MopConvertor extends AbstractSaveConvertor<Mop> {
      *                      database.
      */
     public MopConvertor(final Connection con) throws SQLException {
-        super(Mop.class, Namespaces.VYMENNY_FORMAT_TYPY, "Mop", con, SQL_EXISTS,
-                SQL_INSERT, SQL_UPDATE, SQL_INSERT_NO_GIS, SQL_UPDATE_NO_GIS);
+        super(ITEM_FACTORY, Namespaces.VYMENNY_FORMAT_TYPY, "Mop", con,
+                SQL_EXISTS, SQL_INSERT, SQL_UPDATE, SQL_INSERT_NO_GIS,
+                SQL_UPDATE_NO_GIS);
     }
 
     @Override
@@ -109,8 +169,8 @@ public class MopConvertor extends AbstractSaveConvertor<Mop> {
         pstmEx.setBoolean(index++, item.getZmenaGrafiky());
 
         if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -127,50 +187,53 @@ public class MopConvertor extends AbstractSaveConvertor<Mop> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected long getKey(final Mop item) {
+        return item.getKod();
+    }
+
+    @Override
+    protected long getTransactionId(final Mop item) {
+        return toTransactionId(item.getIdTransRuian());
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader, final Mop item)
             throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "DatumVzniku":
-                        item.setDatumVzniku(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
-                        break;
-                    case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Kod":
-                        item.setKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Nazev":
-                        item.setNazev(reader.getElementText());
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "Obec":
-                        item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
-                        break;
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case DATUM_VZNIKU:
+                item.setDatumVzniku(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case GEOMETRIE:
+                Utils.processGeometrie(
+                        reader, getConnection(), item, NAMESPACE);
+                break;
+            case GLOBALNI_ID_NAVRHU_ZMENY:
+                item.setNzIdGlobalni(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KOD:
+                item.setKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case NAZEV:
+                item.setNazev(reader.getElementText());
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.valueOf(reader.getElementText()));
+                break;
+            case OBEC:
+                item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
+                break;
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseTimestamp(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
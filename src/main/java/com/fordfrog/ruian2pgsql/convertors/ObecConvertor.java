@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.Obec;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -44,6 +45,96 @@ public class ObecConvertor extends AbstractSaveConvertor<Obec> {
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.OBEC_INT_TYPY;
+    /**
+     * Token of CleneniSMRozsahKod element.
+     */
+    private static final int CLENENI_SMROZSAH_KOD = 1;
+    /**
+     * Token of CleneniSMTypKod element.
+     */
+    private static final int CLENENI_SMTYP_KOD = 2;
+    /**
+     * Token of DatumVzniku element.
+     */
+    private static final int DATUM_VZNIKU = 3;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 4;
+    /**
+     * Token of GlobalniIdNavrhuZmeny element.
+     */
+    private static final int GLOBALNI_ID_NAVRHU_ZMENY = 5;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 6;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 7;
+    /**
+     * Token of MluvnickeCharakteristiky element.
+     */
+    private static final int MLUVNICKE_CHARAKTERISTIKY = 8;
+    /**
+     * Token of Nazev element.
+     */
+    private static final int NAZEV = 9;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 10;
+    /**
+     * Token of NutsLau element.
+     */
+    private static final int NUTS_LAU = 11;
+    /**
+     * Token of Okres element.
+     */
+    private static final int OKRES = 12;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 13;
+    /**
+     * Token of Pou element.
+     */
+    private static final int POU = 14;
+    /**
+     * Token of StatusKod element.
+     */
+    private static final int STATUS_KOD = 15;
+    /**
+     * Token of VlajkaText element.
+     */
+    private static final int VLAJKA_TEXT = 16;
+    /**
+     * Token of ZnakText element.
+     */
+    private static final int ZNAK_TEXT = 17;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "CleneniSMRozsahKod", CLENENI_SMROZSAH_KOD)
+            .add(NAMESPACE, "CleneniSMTypKod", CLENENI_SMTYP_KOD)
+            .add(NAMESPACE, "DatumVzniku", DATUM_VZNIKU)
+            .add(NAMESPACE, "Geometrie", GEOMETRIE)
+            .add(NAMESPACE, "GlobalniIdNavrhuZmeny", GLOBALNI_ID_NAVRHU_ZMENY)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE,
+                    "MluvnickeCharakteristiky", MLUVNICKE_CHARAKTERISTIKY)
+            .add(NAMESPACE, "Nazev", NAZEV)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "NutsLau", NUTS_LAU)
+            .add(NAMESPACE, "Okres", OKRES)
+            .add(NAMESPACE, "PlatiOd", PLATI_OD)
+            .add(NAMESPACE, "Pou", POU)
+            .add(NAMESPACE, "StatusKod", STATUS_KOD)
+            .add(NAMESPACE, "VlajkaText", VLAJKA_TEXT)
+            .add(NAMESPACE, "ZnakText", ZNAK_TEXT);
     /**
      * SQL statement for checking whether the item already exists.
      */
@@ -103,7 +194,16 @@ public class ObecConvertor extends AbstractSaveConvertor<Obec> {
             + "plati_od = ?, nz_id_globalni = ?, datum_vzniku = ?, "
             + "item_timestamp = timezone('utc', now()), deleted = false "
             + "WHERE kod = ? AND id_trans_ruian <= ?";
-
+    /**
+     * Factory of Obec items.
+     */
+    private static final ItemFactory<Obec> ITEM_FACTORY =
+            new ItemFactory<Obec>() {
+                @Override
+                public Obec create() {
+                    return new Obec();
+                }
+            };
     /**
      * Creates new instance of ObecConvertor.
      *
@@ -113,7 +213,7 @@ public class ObecConvertor extends AbstractSaveConvertor<Obec> {
      *                      database.
      */
     public ObecConvertor(final Connection con) throws SQLException {
-        super(Obec.class, Namespaces.VYMENNY_FORMAT_TYPY, "Obec", con,
+        super(ITEM_FACTORY, Namespaces.VYMENNY_FORMAT_TYPY, "Obec", con,
                 SQL_EXISTS, SQL_INSERT, SQL_UPDATE, SQL_INSERT_NO_GIS,
                 SQL_UPDATE_NO_GIS);
     }
@@ -148,8 +248,8 @@ public class ObecConvertor extends AbstractSaveConvertor<Obec> {
         pstm.setLong(index++, item.getNzIdGlobalni());
 
         if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -166,78 +266,81 @@ public class ObecConvertor extends AbstractSaveConvertor<Obec> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected long getKey(final Obec item) {
+        return item.getKod();
+    }
+
+    @Override
+    protected long getTransactionId(final Obec item) {
+        return toTransactionId(item.getIdTransRuian());
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader, final Obec item)
             throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "CleneniSMRozsahKod":
-                        item.setCleneniSmRozsahKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "CleneniSMTypKod":
-                        item.setCleneniSmTypKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "DatumVzniku":
-                        item.setDatumVzniku(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
-                        break;
-                    case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Kod":
-                        item.setKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "MluvnickeCharakteristiky":
-                        Utils.processMluvnickeCharakteristiky(
-                                reader, item, NAMESPACE);
-                        break;
-                    case "Nazev":
-                        item.setNazev(reader.getElementText());
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "NutsLau":
-                        item.setNutsLau(reader.getElementText());
-                        break;
-                    case "Okres":
-                        item.setOkresKod(Utils.getOkresKod(reader, NAMESPACE));
-                        break;
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "Pou":
-                        item.setPouKod(Utils.getPouKod(reader, NAMESPACE));
-                        break;
-                    case "StatusKod":
-                        item.setStatusKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "VlajkaText":
-                        item.setVlajkaText(reader.getElementText());
-                        break;
-                    case "ZnakText":
-                        item.setZnakText(reader.getElementText());
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case CLENENI_SMROZSAH_KOD:
+                item.setCleneniSmRozsahKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case CLENENI_SMTYP_KOD:
+                item.setCleneniSmTypKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case DATUM_VZNIKU:
+                item.setDatumVzniku(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case GEOMETRIE:
+                Utils.processGeometrie(
+                        reader, getConnection(), item, NAMESPACE);
+                break;
+            case GLOBALNI_ID_NAVRHU_ZMENY:
+                item.setNzIdGlobalni(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KOD:
+                item.setKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case MLUVNICKE_CHARAKTERISTIKY:
+                Utils.processMluvnickeCharakteristiky(
+                        reader, item, NAMESPACE);
+                break;
+            case NAZEV:
+                item.setNazev(reader.getElementText());
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.valueOf(reader.getElementText()));
+                break;
+            case NUTS_LAU:
+                item.setNutsLau(reader.getElementText());
+                break;
+            case OKRES:
+                item.setOkresKod(Utils.getOkresKod(reader, NAMESPACE));
+                break;
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case POU:
+                item.setPouKod(Utils.getPouKod(reader, NAMESPACE));
+                break;
+            case STATUS_KOD:
+                item.setStatusKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case VLAJKA_TEXT:
+                item.setVlajkaText(reader.getElementText());
+                break;
+            case ZNAK_TEXT:
+                item.setZnakText(reader.getElementText());
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.Orp;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -44,6 +45,65 @@ public class OrpConvertor extends AbstractSaveConvertor<Orp> {
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.ORP_INT_TYPY;
+    /**
+     * Token of Okres element.
+     */
+    private static final int OKRES = 1;
+    /**
+     * Token of DatumVzniku element.
+     */
+    private static final int DATUM_VZNIKU = 2;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 3;
+    /**
+     * Token of GlobalniIdNavrhuZmeny element.
+     */
+    private static final int GLOBALNI_ID_NAVRHU_ZMENY = 4;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 5;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 6;
+    /**
+     * Token of Nazev element.
+     */
+    private static final int NAZEV = 7;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 8;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 9;
+    /**
+     * Token of SpravniObecKod element.
+     */
+    private static final int SPRAVNI_OBEC_KOD = 10;
+    /**
+     * Token of Vusc element.
+     */
+    private static final int VUSC = 11;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "Okres", OKRES)
+            .add(NAMESPACE, "DatumVzniku", DATUM_VZNIKU)
+            .add(NAMESPACE, "Geometrie", GEOMETRIE)
+            .add(NAMESPACE, "GlobalniIdNavrhuZmeny", GLOBALNI_ID_NAVRHU_ZMENY)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE, "Nazev", NAZEV)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "PlatiOd", PLATI_OD)
+            .add(NAMESPACE, "SpravniObecKod", SPRAVNI_OBEC_KOD)
+            .add(NAMESPACE, "Vusc", VUSC);
     /**
      * SQL statement for checking whether the item already exists.
      */
@@ -83,6 +143,16 @@ public class OrpConvertor extends AbstractSaveConvertor<Orp> {
             + "nz_id_globalni = ?, zmena_grafiky = ?, datum_vzniku = ?, okres_kod = ?, "
             + "item_timestamp = timezone('utc', now()), deleted = false "
             + "WHERE kod = ? AND id_trans_ruian <= ?";
+    /**
+     * Factory of Orp items.
+     */
+    private static final ItemFactory<Orp> ITEM_FACTORY =
+            new ItemFactory<Orp>() {
+                @Override
+                public Orp create() {
+                    return new Orp();
+                }
+            };
 
     /**
      * Creates new instance of OrpConvertor.
@@ -93,8 +163,9 @@ public class OrpConvertor extends AbstractSaveConvertor<Orp> {
      *                      database.
      */
     public OrpConvertor(final Connection con) throws SQLException {
-        super(Orp.class, Namespaces.VYMENNY_FORMAT_TYPY, "Orp", con, SQL_EXISTS,
-                SQL_INSERT, SQL_UPDATE, SQL_INSERT_NO_GIS, SQL_UPDATE_NO_GIS);
+        super(ITEM_FACTORY, Namespaces.VYMENNY_FORMAT_TYPY, "Orp", con,
+                SQL_EXISTS, SQL_INSERT, SQL_UPDATE, SQL_INSERT_NO_GIS,
+                SQL_UPDATE_NO_GIS);
     }
 
     @Override
@@ -113,8 +184,8 @@ public class OrpConvertor extends AbstractSaveConvertor<Orp> {
         pstmEx.setBoolean(index++, item.getZmenaGrafiky());
 
         if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -132,57 +203,60 @@ public class OrpConvertor extends AbstractSaveConvertor<Orp> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected long getKey(final Orp item) {
+        return item.getKod();
+    }
+
+    @Override
+    protected long getTransactionId(final Orp item) {
+        return toTransactionId(item.getIdTransRuian());
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader, final Orp item)
             throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "Okres":
-                        item.setOkresKod(Utils.getOkresKod(reader, NAMESPACE));
-                        break;
-                    case "DatumVzniku":
-                        item.setDatumVzniku(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
-                        break;
-                    case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Kod":
-                        item.setKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Nazev":
-                        item.setNazev(reader.getElementText());
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "SpravniObecKod":
-                        item.setSpravniObecKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Vusc":
-                        item.setVuscKod(Utils.getVuscKod(reader, NAMESPACE));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case OKRES:
+                item.setOkresKod(Utils.getOkresKod(reader, NAMESPACE));
+                break;
+            case DATUM_VZNIKU:
+                item.setDatumVzniku(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case GEOMETRIE:
+                Utils.processGeometrie(
+                        reader, getConnection(), item, NAMESPACE);
+                break;
+            case GLOBALNI_ID_NAVRHU_ZMENY:
+                item.setNzIdGlobalni(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KOD:
+                item.setKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case NAZEV:
+                item.setNazev(reader.getElementText());
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.valueOf(reader.getElementText()));
+                break;
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case SPRAVNI_OBEC_KOD:
+                item.setSpravniObecKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case VUSC:
+                item.setVuscKod(Utils.getVuscKod(reader, NAMESPACE));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -0,0 +1,496 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.utils.Log;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Converts input files using multiple threads, each with its own database
+ * connection. Files and entries of ZIP archives are passed to the workers
+ * through bounded queue. ZIP archives are streamed by the calling thread:
+ * XML entries are read into memory and nested ZIP archives are passed to the
+ * workers still compressed, so that independent entries of bulk bundles are
+ * processed in parallel without unpacking them to disk.
+ *
+ * Files and entries with state level data are processed alone, after all
+ * preceding sources were processed and before any of the following sources
+ * is processed. Entries larger than {@link #MAX_BUFFERED_ENTRY_SIZE} or of
+ * unknown size, both XML entries and nested ZIP archives, are processed
+ * alone too, streamed directly from the archive. Memory used by entries is
+ * bounded by the queue capacity, which equals number of workers.
+ * If processing of a source fails, its changes are rolled back and the other
+ * sources of the same group are still processed, but no further groups are
+ * started.
+ *
+ * @author fordfrog
+ */
+public class ParallelConvertor {
+
+    /**
+     * Pattern for matching names of files with state level data.
+     */
+    private static final Pattern PATTERN_STATE_FILE =
+            Pattern.compile("(^|_)ST_");
+    /**
+     * Maximum size of XML entry or nested ZIP archive that is read into
+     * memory and passed to the workers.
+     */
+    private static final long MAX_BUFFERED_ENTRY_SIZE = 64L * 1_024L * 1_024L;
+    /**
+     * Source that stops the worker.
+     */
+    private static final InputSource END = new InputSource("", "") {
+        @Override
+        public long getSize() {
+            return 0;
+        }
+
+        @Override
+        public String getContentHash() {
+            return null;
+        }
+
+        @Override
+        public InputStream openStream() {
+            throw new UnsupportedOperationException();
+        }
+    };
+    /**
+     * File convertors of the workers. The first one uses main database
+     * connection and is used also for sources that are processed alone.
+     */
+    private final List<FileConvertor> workers;
+    /**
+     * Queue of sources waiting for the workers.
+     */
+    private final BlockingQueue<InputSource> queue;
+    /**
+     * Names of sources that failed to be processed.
+     */
+    private final List<String> failures =
+            Collections.synchronizedList(new ArrayList<String>(10));
+    /**
+     * Number of sources that were submitted and are not processed yet.
+     */
+    private int pending;
+    /**
+     * Whether remaining entries of streamed ZIP file are skipped because
+     * processing failed before group boundary.
+     */
+    private boolean stopped;
+    /**
+     * Failure of rolling back changes of failed source, which stops the
+     * import.
+     */
+    private volatile Exception error;
+
+    /**
+     * Creates new instance of ParallelConvertor.
+     *
+     * @param workers {@link #workers}
+     */
+    private ParallelConvertor(final List<FileConvertor> workers) {
+        this.workers = workers;
+        queue = new ArrayBlockingQueue<>(Config.getThreads());
+    }
+
+    /**
+     * Converts files using {@link Config#getThreads()} threads.
+     *
+     * @param files         sorted list of input files
+     * @param fileConvertor file convertor using main database connection
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    public static void convert(final List<Path> files,
+            final FileConvertor fileConvertor)
+            throws XMLStreamException, SQLException {
+        final List<FileConvertor> workers =
+                new ArrayList<>(Config.getThreads());
+        workers.add(fileConvertor);
+
+        final ExecutorService executor =
+                Executors.newFixedThreadPool(Config.getThreads());
+        final ParallelConvertor convertor = new ParallelConvertor(workers);
+        final List<Future<Void>> futures =
+                new ArrayList<>(Config.getThreads());
+
+        try {
+            for (int i = 1; i < Config.getThreads(); i++) {
+                final Connection con = DriverManager.getConnection(
+                        Config.getDbConnectionUrl());
+
+                try {
+                    workers.add(new FileConvertor(con));
+                } catch (final SQLException ex) {
+                    FileConvertor.release(con);
+                    con.close();
+                    throw ex;
+                }
+
+                con.setAutoCommit(false);
+            }
+
+            for (final FileConvertor worker : workers) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws InterruptedException {
+                        convertor.work(worker);
+
+                        return null;
+                    }
+                }));
+            }
+
+            for (final List<Path> group : getFileGroups(files)) {
+                convertor.convertGroup(group);
+
+                if (!convertor.failures.isEmpty()
+                        || convertor.error != null) {
+                    break;
+                }
+            }
+
+            for (int i = 0; i < workers.size(); i++) {
+                convertor.queue.put(END);
+            }
+
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException ex) {
+            throw new RuntimeException("Import was interrupted", ex);
+        } catch (final ExecutionException ex) {
+            throw new RuntimeException("Import failed", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+
+            for (final FileConvertor worker : workers) {
+                if (worker != fileConvertor) {
+                    worker.close();
+                    worker.getConnection().close();
+                }
+            }
+        }
+
+        if (convertor.error != null) {
+            throw new RuntimeException("Import failed", convertor.error);
+        }
+
+        if (!convertor.failures.isEmpty()) {
+            throw new RuntimeException("Failed to process "
+                    + convertor.failures.size() + " file(s): "
+                    + convertor.failures);
+        }
+    }
+
+    /**
+     * Converts sources taken from the queue until {@link #END} is taken.
+     *
+     * @param worker file convertor
+     *
+     * @throws InterruptedException Thrown if the thread was interrupted.
+     */
+    private void work(final FileConvertor worker)
+            throws InterruptedException {
+        InputSource source = queue.take();
+
+        while (source != END) {
+            try {
+                // after failed rollback the connection state is unknown, so
+                // the remaining sources are only drained
+                if (error == null) {
+                    convertSource(worker, source);
+                }
+            } catch (final SQLException | RuntimeException ex) {
+                error = ex;
+            } finally {
+                done();
+            }
+
+            source = queue.take();
+        }
+    }
+
+    /**
+     * Converts group of files. Files are submitted to the workers, ZIP files
+     * are streamed and their entries are submitted to the workers. Returns
+     * after all sources of the group were processed.
+     *
+     * @param group group of files
+     *
+     * @throws InterruptedException Thrown if the thread was interrupted.
+     * @throws XMLStreamException   Thrown if problem occurred while reading
+     *                              XML stream.
+     * @throws SQLException         Thrown if problem occurred while
+     *                              communicating with database.
+     */
+    private void convertGroup(final List<Path> group)
+            throws InterruptedException, XMLStreamException, SQLException {
+        for (final Path file : group) {
+            final String fileName = file.getFileName().toString();
+
+            if (fileName.endsWith(".zip")) {
+                convertZip(InputSource.forFile(file));
+            } else if (fileName.endsWith(".xml.gz")
+                    || fileName.endsWith(".xml")) {
+                if (group.size() == 1) {
+                    awaitIdle();
+                    convertSource(workers.get(0), InputSource.forFile(file));
+                } else {
+                    submit(InputSource.forFile(file));
+                }
+            } else {
+                Log.write("Unsupported file extension, ignoring file "
+                        + file);
+            }
+        }
+
+        awaitIdle();
+    }
+
+    /**
+     * Streams entries of ZIP file and submits them to the workers.
+     *
+     * @param source ZIP file source
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    private void convertZip(final InputSource source)
+            throws XMLStreamException, SQLException {
+        stopped = false;
+
+        InputSource.readZip(source, false, new InputSource.EntryHandler() {
+            @Override
+            public void handle(final InputSource entrySource,
+                    final boolean nestedZip)
+                    throws XMLStreamException, SQLException {
+                if (stopped || error != null) {
+                    return;
+                }
+
+                try {
+                    if (isStateSource(entrySource)) {
+                        awaitIdle();
+
+                        // following groups are not started after failure
+                        if (failures.isEmpty()) {
+                            convertSource(workers.get(0), entrySource);
+                        }
+
+                        stopped = !failures.isEmpty();
+                    } else if (isLargeSource(entrySource)) {
+                        awaitIdle();
+                        convertSource(workers.get(0), entrySource);
+                    } else {
+                        submit(InputSource.readContent(entrySource));
+                    }
+                } catch (final InterruptedException ex) {
+                    throw new RuntimeException("Import was interrupted", ex);
+                } catch (final IOException ex) {
+                    throw new RuntimeException("Failed to read entry "
+                            + entrySource.getName(), ex);
+                }
+            }
+        });
+    }
+
+    /**
+     * Checks whether the source is too large to be read into memory. Sources
+     * of unknown size, like entries of streamed ZIP archives with data
+     * descriptors, are treated as large.
+     *
+     * @param source input source
+     *
+     * @return true if the source should be streamed, otherwise false
+     */
+    static boolean isLargeSource(final InputSource source) {
+        final long size = source.getSize();
+
+        return size < 0 || size > MAX_BUFFERED_ENTRY_SIZE;
+    }
+
+    /**
+     * Checks whether the source contains state level data.
+     *
+     * @param source input source
+     *
+     * @return true if the source contains state level data, otherwise false
+     */
+    private static boolean isStateSource(final InputSource source) {
+        final String fileName = source.getFileName();
+
+        return PATTERN_STATE_FILE.matcher(
+                fileName.substring(fileName.lastIndexOf('/') + 1)).find();
+    }
+
+    /**
+     * Converts single source. If conversion fails, the changes are rolled
+     * back and the failure is recorded.
+     *
+     * @param worker file convertor
+     * @param source input source
+     *
+     * @throws SQLException Thrown if problem occurred while rolling back the
+     *                      changes.
+     */
+    private void convertSource(final FileConvertor worker,
+            final InputSource source) throws SQLException {
+        try {
+            worker.convert(source);
+        } catch (final XMLStreamException | SQLException
+                | RuntimeException ex) {
+            worker.rollback();
+            Log.write("Failed to process file " + source.getName() + ": "
+                    + ex);
+            failures.add(source.getFileName());
+        }
+    }
+
+    /**
+     * Submits source to the workers. Blocks while the queue is full, which
+     * limits number of entries held in memory.
+     *
+     * @param source input source
+     *
+     * @throws InterruptedException Thrown if the thread was interrupted.
+     */
+    private void submit(final InputSource source) throws InterruptedException {
+        synchronized (this) {
+            pending++;
+        }
+
+        queue.put(source);
+    }
+
+    /**
+     * Records that submitted source was processed.
+     */
+    private synchronized void done() {
+        pending--;
+        notifyAll();
+    }
+
+    /**
+     * Waits until all submitted sources are processed.
+     *
+     * @throws InterruptedException Thrown if the thread was interrupted.
+     */
+    private synchronized void awaitIdle() throws InterruptedException {
+        while (pending > 0) {
+            wait();
+        }
+    }
+
+    /**
+     * Splits sorted list of input files into groups that can be processed in
+     * parallel. Each file with state level data forms its own group. Files in
+     * each group are sorted by size in descending order.
+     *
+     * @param files sorted list of input files
+     *
+     * @return list of file groups
+     */
+    private static List<List<Path>> getFileGroups(final List<Path> files) {
+        final List<List<Path>> result = new ArrayList<>(10);
+        List<Path> group = new ArrayList<>(files.size());
+
+        for (final Path file : files) {
+            if (PATTERN_STATE_FILE.matcher(
+                    file.getFileName().toString()).find()) {
+                if (!group.isEmpty()) {
+                    result.add(group);
+                    group = new ArrayList<>(files.size());
+                }
+
+                result.add(Collections.singletonList(file));
+            } else {
+                group.add(file);
+            }
+        }
+
+        if (!group.isEmpty()) {
+            result.add(group);
+        }
+
+        for (final List<Path> fileGroup : result) {
+            if (fileGroup.size() > 1) {
+                sortBySize(fileGroup);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Sorts files by size in descending order.
+     *
+     * @param files list of files
+     */
+    private static void sortBySize(final List<Path> files) {
+        final Map<Path, Long> sizes = new HashMap<>(files.size() * 2);
+
+        try {
+            for (final Path file : files) {
+                sizes.put(file, Files.size(file));
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeException("Failed to read size of input file", ex);
+        }
+
+        Collections.sort(files, new Comparator<Path>() {
+            @Override
+            public int compare(final Path o1, final Path o2) {
+                return sizes.get(o2).compareTo(sizes.get(o1));
+            }
+        });
+    }
+}
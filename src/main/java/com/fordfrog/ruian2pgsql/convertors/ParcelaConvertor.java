@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.Parcela;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -44,6 +45,85 @@ public class ParcelaConvertor extends AbstractSaveConvertor<Parcela> {
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.PARCELA_INT_TYPY;
+    /**
+     * Token of BonitovaneDily element.
+     */
+    private static final int BONITOVANE_DILY = 1;
+    /**
+     * Token of DruhCislovaniKod element.
+     */
+    private static final int DRUH_CISLOVANI_KOD = 2;
+    /**
+     * Token of DruhPozemkuKod element.
+     */
+    private static final int DRUH_POZEMKU_KOD = 3;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 4;
+    /**
+     * Token of Id element.
+     */
+    private static final int ID = 5;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 6;
+    /**
+     * Token of KatastralniUzemi element.
+     */
+    private static final int KATASTRALNI_UZEMI = 7;
+    /**
+     * Token of KmenoveCislo element.
+     */
+    private static final int KMENOVE_CISLO = 8;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 9;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 10;
+    /**
+     * Token of PododdeleniCisla element.
+     */
+    private static final int PODODDELENI_CISLA = 11;
+    /**
+     * Token of RizeniId element.
+     */
+    private static final int RIZENI_ID = 12;
+    /**
+     * Token of VymeraParcely element.
+     */
+    private static final int VYMERA_PARCELY = 13;
+    /**
+     * Token of ZpusobyOchranyPozemku element.
+     */
+    private static final int ZPUSOBY_OCHRANY_POZEMKU = 14;
+    /**
+     * Token of ZpusobyVyuzitiPozemku element.
+     */
+    private static final int ZPUSOBY_VYUZITI_POZEMKU = 15;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "BonitovaneDily", BONITOVANE_DILY)
+            .add(NAMESPACE, "DruhCislovaniKod", DRUH_CISLOVANI_KOD)
+            .add(NAMESPACE, "DruhPozemkuKod", DRUH_POZEMKU_KOD)
+            .add(NAMESPACE, "Geometrie", GEOMETRIE)
+            .add(NAMESPACE, "Id", ID)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "KatastralniUzemi", KATASTRALNI_UZEMI)
+            .add(NAMESPACE, "KmenoveCislo", KMENOVE_CISLO)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "PlatiOd", PLATI_OD)
+            .add(NAMESPACE, "PododdeleniCisla", PODODDELENI_CISLA)
+            .add(NAMESPACE, "RizeniId", RIZENI_ID)
+            .add(NAMESPACE, "VymeraParcely", VYMERA_PARCELY)
+            .add(NAMESPACE, "ZpusobyOchranyPozemku", ZPUSOBY_OCHRANY_POZEMKU)
+            .add(NAMESPACE, "ZpusobyVyuzitiPozemku", ZPUSOBY_VYUZITI_POZEMKU);
     /**
      * SQL statement for checking whether the item already exists.
      */
@@ -97,6 +177,16 @@ public class ParcelaConvertor extends AbstractSaveConvertor<Parcela> {
      */
     private static final String SQL_DELETE_ZPUSOBY_OCHRANY_POZEMKU =
             "DELETE FROM rn_zpusob_ochrany_pozemku WHERE parcela_id = ?";
+    /**
+     * Factory of Parcela items.
+     */
+    private static final ItemFactory<Parcela> ITEM_FACTORY =
+            new ItemFactory<Parcela>() {
+                @Override
+                public Parcela create() {
+                    return new Parcela();
+                }
+            };
     /**
      * Prepared statement for deletion of BonitovaneDily.
      */
@@ -131,7 +221,7 @@ public class ParcelaConvertor extends AbstractSaveConvertor<Parcela> {
      *                      database.
      */
     public ParcelaConvertor(final Connection con) throws SQLException {
-        super(Parcela.class, Namespaces.VYMENNY_FORMAT_TYPY, "Parcela", con,
+        super(ITEM_FACTORY, Namespaces.VYMENNY_FORMAT_TYPY, "Parcela", con,
                 SQL_EXISTS, SQL_INSERT, SQL_UPDATE, SQL_INSERT_NO_GIS,
                 SQL_UPDATE_NO_GIS);
 
@@ -159,21 +249,26 @@ public class ParcelaConvertor extends AbstractSaveConvertor<Parcela> {
             final boolean update) throws SQLException {
         final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
         int index = 1;
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstm.setInt(index++, item.getKatuzKod());
-        pstm.setInt(index++, item.getDruhPozemkuKod());
-        pstm.setInt(index++, item.getDruhCislovaniKod());
-        pstm.setInt(index++, item.getKmenoveCislo());
-        pstmEx.setInt(index++, item.getPoddeleniCisla());
-        pstm.setLong(index++, item.getVymeraParcely());
-        pstm.setLong(index++, item.getIdTransRuian());
-        pstmEx.setInt(index++, item.getZpusobVyuPozKod());
-        pstm.setLong(index++, item.getRizeniId());
-        pstmEx.setDate(index++, item.getPlatiOd());
+        pstmEx.setBoolean(index++, item.hasNespravny(), item.getNespravny());
+        pstmEx.setInt(index++, item.hasKatuzKod(), item.getKatuzKod());
+        pstmEx.setInt(index++, item.hasDruhPozemkuKod(),
+                item.getDruhPozemkuKod());
+        pstmEx.setInt(index++, item.hasDruhCislovaniKod(),
+                item.getDruhCislovaniKod());
+        pstmEx.setInt(index++, item.hasKmenoveCislo(), item.getKmenoveCislo());
+        pstmEx.setInt(index++, item.hasPoddeleniCisla(),
+                item.getPoddeleniCisla());
+        pstmEx.setLong(index++, item.hasVymeraParcely(),
+                item.getVymeraParcely());
+        pstmEx.setLong(index++, item.hasIdTransRuian(), item.getIdTransRuian());
+        pstmEx.setInt(index++, item.hasZpusobVyuPozKod(),
+                item.getZpusobVyuPozKod());
+        pstmEx.setLong(index++, item.hasRizeniId(), item.getRizeniId());
+        pstmEx.setDate(index++, item.hasPlatiOd(), item.getPlatiOd());
 
         if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstm.setLong(index++, item.getId());
@@ -189,79 +284,82 @@ public class ParcelaConvertor extends AbstractSaveConvertor<Parcela> {
         pstm.setLong(1, item.getId());
     }
 
+    @Override
+    protected long getKey(final Parcela item) {
+        return item.getId();
+    }
+
+    @Override
+    protected long getTransactionId(final Parcela item) {
+        return item.getIdTransRuian();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final Parcela item) throws XMLStreamException,
             SQLException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "BonitovaneDily":
-                        bonitovanyDilConvertor.setParcelaId(item.getId());
-                        convertorBonitovaneDily.convert(reader);
-                        break;
-                    case "DruhCislovaniKod":
-                        item.setDruhCislovaniKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "DruhPozemkuKod":
-                        item.setDruhPozemkuKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
-                        break;
-                    case "Id":
-                        item.setId(Long.parseLong(reader.getElementText()));
-                        deleteBonitovateDily(item.getId());
-                        deleteZpusobyOchranyPozemku(item.getId());
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "KatastralniUzemi":
-                        item.setKatuzKod(Utils.getKatastralniUzemiKod(
-                                reader, NAMESPACE));
-                        break;
-                    case "KmenoveCislo":
-                        item.setKmenoveCislo(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "PododdeleniCisla":
-                        item.setPoddeleniCisla(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "RizeniId":
-                        item.setRizeniId(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "VymeraParcely":
-                        item.setVymeraParcely(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "ZpusobyOchranyPozemku":
-                        zpusobOchranyPozemkuConvertor.setParcelaId(
-                                item.getId());
-                        convertorZpusobyOchranyPozemku.convert(reader);
-                        break;
-                    case "ZpusobyVyuzitiPozemku":
-                        item.setZpusobVyuPozKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case BONITOVANE_DILY:
+                bonitovanyDilConvertor.setParcelaId(item.getId());
+                convertorBonitovaneDily.convert(reader);
+                break;
+            case DRUH_CISLOVANI_KOD:
+                item.setDruhCislovaniKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case DRUH_POZEMKU_KOD:
+                item.setDruhPozemkuKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case GEOMETRIE:
+                Utils.processGeometrie(
+                        reader, getConnection(), item, NAMESPACE);
+                break;
+            case ID:
+                item.setId(Long.parseLong(reader.getElementText()));
+                deleteBonitovateDily(item.getId());
+                deleteZpusobyOchranyPozemku(item.getId());
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KATASTRALNI_UZEMI:
+                item.setKatuzKod(Utils.getKatastralniUzemiKod(
+                        reader, NAMESPACE));
+                break;
+            case KMENOVE_CISLO:
+                item.setKmenoveCislo(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.parseBoolean(reader.getElementText()));
+                break;
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseEpochDays(reader.getElementText()));
+                break;
+            case PODODDELENI_CISLA:
+                item.setPoddeleniCisla(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case RIZENI_ID:
+                item.setRizeniId(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case VYMERA_PARCELY:
+                item.setVymeraParcely(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case ZPUSOBY_OCHRANY_POZEMKU:
+                zpusobOchranyPozemkuConvertor.setParcelaId(
+                        item.getId());
+                convertorZpusobyOchranyPozemku.convert(reader);
+                break;
+            case ZPUSOBY_VYUZITI_POZEMKU:
+                item.setZpusobVyuPozKod(
+                        Integer.parseInt(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -277,13 +375,7 @@ public class ParcelaConvertor extends AbstractSaveConvertor<Parcela> {
      */
     private void deleteBonitovateDily(final Long parcelaId)
             throws SQLException {
-        if (Config.isDryRun()) {
-            return;
-        }
-
-        pstmDeleteBonitovaneDily.clearParameters();
-        pstmDeleteBonitovaneDily.setLong(1, parcelaId);
-        pstmDeleteBonitovaneDily.execute();
+        executeWithKey(pstmDeleteBonitovaneDily, parcelaId);
     }
 
     /**
@@ -295,12 +387,6 @@ public class ParcelaConvertor extends AbstractSaveConvertor<Parcela> {
      */
     private void deleteZpusobyOchranyPozemku(final Long parcelaId)
             throws SQLException {
-        if (Config.isDryRun()) {
-            return;
-        }
-
-        pstmDeleteZpusobyOchranyPozemku.clearParameters();
-        pstmDeleteZpusobyOchranyPozemku.setLong(1, parcelaId);
-        pstmDeleteZpusobyOchranyPozemku.execute();
+        executeWithKey(pstmDeleteZpusobyOchranyPozemku, parcelaId);
     }
 }
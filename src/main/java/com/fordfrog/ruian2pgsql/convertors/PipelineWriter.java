@@ -0,0 +1,289 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Executes database writes of single connection on dedicated writer thread so
+ * that parsing of XML and writing to database overlap. Writes are executed in
+ * the order in which they were submitted. The queue of pending writes is
+ * limited by estimated size of the written data, if it is full, the parsing
+ * thread waits until the writer thread catches up.
+ *
+ * @author fordfrog
+ */
+public class PipelineWriter {
+
+    /**
+     * Writers registered for each database connection.
+     */
+    private static final Map<Connection, PipelineWriter> WRITERS =
+            new IdentityHashMap<>(10);
+    /**
+     * Maximum estimated size of pending writes in bytes.
+     */
+    private final long maxSize;
+    /**
+     * Pending writes.
+     */
+    private final ArrayDeque<Write> writes = new ArrayDeque<>(1_024);
+    /**
+     * Estimated sizes of pending writes.
+     */
+    private final ArrayDeque<Integer> sizes = new ArrayDeque<>(1_024);
+    /**
+     * Writer thread.
+     */
+    private final Thread thread;
+    /**
+     * Estimated size of pending writes in bytes.
+     */
+    private long size;
+    /**
+     * Whether writer thread is executing a write.
+     */
+    private boolean busy;
+    /**
+     * Estimated size of the write that is being executed.
+     */
+    private int busySize;
+    /**
+     * Whether writer thread should stop.
+     */
+    private boolean closed;
+    /**
+     * Failure of the last failed write, null if no write failed.
+     */
+    private Throwable failure;
+
+    /**
+     * Single database write.
+     */
+    public interface Write {
+
+        /**
+         * Executes the write.
+         *
+         * @throws SQLException Thrown if problem occurred while communicating
+         *                      with database.
+         */
+        void execute() throws SQLException;
+    }
+
+    /**
+     * Creates new instance of PipelineWriter, registers it for the connection
+     * and starts the writer thread.
+     *
+     * @param con     database connection
+     * @param maxSize {@link #maxSize}
+     */
+    public PipelineWriter(final Connection con, final long maxSize) {
+        this.maxSize = maxSize;
+
+        synchronized (WRITERS) {
+            WRITERS.put(con, this);
+        }
+
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runWrites();
+            }
+        }, "pipeline-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns writer registered for the connection.
+     *
+     * @param con database connection
+     *
+     * @return writer or null if writes to the connection are not pipelined
+     */
+    public static PipelineWriter getInstance(final Connection con) {
+        synchronized (WRITERS) {
+            return WRITERS.get(con);
+        }
+    }
+
+    /**
+     * Removes writer registered for the connection. Must be called before the
+     * connection is closed.
+     *
+     * @param con database connection
+     */
+    public static void unregister(final Connection con) {
+        synchronized (WRITERS) {
+            WRITERS.remove(con);
+        }
+    }
+
+    /**
+     * Submits write to the queue. If the queue is full, waits until there is
+     * space for the write.
+     *
+     * @param write     write
+     * @param writeSize estimated size of written data in bytes
+     *
+     * @throws SQLException Thrown if any of the previous writes failed.
+     */
+    public synchronized void submit(final Write write, final int writeSize)
+            throws SQLException {
+        // single write larger than the queue is accepted if the queue is empty
+        while (failure == null && size > 0 && size + writeSize > maxSize) {
+            waitForWriter();
+        }
+
+        checkFailure();
+
+        writes.add(write);
+        sizes.add(writeSize);
+        size += writeSize;
+        notifyAll();
+    }
+
+    /**
+     * Waits until all submitted writes are executed.
+     *
+     * @throws SQLException Thrown if any of the writes failed.
+     */
+    public synchronized void sync() throws SQLException {
+        while (failure == null && (busy || !writes.isEmpty())) {
+            waitForWriter();
+        }
+
+        checkFailure();
+    }
+
+    /**
+     * Drops pending writes, waits until writer thread is idle and clears
+     * recorded failure. Used when the transaction is rolled back.
+     */
+    public synchronized void abort() {
+        writes.clear();
+        sizes.clear();
+        size = busy ? busySize : 0;
+
+        while (busy) {
+            waitForWriter();
+        }
+
+        failure = null;
+    }
+
+    /**
+     * Stops the writer thread. Pending writes are dropped.
+     */
+    public void close() {
+        synchronized (this) {
+            abort();
+            closed = true;
+            notifyAll();
+        }
+
+        try {
+            thread.join();
+        } catch (final InterruptedException ex) {
+            throw new RuntimeException(
+                    "Interrupted while waiting for writer thread", ex);
+        }
+    }
+
+    /**
+     * Executes submitted writes until the writer is closed.
+     */
+    private void runWrites() {
+        while (true) {
+            final Write write;
+
+            synchronized (this) {
+                while (!closed && (writes.isEmpty() || failure != null)) {
+                    waitForWriter();
+                }
+
+                if (closed) {
+                    return;
+                }
+
+                write = writes.poll();
+                busySize = sizes.poll();
+                busy = true;
+            }
+
+            Throwable writeFailure = null;
+
+            try {
+                write.execute();
+            } catch (final SQLException | RuntimeException | Error ex) {
+                writeFailure = ex;
+            }
+
+            synchronized (this) {
+                busy = false;
+                size -= busySize;
+
+                if (writeFailure != null) {
+                    failure = writeFailure;
+                    writes.clear();
+                    sizes.clear();
+                    size = 0;
+                }
+
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Throws recorded failure.
+     *
+     * @throws SQLException Thrown if recorded failure is SQLException.
+     */
+    private void checkFailure() throws SQLException {
+        if (failure instanceof SQLException) {
+            throw (SQLException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+    }
+
+    /**
+     * Waits for change of the writer state. Must be called while holding lock
+     * of this writer.
+     */
+    private void waitForWriter() {
+        try {
+            wait();
+        } catch (final InterruptedException ex) {
+            throw new RuntimeException(
+                    "Interrupted while waiting for writer thread", ex);
+        }
+    }
+}
@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.Pou;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -44,6 +45,60 @@ public class PouConvertor extends AbstractSaveConvertor<Pou> {
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.POU_INT_TYPY;
+    /**
+     * Token of DatumVzniku element.
+     */
+    private static final int DATUM_VZNIKU = 1;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 2;
+    /**
+     * Token of GlobalniIdNavrhuZmeny element.
+     */
+    private static final int GLOBALNI_ID_NAVRHU_ZMENY = 3;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 4;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 5;
+    /**
+     * Token of Nazev element.
+     */
+    private static final int NAZEV = 6;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 7;
+    /**
+     * Token of Orp element.
+     */
+    private static final int ORP = 8;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 9;
+    /**
+     * Token of SpravniObecKod element.
+     */
+    private static final int SPRAVNI_OBEC_KOD = 10;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "DatumVzniku", DATUM_VZNIKU)
+            .add(NAMESPACE, "Geometrie", GEOMETRIE)
+            .add(NAMESPACE, "GlobalniIdNavrhuZmeny", GLOBALNI_ID_NAVRHU_ZMENY)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE, "Nazev", NAZEV)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "Orp", ORP)
+            .add(NAMESPACE, "PlatiOd", PLATI_OD)
+            .add(NAMESPACE, "SpravniObecKod", SPRAVNI_OBEC_KOD);
     /**
      * SQL statement for checking whether the item already exists.
      */
@@ -83,7 +138,16 @@ public class PouConvertor extends AbstractSaveConvertor<Pou> {
             + "nz_id_globalni = ?, zmena_grafiky = ?, datum_vzniku = ?, "
             + "item_timestamp = timezone('utc', now()), deleted = false "
             + "WHERE kod = ? AND id_trans_ruian <= ?";
-
+    /**
+     * Factory of Pou items.
+     */
+    private static final ItemFactory<Pou> ITEM_FACTORY =
+            new ItemFactory<Pou>() {
+                @Override
+                public Pou create() {
+                    return new Pou();
+                }
+            };
     /**
      * Creates new instance of PouConvertor.
      *
@@ -93,8 +157,9 @@ public class PouConvertor extends AbstractSaveConvertor<Pou> {
      *                      database.
      */
     public PouConvertor(final Connection con) throws SQLException {
-        super(Pou.class, Namespaces.VYMENNY_FORMAT_TYPY, "Pou", con, SQL_EXISTS,
-                SQL_INSERT, SQL_UPDATE, SQL_INSERT_NO_GIS, SQL_UPDATE_NO_GIS);
+        super(ITEM_FACTORY, Namespaces.VYMENNY_FORMAT_TYPY, "Pou", con,
+                SQL_EXISTS, SQL_INSERT, SQL_UPDATE, SQL_INSERT_NO_GIS,
+                SQL_UPDATE_NO_GIS);
     }
 
     @Override
@@ -113,8 +178,8 @@ public class PouConvertor extends AbstractSaveConvertor<Pou> {
         pstmEx.setBoolean(index++, item.getZmenaGrafiky());
 
         if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -131,54 +196,57 @@ public class PouConvertor extends AbstractSaveConvertor<Pou> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected long getKey(final Pou item) {
+        return item.getKod();
+    }
+
+    @Override
+    protected long getTransactionId(final Pou item) {
+        return toTransactionId(item.getIdTransRuian());
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader, final Pou item)
             throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "DatumVzniku":
-                        item.setDatumVzniku(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
-                        break;
-                    case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Kod":
-                        item.setKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Nazev":
-                        item.setNazev(reader.getElementText());
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "Orp":
-                        item.setOrpKod(Utils.getOrpKod(reader, NAMESPACE));
-                        break;
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "SpravniObecKod":
-                        item.setSpravniObecKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case DATUM_VZNIKU:
+                item.setDatumVzniku(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case GEOMETRIE:
+                Utils.processGeometrie(
+                        reader, getConnection(), item, NAMESPACE);
+                break;
+            case GLOBALNI_ID_NAVRHU_ZMENY:
+                item.setNzIdGlobalni(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KOD:
+                item.setKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case NAZEV:
+                item.setNazev(reader.getElementText());
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.valueOf(reader.getElementText()));
+                break;
+            case ORP:
+                item.setOrpKod(Utils.getOrpKod(reader, NAMESPACE));
+                break;
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case SPRAVNI_OBEC_KOD:
+                item.setSpravniObecKod(
+                        Integer.parseInt(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.RegionSoudrznosti;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -45,6 +46,60 @@ public class RegionSoudrznostiConvertor
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.REG_SOU_INTI_TYPY;
+    /**
+     * Token of DatumVzniku element.
+     */
+    private static final int DATUM_VZNIKU = 1;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 2;
+    /**
+     * Token of GlobalniIdNavrhuZmeny element.
+     */
+    private static final int GLOBALNI_ID_NAVRHU_ZMENY = 3;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 4;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 5;
+    /**
+     * Token of Nazev element.
+     */
+    private static final int NAZEV = 6;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 7;
+    /**
+     * Token of NutsLau element.
+     */
+    private static final int NUTS_LAU = 8;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 9;
+    /**
+     * Token of Stat element.
+     */
+    private static final int STAT = 10;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "DatumVzniku", DATUM_VZNIKU)
+            .add(NAMESPACE, "Geometrie", GEOMETRIE)
+            .add(NAMESPACE, "GlobalniIdNavrhuZmeny", GLOBALNI_ID_NAVRHU_ZMENY)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE, "Nazev", NAZEV)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "NutsLau", NUTS_LAU)
+            .add(NAMESPACE, "PlatiOd", PLATI_OD)
+            .add(NAMESPACE, "Stat", STAT);
     /**
      * SQL statement for checking whether the item already exists.
      */
@@ -87,6 +142,16 @@ public class RegionSoudrznostiConvertor
             + "zmena_grafiky = ?, datum_vzniku = ?, item_timestamp = timezone('utc', now()), "
             + "deleted = false "
             + "WHERE kod = ? AND id_trans_ruian <= ?";
+    /**
+     * Factory of RegionSoudrznosti items.
+     */
+    private static final ItemFactory<RegionSoudrznosti> ITEM_FACTORY =
+            new ItemFactory<RegionSoudrznosti>() {
+                @Override
+                public RegionSoudrznosti create() {
+                    return new RegionSoudrznosti();
+                }
+            };
 
     /**
      * Creates new instance of RegionSoudrznostiConvertor.
@@ -97,7 +162,7 @@ public class RegionSoudrznostiConvertor
      *                      database.
      */
     public RegionSoudrznostiConvertor(final Connection con) throws SQLException {
-        super(RegionSoudrznosti.class, Namespaces.VYMENNY_FORMAT_TYPY,
+        super(ITEM_FACTORY, Namespaces.VYMENNY_FORMAT_TYPY,
                 "RegionSoudrznosti", con, SQL_EXISTS, SQL_INSERT, SQL_UPDATE,
                 SQL_INSERT_NO_GIS, SQL_UPDATE_NO_GIS);
     }
@@ -119,8 +184,8 @@ public class RegionSoudrznostiConvertor
         pstmEx.setBoolean(index++, item.getZmenaGrafiky());
 
         if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -137,53 +202,56 @@ public class RegionSoudrznostiConvertor
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected long getKey(final RegionSoudrznosti item) {
+        return item.getKod();
+    }
+
+    @Override
+    protected long getTransactionId(final RegionSoudrznosti item) {
+        return toTransactionId(item.getIdTransRuian());
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final RegionSoudrznosti item) throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "DatumVzniku":
-                        item.setDatumVzniku(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
-                        break;
-                    case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Kod":
-                        item.setKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Nazev":
-                        item.setNazev(reader.getElementText());
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "NutsLau":
-                        item.setNutsLau(reader.getElementText());
-                        break;
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "Stat":
-                        item.setStatKod(Utils.getStatKod(reader, NAMESPACE));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case DATUM_VZNIKU:
+                item.setDatumVzniku(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case GEOMETRIE:
+                Utils.processGeometrie(
+                        reader, getConnection(), item, NAMESPACE);
+                break;
+            case GLOBALNI_ID_NAVRHU_ZMENY:
+                item.setNzIdGlobalni(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KOD:
+                item.setKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case NAZEV:
+                item.setNazev(reader.getElementText());
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.valueOf(reader.getElementText()));
+                break;
+            case NUTS_LAU:
+                item.setNutsLau(reader.getElementText());
+                break;
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case STAT:
+                item.setStatKod(Utils.getStatKod(reader, NAMESPACE));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
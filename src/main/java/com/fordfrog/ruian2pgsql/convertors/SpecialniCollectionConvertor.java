@@ -86,6 +86,27 @@ public class SpecialniCollectionConvertor extends AbstractConvertor {
         this.convertor = convertor;
     }
 
+    /**
+     * Converts the collection and flushes items that are buffered by the item
+     * convertor, so that batches do not span multiple collections.
+     *
+     * @param reader XML stream reader
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while communicating
+     *                            with database.
+     */
+    @Override
+    public void convert(final XMLStreamReader reader)
+            throws XMLStreamException, SQLException {
+        super.convert(reader);
+
+        if (convertor instanceof AbstractSaveConvertor) {
+            ((AbstractSaveConvertor<?>) convertor).endCollection();
+        }
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader)
             throws XMLStreamException, SQLException {
@@ -22,6 +22,7 @@
 package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.containers.Hlavicka;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -38,6 +39,90 @@ public class SpecialniHlavickaConvertor extends AbstractSaveConvertor<Hlavicka>
      * Namespace of Hlavicka element and its sub-elements.
      */
     private static final String NAMESPACE = Namespaces.SPECIALNI_VYMENNY_FORMAT_TYPY;
+    /**
+     * Token of Datum element.
+     */
+    private static final int DATUM = 1;
+    /**
+     * Token of Metadata element.
+     */
+    private static final int METADATA = 2;
+    /**
+     * Token of PlatnostDatK element.
+     */
+    private static final int PLATNOST_DAT_K = 3;
+    /**
+     * Token of PlnySoubor element.
+     */
+    private static final int PLNY_SOUBOR = 4;
+    /**
+     * Token of PredchoziSoubor element.
+     */
+    private static final int PREDCHOZI_SOUBOR = 5;
+    /**
+     * Token of TransakceOd element.
+     */
+    private static final int TRANSAKCE_OD = 6;
+    /**
+     * Token of TrasakceOd element.
+     */
+    private static final int TRASAKCE_OD = 7;
+    /**
+     * Token of TransakceDo element.
+     */
+    private static final int TRANSAKCE_DO = 8;
+    /**
+     * Token of TypDavky element.
+     */
+    private static final int TYP_DAVKY = 9;
+    /**
+     * Token of TypSouboru element.
+     */
+    private static final int TYP_SOUBORU = 10;
+    /**
+     * Token of VerzeVFR element.
+     */
+    private static final int VERZE_VFR = 11;
+    /**
+     * Token of TypZaznamu element.
+     */
+    private static final int TYP_ZAZNAMU = 12;
+    /**
+     * Token of Id element.
+     */
+    private static final int ID = 13;
+    /**
+     * Token of Zapsano element.
+     */
+    private static final int ZAPSANO = 14;
+    /**
+     * Token of ISUI element.
+     */
+    private static final int ISUI = 15;
+    /**
+     * Token of ISKN element.
+     */
+    private static final int ISKN = 16;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "Datum", DATUM)
+            .add(NAMESPACE, "Metadata", METADATA)
+            .add(NAMESPACE, "PlatnostDatK", PLATNOST_DAT_K)
+            .add(NAMESPACE, "PlnySoubor", PLNY_SOUBOR)
+            .add(NAMESPACE, "PredchoziSoubor", PREDCHOZI_SOUBOR)
+            .add(NAMESPACE, "TransakceOd", TRANSAKCE_OD)
+            .add(NAMESPACE, "TrasakceOd", TRASAKCE_OD)
+            .add(NAMESPACE, "TransakceDo", TRANSAKCE_DO)
+            .add(NAMESPACE, "TypDavky", TYP_DAVKY)
+            .add(NAMESPACE, "TypSouboru", TYP_SOUBORU)
+            .add(NAMESPACE, "VerzeVFR", VERZE_VFR)
+            .add(NAMESPACE, "TypZaznamu", TYP_ZAZNAMU)
+            .add(Namespaces.COMMON_TYPY, "Id", ID)
+            .add(Namespaces.COMMON_TYPY, "Zapsano", ZAPSANO)
+            .add(Namespaces.COMMON_TYPY, "ISUI", ISUI)
+            .add(Namespaces.COMMON_TYPY, "ISKN", ISKN);
     /**
      * SQL statement for testing whether item exists. We always return that the
      * item does not exist because we want all header information in the
@@ -53,7 +138,16 @@ public class SpecialniHlavickaConvertor extends AbstractSaveConvertor<Hlavicka>
             + "transakce_od_zapsano, transakce_do_id, transakce_do_zapsano, "
             + "predchozi_soubor, plny_soubor, metadata, platnost_dat_k_usui, platnost_dat_k_iskn) "
             + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
+    /**
+     * Factory of Hlavicka items.
+     */
+    private static final ItemFactory<Hlavicka> ITEM_FACTORY =
+            new ItemFactory<Hlavicka>() {
+                @Override
+                public Hlavicka create() {
+                    return new Hlavicka();
+                }
+            };
     /**
      * Creates new instance of SpecialniHlavickaConvertor.
      *
@@ -63,7 +157,7 @@ public class SpecialniHlavickaConvertor extends AbstractSaveConvertor<Hlavicka>
      *                      database.
      */
     public SpecialniHlavickaConvertor(final Connection con) throws SQLException {
-        super(Hlavicka.class, NAMESPACE, "Hlavicka", con, SQL_EXISTS,
+        super(ITEM_FACTORY, NAMESPACE, "Hlavicka", con, SQL_EXISTS,
                 SQL_INSERT, null, SQL_INSERT, null);
     }
 
@@ -97,49 +191,42 @@ public class SpecialniHlavickaConvertor extends AbstractSaveConvertor<Hlavicka>
     @Override
     protected void processElement(final XMLStreamReader reader,
                                   final Hlavicka item) throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "Datum":
-                        item.setDatum(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "Metadata":
-                        item.setMetadata(reader.getAttributeValue(
-                                Namespaces.XLINK, "href"));
-                        break;
-                    case "PlatnostDatK":
-                        processPlatnostDatK(reader, item);
-                        break;
-                    case "PlnySoubor":
-                        item.setPlnySoubor(reader.getElementText());
-                        break;
-                    case "PredchoziSoubor":
-                        item.setPredchoziSoubor(reader.getElementText());
-                        break;
-                    case "TransakceOd":
-                    case "TrasakceOd":
-                        processTransakceOd(reader, item);
-                        break;
-                    case "TransakceDo":
-                        processTransakceDo(reader, item);
-                        break;
-                    case "TypDavky":
-                        item.setTypDavky(reader.getElementText());
-                        break;
-                    case "TypSouboru":
-                        item.setTypSouboru(reader.getElementText());
-                        break;
-                    case "VerzeVFR":
-                        item.setVerzeVfr(reader.getElementText());
-                        break;
-                    case "TypZaznamu":
-                        item.setTypZaznamu(reader.getElementText());
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case DATUM:
+                item.setDatum(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case METADATA:
+                item.setMetadata(reader.getAttributeValue(
+                        Namespaces.XLINK, "href"));
+                break;
+            case PLATNOST_DAT_K:
+                processPlatnostDatK(reader, item);
+                break;
+            case PLNY_SOUBOR:
+                item.setPlnySoubor(reader.getElementText());
+                break;
+            case PREDCHOZI_SOUBOR:
+                item.setPredchoziSoubor(reader.getElementText());
+                break;
+            case TRANSAKCE_OD:
+            case TRASAKCE_OD:
+                processTransakceOd(reader, item);
+                break;
+            case TRANSAKCE_DO:
+                processTransakceDo(reader, item);
+                break;
+            case TYP_DAVKY:
+                item.setTypDavky(reader.getElementText());
+                break;
+            case TYP_SOUBORU:
+                item.setTypSouboru(reader.getElementText());
+                break;
+            case VERZE_VFR:
+                item.setVerzeVfr(reader.getElementText());
+                break;
+            case TYP_ZAZNAMU:
+                item.setTypZaznamu(reader.getElementText());
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -185,20 +272,14 @@ public class SpecialniHlavickaConvertor extends AbstractSaveConvertor<Hlavicka>
      */
     private void processTransakceOdElement(final XMLStreamReader reader,
                                            final Hlavicka header) throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case Namespaces.COMMON_TYPY:
-                switch (reader.getLocalName()) {
-                    case "Id":
-                        header.setTransakceOdId(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Zapsano":
-                        header.setTransakceOdZapsano(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
+        switch (ELEMENTS.get(reader)) {
+            case ID:
+                header.setTransakceOdId(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case ZAPSANO:
+                header.setTransakceOdZapsano(
+                        Utils.parseTimestamp(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -243,20 +324,14 @@ public class SpecialniHlavickaConvertor extends AbstractSaveConvertor<Hlavicka>
      */
     private void processTransakceDoElement(final XMLStreamReader reader,
                                            final Hlavicka header) throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case Namespaces.COMMON_TYPY:
-                switch (reader.getLocalName()) {
-                    case "Id":
-                        header.setTransakceDoId(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Zapsano":
-                        header.setTransakceDoZapsano(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
+        switch (ELEMENTS.get(reader)) {
+            case ID:
+                header.setTransakceDoId(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case ZAPSANO:
+                header.setTransakceDoZapsano(
+                        Utils.parseTimestamp(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -295,20 +370,14 @@ public class SpecialniHlavickaConvertor extends AbstractSaveConvertor<Hlavicka>
      */
     private void processPlatnostDatKElement(final XMLStreamReader reader,
                                             final Hlavicka header) throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case Namespaces.COMMON_TYPY:
-                switch (reader.getLocalName()) {
-                    case "ISUI":
-                        header.setPlatnostDatKIsui(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "ISKN":
-                        header.setPlatnostDatKIskn(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
+        switch (ELEMENTS.get(reader)) {
+            case ISUI:
+                header.setPlatnostDatKIsui(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case ISKN:
+                header.setPlatnostDatKIskn(
+                        Utils.parseTimestamp(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.SpravniObvod;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -44,6 +45,55 @@ public class SpravniObvodConvertor extends AbstractSaveConvertor<SpravniObvod> {
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.SPRAV_OBV_INT_TYPY;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 1;
+    /**
+     * Token of GlobalniIdNavrhuZmeny element.
+     */
+    private static final int GLOBALNI_ID_NAVRHU_ZMENY = 2;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 3;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 4;
+    /**
+     * Token of Nazev element.
+     */
+    private static final int NAZEV = 5;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 6;
+    /**
+     * Token of Obec element.
+     */
+    private static final int OBEC = 7;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 8;
+    /**
+     * Token of SpravniMomcKod element.
+     */
+    private static final int SPRAVNI_MOMC_KOD = 9;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "Geometrie", GEOMETRIE)
+            .add(NAMESPACE, "GlobalniIdNavrhuZmeny", GLOBALNI_ID_NAVRHU_ZMENY)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE, "Nazev", NAZEV)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "Obec", OBEC)
+            .add(NAMESPACE, "PlatiOd", PLATI_OD)
+            .add(NAMESPACE, "SpravniMomcKod", SPRAVNI_MOMC_KOD);
     /**
      * SQL statement for checking whether the item already exists.
      */
@@ -84,7 +134,16 @@ public class SpravniObvodConvertor extends AbstractSaveConvertor<SpravniObvod> {
             + "nz_id_globalni = ?, zmena_grafiky = ?, "
             + "item_timestamp = timezone('utc', now()), deleted = false "
             + "WHERE kod = ? AND id_trans_ruian <= ?";
-
+    /**
+     * Factory of SpravniObvod items.
+     */
+    private static final ItemFactory<SpravniObvod> ITEM_FACTORY =
+            new ItemFactory<SpravniObvod>() {
+                @Override
+                public SpravniObvod create() {
+                    return new SpravniObvod();
+                }
+            };
     /**
      * Creates new instance of SpravniObvodConvertor.
      *
@@ -94,7 +153,7 @@ public class SpravniObvodConvertor extends AbstractSaveConvertor<SpravniObvod> {
      *                      database.
      */
     public SpravniObvodConvertor(final Connection con) throws SQLException {
-        super(SpravniObvod.class, Namespaces.VYMENNY_FORMAT_TYPY,
+        super(ITEM_FACTORY, Namespaces.VYMENNY_FORMAT_TYPY,
                 "SpravniObvod", con, SQL_EXISTS, SQL_INSERT, SQL_UPDATE,
                 SQL_INSERT_NO_GIS, SQL_UPDATE_NO_GIS);
     }
@@ -115,8 +174,8 @@ public class SpravniObvodConvertor extends AbstractSaveConvertor<SpravniObvod> {
         pstmEx.setBoolean(index++, item.getZmenaGrafiky());
 
         if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstm.setInt(index++, item.getKod());
@@ -132,50 +191,53 @@ public class SpravniObvodConvertor extends AbstractSaveConvertor<SpravniObvod> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected long getKey(final SpravniObvod item) {
+        return item.getKod();
+    }
+
+    @Override
+    protected long getTransactionId(final SpravniObvod item) {
+        return toTransactionId(item.getIdTransRuian());
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final SpravniObvod item) throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
-                        break;
-                    case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Kod":
-                        item.setKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Nazev":
-                        item.setNazev(reader.getElementText());
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "Obec":
-                        item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
-                        break;
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "SpravniMomcKod":
-                        item.setSpravniMomcKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case GEOMETRIE:
+                Utils.processGeometrie(
+                        reader, getConnection(), item, NAMESPACE);
+                break;
+            case GLOBALNI_ID_NAVRHU_ZMENY:
+                item.setNzIdGlobalni(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KOD:
+                item.setKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case NAZEV:
+                item.setNazev(reader.getElementText());
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.valueOf(reader.getElementText()));
+                break;
+            case OBEC:
+                item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
+                break;
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case SPRAVNI_MOMC_KOD:
+                item.setSpravniMomcKod(
+                        Integer.parseInt(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.StavebniObjekt;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -46,6 +47,150 @@ public class StavebniObjektConvertor
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.STAV_OBJ_INT_TYPY;
+    /**
+     * Token of CastObce element.
+     */
+    private static final int CAST_OBCE = 1;
+    /**
+     * Token of CislaDomovni element.
+     */
+    private static final int CISLA_DOMOVNI = 2;
+    /**
+     * Token of DetailniTEA element.
+     */
+    private static final int DETAILNI_TEA = 3;
+    /**
+     * Token of Dokonceni element.
+     */
+    private static final int DOKONCENI = 4;
+    /**
+     * Token of DruhKonstrukceKod element.
+     */
+    private static final int DRUH_KONSTRUKCE_KOD = 5;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 6;
+    /**
+     * Token of GlobalniIdNavrhuZmeny element.
+     */
+    private static final int GLOBALNI_ID_NAVRHU_ZMENY = 7;
+    /**
+     * Token of IdentifikacniParcela element.
+     */
+    private static final int IDENTIFIKACNI_PARCELA = 8;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 9;
+    /**
+     * Token of IsknBudovaId element.
+     */
+    private static final int ISKN_BUDOVA_ID = 10;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 11;
+    /**
+     * Token of Momc element.
+     */
+    private static final int MOMC = 12;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 13;
+    /**
+     * Token of ObestavenyProstor element.
+     */
+    private static final int OBESTAVENY_PROSTOR = 14;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 15;
+    /**
+     * Token of PocetBytu element.
+     */
+    private static final int POCET_BYTU = 16;
+    /**
+     * Token of PocetPodlazi element.
+     */
+    private static final int POCET_PODLAZI = 17;
+    /**
+     * Token of PodlahovaPlocha element.
+     */
+    private static final int PODLAHOVA_PLOCHA = 18;
+    /**
+     * Token of PripojeniKanalizaceKod element.
+     */
+    private static final int PRIPOJENI_KANALIZACE_KOD = 19;
+    /**
+     * Token of PripojeniPlynKod element.
+     */
+    private static final int PRIPOJENI_PLYN_KOD = 20;
+    /**
+     * Token of PripojeniVodovodKod element.
+     */
+    private static final int PRIPOJENI_VODOVOD_KOD = 21;
+    /**
+     * Token of TypStavebnihoObjektuKod element.
+     */
+    private static final int TYP_STAVEBNIHO_OBJEKTU_KOD = 22;
+    /**
+     * Token of VybaveniVytahemKod element.
+     */
+    private static final int VYBAVENI_VYTAHEM_KOD = 23;
+    /**
+     * Token of ZastavenaPlocha element.
+     */
+    private static final int ZASTAVENA_PLOCHA = 24;
+    /**
+     * Token of ZpusobVytapeniKod element.
+     */
+    private static final int ZPUSOB_VYTAPENI_KOD = 25;
+    /**
+     * Token of ZpusobVyuzitiKod element.
+     */
+    private static final int ZPUSOB_VYUZITI_KOD = 26;
+    /**
+     * Token of ZpusobyOchrany element.
+     */
+    private static final int ZPUSOBY_OCHRANY = 27;
+    /**
+     * Token of CisloDomovni element from common types.
+     */
+    private static final int CISLO_DOMOVNI = 28;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "CastObce", CAST_OBCE)
+            .add(NAMESPACE, "CislaDomovni", CISLA_DOMOVNI)
+            .add(NAMESPACE, "DetailniTEA", DETAILNI_TEA)
+            .add(NAMESPACE, "Dokonceni", DOKONCENI)
+            .add(NAMESPACE, "DruhKonstrukceKod", DRUH_KONSTRUKCE_KOD)
+            .add(NAMESPACE, "Geometrie", GEOMETRIE)
+            .add(NAMESPACE, "GlobalniIdNavrhuZmeny", GLOBALNI_ID_NAVRHU_ZMENY)
+            .add(NAMESPACE, "IdentifikacniParcela", IDENTIFIKACNI_PARCELA)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "IsknBudovaId", ISKN_BUDOVA_ID)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE, "Momc", MOMC)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "ObestavenyProstor", OBESTAVENY_PROSTOR)
+            .add(NAMESPACE, "PlatiOd", PLATI_OD)
+            .add(NAMESPACE, "PocetBytu", POCET_BYTU)
+            .add(NAMESPACE, "PocetPodlazi", POCET_PODLAZI)
+            .add(NAMESPACE, "PodlahovaPlocha", PODLAHOVA_PLOCHA)
+            .add(NAMESPACE, "PripojeniKanalizaceKod", PRIPOJENI_KANALIZACE_KOD)
+            .add(NAMESPACE, "PripojeniPlynKod", PRIPOJENI_PLYN_KOD)
+            .add(NAMESPACE, "PripojeniVodovodKod", PRIPOJENI_VODOVOD_KOD)
+            .add(NAMESPACE, "TypStavebnihoObjektuKod", TYP_STAVEBNIHO_OBJEKTU_KOD)
+            .add(NAMESPACE, "VybaveniVytahemKod", VYBAVENI_VYTAHEM_KOD)
+            .add(NAMESPACE, "ZastavenaPlocha", ZASTAVENA_PLOCHA)
+            .add(NAMESPACE, "ZpusobVytapeniKod", ZPUSOB_VYTAPENI_KOD)
+            .add(NAMESPACE, "ZpusobVyuzitiKod", ZPUSOB_VYUZITI_KOD)
+            .add(NAMESPACE, "ZpusobyOchrany", ZPUSOBY_OCHRANY)
+            .add(Namespaces.COMMON_TYPY, "CisloDomovni", CISLO_DOMOVNI);
     /**
      * SQL statement for checking whether the item already exists.
      */
@@ -122,6 +267,16 @@ public class StavebniObjektConvertor
      */
     private static final String SQL_DELETE_ZPUSOBY_OCHRANY_OBJEKTU =
             "DELETE FROM rn_zpusob_ochrany_objektu WHERE stavobj_kod = ?";
+    /**
+     * Factory of StavebniObjekt items.
+     */
+    private static final ItemFactory<StavebniObjekt> ITEM_FACTORY =
+            new ItemFactory<StavebniObjekt>() {
+                @Override
+                public StavebniObjekt create() {
+                    return new StavebniObjekt();
+                }
+            };
     /**
      * Prepared statement for deleting of DetainiTEA.
      */
@@ -156,7 +311,7 @@ public class StavebniObjektConvertor
      *                      database.
      */
     public StavebniObjektConvertor(final Connection con) throws SQLException {
-        super(StavebniObjekt.class, Namespaces.VYMENNY_FORMAT_TYPY,
+        super(ITEM_FACTORY, Namespaces.VYMENNY_FORMAT_TYPY,
                 "StavebniObjekt", con, SQL_EXISTS, SQL_INSERT, SQL_UPDATE,
                 SQL_INSERT_NO_GIS, SQL_UPDATE_NO_GIS);
 
@@ -183,11 +338,12 @@ public class StavebniObjektConvertor
             final boolean update) throws SQLException {
         final PreparedStatementEx pstmEx = new PreparedStatementEx(pstm);
         int index = 1;
-        pstmEx.setBoolean(index++, item.getNespravny());
-        pstmEx.setLong(index++, item.getIdentifikacniParcelaId());
-        pstmEx.setInt(index++, item.getMomcKod());
-        pstmEx.setInt(index++, item.getCobceKod());
-        pstmEx.setLong(index++, item.getBudovaId());
+        pstmEx.setBoolean(index++, item.hasNespravny(), item.getNespravny());
+        pstmEx.setLong(index++, item.hasIdentifikacniParcelaId(),
+                item.getIdentifikacniParcelaId());
+        pstmEx.setInt(index++, item.hasMomcKod(), item.getMomcKod());
+        pstmEx.setInt(index++, item.hasCobceKod(), item.getCobceKod());
+        pstmEx.setLong(index++, item.hasBudovaId(), item.getBudovaId());
 
         if (Config.isMysqlDriver()) {
             pstm.setString(index++, Arrays.toString(item.getCislaDomovni()));
@@ -195,30 +351,42 @@ public class StavebniObjektConvertor
             pstmEx.setIntArray(index++, item.getCislaDomovni());
         }
 
-        pstmEx.setDate(index++, item.getDokonceni());
-        pstmEx.setInt(index++, item.getJeVytahKod());
-        pstmEx.setBoolean(index++, item.getZmenaGrafiky());
-        pstmEx.setInt(index++, item.getDruhKonstrukceKod());
-        pstmEx.setBoolean(index++, item.getZmenaDetailu());
-        pstmEx.setInt(index++, item.getObestavenyProstor());
-        pstmEx.setInt(index++, item.getPocetBytu());
-        pstmEx.setInt(index++, item.getPocetPodlazi());
-        pstmEx.setInt(index++, item.getPodlahovaPlocha());
-        pstmEx.setBoolean(index++, item.getPripojElEnergie());
-        pstmEx.setInt(index++, item.getPripojKanalSitKod());
-        pstmEx.setInt(index++, item.getPripojPlynKod());
-        pstmEx.setInt(index++, item.getPripojVodovodKod());
-        pstmEx.setInt(index++, item.getTypKod());
-        pstmEx.setInt(index++, item.getZastavenaPlocha());
-        pstmEx.setInt(index++, item.getZpusobVytapeniKod());
-        pstmEx.setInt(index++, item.getZpusobVyuzitiKod());
-        pstm.setLong(index++, item.getIdTransRuian());
-        pstmEx.setDate(index++, item.getPlatiOd());
-        pstm.setLong(index++, item.getNzIdGlobalni());
+        pstmEx.setDate(index++, item.hasDokonceni(), item.getDokonceni());
+        pstmEx.setInt(index++, item.hasJeVytahKod(), item.getJeVytahKod());
+        pstmEx.setBoolean(index++, item.hasZmenaGrafiky(),
+                item.getZmenaGrafiky());
+        pstmEx.setInt(index++, item.hasDruhKonstrukceKod(),
+                item.getDruhKonstrukceKod());
+        pstmEx.setBoolean(index++, item.hasZmenaDetailu(),
+                item.getZmenaDetailu());
+        pstmEx.setInt(index++, item.hasObestavenyProstor(),
+                item.getObestavenyProstor());
+        pstmEx.setInt(index++, item.hasPocetBytu(), item.getPocetBytu());
+        pstmEx.setInt(index++, item.hasPocetPodlazi(), item.getPocetPodlazi());
+        pstmEx.setInt(index++, item.hasPodlahovaPlocha(),
+                item.getPodlahovaPlocha());
+        pstmEx.setBoolean(index++, item.hasPripojElEnergie(),
+                item.getPripojElEnergie());
+        pstmEx.setInt(index++, item.hasPripojKanalSitKod(),
+                item.getPripojKanalSitKod());
+        pstmEx.setInt(index++, item.hasPripojPlynKod(),
+                item.getPripojPlynKod());
+        pstmEx.setInt(index++, item.hasPripojVodovodKod(),
+                item.getPripojVodovodKod());
+        pstmEx.setInt(index++, item.hasTypKod(), item.getTypKod());
+        pstmEx.setInt(index++, item.hasZastavenaPlocha(),
+                item.getZastavenaPlocha());
+        pstmEx.setInt(index++, item.hasZpusobVytapeniKod(),
+                item.getZpusobVytapeniKod());
+        pstmEx.setInt(index++, item.hasZpusobVyuzitiKod(),
+                item.getZpusobVyuzitiKod());
+        pstmEx.setLong(index++, item.hasIdTransRuian(), item.getIdTransRuian());
+        pstmEx.setDate(index++, item.hasPlatiOd(), item.getPlatiOd());
+        pstmEx.setLong(index++, item.hasNzIdGlobalni(), item.getNzIdGlobalni());
 
         if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstm.setInt(index++, item.getKod());
@@ -234,126 +402,133 @@ public class StavebniObjektConvertor
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected long getKey(final StavebniObjekt item) {
+        return item.getKod();
+    }
+
+    @Override
+    protected long getTransactionId(final StavebniObjekt item) {
+        return item.getIdTransRuian();
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final StavebniObjekt item) throws XMLStreamException, SQLException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "CastObce":
-                        item.setCobceKod(
-                                Utils.getCastObceKod(reader, NAMESPACE));
-                        break;
-                    case "CislaDomovni":
-                        processCislaDomovni(reader, item);
-                        break;
-                    case "DetailniTEA":
-                        detailniTEAConvertor.setStavebniObjektId(item.getKod());
-                        convertorDetailniTEA.convert(reader);
-                        break;
-                    case "Dokonceni":
-                        item.setDokonceni(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "DruhKonstrukceKod":
-                        item.setDruhKonstrukceKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
-                        break;
-                    case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "IdentifikacniParcela":
-                        item.setIdentifikacniParcelaId(
-                                Utils.getIdentifikacniParcelaId(
-                                reader, NAMESPACE));
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "IsknBudovaId":
-                        item.setBudovaId(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Kod":
-                        item.setKod(
-                                Integer.parseInt(reader.getElementText()));
-                        deleteDetailniTEA(item.getKod());
-                        deleteZpusobyOchranyObjektu(item.getKod());
-                        break;
-                    case "Momc":
-                        item.setMomcKod(Utils.getMomcKod(reader, NAMESPACE));
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "ObestavenyProstor":
-                        item.setObestavenyProstor(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "PocetBytu":
-                        item.setPocetBytu(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "PocetPodlazi":
-                        item.setPocetPodlazi(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "PodlahovaPlocha":
-                        item.setPodlahovaPlocha(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "PripojeniKanalizaceKod":
-                        item.setPripojKanalSitKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "PripojeniPlynKod":
-                        item.setPripojPlynKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "PripojeniVodovodKod":
-                        item.setPripojVodovodKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "TypStavebnihoObjektuKod":
-                        item.setTypKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "VybaveniVytahemKod":
-                        item.setJeVytahKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "ZastavenaPlocha":
-                        item.setZastavenaPlocha(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "ZpusobVytapeniKod":
-                        item.setZpusobVytapeniKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "ZpusobVyuzitiKod":
-                        item.setZpusobVyuzitiKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "ZpusobyOchrany":
-                        zpusobOchranyObjektuConvertor.setStavebniObjektId(
-                                item.getKod());
-                        convertorZpusobyOchranyObjektu.convert(reader);
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
+        switch (ELEMENTS.get(reader)) {
+            case CAST_OBCE:
+                item.setCobceKod(
+                        Utils.getCastObceKod(reader, NAMESPACE));
+                break;
+            case CISLA_DOMOVNI:
+                processCislaDomovni(reader, item);
+                break;
+            case DETAILNI_TEA:
+                detailniTEAConvertor.setStavebniObjektId(item.getKod());
+                convertorDetailniTEA.convert(reader);
+                break;
+            case DOKONCENI:
+                item.setDokonceni(
+                        Utils.parseEpochDays(reader.getElementText()));
+                break;
+            case DRUH_KONSTRUKCE_KOD:
+                item.setDruhKonstrukceKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case GEOMETRIE:
+                Utils.processGeometrie(
+                        reader, getConnection(), item, NAMESPACE);
+                break;
+            case GLOBALNI_ID_NAVRHU_ZMENY:
+                item.setNzIdGlobalni(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case IDENTIFIKACNI_PARCELA:
+                final Long parcelaId =
+                        Utils.getIdentifikacniParcelaId(reader, NAMESPACE);
+
+                if (parcelaId != null) {
+                    item.setIdentifikacniParcelaId(parcelaId);
                 }
 
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case ISKN_BUDOVA_ID:
+                item.setBudovaId(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KOD:
+                item.setKod(
+                        Integer.parseInt(reader.getElementText()));
+                deleteDetailniTEA(item.getKod());
+                deleteZpusobyOchranyObjektu(item.getKod());
+                break;
+            case MOMC:
+                item.setMomcKod(Utils.getMomcKod(reader, NAMESPACE));
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.parseBoolean(reader.getElementText()));
+                break;
+            case OBESTAVENY_PROSTOR:
+                item.setObestavenyProstor(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseEpochDays(reader.getElementText()));
+                break;
+            case POCET_BYTU:
+                item.setPocetBytu(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case POCET_PODLAZI:
+                item.setPocetPodlazi(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case PODLAHOVA_PLOCHA:
+                item.setPodlahovaPlocha(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case PRIPOJENI_KANALIZACE_KOD:
+                item.setPripojKanalSitKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case PRIPOJENI_PLYN_KOD:
+                item.setPripojPlynKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case PRIPOJENI_VODOVOD_KOD:
+                item.setPripojVodovodKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case TYP_STAVEBNIHO_OBJEKTU_KOD:
+                item.setTypKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case VYBAVENI_VYTAHEM_KOD:
+                item.setJeVytahKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case ZASTAVENA_PLOCHA:
+                item.setZastavenaPlocha(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case ZPUSOB_VYTAPENI_KOD:
+                item.setZpusobVytapeniKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case ZPUSOB_VYUZITI_KOD:
+                item.setZpusobVyuzitiKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case ZPUSOBY_OCHRANY:
+                zpusobOchranyObjektuConvertor.setStavebniObjektId(
+                        item.getKod());
+                convertorZpusobyOchranyObjektu.convert(reader);
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -379,8 +554,7 @@ public class StavebniObjektConvertor
                     processCislaDomovniElement(reader, item);
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            NAMESPACE, "CislaDomovni", reader)) {
+                    if (ELEMENTS.get(reader) == CISLA_DOMOVNI) {
                         return;
                     }
             }
@@ -398,16 +572,9 @@ public class StavebniObjektConvertor
      */
     private void processCislaDomovniElement(final XMLStreamReader reader,
             final StavebniObjekt item) throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case Namespaces.COMMON_TYPY:
-                switch (reader.getLocalName()) {
-                    case "CisloDomovni":
-                        item.addCisloDomovni(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
+        switch (ELEMENTS.get(reader)) {
+            case CISLO_DOMOVNI:
+                item.addCisloDomovni(Integer.parseInt(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -423,13 +590,7 @@ public class StavebniObjektConvertor
      */
     private void deleteDetailniTEA(final Integer stavebniObjektId)
             throws SQLException {
-        if (Config.isDryRun()) {
-            return;
-        }
-
-        pstmDeleteDetailniTEA.clearParameters();
-        pstmDeleteDetailniTEA.setInt(1, stavebniObjektId);
-        pstmDeleteDetailniTEA.execute();
+        executeWithKey(pstmDeleteDetailniTEA, stavebniObjektId);
     }
 
     /**
@@ -441,12 +602,6 @@ public class StavebniObjektConvertor
      */
     private void deleteZpusobyOchranyObjektu(final Integer stavebniObjektId)
             throws SQLException {
-        if (Config.isDryRun()) {
-            return;
-        }
-
-        pstmDeleteZpusobyOchranyObjektu.clearParameters();
-        pstmDeleteZpusobyOchranyObjektu.setInt(1, stavebniObjektId);
-        pstmDeleteZpusobyOchranyObjektu.execute();
+        executeWithKey(pstmDeleteZpusobyOchranyObjektu, stavebniObjektId);
     }
 }
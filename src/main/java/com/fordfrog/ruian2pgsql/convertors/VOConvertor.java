@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.VolebniOkrsek;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -44,6 +45,65 @@ public class VOConvertor extends AbstractSaveConvertor<VolebniOkrsek> {
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.VOLEBNI_OKRSEK_INT_TYPY;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 1;
+    /**
+     * Token of PlatiDo element.
+     */
+    private static final int PLATI_DO = 2;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 3;
+    /**
+     * Token of GlobalniIdNavrhuZmeny element.
+     */
+    private static final int GLOBALNI_ID_NAVRHU_ZMENY = 4;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 5;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 6;
+    /**
+     * Token of Cislo element.
+     */
+    private static final int CISLO = 7;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 8;
+    /**
+     * Token of Obec element.
+     */
+    private static final int OBEC = 9;
+    /**
+     * Token of Momc element.
+     */
+    private static final int MOMC = 10;
+    /**
+     * Token of Poznamka element.
+     */
+    private static final int POZNAMKA = 11;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "PlatiOd", PLATI_OD)
+            .add(NAMESPACE, "PlatiDo", PLATI_DO)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "GlobalniIdNavrhuZmeny", GLOBALNI_ID_NAVRHU_ZMENY)
+            .add(NAMESPACE, "Geometrie", GEOMETRIE)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE, "Cislo", CISLO)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "Obec", OBEC)
+            .add(NAMESPACE, "Momc", MOMC)
+            .add(NAMESPACE, "Poznamka", POZNAMKA);
     /**
      * SQL statement for checking whether the item already exists.
      */
@@ -80,6 +140,16 @@ public class VOConvertor extends AbstractSaveConvertor<VolebniOkrsek> {
             + "obec_kod = ?, poznamka = ?, plati_od = ?, plati_do = ?, nz_id_globalni = ?, id_trans_ruian = ?,"
             + "item_timestamp = timezone('utc', now()), deleted = false "
             + "WHERE kod = ? AND id_trans_ruian <= ?";
+    /**
+     * Factory of VolebniOkrsek items.
+     */
+    private static final ItemFactory<VolebniOkrsek> ITEM_FACTORY =
+            new ItemFactory<VolebniOkrsek>() {
+                @Override
+                public VolebniOkrsek create() {
+                    return new VolebniOkrsek();
+                }
+            };
 
     /**
      * Creates new instance of VOMistoConvertor.
@@ -90,7 +160,7 @@ public class VOConvertor extends AbstractSaveConvertor<VolebniOkrsek> {
      *                      database.
      */
     public VOConvertor(final Connection con) throws SQLException {
-        super(VolebniOkrsek.class, Namespaces.SPECIALNI_VYMENNY_FORMAT_TYPY, "VO", con,
+        super(ITEM_FACTORY, Namespaces.SPECIALNI_VYMENNY_FORMAT_TYPY, "VO", con,
                 SQL_EXISTS, SQL_INSERT, SQL_UPDATE, SQL_INSERT_NO_GIS,
                 SQL_UPDATE_NO_GIS);
     }
@@ -112,8 +182,8 @@ public class VOConvertor extends AbstractSaveConvertor<VolebniOkrsek> {
         pstm.setLong(index++, item.getIdTransRuian());
 
         if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstm.setInt(index++, item.getKod());
@@ -129,56 +199,59 @@ public class VOConvertor extends AbstractSaveConvertor<VolebniOkrsek> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected long getKey(final VolebniOkrsek item) {
+        return item.getKod();
+    }
+
+    @Override
+    protected long getTransactionId(final VolebniOkrsek item) {
+        return toTransactionId(item.getIdTransRuian());
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader,
             final VolebniOkrsek item) throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "PlatiDo":
-                        item.setPlatiDo(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
-                        break;
-                    case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Cislo":
-                        item.setCislo(Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "Obec":
-                        item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
-                        break;
-                    case "Momc":
-                        item.setMomcKod(Utils.getMomcKod(reader, NAMESPACE));
-                        break;
-                    case "Poznamka":
-                        item.setPoznamka(
-                                reader.getElementText());
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case PLATI_DO:
+                item.setPlatiDo(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case GLOBALNI_ID_NAVRHU_ZMENY:
+                item.setNzIdGlobalni(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case GEOMETRIE:
+                Utils.processGeometrie(
+                        reader, getConnection(), item, NAMESPACE);
+                break;
+            case KOD:
+                item.setKod(Integer.parseInt(reader.getElementText()));
+                break;
+            case CISLO:
+                item.setCislo(Integer.parseInt(reader.getElementText()));
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.valueOf(reader.getElementText()));
+                break;
+            case OBEC:
+                item.setObecKod(Utils.getObecKod(reader, NAMESPACE));
+                break;
+            case MOMC:
+                item.setMomcKod(Utils.getMomcKod(reader, NAMESPACE));
+                break;
+            case POZNAMKA:
+                item.setPoznamka(
+                        reader.getElementText());
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -23,12 +23,20 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.ZaniklyPrvek;
+import com.fordfrog.ruian2pgsql.utils.CopyWriter;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Log;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
+import com.fordfrog.ruian2pgsql.utils.ParameterRecorder;
 import com.fordfrog.ruian2pgsql.utils.XMLUtils;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
@@ -43,7 +51,90 @@ public class ZaniklyPrvekConvertor extends AbstractSaveConvertor<ZaniklyPrvek> {
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.VYMENNY_FORMAT_TYPY;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 1;
+    /**
+     * Token of PrvekId element.
+     */
+    private static final int PRVEK_ID = 2;
+    /**
+     * Token of TypPrvkuKod element.
+     */
+    private static final int TYP_PRVKU_KOD = 3;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "PrvekId", PRVEK_ID)
+            .add(NAMESPACE, "TypPrvkuKod", TYP_PRVKU_KOD);
 
+    /**
+     * Name of staging table for ZaniklyPrvek items.
+     */
+    private static final String STAGING_TABLE =
+            STAGING_TABLE_PREFIX + "zanikly_prvek";
+    /**
+     * Columns of staging table for ZaniklyPrvek items.
+     */
+    private static final String STAGING_COLUMNS = "typ_prvku_kod varchar, "
+            + "prvek_id bigint, id_trans_ruian bigint";
+    /**
+     * Tables of items that can be marked as deleted, each row contains
+     * TypPrvkuKod, table name and key column name.
+     */
+    private static final String[][] STAGING_TABLES = {
+        {"ST", "rn_stat", "kod"},
+        {"RS", "rn_region_soudrznosti", "kod"},
+        {"KR", "rn_kraj_1960", "kod"},
+        {"VC", "rn_vusc", "kod"},
+        {"OK", "rn_okres", "kod"},
+        {"OP", "rn_orp", "kod"},
+        {"PU", "rn_pou", "kod"},
+        {"OB", "rn_obec", "kod"},
+        {"SP", "rn_spravni_obvod", "kod"},
+        {"MP", "rn_mop", "kod"},
+        {"MC", "rn_momc", "kod"},
+        {"KU", "rn_katastralni_uzemi", "kod"},
+        {"ZJ", "rn_zsj", "kod"},
+        {"VO", "rn_vo", "kod"},
+        {"AD", "rn_adresni_misto", "kod"},
+        {"CO", "rn_cast_obce", "kod"},
+        {"SO", "rn_stavebni_objekt", "kod"},
+        {"PA", "rn_parcela", "id"},
+        {"UL", "rn_ulice", "kod"}
+    };
+    /**
+     * Child tables of items that are marked as deleted together with the
+     * items, each row contains TypPrvkuKod of parent item, table name and
+     * name of column referencing the parent item.
+     */
+    private static final String[][] STAGING_CHILD_TABLES = {
+        {"SO", "rn_detailni_tea", "stavobj_kod"},
+        {"SO", "rn_zpusob_ochrany_objektu", "stavobj_kod"},
+        {"PA", "rn_zpusob_ochrany_pozemku", "parcela_id"},
+        {"PA", "rn_bonit_dily_parcel", "parcela_id"}
+    };
+    /**
+     * Template of SQL statement that marks items from staging table as
+     * deleted.
+     */
+    private static final String SQL_STAGING_UPDATE_TEMPLATE =
+            "UPDATE %1$s t SET deleted = true, "
+            + "item_timestamp = timezone('utc', now()), "
+            + "id_trans_ruian = s.id_trans_ruian FROM (SELECT prvek_id, "
+            + "max(id_trans_ruian) AS id_trans_ruian FROM " + STAGING_TABLE
+            + " WHERE typ_prvku_kod = '%3$s' GROUP BY prvek_id) s "
+            + "WHERE t.%2$s = s.prvek_id AND t.id_trans_ruian <= s.id_trans_ruian";
+    /**
+     * Template of SQL statement that marks child items of items from staging
+     * table as deleted.
+     */
+    private static final String SQL_STAGING_CHILD_UPDATE_TEMPLATE =
+            "UPDATE %1$s SET deleted = true WHERE %2$s IN (SELECT prvek_id "
+            + "FROM " + STAGING_TABLE + " WHERE typ_prvku_kod = '%3$s')";
     private static final String SQL_STANDARD_ITEM_UPDATE_TEMPLATE =
             "UPDATE %s SET deleted = true, "
             + "item_timestamp = timezone('utc', now()), id_trans_ruian = ? "
@@ -167,6 +258,16 @@ public class ZaniklyPrvekConvertor extends AbstractSaveConvertor<ZaniklyPrvek> {
     private static final String SQL_UPDATE_ZPUSOB_OCHRANY_POZEMKU =
             "UPDATE rn_zpusob_ochrany_pozemku SET deleted = true "
             + "WHERE parcela_id = ?";
+    /**
+     * Factory of ZaniklyPrvek items.
+     */
+    private static final ItemFactory<ZaniklyPrvek> ITEM_FACTORY =
+            new ItemFactory<ZaniklyPrvek>() {
+                @Override
+                public ZaniklyPrvek create() {
+                    return new ZaniklyPrvek();
+                }
+            };
 
     /**
      * Prepared statement for marking Stat as deleted.
@@ -258,6 +359,22 @@ public class ZaniklyPrvekConvertor extends AbstractSaveConvertor<ZaniklyPrvek> {
     private final PreparedStatement pstmUpdateZpusobOchranyObjektu;
 
     private final PreparedStatement pstmUpdateZpusobOchranyPozemku;
+    /**
+     * Writer of items to staging table, null if staging tables are not used.
+     */
+    private final CopyWriter stagingWriter;
+    /**
+     * Recorder of staging table row values.
+     */
+    private final ParameterRecorder stagingRecorder;
+    /**
+     * TypPrvkuKod values of items in staging table.
+     */
+    private final Set<String> stagedTypes = new TreeSet<>();
+    /**
+     * Whether staging table was created in current transaction or before.
+     */
+    private boolean stagingTableCreated;
 
     /**
      * Creates new instance of ZaniklyPrvekConvertor.
@@ -268,7 +385,7 @@ public class ZaniklyPrvekConvertor extends AbstractSaveConvertor<ZaniklyPrvek> {
      *                      database.
      */
     public ZaniklyPrvekConvertor(final Connection con) throws SQLException {
-        super(ZaniklyPrvek.class, NAMESPACE, "ZaniklyPrvek", con, null, null,
+        super(ITEM_FACTORY, NAMESPACE, "ZaniklyPrvek", con, null, null,
                 null, null, null);
 
         pstmUpdateStat = con.prepareStatement(fixSql(SQL_UPDATE_STAT));
@@ -303,6 +420,15 @@ public class ZaniklyPrvekConvertor extends AbstractSaveConvertor<ZaniklyPrvek> {
                 con.prepareStatement(fixSql(SQL_UPDATE_ZPUSOB_OCHRANY_OBJEKTU));
         pstmUpdateZpusobOchranyPozemku =
                 con.prepareStatement(fixSql(SQL_UPDATE_ZPUSOB_OCHRANY_POZEMKU));
+
+        if (Config.isStaging()) {
+            stagingWriter = new CopyWriter(con, STAGING_TABLE,
+                    "typ_prvku_kod, prvek_id, id_trans_ruian");
+            stagingRecorder = new ParameterRecorder(con);
+        } else {
+            stagingWriter = null;
+            stagingRecorder = null;
+        }
     }
 
     @Override
@@ -320,24 +446,17 @@ public class ZaniklyPrvekConvertor extends AbstractSaveConvertor<ZaniklyPrvek> {
     @Override
     protected void processElement(final XMLStreamReader reader,
             final ZaniklyPrvek item) throws XMLStreamException, SQLException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "IdTransakce":
-                        item.setIdTransakce(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "PrvekId":
-                        item.setPrvekId(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "TypPrvkuKod":
-                        item.setTypPrvkuKod(reader.getElementText());
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case ID_TRANSAKCE:
+                item.setIdTransakce(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case PRVEK_ID:
+                item.setPrvekId(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case TYP_PRVKU_KOD:
+                item.setTypPrvkuKod(reader.getElementText());
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -354,6 +473,12 @@ public class ZaniklyPrvekConvertor extends AbstractSaveConvertor<ZaniklyPrvek> {
      */
     @Override
     protected void saveData(final ZaniklyPrvek item) throws SQLException {
+        if (stagingWriter != null) {
+            stageItem(item);
+
+            return;
+        }
+
         switch (item.getTypPrvkuKod()) {
             case "ST": // Stat
                 deleteItem(pstmUpdateStat, item);
@@ -494,4 +619,112 @@ public class ZaniklyPrvekConvertor extends AbstractSaveConvertor<ZaniklyPrvek> {
         pstmUpdateBonitDilyParcel.setLong(1, item.getPrvekId());
         pstmUpdateBonitDilyParcel.execute();
     }
+
+    /**
+     * Adds item to staging table buffer. Items are marked as deleted in
+     * {@link #flush()}.
+     *
+     * @param item item
+     *
+     * @throws SQLException Thrown if problem occurred while recording the
+     *                      values.
+     */
+    private void stageItem(final ZaniklyPrvek item) throws SQLException {
+        if (Config.isDryRun()) {
+            return;
+        }
+
+        if (!isStagingSupported(item.getTypPrvkuKod())) {
+            Log.write("Ignoring unsupported TypPrvkuKod '"
+                    + item.getTypPrvkuKod() + " 'of ZaniklyPrvek");
+
+            return;
+        }
+
+        final PreparedStatement pstm = stagingRecorder.getStatement();
+        stagingRecorder.clear();
+        pstm.setString(1, item.getTypPrvkuKod());
+        pstm.setLong(2, item.getPrvekId());
+        pstm.setLong(3, item.getIdTransakce());
+        stagingWriter.addRow(stagingRecorder);
+        stagedTypes.add(item.getTypPrvkuKod());
+    }
+
+    /**
+     * Checks whether items of given type can be marked as deleted.
+     *
+     * @param typPrvkuKod TypPrvkuKod
+     *
+     * @return true if the type is supported, otherwise false
+     */
+    private static boolean isStagingSupported(final String typPrvkuKod) {
+        for (final String[] table : STAGING_TABLES) {
+            if (table[0].equals(typPrvkuKod)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Marks items from staging table as deleted using one statement per
+     * table.
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    @Override
+    public void flush() throws SQLException {
+        super.flush();
+
+        if (stagingWriter == null || stagingWriter.getRowCount() == 0) {
+            return;
+        }
+
+        if (!stagingTableCreated) {
+            createStagingTable(
+                    getConnection(), STAGING_TABLE, null, STAGING_COLUMNS);
+            stagingTableCreated = true;
+        }
+
+        stagingWriter.flush();
+
+        final List<String> statements = new ArrayList<>(10);
+
+        for (final String[] table : STAGING_TABLES) {
+            if (stagedTypes.contains(table[0])) {
+                statements.add(String.format(SQL_STAGING_UPDATE_TEMPLATE,
+                        table[1], table[2], table[0]));
+            }
+        }
+
+        for (final String[] table : STAGING_CHILD_TABLES) {
+            if (stagedTypes.contains(table[0])) {
+                statements.add(String.format(SQL_STAGING_CHILD_UPDATE_TEMPLATE,
+                        table[1], table[2], table[0]));
+            }
+        }
+
+        try (final Statement stm = getConnection().createStatement()) {
+            for (final String sql : statements) {
+                stm.execute(sql);
+            }
+
+            stm.execute("TRUNCATE " + STAGING_TABLE);
+        }
+
+        stagedTypes.clear();
+    }
+
+    @Override
+    protected void discard() throws SQLException {
+        super.discard();
+
+        if (stagingWriter != null) {
+            stagingWriter.clear();
+            stagedTypes.clear();
+            stagingTableCreated = false;
+        }
+    }
 }
@@ -22,6 +22,7 @@
 package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.containers.ZpusobOchranyObjektu;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.XMLUtils;
 import java.sql.Connection;
@@ -42,6 +43,30 @@ public class ZpusobOchranyObjektuConvertor
      * Namespace of the element sub-elements.
      */
     private static final String NAMESPACE = Namespaces.COMMON_TYPY;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 1;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 2;
+    /**
+     * Token of TypOchranyKod element.
+     */
+    private static final int TYP_OCHRANY_KOD = 3;
+    /**
+     * Token of RizeniId element.
+     */
+    private static final int RIZENI_ID = 4;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE, "TypOchranyKod", TYP_OCHRANY_KOD)
+            .add(NAMESPACE, "RizeniId", RIZENI_ID);
     /**
      * SQL statement for insertion of new item.
      */
@@ -49,6 +74,16 @@ public class ZpusobOchranyObjektuConvertor
             "INSERT INTO rn_zpusob_ochrany_objektu "
             + "(stavobj_kod, kod, zpusob_ochrany_kod, id_trans_ruian, "
             + "rizeni_id) VALUES (?, ?, ?, ?, ?)";
+    /**
+     * Factory of ZpusobOchranyObjektu items.
+     */
+    private static final ItemFactory<ZpusobOchranyObjektu> ITEM_FACTORY =
+            new ItemFactory<ZpusobOchranyObjektu>() {
+                @Override
+                public ZpusobOchranyObjektu create() {
+                    return new ZpusobOchranyObjektu();
+                }
+            };
     /**
      * Id of parent StavebniObjekt.
      */
@@ -64,7 +99,7 @@ public class ZpusobOchranyObjektuConvertor
      */
     public ZpusobOchranyObjektuConvertor(final Connection con)
             throws SQLException {
-        super(ZpusobOchranyObjektu.class, NAMESPACE, "ZpusobOchrany", con, null,
+        super(ITEM_FACTORY, NAMESPACE, "ZpusobOchrany", con, null,
                 SQL_INSERT, null, SQL_INSERT, null);
     }
 
@@ -72,13 +107,18 @@ public class ZpusobOchranyObjektuConvertor
     protected void fill(final PreparedStatement pstm,
             final ZpusobOchranyObjektu item, final boolean update)
             throws SQLException {
-        pstm.setInt(1, stavebniObjektId);
+        pstm.setInt(1, item.getStavobjKod());
         pstm.setInt(2, item.getKod());
         pstm.setInt(3, item.getZpusobOchranyKod());
         pstm.setLong(4, item.getIdTransRuian());
         pstm.setLong(5, item.getRizeniId());
     }
 
+    @Override
+    protected void initItem(final ZpusobOchranyObjektu item) {
+        item.setStavobjKod(stavebniObjektId);
+    }
+
     @Override
     protected void fillExists(final PreparedStatement pstm,
             final ZpusobOchranyObjektu item) throws SQLException {
@@ -88,28 +128,21 @@ public class ZpusobOchranyObjektuConvertor
     @Override
     protected void processElement(final XMLStreamReader reader,
             final ZpusobOchranyObjektu item) throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "TypOchranyKod":
-                        item.setZpusobOchranyKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "RizeniId":
-                        item.setRizeniId(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KOD:
+                item.setKod(Integer.parseInt(reader.getElementText()));
+                break;
+            case TYP_OCHRANY_KOD:
+                item.setZpusobOchranyKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case RIZENI_ID:
+                item.setRizeniId(
+                        Long.parseLong(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -22,6 +22,7 @@
 package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.containers.ZpusobOchranyPozemku;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.XMLUtils;
 import java.sql.Connection;
@@ -42,6 +43,30 @@ public class ZpusobOchranyPozemkuConvertor
      * Namespace of the element sub-elements.
      */
     private static final String NAMESPACE = Namespaces.COMMON_TYPY;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 1;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 2;
+    /**
+     * Token of TypOchranyKod element.
+     */
+    private static final int TYP_OCHRANY_KOD = 3;
+    /**
+     * Token of RizeniId element.
+     */
+    private static final int RIZENI_ID = 4;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE, "TypOchranyKod", TYP_OCHRANY_KOD)
+            .add(NAMESPACE, "RizeniId", RIZENI_ID);
     /**
      * SQL statement for insertion of new item.
      */
@@ -49,6 +74,16 @@ public class ZpusobOchranyPozemkuConvertor
             "INSERT INTO rn_zpusob_ochrany_pozemku "
             + "(kod, zpusob_ochrany_kod, parcela_id, id_trans_ruian, "
             + "rizeni_id) VALUES (?, ?, ?, ?, ?)";
+    /**
+     * Factory of ZpusobOchranyPozemku items.
+     */
+    private static final ItemFactory<ZpusobOchranyPozemku> ITEM_FACTORY =
+            new ItemFactory<ZpusobOchranyPozemku>() {
+                @Override
+                public ZpusobOchranyPozemku create() {
+                    return new ZpusobOchranyPozemku();
+                }
+            };
     /**
      * Id of parent Parcela.
      */
@@ -64,7 +99,7 @@ public class ZpusobOchranyPozemkuConvertor
      */
     public ZpusobOchranyPozemkuConvertor(final Connection con)
             throws SQLException {
-        super(ZpusobOchranyPozemku.class, NAMESPACE, "ZpusobOchrany", con, null,
+        super(ITEM_FACTORY, NAMESPACE, "ZpusobOchrany", con, null,
                 SQL_INSERT, null, SQL_INSERT, null);
     }
 
@@ -74,11 +109,16 @@ public class ZpusobOchranyPozemkuConvertor
             throws SQLException {
         pstm.setInt(1, item.getKod());
         pstm.setInt(2, item.getZpusobOchranyKod());
-        pstm.setLong(3, parcelaId);
+        pstm.setLong(3, item.getParcelaId());
         pstm.setLong(4, item.getIdTransRuian());
         pstm.setLong(5, item.getRizeniId());
     }
 
+    @Override
+    protected void initItem(final ZpusobOchranyPozemku item) {
+        item.setParcelaId(parcelaId);
+    }
+
     @Override
     protected void fillExists(final PreparedStatement pstm,
             final ZpusobOchranyPozemku item) throws SQLException {
@@ -88,28 +128,21 @@ public class ZpusobOchranyPozemkuConvertor
     @Override
     protected void processElement(final XMLStreamReader reader,
             final ZpusobOchranyPozemku item) throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "TypOchranyKod":
-                        item.setZpusobOchranyKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "RizeniId":
-                        item.setRizeniId(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KOD:
+                item.setKod(Integer.parseInt(reader.getElementText()));
+                break;
+            case TYP_OCHRANY_KOD:
+                item.setZpusobOchranyKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case RIZENI_ID:
+                item.setRizeniId(
+                        Long.parseLong(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -23,6 +23,7 @@ package com.fordfrog.ruian2pgsql.convertors;
 
 import com.fordfrog.ruian2pgsql.Config;
 import com.fordfrog.ruian2pgsql.containers.Zsj;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.PreparedStatementEx;
 import com.fordfrog.ruian2pgsql.utils.Utils;
@@ -44,6 +45,71 @@ public class ZsjConvertor extends AbstractSaveConvertor<Zsj> {
      * Namespace of the element.
      */
     private static final String NAMESPACE = Namespaces.ZSJ_INT_TYPY;
+    /**
+     * Token of CharakterZsjKod element.
+     */
+    private static final int CHARAKTER_ZSJ_KOD = 1;
+    /**
+     * Token of DatumVzniku element.
+     */
+    private static final int DATUM_VZNIKU = 2;
+    /**
+     * Token of Geometrie element.
+     */
+    private static final int GEOMETRIE = 3;
+    /**
+     * Token of GlobalniIdNavrhuZmeny element.
+     */
+    private static final int GLOBALNI_ID_NAVRHU_ZMENY = 4;
+    /**
+     * Token of IdTransakce element.
+     */
+    private static final int ID_TRANSAKCE = 5;
+    /**
+     * Token of KatastralniUzemi element.
+     */
+    private static final int KATASTRALNI_UZEMI = 6;
+    /**
+     * Token of Kod element.
+     */
+    private static final int KOD = 7;
+    /**
+     * Token of MluvnickeCharakteristiky element.
+     */
+    private static final int MLUVNICKE_CHARAKTERISTIKY = 8;
+    /**
+     * Token of Nazev element.
+     */
+    private static final int NAZEV = 9;
+    /**
+     * Token of Nespravny element.
+     */
+    private static final int NESPRAVNY = 10;
+    /**
+     * Token of PlatiOd element.
+     */
+    private static final int PLATI_OD = 11;
+    /**
+     * Token of Vymera element.
+     */
+    private static final int VYMERA = 12;
+    /**
+     * Tokens of sub-elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(NAMESPACE, "CharakterZsjKod", CHARAKTER_ZSJ_KOD)
+            .add(NAMESPACE, "DatumVzniku", DATUM_VZNIKU)
+            .add(NAMESPACE, "Geometrie", GEOMETRIE)
+            .add(NAMESPACE, "GlobalniIdNavrhuZmeny", GLOBALNI_ID_NAVRHU_ZMENY)
+            .add(NAMESPACE, "IdTransakce", ID_TRANSAKCE)
+            .add(NAMESPACE, "KatastralniUzemi", KATASTRALNI_UZEMI)
+            .add(NAMESPACE, "Kod", KOD)
+            .add(NAMESPACE,
+                    "MluvnickeCharakteristiky", MLUVNICKE_CHARAKTERISTIKY)
+            .add(NAMESPACE, "Nazev", NAZEV)
+            .add(NAMESPACE, "Nespravny", NESPRAVNY)
+            .add(NAMESPACE, "PlatiOd", PLATI_OD)
+            .add(NAMESPACE, "Vymera", VYMERA);
     /**
      * SQL statement for checking whether the item already exists.
      */
@@ -95,6 +161,16 @@ public class ZsjConvertor extends AbstractSaveConvertor<Zsj> {
             + "id_trans_ruian = ?, datum_vzniku = ?, item_timestamp = timezone('utc', now()), "
             + "deleted = false "
             + "WHERE kod = ? AND id_trans_ruian <= ?";
+    /**
+     * Factory of Zsj items.
+     */
+    private static final ItemFactory<Zsj> ITEM_FACTORY =
+            new ItemFactory<Zsj>() {
+                @Override
+                public Zsj create() {
+                    return new Zsj();
+                }
+            };
 
     /**
      * Creates new instance of ZsjConvertor.
@@ -105,8 +181,9 @@ public class ZsjConvertor extends AbstractSaveConvertor<Zsj> {
      *                      database.
      */
     public ZsjConvertor(final Connection con) throws SQLException {
-        super(Zsj.class, Namespaces.VYMENNY_FORMAT_TYPY, "Zsj", con, SQL_EXISTS,
-                SQL_INSERT, SQL_UPDATE, SQL_INSERT_NO_GIS, SQL_UPDATE_NO_GIS);
+        super(ITEM_FACTORY, Namespaces.VYMENNY_FORMAT_TYPY, "Zsj", con,
+                SQL_EXISTS, SQL_INSERT, SQL_UPDATE, SQL_INSERT_NO_GIS,
+                SQL_UPDATE_NO_GIS);
     }
 
     @Override
@@ -132,8 +209,8 @@ public class ZsjConvertor extends AbstractSaveConvertor<Zsj> {
         pstm.setLong(index++, item.getIdTransRuian());
 
         if (!Config.isNoGis()) {
-            pstm.setString(index++, item.getDefinicniBod());
-            pstm.setString(index++, item.getHranice());
+            pstmEx.setGeometry(index++, item.getDefinicniBod());
+            pstmEx.setGeometry(index++, item.getHranice());
         }
 
         pstmEx.setDate(index++, item.getDatumVzniku());
@@ -150,61 +227,64 @@ public class ZsjConvertor extends AbstractSaveConvertor<Zsj> {
         pstm.setInt(1, item.getKod());
     }
 
+    @Override
+    protected long getKey(final Zsj item) {
+        return item.getKod();
+    }
+
+    @Override
+    protected long getTransactionId(final Zsj item) {
+        return toTransactionId(item.getIdTransRuian());
+    }
+
     @Override
     protected void processElement(final XMLStreamReader reader, final Zsj item)
             throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case NAMESPACE:
-                switch (reader.getLocalName()) {
-                    case "CharakterZsjKod":
-                        item.setCharakterZsjKod(
-                                Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "DatumVzniku":
-                        item.setDatumVzniku(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "Geometrie":
-                        Utils.processGeometrie(
-                                reader, getConnection(), item, NAMESPACE);
-                        break;
-                    case "GlobalniIdNavrhuZmeny":
-                        item.setNzIdGlobalni(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "IdTransakce":
-                        item.setIdTransRuian(
-                                Long.parseLong(reader.getElementText()));
-                        break;
-                    case "KatastralniUzemi":
-                        item.setKatuzKod(Utils.getKatastralniUzemiKod(
-                                reader, NAMESPACE));
-                        break;
-                    case "Kod":
-                        item.setKod(Integer.parseInt(reader.getElementText()));
-                        break;
-                    case "MluvnickeCharakteristiky":
-                        Utils.processMluvnickeCharakteristiky(
-                                reader, item, NAMESPACE);
-                        break;
-                    case "Nazev":
-                        item.setNazev(reader.getElementText());
-                        break;
-                    case "Nespravny":
-                        item.setNespravny(
-                                Boolean.valueOf(reader.getElementText()));
-                        break;
-                    case "PlatiOd":
-                        item.setPlatiOd(
-                                Utils.parseTimestamp(reader.getElementText()));
-                        break;
-                    case "Vymera":
-                        item.setVymera(Long.parseLong(reader.getElementText()));
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (ELEMENTS.get(reader)) {
+            case CHARAKTER_ZSJ_KOD:
+                item.setCharakterZsjKod(
+                        Integer.parseInt(reader.getElementText()));
+                break;
+            case DATUM_VZNIKU:
+                item.setDatumVzniku(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case GEOMETRIE:
+                Utils.processGeometrie(
+                        reader, getConnection(), item, NAMESPACE);
+                break;
+            case GLOBALNI_ID_NAVRHU_ZMENY:
+                item.setNzIdGlobalni(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case ID_TRANSAKCE:
+                item.setIdTransRuian(
+                        Long.parseLong(reader.getElementText()));
+                break;
+            case KATASTRALNI_UZEMI:
+                item.setKatuzKod(Utils.getKatastralniUzemiKod(
+                        reader, NAMESPACE));
+                break;
+            case KOD:
+                item.setKod(Integer.parseInt(reader.getElementText()));
+                break;
+            case MLUVNICKE_CHARAKTERISTIKY:
+                Utils.processMluvnickeCharakteristiky(
+                        reader, item, NAMESPACE);
+                break;
+            case NAZEV:
+                item.setNazev(reader.getElementText());
+                break;
+            case NESPRAVNY:
+                item.setNespravny(
+                        Boolean.valueOf(reader.getElementText()));
+                break;
+            case PLATI_OD:
+                item.setPlatiOd(
+                        Utils.parseTimestamp(reader.getElementText()));
+                break;
+            case VYMERA:
+                item.setVymera(Long.parseLong(reader.getElementText()));
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
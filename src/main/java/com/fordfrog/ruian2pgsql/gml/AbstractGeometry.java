@@ -29,6 +29,17 @@ package com.fordfrog.ruian2pgsql.gml;
  */
 public abstract class AbstractGeometry implements Geometry {
 
+    /**
+     * WKT writer of current thread, it is reused for all geometries.
+     */
+    private static final ThreadLocal<WKTWriter> WKT_WRITER =
+            new ThreadLocal<WKTWriter>() {
+        @Override
+        protected WKTWriter initialValue() {
+            return new WKTWriter();
+        }
+    };
+
     /**
      * SRID.
      */
@@ -49,5 +60,19 @@ public abstract class AbstractGeometry implements Geometry {
     }
 
     @Override
-    public abstract String toWKT() throws RuntimeException;
+    public String toWKT() {
+        final WKTWriter writer = WKT_WRITER.get();
+        writer.clear();
+        writeWKT(writer, getSrid(), true);
+
+        return writer.toString();
+    }
+
+    @Override
+    public byte[] toEWKB() {
+        final EWKBWriter writer = new EWKBWriter(1_024);
+        writeEWKB(writer, getSrid());
+
+        return writer.toByteArray();
+    }
 }
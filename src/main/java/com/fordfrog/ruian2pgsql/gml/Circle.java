@@ -21,9 +21,8 @@
  */
 package com.fordfrog.ruian2pgsql.gml;
 
+import com.fordfrog.ruian2pgsql.Config;
 import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Circle.
@@ -35,33 +34,27 @@ public class Circle extends AbstractGeometry implements GeometryWithPoints, Curv
     /**
      * Circle points.
      */
-    private final List<Point> points = new ArrayList<>(5);
+    private final CoordinateSequence points = new CoordinateSequence(3);
 
     @Override
-    public void addPoint(final Point point) {
-        points.add(point);
+    public void addPoint(final double x, final double y) {
+        points.add(x, y);
     }
 
     @Override
-    public String toWKT() {
-        if (points.size() != 3) {
-            throw new RuntimeException(MessageFormat.format(
-                "Invalid Circle definition: need 3 control points, but got {0}.",
-                points.size()));
-        }
-
-        final Point center = GeometryUtils.getArcCenter(points.get(0), points.get(1), points.get(2));
-        final double dx = center.getX() - points.get(0).getX();
-        final double dy = center.getY() - points.get(0).getY();
+    public CoordinateSequence getCoordinates() {
+        return points;
+    }
 
-        final Curve curve = new Curve();
-        curve.addPoint(points.get(0));
-        curve.addPoint(new Point(center.getX() - dy, center.getY() + dx));
-        curve.addPoint(new Point(center.getX() + dx, center.getY() + dy));
-        curve.addPoint(new Point(center.getX() + dy, center.getY() - dx));
-        curve.addPoint(points.get(0));
+    @Override
+    public void writeWKT(final WKTWriter writer, final Integer srid,
+            final boolean tagged) {
+        toCurve().writeWKT(writer, srid, tagged);
+    }
 
-        return curve.toWKT();
+    @Override
+    public void writeEWKB(final EWKBWriter writer, final Integer srid) {
+        toCurve().writeEWKB(writer, srid);
     }
 
     @Override
@@ -72,10 +65,11 @@ public class Circle extends AbstractGeometry implements GeometryWithPoints, Curv
                 points.size()));
         }
 
-        final Point center = GeometryUtils.getArcCenter(points.get(0), points.get(1), points.get(2));
-        final double radius = GeometryUtils.distance(points.get(0), center);
-        final double a1 = Math.atan2(points.get(0).getY() - center.getY(),
-                                     points.get(0).getX() - center.getX());
+        final Point center = GeometryUtils.getArcCenter(points, 0, 1, 2);
+        final double radius = GeometryUtils.distance(points.getX(0),
+                points.getY(0), center.getX(), center.getY());
+        final double a1 = Math.atan2(points.getY(0) - center.getY(),
+                                     points.getX(0) - center.getX());
 
         double segmentCount = 3.0;
         if (0.5 * radius > precision) {
@@ -84,14 +78,42 @@ public class Circle extends AbstractGeometry implements GeometryWithPoints, Curv
 
         final Line line = new Line();
         line.setSrid(getSrid());
-        line.addPoint(points.get(0));
+        line.addPoint(points.getX(0), points.getY(0));
         for (int i = 1; i < segmentCount; i++) {
             double a = a1 + i * 2 * Math.PI / segmentCount;
-            line.addPoint(new Point(center.getX() + radius * Math.cos(a),
-                                 center.getY() + radius * Math.sin(a)));
+            line.addPoint(center.getX() + radius * Math.cos(a),
+                          center.getY() + radius * Math.sin(a));
         }
-        line.addPoint(points.get(0));
+        line.addPoint(points.getX(0), points.getY(0));
+        line.getCoordinates().snap(0, Config.getCoordinateScale());
 
         return line;
     }
+
+    /**
+     * Converts the circle to curve that consists of two arcs.
+     *
+     * @return curve
+     */
+    private Curve toCurve() {
+        if (points.size() != 3) {
+            throw new RuntimeException(MessageFormat.format(
+                "Invalid Circle definition: need 3 control points, but got {0}.",
+                points.size()));
+        }
+
+        final Point center = GeometryUtils.getArcCenter(points, 0, 1, 2);
+        final double dx = center.getX() - points.getX(0);
+        final double dy = center.getY() - points.getY(0);
+
+        final Curve curve = new Curve();
+        curve.addPoint(points.getX(0), points.getY(0));
+        curve.addPoint(center.getX() - dy, center.getY() + dx);
+        curve.addPoint(center.getX() + dx, center.getY() + dy);
+        curve.addPoint(center.getX() + dy, center.getY() - dx);
+        curve.addPoint(points.getX(0), points.getY(0));
+        curve.getCoordinates().snap(0, Config.getCoordinateScale());
+
+        return curve;
+    }
 }
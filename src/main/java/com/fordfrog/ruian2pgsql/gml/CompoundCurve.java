@@ -47,12 +47,9 @@ public class CompoundCurve extends AbstractGeometry implements CurvedGeometry<Li
     }
 
     @Override
-    public String toWKT() {
-        final StringBuilder sbString =
-                new StringBuilder(segments.size() * 1_024);
-        WKTUtils.appendSrid(sbString, getSrid());
-
-        sbString.append("COMPOUNDCURVE(");
+    public void writeWKT(final WKTWriter writer, final Integer srid,
+            final boolean tagged) {
+        writer.writeStart("COMPOUNDCURVE", srid, true);
 
         boolean first = true;
 
@@ -60,46 +57,55 @@ public class CompoundCurve extends AbstractGeometry implements CurvedGeometry<Li
             if (first) {
                 first = false;
             } else {
-                sbString.append(',');
+                writer.writeSeparator();
             }
 
-            sbString.append(segment.toWKT());
+            segment.writeWKT(writer, null, tagged);
         }
 
-        sbString.append(')');
+        writer.writeEnd();
+    }
+
+    @Override
+    public void writeEWKB(final EWKBWriter writer, final Integer srid) {
+        writer.writeHeader(EWKBWriter.COMPOUNDCURVE, srid);
+        writer.writeInt(segments.size());
 
-        return sbString.toString();
+        for (final Geometry segment : segments) {
+            segment.writeEWKB(writer, null);
+        }
     }
 
     @Override
     public Line linearize(final double precision) {
         final Line line = new Line();
         line.setSrid(getSrid());
-        List<Point> points = null;
-        Point lastPoint = null;
+        final CoordinateSequence linePoints = line.getCoordinates();
 
         for (final Geometry segment : segments) {
+            final CoordinateSequence points;
+
             if (segment instanceof Line) {
-                points = ((Line) segment).getPoints();
+                points = ((Line) segment).getCoordinates();
             } else {
-                points = ((CurvedGeometry<Line>) segment).linearize(precision).getPoints();
+                points = ((CurvedGeometry<Line>) segment).linearize(precision).getCoordinates();
             }
 
-            if (lastPoint != null) {
-                if (lastPoint.getX() != points.get(0).getX() ||
-                    lastPoint.getY() != points.get(0).getY()) {
+            if (linePoints.size() > 0) {
+                final int last = linePoints.size() - 1;
+
+                if (linePoints.getX(last) != points.getX(0) ||
+                    linePoints.getY(last) != points.getY(0)) {
                     throw new RuntimeException(MessageFormat.format(
                         "Could not connect segments of CompoundCurve: {0} != {1}.",
-                        lastPoint.toWKT(), points.get(0).toWKT()));
+                        new Point(linePoints.getX(last), linePoints.getY(last)).toWKT(),
+                        new Point(points.getX(0), points.getY(0)).toWKT()));
                 }
-            } else {
-                line.addPoint(points.get(0));
-            }
 
-            for (final Point point : points.subList(1, points.size())) {
-                line.addPoint(point);
+                linePoints.addAll(points, 1);
+            } else {
+                linePoints.addAll(points, 0);
             }
-            lastPoint = points.get(points.size() - 1);
         }
 
         return line;
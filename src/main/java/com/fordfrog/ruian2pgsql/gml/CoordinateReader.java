@@ -0,0 +1,341 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.gml;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reader of coordinates from text of pos and posList elements. Text is
+ * scanned in the character buffer of XML stream reader, decimal numbers with
+ * up to 15 digits, which covers S-JTSK coordinates, are computed
+ * arithmetically without creating strings. The result is the same as of
+ * {@link Double#parseDouble(java.lang.String)}, because both the digits and
+ * the power of ten are exact doubles and are divided with single rounding.
+ * Other numbers are parsed by {@link Double#parseDouble(java.lang.String)}.
+ *
+ * @author fordfrog
+ */
+public class CoordinateReader {
+
+    /**
+     * Maximum number of digits of number that is computed arithmetically.
+     * Such numbers are exactly representable as double.
+     */
+    private static final int MAX_EXACT_DIGITS = 15;
+    /**
+     * Powers of ten up to {@link #MAX_EXACT_DIGITS}.
+     */
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4,
+        1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+    /**
+     * Sequence that parsed coordinates are added to.
+     */
+    private final CoordinateSequence sequence;
+    /**
+     * Characters of number that continues in next text chunk.
+     */
+    private char[] token = new char[32];
+    /**
+     * Number of characters in {@link #token}.
+     */
+    private int tokenLength;
+    /**
+     * X coordinate that waits for its Y coordinate.
+     */
+    private double x;
+    /**
+     * Whether {@link #x} is set.
+     */
+    private boolean hasX;
+
+    /**
+     * Creates new instance of CoordinateReader.
+     *
+     * @param sequence {@link #sequence}
+     */
+    public CoordinateReader(final CoordinateSequence sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * Reads coordinates from text of the current element until end of the
+     * element and adds them to the sequence.
+     *
+     * @param reader   XML stream reader positioned at start of pos or posList
+     *                 element
+     * @param sequence sequence that coordinates are added to
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    public static void read(final XMLStreamReader reader,
+            final CoordinateSequence sequence) throws XMLStreamException {
+        final CoordinateReader coordinateReader =
+                new CoordinateReader(sequence);
+
+        while (reader.hasNext()) {
+            final int event = reader.next();
+
+            switch (event) {
+                case XMLStreamReader.CHARACTERS:
+                case XMLStreamReader.CDATA:
+                case XMLStreamReader.SPACE:
+                case XMLStreamReader.ENTITY_REFERENCE:
+                    coordinateReader.append(reader.getTextCharacters(),
+                            reader.getTextStart(), reader.getTextLength());
+                    break;
+                case XMLStreamReader.END_ELEMENT:
+                    coordinateReader.finish();
+
+                    return;
+                case XMLStreamReader.COMMENT:
+                case XMLStreamReader.PROCESSING_INSTRUCTION:
+                    break;
+                default:
+                    throw new XMLStreamException("Unexpected event " + event
+                            + " in coordinates", reader.getLocation());
+            }
+        }
+
+        throw new XMLStreamException("Unexpected end of coordinates");
+    }
+
+    /**
+     * Parses characters of text. Number that is not terminated by whitespace
+     * continues in following text.
+     *
+     * @param chars  character buffer
+     * @param start  offset of the first character
+     * @param length number of characters
+     */
+    public void append(final char[] chars, final int start,
+            final int length) {
+        final int end = start + length;
+        int i = start;
+
+        if (tokenLength > 0) {
+            final int tokenEnd = findTokenEnd(chars, i, end);
+            appendToken(chars, i, tokenEnd);
+
+            if (tokenEnd == end) {
+                return;
+            }
+
+            addValue(parseNumber(token, 0, tokenLength));
+            tokenLength = 0;
+            i = tokenEnd;
+        }
+
+        while (i < end) {
+            char c = chars[i];
+
+            if (isWhitespace(c)) {
+                i++;
+
+                continue;
+            }
+
+            // fast path for numbers that fit in this chunk, other numbers are
+            // handled by parseNumber()
+            final int tokenStart = i;
+            final boolean negative = c == '-';
+
+            if (negative) {
+                i++;
+            }
+
+            final int integerStart = i;
+            long mantissa = 0;
+
+            while (i < end && (c = chars[i]) >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                i++;
+            }
+
+            int digits = i - integerStart;
+            int fractionDigits = 0;
+
+            if (i < end && chars[i] == '.') {
+                i++;
+
+                final int fractionStart = i;
+
+                while (i < end && (c = chars[i]) >= '0' && c <= '9') {
+                    mantissa = mantissa * 10 + (c - '0');
+                    i++;
+                }
+
+                fractionDigits = i - fractionStart;
+                digits += fractionDigits;
+            }
+
+            final int tokenEnd = i < end && isWhitespace(chars[i])
+                    ? i : findTokenEnd(chars, i, end);
+
+            if (tokenEnd == end) {
+                appendToken(chars, tokenStart, end);
+
+                return;
+            } else if (tokenEnd != i || digits == 0
+                    || digits > MAX_EXACT_DIGITS) {
+                addValue(parseNumber(chars, tokenStart, tokenEnd));
+            } else {
+                final double value = fractionDigits == 0 ? mantissa
+                        : mantissa / POWERS_OF_TEN[fractionDigits];
+                addValue(negative ? -value : value);
+            }
+
+            i = tokenEnd;
+        }
+    }
+
+    /**
+     * Finishes parsing of the last number.
+     */
+    public void finish() {
+        if (tokenLength > 0) {
+            addValue(parseNumber(token, 0, tokenLength));
+            tokenLength = 0;
+        }
+
+        if (hasX) {
+            throw new RuntimeException(
+                    "Coordinates contain odd number of values");
+        }
+    }
+
+    /**
+     * Finds end of number.
+     *
+     * @param chars character buffer
+     * @param start offset of the first character of the number
+     * @param end   end of the text
+     *
+     * @return offset of whitespace after the number or end of the text
+     */
+    private static int findTokenEnd(final char[] chars, final int start,
+            final int end) {
+        int i = start;
+
+        while (i < end && !isWhitespace(chars[i])) {
+            i++;
+        }
+
+        return i;
+    }
+
+    /**
+     * Checks whether character is XML whitespace.
+     *
+     * @param c character
+     *
+     * @return true if the character is whitespace, otherwise false
+     */
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r';
+    }
+
+    /**
+     * Appends characters of number that continues in next text chunk to
+     * {@link #token}.
+     *
+     * @param chars character buffer
+     * @param start offset of the first character
+     * @param end   offset after the last character
+     */
+    private void appendToken(final char[] chars, final int start,
+            final int end) {
+        final int length = end - start;
+
+        if (tokenLength + length > token.length) {
+            final char[] newToken =
+                    new char[Math.max(tokenLength + length, token.length * 2)];
+            System.arraycopy(token, 0, newToken, 0, tokenLength);
+            token = newToken;
+        }
+
+        System.arraycopy(chars, start, token, tokenLength, length);
+        tokenLength += length;
+    }
+
+    /**
+     * Parses number.
+     *
+     * @param chars character buffer
+     * @param start offset of the first character of the number
+     * @param end   offset after the last character of the number
+     *
+     * @return parsed number
+     */
+    private static double parseNumber(final char[] chars, final int start,
+            final int end) {
+        final boolean negative = chars[start] == '-';
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean simple = true;
+
+        for (int i = negative ? start + 1 : start; i < end; i++) {
+            final char c = chars[i];
+
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+
+                if (fractionDigits != -1) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits == -1) {
+                fractionDigits = 0;
+            } else {
+                simple = false;
+
+                break;
+            }
+        }
+
+        if (!simple || digits == 0 || digits > MAX_EXACT_DIGITS) {
+            return Double.parseDouble(new String(chars, start, end - start));
+        }
+
+        final double value = fractionDigits <= 0 ? mantissa
+                : mantissa / POWERS_OF_TEN[fractionDigits];
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * Adds parsed value to the sequence.
+     *
+     * @param value parsed value
+     */
+    private void addValue(final double value) {
+        if (hasX) {
+            sequence.add(x, value);
+            hasX = false;
+        } else {
+            x = value;
+            hasX = true;
+        }
+    }
+}
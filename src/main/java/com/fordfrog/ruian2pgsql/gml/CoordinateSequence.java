@@ -0,0 +1,149 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.gml;
+
+/**
+ * Growable sequence of two-dimensional coordinates. Coordinates are stored
+ * interleaved in single array, so that large geometries do not need object
+ * per point.
+ *
+ * @author fordfrog
+ */
+public class CoordinateSequence {
+
+    /**
+     * Interleaved X and Y coordinates.
+     */
+    private double[] coordinates;
+    /**
+     * Number of points in the sequence.
+     */
+    private int size;
+
+    /**
+     * Creates new instance of CoordinateSequence.
+     *
+     * @param capacity initial number of points that the sequence can hold
+     */
+    public CoordinateSequence(final int capacity) {
+        coordinates = new double[Math.max(capacity, 1) * 2];
+    }
+
+    /**
+     * Adds point to the end of the sequence.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     */
+    public void add(final double x, final double y) {
+        if (size * 2 == coordinates.length) {
+            final double[] newCoordinates = new double[coordinates.length * 2];
+            System.arraycopy(coordinates, 0, newCoordinates, 0,
+                    coordinates.length);
+            coordinates = newCoordinates;
+        }
+
+        coordinates[size * 2] = x;
+        coordinates[size * 2 + 1] = y;
+        size++;
+    }
+
+    /**
+     * Adds points of other sequence to the end of the sequence.
+     *
+     * @param other     sequence to add points from
+     * @param fromIndex index of the first point to add
+     */
+    public void addAll(final CoordinateSequence other, final int fromIndex) {
+        final int count = other.size - fromIndex;
+
+        if (count <= 0) {
+            return;
+        }
+
+        if ((size + count) * 2 > coordinates.length) {
+            final double[] newCoordinates = new double[Math.max(
+                    coordinates.length * 2, (size + count) * 2)];
+            System.arraycopy(coordinates, 0, newCoordinates, 0, size * 2);
+            coordinates = newCoordinates;
+        }
+
+        System.arraycopy(other.coordinates, fromIndex * 2, coordinates,
+                size * 2, count * 2);
+        size += count;
+    }
+
+    /**
+     * Returns number of points in the sequence.
+     *
+     * @return number of points
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns X coordinate of point.
+     *
+     * @param index point index
+     *
+     * @return X coordinate
+     */
+    public double getX(final int index) {
+        return coordinates[index * 2];
+    }
+
+    /**
+     * Returns Y coordinate of point.
+     *
+     * @param index point index
+     *
+     * @return Y coordinate
+     */
+    public double getY(final int index) {
+        return coordinates[index * 2 + 1];
+    }
+
+    /**
+     * Snaps coordinates of points to grid.
+     *
+     * @param fromIndex index of the first point to snap
+     * @param scale     number of grid steps per unit, power of ten, or zero
+     *                  if coordinates should be kept as they are
+     */
+    public void snap(final int fromIndex, final long scale) {
+        if (scale == 0) {
+            return;
+        }
+
+        for (int i = fromIndex * 2; i < size * 2; i++) {
+            coordinates[i] = GeometryUtils.snap(coordinates[i], scale);
+        }
+    }
+
+    /**
+     * Removes all points from the sequence.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
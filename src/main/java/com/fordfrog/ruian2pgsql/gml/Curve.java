@@ -21,10 +21,8 @@
  */
 package com.fordfrog.ruian2pgsql.gml;
 
+import com.fordfrog.ruian2pgsql.Config;
 import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * Curve.
@@ -36,23 +34,30 @@ public class Curve extends AbstractGeometry implements GeometryWithPoints, Curve
     /**
      * Curve points.
      */
-    private final List<Point> points = new ArrayList<>(5);
+    private final CoordinateSequence points = new CoordinateSequence(5);
 
     @Override
-    public void addPoint(final Point point) {
-        points.add(point);
+    public void addPoint(final double x, final double y) {
+        points.add(x, y);
     }
 
     @Override
-    public String toWKT() {
-        final StringBuilder sbString = new StringBuilder(100);
-        WKTUtils.appendSrid(sbString, getSrid());
+    public CoordinateSequence getCoordinates() {
+        return points;
+    }
 
-        sbString.append("CIRCULARSTRING(");
-        WKTUtils.appendPoints(sbString, points);
-        sbString.append(')');
+    @Override
+    public void writeWKT(final WKTWriter writer, final Integer srid,
+            final boolean tagged) {
+        writer.writeStart("CIRCULARSTRING", srid, true);
+        writer.writePoints(points);
+        writer.writeEnd();
+    }
 
-        return sbString.toString();
+    @Override
+    public void writeEWKB(final EWKBWriter writer, final Integer srid) {
+        writer.writeHeader(EWKBWriter.CIRCULARSTRING, srid);
+        writer.writePoints(points);
     }
 
     @Override
@@ -65,37 +70,36 @@ public class Curve extends AbstractGeometry implements GeometryWithPoints, Curve
 
         final Line line = new Line();
         line.setSrid(getSrid());
-        line.addPoint(points.get(0));
+        line.addPoint(points.getX(0), points.getY(0));
         for (int i = 2; i < points.size(); i = i + 2) {
-            List<Point> linePoints = linearizeArc(precision,
-                        points.get(i - 2), points.get(i - 1), points.get(i));
-            for (final Point point : linePoints.subList(1, linePoints.size())) {
-                line.addPoint(point);
-            }
+            linearizeArc(precision, i - 2, line.getCoordinates());
         }
 
+        line.getCoordinates().snap(0, Config.getCoordinateScale());
+
         return line;
     }
 
     /**
-     * Calculates linear approximation of the arc.
+     * Calculates linear approximation of the arc and adds its points, except
+     * the first one, to the sequence.
      *
      * @param precision of linear approximation
-     * @param point1 first point of the arc
-     * @param point2 second point of the arc
-     * @param point3 third point of the arc
-     *
-     * @return list of points approximating arc
+     * @param index     index of the first point of the arc
+     * @param target    sequence that the points are added to
      */
-    private List<Point> linearizeArc(double precision, final Point point1,
-            final Point point2, final Point point3) {
-        final Point center = GeometryUtils.getArcCenter(point1, point2, point3);
-        final double radius = GeometryUtils.distance(point2, center);
-        final boolean ccw = GeometryUtils.orientationDet(point1, point2, point3) > 0;
-        final double a1 = Math.atan2(point1.getY() - center.getY(),
-                                     point1.getX() - center.getX());
-        final double a3 = Math.atan2(point3.getY() - center.getY(),
-                                     point3.getX() - center.getX());
+    private void linearizeArc(double precision, final int index,
+            final CoordinateSequence target) {
+        final Point center =
+                GeometryUtils.getArcCenter(points, index, index + 1, index + 2);
+        final double radius = GeometryUtils.distance(points.getX(index + 1),
+                points.getY(index + 1), center.getX(), center.getY());
+        final boolean ccw = GeometryUtils.orientationDet(
+                points, index, index + 1, index + 2) > 0;
+        final double a1 = Math.atan2(points.getY(index) - center.getY(),
+                                     points.getX(index) - center.getX());
+        final double a3 = Math.atan2(points.getY(index + 2) - center.getY(),
+                                     points.getX(index + 2) - center.getX());
         double da = a3 - a1;
         da = ccw ? da : -da;
         da = da > 0 ? da : da + 2 * Math.PI;
@@ -105,20 +109,16 @@ public class Curve extends AbstractGeometry implements GeometryWithPoints, Curve
             segmentCount = Math.ceil(0.5 * da / Math.acos(1 - precision / radius));
         }
 
-        final List<Point> points = new ArrayList<>(100);
-        for (int i = 1; i < segmentCount; i++) {
+        // clockwise arcs are generated from the third point backwards
+        final int count = (int) Math.ceil(segmentCount) - 1;
+        for (int j = 1; j <= count; j++) {
+            final int i = ccw ? j : count + 1 - j;
             double a = (ccw ? a1 : a3) + i * da / segmentCount;
-            points.add(new Point(center.getX() + radius * Math.cos(a),
-                                 center.getY() + radius * Math.sin(a)));
-        }
-        if (!ccw) {
-            Collections.reverse(points);
+            target.add(center.getX() + radius * Math.cos(a),
+                       center.getY() + radius * Math.sin(a));
         }
 
-        points.add(0, point1);
-        points.add(point3);
-
-        return points;
+        target.add(points.getX(index + 2), points.getY(index + 2));
     }
 
 }
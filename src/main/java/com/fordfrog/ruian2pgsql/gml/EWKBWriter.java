@@ -0,0 +1,207 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.gml;
+
+/**
+ * Writer of geometries in EWKB format, the extended well-known binary format
+ * of PostGIS. Values are written in little endian byte order. SRID is written
+ * only for the top level geometry.
+ *
+ * @author fordfrog
+ */
+public class EWKBWriter {
+
+    /**
+     * Point type.
+     */
+    public static final int POINT = 1;
+    /**
+     * LineString type.
+     */
+    public static final int LINESTRING = 2;
+    /**
+     * Polygon type.
+     */
+    public static final int POLYGON = 3;
+    /**
+     * MultiPoint type.
+     */
+    public static final int MULTIPOINT = 4;
+    /**
+     * MultiLineString type.
+     */
+    public static final int MULTILINESTRING = 5;
+    /**
+     * MultiPolygon type.
+     */
+    public static final int MULTIPOLYGON = 6;
+    /**
+     * CircularString type.
+     */
+    public static final int CIRCULARSTRING = 8;
+    /**
+     * CompoundCurve type.
+     */
+    public static final int COMPOUNDCURVE = 9;
+    /**
+     * CurvePolygon type.
+     */
+    public static final int CURVEPOLYGON = 10;
+    /**
+     * MultiCurve type.
+     */
+    public static final int MULTICURVE = 11;
+    /**
+     * MultiSurface type.
+     */
+    public static final int MULTISURFACE = 12;
+    /**
+     * Flag of geometry type that marks that SRID follows the type.
+     */
+    public static final int SRID_FLAG = 0x20000000;
+    /**
+     * Byte order marker of little endian.
+     */
+    private static final byte LITTLE_ENDIAN = 1;
+    /**
+     * Buffer with written bytes.
+     */
+    private byte[] buffer;
+    /**
+     * Number of written bytes.
+     */
+    private int size;
+
+    /**
+     * Creates new instance of EWKBWriter.
+     *
+     * @param capacity initial capacity of the buffer in bytes
+     */
+    public EWKBWriter(final int capacity) {
+        buffer = new byte[Math.max(capacity, 16)];
+    }
+
+    /**
+     * Writes header of geometry.
+     *
+     * @param type geometry type
+     * @param srid SRID or null
+     */
+    public void writeHeader(final int type, final Integer srid) {
+        ensureCapacity(9);
+        buffer[size++] = LITTLE_ENDIAN;
+
+        if (srid == null) {
+            writeIntUnchecked(type);
+        } else {
+            writeIntUnchecked(type | SRID_FLAG);
+            writeIntUnchecked(srid);
+        }
+    }
+
+    /**
+     * Writes integer value, for example number of sub-geometries.
+     *
+     * @param value integer value
+     */
+    public void writeInt(final int value) {
+        ensureCapacity(4);
+        writeIntUnchecked(value);
+    }
+
+    /**
+     * Writes coordinates of single point.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     */
+    public void writePoint(final double x, final double y) {
+        ensureCapacity(16);
+        writeDoubleUnchecked(x);
+        writeDoubleUnchecked(y);
+    }
+
+    /**
+     * Writes number of points followed by their coordinates.
+     *
+     * @param points sequence of points
+     */
+    public void writePoints(final CoordinateSequence points) {
+        final int count = points.size();
+        ensureCapacity(4 + count * 16);
+        writeIntUnchecked(count);
+
+        for (int i = 0; i < count; i++) {
+            writeDoubleUnchecked(points.getX(i));
+            writeDoubleUnchecked(points.getY(i));
+        }
+    }
+
+    /**
+     * Returns copy of written bytes.
+     *
+     * @return written bytes
+     */
+    public byte[] toByteArray() {
+        final byte[] result = new byte[size];
+        System.arraycopy(buffer, 0, result, 0, size);
+
+        return result;
+    }
+
+    /**
+     * Makes sure that the buffer has space for given number of bytes.
+     *
+     * @param length number of bytes
+     */
+    private void ensureCapacity(final int length) {
+        if (size + length > buffer.length) {
+            final byte[] newBuffer =
+                    new byte[Math.max(buffer.length * 2, size + length)];
+            System.arraycopy(buffer, 0, newBuffer, 0, size);
+            buffer = newBuffer;
+        }
+    }
+
+    /**
+     * Writes integer value without checking capacity of the buffer.
+     *
+     * @param value integer value
+     */
+    private void writeIntUnchecked(final int value) {
+        buffer[size++] = (byte) value;
+        buffer[size++] = (byte) (value >> 8);
+        buffer[size++] = (byte) (value >> 16);
+        buffer[size++] = (byte) (value >> 24);
+    }
+
+    /**
+     * Writes double value without checking capacity of the buffer.
+     *
+     * @param value double value
+     */
+    private void writeDoubleUnchecked(final double value) {
+        final long bits = Double.doubleToLongBits(value);
+        writeIntUnchecked((int) bits);
+        writeIntUnchecked((int) (bits >> 32));
+    }
+}
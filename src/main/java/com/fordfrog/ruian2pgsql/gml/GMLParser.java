@@ -21,6 +21,8 @@
  */
 package com.fordfrog.ruian2pgsql.gml;
 
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.utils.ElementTable;
 import com.fordfrog.ruian2pgsql.utils.Namespaces;
 import com.fordfrog.ruian2pgsql.utils.XMLUtils;
 import java.text.MessageFormat;
@@ -34,6 +36,106 @@ import javax.xml.stream.XMLStreamReader;
  */
 public class GMLParser {
 
+    /**
+     * Token of MultiPoint element.
+     */
+    private static final int MULTI_POINT = 1;
+    /**
+     * Token of MultiSurface element.
+     */
+    private static final int MULTI_SURFACE = 2;
+    /**
+     * Token of MultiCurve element.
+     */
+    private static final int MULTI_CURVE = 3;
+    /**
+     * Token of Point element.
+     */
+    private static final int POINT = 4;
+    /**
+     * Token of Polygon element.
+     */
+    private static final int POLYGON = 5;
+    /**
+     * Token of pointMembers element.
+     */
+    private static final int POINT_MEMBERS = 6;
+    /**
+     * Token of surfaceMember element.
+     */
+    private static final int SURFACE_MEMBER = 7;
+    /**
+     * Token of curveMember element.
+     */
+    private static final int CURVE_MEMBER = 8;
+    /**
+     * Token of exterior element.
+     */
+    private static final int EXTERIOR = 9;
+    /**
+     * Token of interior element.
+     */
+    private static final int INTERIOR = 10;
+    /**
+     * Token of LinearRing element.
+     */
+    private static final int LINEAR_RING = 11;
+    /**
+     * Token of Ring element.
+     */
+    private static final int RING = 12;
+    /**
+     * Token of LineString element.
+     */
+    private static final int LINE_STRING = 13;
+    /**
+     * Token of Curve element.
+     */
+    private static final int CURVE = 14;
+    /**
+     * Token of segments element.
+     */
+    private static final int SEGMENTS = 15;
+    /**
+     * Token of ArcString element.
+     */
+    private static final int ARC_STRING = 16;
+    /**
+     * Token of Circle element.
+     */
+    private static final int CIRCLE = 17;
+    /**
+     * Token of pos element.
+     */
+    private static final int POS = 18;
+    /**
+     * Token of posList element.
+     */
+    private static final int POS_LIST = 19;
+    /**
+     * Tokens of GML elements.
+     */
+    private static final ElementTable ELEMENTS = new ElementTable()
+            .add(Namespaces.GML, "MultiPoint", MULTI_POINT)
+            .add(Namespaces.GML, "MultiSurface", MULTI_SURFACE)
+            .add(Namespaces.GML, "MultiCurve", MULTI_CURVE)
+            .add(Namespaces.GML, "Point", POINT)
+            .add(Namespaces.GML, "Polygon", POLYGON)
+            .add(Namespaces.GML, "pointMembers", POINT_MEMBERS)
+            .add(Namespaces.GML, "surfaceMember", SURFACE_MEMBER)
+            .add(Namespaces.GML, "curveMember", CURVE_MEMBER)
+            .add(Namespaces.GML, "exterior", EXTERIOR)
+            .add(Namespaces.GML, "interior", INTERIOR)
+            .add(Namespaces.GML, "LinearRing", LINEAR_RING)
+            .add(Namespaces.GML, "Ring", RING)
+            .add(Namespaces.GML, "LineString", LINE_STRING)
+            .add(Namespaces.GML, "Curve", CURVE)
+            .add(Namespaces.GML, "segments", SEGMENTS)
+            .add(Namespaces.GML, "ArcString", ARC_STRING)
+            .add(Namespaces.GML, "Circle", CIRCLE)
+            .add(Namespaces.GML, "pos", POS)
+            .add(Namespaces.GML, "posList", POS_LIST);
+
     /**
      * Parses GML string into geometry object.
      *
@@ -117,16 +219,16 @@ public class GMLParser {
      */
     private static Geometry parseGML(final XMLStreamReader reader)
             throws XMLStreamException {
-        switch (reader.getLocalName()) {
-            case "MultiPoint":
+        switch (ELEMENTS.get(reader)) {
+            case MULTI_POINT:
                 return parseMultiPoint(reader);
-            case "MultiSurface":
+            case MULTI_SURFACE:
                 return parseMultiSurface(reader);
-            case "MultiCurve":
+            case MULTI_CURVE:
                 return parseMultiCurve(reader);
-            case "Point":
+            case POINT:
                 return parsePoint(reader);
-            case "Polygon":
+            case POLYGON:
                 return parsePolygon(reader);
             default:
                 throwUnsupportedElement(reader);
@@ -154,16 +256,14 @@ public class GMLParser {
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "pointMembers", reader)) {
+                    if (ELEMENTS.get(reader) == POINT_MEMBERS) {
                         parsePointMembers(reader, multiPoint);
                     } else {
                         throwUnsupportedElement(reader);
                     }
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "MultiPoint", reader)) {
+                    if (ELEMENTS.get(reader) == MULTI_POINT) {
                         return multiPoint;
                     } else {
                         throwUnexpectedElement(reader);
@@ -194,16 +294,14 @@ public class GMLParser {
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "surfaceMember", reader)) {
+                    if (ELEMENTS.get(reader) == SURFACE_MEMBER) {
                         parseSurfaceMember(reader, multiPolygon);
                     } else {
                         throwUnsupportedElement(reader);
                     }
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "MultiSurface", reader)) {
+                    if (ELEMENTS.get(reader) == MULTI_SURFACE) {
                         return multiPolygon;
                     } else {
                         throwUnexpectedElement(reader);
@@ -234,8 +332,7 @@ public class GMLParser {
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "curveMember", reader)) {
+                    if (ELEMENTS.get(reader) == CURVE_MEMBER) {
                         multiLine.addSegment(parseCurveMember(reader));
                     } else {
                         throwUnsupportedElement(reader);
@@ -243,8 +340,7 @@ public class GMLParser {
 
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "MultiCurve", reader)) {
+                    if (ELEMENTS.get(reader) == MULTI_CURVE) {
                         return multiLine;
                     } else {
                         throwUnexpectedElement(reader);
@@ -296,17 +392,16 @@ public class GMLParser {
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "Point", reader)) {
-                        multiPoint.addPoint(parsePoint(reader));
+                    if (ELEMENTS.get(reader) == POINT) {
+                        final Point point = parsePoint(reader);
+                        multiPoint.addPoint(point.getX(), point.getY());
                     } else {
                         throwUnsupportedElement(reader);
                     }
 
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "pointMembers", reader)) {
+                    if (ELEMENTS.get(reader) == POINT_MEMBERS) {
                         return;
                     } else {
                         throwUnexpectedElement(reader);
@@ -331,8 +426,7 @@ public class GMLParser {
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "Polygon", reader)) {
+                    if (ELEMENTS.get(reader) == POLYGON) {
                         multiPolygon.addPolygon(parsePolygon(reader));
                     } else {
                         throwUnsupportedElement(reader);
@@ -340,8 +434,7 @@ public class GMLParser {
 
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "surfaceMember", reader)) {
+                    if (ELEMENTS.get(reader) == SURFACE_MEMBER) {
                         return;
                     } else {
                         throwUnexpectedElement(reader);
@@ -370,7 +463,7 @@ public class GMLParser {
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (XMLUtils.isSameElement(Namespaces.GML, "pos", reader)) {
+                    if (ELEMENTS.get(reader) == POS) {
                         parsePos(reader, point);
                     } else {
                         throwUnsupportedElement(reader);
@@ -378,8 +471,7 @@ public class GMLParser {
 
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "Point", reader)) {
+                    if (ELEMENTS.get(reader) == POINT) {
                         return point;
                     } else {
                         throwUnexpectedElement(reader);
@@ -410,11 +502,9 @@ public class GMLParser {
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "exterior", reader)) {
+                    if (ELEMENTS.get(reader) == EXTERIOR) {
                         polygon.setOuter(parsePolygonPart(reader));
-                    } else if (XMLUtils.isSameElement(
-                            Namespaces.GML, "interior", reader)) {
+                    } else if (ELEMENTS.get(reader) == INTERIOR) {
                         polygon.addInner(parsePolygonPart(reader));
                     } else {
                         throwUnsupportedElement(reader);
@@ -422,8 +512,7 @@ public class GMLParser {
 
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "Polygon", reader)) {
+                    if (ELEMENTS.get(reader) == POLYGON) {
                         return polygon;
                     } else {
                         throwUnexpectedElement(reader);
@@ -446,7 +535,7 @@ public class GMLParser {
      */
     private static Geometry parsePolygonPart(final XMLStreamReader reader)
             throws XMLStreamException {
-        final String endLocalName = reader.getLocalName();
+        final int endToken = ELEMENTS.get(reader);
         Geometry geometry = null;
 
         while (reader.hasNext()) {
@@ -454,11 +543,9 @@ public class GMLParser {
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "LinearRing", reader)) {
-                        geometry = parseLine(reader, "LinearRing");
-                    } else if (XMLUtils.isSameElement(
-                            Namespaces.GML, "Ring", reader)) {
+                    if (ELEMENTS.get(reader) == LINEAR_RING) {
+                        geometry = parseLine(reader, LINEAR_RING);
+                    } else if (ELEMENTS.get(reader) == RING) {
                         geometry = parseRing(reader);
                     } else {
                         throwUnsupportedElement(reader);
@@ -466,8 +553,7 @@ public class GMLParser {
 
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, endLocalName, reader)) {
+                    if (ELEMENTS.get(reader) == endToken) {
                         return geometry;
                     } else {
                         throwUnexpectedElement(reader);
@@ -481,8 +567,8 @@ public class GMLParser {
     /**
      * Parses LinearRing or LineString
      *
-     * @param reader       XML stream reader
-     * @param endLocalName end local name
+     * @param reader   XML stream reader
+     * @param endToken token of end element
      *
      * @return parsed Line
      *
@@ -490,7 +576,7 @@ public class GMLParser {
      *                            stream.
      */
     private static Line parseLine(final XMLStreamReader reader,
-            final String endLocalName) throws XMLStreamException {
+            final int endToken) throws XMLStreamException {
         final Line line = new Line();
         line.setSrid(getSrid(reader));
 
@@ -499,8 +585,7 @@ public class GMLParser {
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "posList", reader)) {
+                    if (ELEMENTS.get(reader) == POS_LIST) {
                         parsePosList(reader, line);
                     } else {
                         throwUnsupportedElement(reader);
@@ -508,8 +593,7 @@ public class GMLParser {
 
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, endLocalName, reader)) {
+                    if (ELEMENTS.get(reader) == endToken) {
                         return line;
                     } else {
                         throwUnexpectedElement(reader);
@@ -540,8 +624,7 @@ public class GMLParser {
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "curveMember", reader)) {
+                    if (ELEMENTS.get(reader) == CURVE_MEMBER) {
                         compoundCurve.addSegment(parseCurveMember(reader));
                     } else {
                         throwUnsupportedElement(reader);
@@ -549,8 +632,7 @@ public class GMLParser {
 
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "Ring", reader)) {
+                    if (ELEMENTS.get(reader) == RING) {
                         return compoundCurve;
                     } else {
                         throwUnexpectedElement(reader);
@@ -580,19 +662,16 @@ public class GMLParser {
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "LineString", reader)) {
-                        geometry = parseLine(reader, "LineString");
-                    } else if (XMLUtils.isSameElement(
-                            Namespaces.GML, "Curve", reader)) {
+                    if (ELEMENTS.get(reader) == LINE_STRING) {
+                        geometry = parseLine(reader, LINE_STRING);
+                    } else if (ELEMENTS.get(reader) == CURVE) {
                         geometry = parseCurve(reader);
                     } else {
                         throwUnsupportedElement(reader);
                     }
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "curveMember", reader)) {
+                    if (ELEMENTS.get(reader) == CURVE_MEMBER) {
                         return geometry;
                     } else {
                         throwUnexpectedElement(reader);
@@ -622,8 +701,7 @@ public class GMLParser {
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "segments", reader)) {
+                    if (ELEMENTS.get(reader) == SEGMENTS) {
                         geometry = parseSegments(reader);
                     } else {
                         throwUnsupportedElement(reader);
@@ -631,8 +709,7 @@ public class GMLParser {
 
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "Curve", reader)) {
+                    if (ELEMENTS.get(reader) == CURVE) {
                         return geometry;
                     } else {
                         throwUnexpectedElement(reader);
@@ -667,11 +744,9 @@ public class GMLParser {
                                 "Multiple Curve segments are not supported");
                     }
 
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "ArcString", reader)) {
+                    if (ELEMENTS.get(reader) == ARC_STRING) {
                         geometry = parseArcString(reader);
-                    } else if (XMLUtils.isSameElement(
-                            Namespaces.GML, "Circle", reader)) {
+                    } else if (ELEMENTS.get(reader) == CIRCLE) {
                         geometry = parseCircle(reader);
                     } else {
                         throwUnsupportedElement(reader);
@@ -679,8 +754,7 @@ public class GMLParser {
 
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "segments", reader)) {
+                    if (ELEMENTS.get(reader) == SEGMENTS) {
                         return geometry;
                     } else {
                         throwUnexpectedElement(reader);
@@ -711,8 +785,7 @@ public class GMLParser {
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "posList", reader)) {
+                    if (ELEMENTS.get(reader) == POS_LIST) {
                         parsePosList(reader, curve);
                     } else {
                         throwUnsupportedElement(reader);
@@ -720,8 +793,7 @@ public class GMLParser {
 
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "ArcString", reader)) {
+                    if (ELEMENTS.get(reader) == ARC_STRING) {
                         return curve;
                     } else {
                         throwUnexpectedElement(reader);
@@ -752,8 +824,7 @@ public class GMLParser {
 
             switch (event) {
                 case XMLStreamReader.START_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "posList", reader)) {
+                    if (ELEMENTS.get(reader) == POS_LIST) {
                         parsePosList(reader, circle);
                     } else {
                         throwUnsupportedElement(reader);
@@ -761,8 +832,7 @@ public class GMLParser {
 
                     break;
                 case XMLStreamReader.END_ELEMENT:
-                    if (XMLUtils.isSameElement(
-                            Namespaces.GML, "Circle", reader)) {
+                    if (ELEMENTS.get(reader) == CIRCLE) {
                         return circle;
                     } else {
                         throwUnexpectedElement(reader);
@@ -784,9 +854,18 @@ public class GMLParser {
      */
     private static void parsePos(final XMLStreamReader reader,
             final Point point) throws XMLStreamException {
-        final String[] parts = reader.getElementText().split(" ");
-        point.setX(Double.parseDouble(parts[0]));
-        point.setY(Double.parseDouble(parts[1]));
+        final CoordinateSequence sequence = new CoordinateSequence(1);
+        CoordinateReader.read(reader, sequence);
+
+        if (sequence.size() != 1) {
+            throw new RuntimeException(
+                    "Position must contain single point");
+        }
+
+        sequence.snap(0, Config.getCoordinateScale());
+
+        point.setX(sequence.getX(0));
+        point.setY(sequence.getY(0));
     }
 
     /**
@@ -795,19 +874,15 @@ public class GMLParser {
      * @param reader   XML stream reader
      * @param geometry parent geometry
      *
-     * @return parsed line string
-     *
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
     private static void parsePosList(final XMLStreamReader reader,
             final GeometryWithPoints geometry) throws XMLStreamException {
-        final String[] parts = reader.getElementText().split(" ");
-
-        for (int i = 0; i < parts.length; i += 2) {
-            geometry.addPoint(new Point(Double.parseDouble(parts[i]),
-                    Double.parseDouble(parts[i + 1])));
-        }
+        final CoordinateSequence coordinates = geometry.getCoordinates();
+        final int start = coordinates.size();
+        CoordinateReader.read(reader, coordinates);
+        coordinates.snap(start, Config.getCoordinateScale());
     }
 
     /**
@@ -41,4 +41,31 @@ public interface Geometry {
      * @return WKT string representing the geometry
      */
     String toWKT();
+
+    /**
+     * Writes geometry in WKT format. Curved geometries are always written
+     * with their type name, line string and polygon only if they are tagged.
+     *
+     * @param writer WKT writer
+     * @param srid   SRID to be written or null
+     * @param tagged whether line string and polygon type name is written, the
+     *               value is passed also to segments of compound curve
+     */
+    void writeWKT(WKTWriter writer, Integer srid, boolean tagged);
+
+    /**
+     * Stores geometry in EWKB format.
+     *
+     * @return EWKB bytes representing the geometry
+     */
+    byte[] toEWKB();
+
+    /**
+     * Writes geometry in EWKB format. Sub-geometries are written without
+     * SRID.
+     *
+     * @param writer EWKB writer
+     * @param srid   SRID to be written or null
+     */
+    void writeEWKB(EWKBWriter writer, Integer srid);
 }
@@ -22,7 +22,8 @@
 package com.fordfrog.ruian2pgsql.gml;
 
 /**
- * Geometry utilities.
+ * Geometry utilities. Points are passed as indexes into coordinate sequence,
+ * so that no point objects are needed.
  *
  * @author xificurk
  */
@@ -31,45 +32,59 @@ public class GeometryUtils {
     /**
      * Calculates distance of two points.
      *
-     * @param point1 first point
-     * @param point2 second point
+     * @param x1 X coordinate of first point
+     * @param y1 Y coordinate of first point
+     * @param x2 X coordinate of second point
+     * @param y2 Y coordinate of second point
      *
      * @return distance of points
      */
-    public static double distance(final Point point1, final Point point2) {
-        return Math.hypot(point2.getX() - point1.getX(),
-                          point2.getY() - point1.getY());
+    public static double distance(final double x1, final double y1,
+            final double x2, final double y2) {
+        return Math.hypot(x2 - x1, y2 - y1);
     }
 
     /**
      * Calculates determinant of orientation matrix.
      *
-     * @param point1 first point
-     * @param point2 second point
-     * @param point3 third point
+     * @param points sequence of points
+     * @param index1 index of first point
+     * @param index2 index of second point
+     * @param index3 index of third point
      *
      * @return determinant of orientation matrix
      */
-    public static double orientationDet(final Point point1, final Point point2, final Point point3) {
-        return (point3.getX() - point2.getX()) * (point1.getY() - point2.getY()) -
-               (point1.getX() - point2.getX()) * (point3.getY() - point2.getY());
+    public static double orientationDet(final CoordinateSequence points,
+            final int index1, final int index2, final int index3) {
+        return (points.getX(index3) - points.getX(index2))
+                * (points.getY(index1) - points.getY(index2))
+                - (points.getX(index1) - points.getX(index2))
+                * (points.getY(index3) - points.getY(index2));
     }
 
     /**
      * Calculates center of the arc.
      *
-     * @param point1 first point of the arc
-     * @param point2 second point of the arc
-     * @param point3 third point of the arc
+     * @param points sequence of points
+     * @param index1 index of first point of the arc
+     * @param index2 index of second point of the arc
+     * @param index3 index of third point of the arc
      *
      * @return center of the arc.
      */
-    public static Point getArcCenter(final Point point1, final Point point2,
-            final Point point3) {
-        final double dx1 = point1.getX() - point2.getX();
-        final double dy1 = point1.getY() - point2.getY();
-        final double dx3 = point3.getX() - point2.getX();
-        final double dy3 = point3.getY() - point2.getY();
+    public static Point getArcCenter(final CoordinateSequence points,
+            final int index1, final int index2, final int index3) {
+        final double x1 = points.getX(index1);
+        final double y1 = points.getY(index1);
+        final double x2 = points.getX(index2);
+        final double y2 = points.getY(index2);
+        final double x3 = points.getX(index3);
+        final double y3 = points.getY(index3);
+
+        final double dx1 = x1 - x2;
+        final double dy1 = y1 - y2;
+        final double dx3 = x3 - x2;
+        final double dy3 = y3 - y2;
 
         final double ac = dx3 * dy1;
         final double bd = dx1 * dy3;
@@ -79,11 +94,45 @@ public class GeometryUtils {
         }
         final double idet = 0.5 / (ac - bd);
 
-        final double dxs = (dy3 * dy1 * (point3.getY() - point1.getY())
+        final double dxs = (dy3 * dy1 * (y3 - y1)
                             + (dx3 * ac - dx1 * bd)) * idet;
-        final double dys = (dx3 * dx1 * (point1.getX() - point3.getX())
+        final double dys = (dx3 * dx1 * (x1 - x3)
                             + (dy1 * ac - dy3 * bd)) * idet;
-        return new Point(point2.getX() + dxs, point2.getY() + dys);
+        return new Point(x2 + dxs, y2 + dys);
+    }
+
+    /**
+     * Snaps value to grid.
+     *
+     * @param value value
+     * @param scale number of grid steps per unit, power of ten
+     *
+     * @return value snapped to grid
+     */
+    public static double snap(final double value, final long scale) {
+        return Math.rint(value * scale) / scale;
+    }
+
+    /**
+     * Checks whether value is power of ten from 1 to 1 000 000 000, that is
+     * scale that is supported for snapping to grid.
+     *
+     * @param value value
+     *
+     * @return true if value is supported power of ten, otherwise false
+     */
+    public static boolean isPowerOfTen(final long value) {
+        long power = 1;
+
+        for (int i = 0; i <= 9; i++) {
+            if (value == power) {
+                return true;
+            }
+
+            power *= 10;
+        }
+
+        return false;
     }
 
     /**
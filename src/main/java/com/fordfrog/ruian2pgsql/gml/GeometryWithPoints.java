@@ -22,16 +22,25 @@
 package com.fordfrog.ruian2pgsql.gml;
 
 /**
- * Interface for geometry that contains list of points.
+ * Interface for geometry that contains sequence of points.
  *
  * @author fordfrog
  */
 public interface GeometryWithPoints {
 
     /**
-     * Adds point to the list of points.
+     * Adds point to the sequence of points.
      *
-     * @param point
+     * @param x X coordinate
+     * @param y Y coordinate
      */
-    void addPoint(Point point);
+    void addPoint(double x, double y);
+
+    /**
+     * Returns sequence of points. Points can be added to the sequence
+     * directly.
+     *
+     * @return sequence of points
+     */
+    CoordinateSequence getCoordinates();
 }
@@ -21,10 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.gml;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * Line.
  *
@@ -33,34 +29,31 @@ import java.util.List;
 public class Line extends AbstractGeometry implements GeometryWithPoints {
 
     /**
-     * List of points.
+     * Sequence of points.
      */
-    private final List<Point> points = new ArrayList<>(100);
+    private final CoordinateSequence points = new CoordinateSequence(32);
 
     @Override
-    public void addPoint(final Point point) {
-        points.add(point);
+    public void addPoint(final double x, final double y) {
+        points.add(x, y);
     }
 
     @Override
-    public String toWKT() {
-        final StringBuilder sbString = new StringBuilder(points.size() * 20);
-
-        WKTUtils.appendSrid(sbString, getSrid());
-
-        sbString.append("LINESTRING(");
-        WKTUtils.appendPoints(sbString, points);
-        sbString.append(')');
+    public CoordinateSequence getCoordinates() {
+        return points;
+    }
 
-        return sbString.toString();
+    @Override
+    public void writeWKT(final WKTWriter writer, final Integer srid,
+            final boolean tagged) {
+        writer.writeStart("LINESTRING", srid, tagged);
+        writer.writePoints(points);
+        writer.writeEnd();
     }
 
-    /**
-     * Getter for {@link #points}.
-     *
-     * @return {@link #points}
-     */
-    public List<Point> getPoints() {
-        return Collections.unmodifiableList(points);
+    @Override
+    public void writeEWKB(final EWKBWriter writer, final Integer srid) {
+        writer.writeHeader(EWKBWriter.LINESTRING, srid);
+        writer.writePoints(points);
     }
 }
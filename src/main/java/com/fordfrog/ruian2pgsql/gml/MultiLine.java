@@ -47,16 +47,10 @@ public class MultiLine extends AbstractGeometry implements CurvedGeometry<MultiL
     }
 
     @Override
-    public String toWKT() {
-        final StringBuilder sbString =
-                new StringBuilder(segments.size() * 1_024);
-        WKTUtils.appendSrid(sbString, getSrid());
-
-        if (hasArc()) {
-            sbString.append("MULTICURVE(");
-        } else {
-            sbString.append("MULTILINESTRING(");
-        }
+    public void writeWKT(final WKTWriter writer, final Integer srid,
+            final boolean tagged) {
+        writer.writeStart(hasArc() ? "MULTICURVE" : "MULTILINESTRING", srid,
+                true);
 
         boolean first = true;
 
@@ -64,15 +58,26 @@ public class MultiLine extends AbstractGeometry implements CurvedGeometry<MultiL
             if (first) {
                 first = false;
             } else {
-                sbString.append(',');
+                writer.writeSeparator();
             }
 
-            sbString.append(segment.toWKT().replaceFirst("^LINESTRING", ""));
+            // only line strings are untagged, lines inside compound curves
+            // keep their type name
+            segment.writeWKT(writer, null, !(segment instanceof Line));
         }
 
-        sbString.append(')');
+        writer.writeEnd();
+    }
+
+    @Override
+    public void writeEWKB(final EWKBWriter writer, final Integer srid) {
+        writer.writeHeader(hasArc() ? EWKBWriter.MULTICURVE
+                : EWKBWriter.MULTILINESTRING, srid);
+        writer.writeInt(segments.size());
 
-        return sbString.toString();
+        for (final Geometry segment : segments) {
+            segment.writeEWKB(writer, null);
+        }
     }
 
     /**
@@ -21,9 +21,6 @@
  */
 package com.fordfrog.ruian2pgsql.gml;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * MultiPoint.
  *
@@ -34,22 +31,34 @@ public class MultiPoint extends AbstractGeometry implements GeometryWithPoints {
     /**
      * Points of the multipoint geometry.
      */
-    private final List<Point> points = new ArrayList<>(2);
+    private final CoordinateSequence points = new CoordinateSequence(2);
+
+    @Override
+    public void addPoint(final double x, final double y) {
+        points.add(x, y);
+    }
 
     @Override
-    public void addPoint(final Point point) {
-        points.add(point);
+    public CoordinateSequence getCoordinates() {
+        return points;
     }
 
     @Override
-    public String toWKT() {
-        final StringBuilder sbString = new StringBuilder(100);
-        WKTUtils.appendSrid(sbString, getSrid());
+    public void writeWKT(final WKTWriter writer, final Integer srid,
+            final boolean tagged) {
+        writer.writeStart("MULTIPOINT", srid, true);
+        writer.writePoints(points);
+        writer.writeEnd();
+    }
 
-        sbString.append("MULTIPOINT(");
-        WKTUtils.appendPoints(sbString, points);
-        sbString.append(')');
+    @Override
+    public void writeEWKB(final EWKBWriter writer, final Integer srid) {
+        writer.writeHeader(EWKBWriter.MULTIPOINT, srid);
+        writer.writeInt(points.size());
 
-        return sbString.toString();
+        for (int i = 0; i < points.size(); i++) {
+            writer.writeHeader(EWKBWriter.POINT, null);
+            writer.writePoint(points.getX(i), points.getY(i));
+        }
     }
 }
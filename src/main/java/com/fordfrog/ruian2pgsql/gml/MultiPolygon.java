@@ -37,15 +37,10 @@ public class MultiPolygon extends AbstractGeometry implements CurvedGeometry<Mul
     private final List<Polygon> polygons = new ArrayList<>(2);
 
     @Override
-    public String toWKT() {
-        final StringBuilder sbString = new StringBuilder(1000);
-        WKTUtils.appendSrid(sbString, getSrid());
-
-        if (hasArc()) {
-            sbString.append("MULTISURFACE(");
-        } else {
-            sbString.append("MULTIPOLYGON(");
-        }
+    public void writeWKT(final WKTWriter writer, final Integer srid,
+            final boolean tagged) {
+        writer.writeStart(hasArc() ? "MULTISURFACE" : "MULTIPOLYGON", srid,
+                true);
 
         boolean first = true;
 
@@ -53,15 +48,24 @@ public class MultiPolygon extends AbstractGeometry implements CurvedGeometry<Mul
             if (first) {
                 first = false;
             } else {
-                sbString.append(',');
+                writer.writeSeparator();
             }
 
-            sbString.append(polygon.toWKT().replaceFirst("^POLYGON", ""));
+            polygon.writeWKT(writer, null, false);
         }
 
-        sbString.append(')');
+        writer.writeEnd();
+    }
+
+    @Override
+    public void writeEWKB(final EWKBWriter writer, final Integer srid) {
+        writer.writeHeader(hasArc() ? EWKBWriter.MULTISURFACE
+                : EWKBWriter.MULTIPOLYGON, srid);
+        writer.writeInt(polygons.size());
 
-        return sbString.toString();
+        for (final Polygon polygon : polygons) {
+            polygon.writeEWKB(writer, null);
+        }
     }
 
     /**
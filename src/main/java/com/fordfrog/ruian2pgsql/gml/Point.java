@@ -91,16 +91,16 @@ public class Point extends AbstractGeometry {
     }
 
     @Override
-    public String toWKT() {
-        final StringBuilder sbString = new StringBuilder(50);
-        WKTUtils.appendSrid(sbString, getSrid());
-
-        sbString.append("POINT(");
-        sbString.append(x);
-        sbString.append(' ');
-        sbString.append(y);
-        sbString.append(')');
+    public void writeWKT(final WKTWriter writer, final Integer srid,
+            final boolean tagged) {
+        writer.writeStart("POINT", srid, true);
+        writer.writePoint(x, y);
+        writer.writeEnd();
+    }
 
-        return sbString.toString();
+    @Override
+    public void writeEWKB(final EWKBWriter writer, final Integer srid) {
+        writer.writeHeader(EWKBWriter.POINT, srid);
+        writer.writePoint(x, y);
     }
 }
@@ -78,27 +78,48 @@ public class Polygon extends AbstractGeometry implements CurvedGeometry<Polygon>
     }
 
     @Override
-    public String toWKT() {
-        final StringBuilder sbString =
-                new StringBuilder((inners.size() + 1) * 1_024);
-        WKTUtils.appendSrid(sbString, getSrid());
+    public void writeWKT(final WKTWriter writer, final Integer srid,
+            final boolean tagged) {
+        final boolean arc = hasArc();
 
-        if (hasArc()) {
-            sbString.append("CURVEPOLYGON(");
+        if (arc) {
+            writer.writeStart("CURVEPOLYGON", srid, true);
         } else {
-            sbString.append("POLYGON(");
+            writer.writeStart("POLYGON", srid, tagged);
         }
 
-        sbString.append(outer.toWKT());
+        // line strings are untagged at any level inside polygon
+        outer.writeWKT(writer, null, false);
 
         for (final Geometry inner : inners) {
-            sbString.append(',');
-            sbString.append(inner.toWKT());
+            writer.writeSeparator();
+            inner.writeWKT(writer, null, false);
         }
 
-        sbString.append(')');
+        writer.writeEnd();
+    }
+
+    @Override
+    public void writeEWKB(final EWKBWriter writer, final Integer srid) {
+        if (hasArc()) {
+            // rings of curve polygon are complete geometries
+            writer.writeHeader(EWKBWriter.CURVEPOLYGON, srid);
+            writer.writeInt(inners.size() + 1);
+            outer.writeEWKB(writer, null);
+
+            for (final Geometry inner : inners) {
+                inner.writeEWKB(writer, null);
+            }
+        } else {
+            // rings of polygon are plain point lists
+            writer.writeHeader(EWKBWriter.POLYGON, srid);
+            writer.writeInt(inners.size() + 1);
+            writer.writePoints(((Line) outer).getCoordinates());
 
-        return sbString.toString().replace("LINESTRING", "");
+            for (final Geometry inner : inners) {
+                writer.writePoints(((Line) inner).getCoordinates());
+            }
+        }
     }
 
     /**
@@ -21,7 +21,7 @@
  */
 package com.fordfrog.ruian2pgsql.gml;
 
-import java.util.List;
+import com.fordfrog.ruian2pgsql.Config;
 
 /**
  * WKT utilities.
@@ -30,6 +30,12 @@ import java.util.List;
  */
 public class WKTUtils {
 
+    /**
+     * Number of grid steps up to which integers are represented exactly as
+     * double, that is 2^53.
+     */
+    private static final double MAX_EXACT_STEPS = 9_007_199_254_740_992.0;
+
     /**
      * Appends SRID information to the string builder if SRID is not null.
      *
@@ -48,26 +54,79 @@ public class WKTUtils {
     }
 
     /**
-     * Appends points to the string builder.
+     * Appends points to the string builder. If coordinates are snapped to
+     * grid, they are formatted with fixed number of decimals.
      *
      * @param sbString string builder
-     * @param points   list of points
+     * @param points   sequence of points
      */
     public static void appendPoints(final StringBuilder sbString,
-            final List<Point> points) {
-        boolean first = true;
+            final CoordinateSequence points) {
+        final long scale = Config.getCoordinateScale();
 
-        for (final Point point : points) {
-            if (first) {
-                first = false;
-            } else {
+        for (int i = 0; i < points.size(); i++) {
+            if (i > 0) {
                 sbString.append(',');
             }
 
-            sbString.append(point.getX());
+            appendCoordinate(sbString, points.getX(i), scale);
             sbString.append(' ');
-            sbString.append(point.getY());
+            appendCoordinate(sbString, points.getY(i), scale);
+        }
+    }
+
+    /**
+     * Appends coordinate to the string builder. If scale is set, coordinate
+     * is rounded to grid and formatted from integer number of grid steps,
+     * trailing zeros of decimals are omitted. Otherwise, or if the number of
+     * steps cannot be represented exactly, shortest representation of the
+     * double value is used.
+     *
+     * @param sbString string builder
+     * @param value    coordinate
+     * @param scale    number of grid steps per unit, power of ten, or zero
+     */
+    public static void appendCoordinate(final StringBuilder sbString,
+            final double value, final long scale) {
+        final double scaled = value * scale;
+
+        if (scale == 0 || !(Math.abs(scaled) < MAX_EXACT_STEPS)) {
+            sbString.append(value);
+
+            return;
+        }
+
+        long steps = (long) Math.rint(scaled);
+
+        if (steps < 0) {
+            sbString.append('-');
+            steps = -steps;
+        }
+
+        sbString.append(steps / scale);
+
+        long fraction = steps % scale;
+
+        if (fraction == 0) {
+            return;
         }
+
+        sbString.append('.');
+
+        // limit is the smallest fraction without leading zeros
+        long limit = scale / 10;
+
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            limit /= 10;
+        }
+
+        while (fraction < limit) {
+            sbString.append('0');
+            limit /= 10;
+        }
+
+        sbString.append(fraction);
     }
 
     /**
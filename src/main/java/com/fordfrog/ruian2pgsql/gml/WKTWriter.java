@@ -0,0 +1,121 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.gml;
+
+import com.fordfrog.ruian2pgsql.Config;
+
+/**
+ * Writer of geometries in WKT format. Whole geometry is written in single
+ * pass into one buffer. Sub-geometries that are written without their type
+ * name, for example rings of polygon, are told so when they are written,
+ * instead of removing the type name from their text afterwards.
+ *
+ * @author fordfrog
+ */
+public class WKTWriter {
+
+    /**
+     * Initial capacity of the buffer.
+     */
+    private static final int INITIAL_CAPACITY = 1_024;
+    /**
+     * Maximum capacity of the buffer that is kept when the writer is cleared,
+     * larger buffer is released so that single large geometry does not keep
+     * the memory.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1_048_576;
+    /**
+     * Buffer with written text.
+     */
+    private StringBuilder sbString = new StringBuilder(INITIAL_CAPACITY);
+
+    /**
+     * Clears the written text so that the writer can be reused.
+     */
+    public void clear() {
+        if (sbString.capacity() > MAX_RETAINED_CAPACITY) {
+            sbString = new StringBuilder(INITIAL_CAPACITY);
+        } else {
+            sbString.setLength(0);
+        }
+    }
+
+    /**
+     * Writes start of geometry, that is SRID if it is not null, type name if
+     * the geometry is tagged and opening parenthesis.
+     *
+     * @param type   type name
+     * @param srid   SRID or null
+     * @param tagged whether type name should be written
+     */
+    public void writeStart(final String type, final Integer srid,
+            final boolean tagged) {
+        WKTUtils.appendSrid(sbString, srid);
+
+        if (tagged) {
+            sbString.append(type);
+        }
+
+        sbString.append('(');
+    }
+
+    /**
+     * Writes end of geometry.
+     */
+    public void writeEnd() {
+        sbString.append(')');
+    }
+
+    /**
+     * Writes separator of points or sub-geometries.
+     */
+    public void writeSeparator() {
+        sbString.append(',');
+    }
+
+    /**
+     * Writes coordinates of single point.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     */
+    public void writePoint(final double x, final double y) {
+        final long scale = Config.getCoordinateScale();
+        WKTUtils.appendCoordinate(sbString, x, scale);
+        sbString.append(' ');
+        WKTUtils.appendCoordinate(sbString, y, scale);
+    }
+
+    /**
+     * Writes coordinates of points separated by commas.
+     *
+     * @param points sequence of points
+     */
+    public void writePoints(final CoordinateSequence points) {
+        WKTUtils.appendPoints(sbString, points);
+    }
+
+    @Override
+    public String toString() {
+        return sbString.toString();
+    }
+}
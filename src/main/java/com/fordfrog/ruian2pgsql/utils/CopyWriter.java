@@ -0,0 +1,257 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.TimeZone;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Buffers rows in PostgreSQL COPY text format and streams them into table
+ * using {@code COPY ... FROM STDIN}. Rows are buffered in memory and sent in
+ * single COPY operation on {@link #flush()} so that the connection can be
+ * used for other statements between flushes.
+ *
+ * @author fordfrog
+ */
+public class CopyWriter {
+
+    /**
+     * Initial size of the buffer.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 65_536;
+    /**
+     * Hexadecimal digits.
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    /**
+     * Database connection.
+     */
+    private final Connection connection;
+    /**
+     * COPY statement.
+     */
+    private final String sqlCopy;
+    /**
+     * Format used for dates. Dates are always stored in UTC.
+     */
+    private final SimpleDateFormat dateFormat;
+    /**
+     * Format used for timestamps. Timestamps are always stored in UTC.
+     */
+    private final SimpleDateFormat timestampFormat;
+    /**
+     * String builder used for encoding of single row.
+     */
+    private final StringBuilder sbRow = new StringBuilder(1_024);
+    /**
+     * Buffer containing encoded rows.
+     */
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    /**
+     * Number of used bytes in the buffer.
+     */
+    private int size;
+    /**
+     * Number of buffered rows.
+     */
+    private int rowCount;
+
+    /**
+     * Creates new instance of CopyWriter.
+     *
+     * @param connection database connection
+     * @param tableName  name of target table
+     * @param columns    list of target columns, separated by commas
+     */
+    public CopyWriter(final Connection connection, final String tableName,
+            final String columns) {
+        this.connection = connection;
+        this.sqlCopy = "COPY " + tableName + " (" + columns + ") FROM STDIN";
+
+        final TimeZone timeZone = TimeZone.getTimeZone("UTC");
+        dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        dateFormat.setTimeZone(timeZone);
+        timestampFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        timestampFormat.setTimeZone(timeZone);
+    }
+
+    /**
+     * Getter for {@link #rowCount}.
+     *
+     * @return {@link #rowCount}
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Getter for {@link #size}.
+     *
+     * @return {@link #size}
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Adds row to the buffer. Values are taken from recorded parameters, in
+     * the order of the parameters.
+     *
+     * @param recorder parameter recorder containing row values
+     */
+    public void addRow(final ParameterRecorder recorder) {
+        sbRow.setLength(0);
+
+        for (int i = 1; i <= recorder.getParameterCount(); i++) {
+            if (i > 1) {
+                sbRow.append('\t');
+            }
+
+            switch (recorder.getParameterType(i)) {
+                case ParameterRecorder.TYPE_NULL:
+                    sbRow.append("\\N");
+                    break;
+                case ParameterRecorder.TYPE_LONG:
+                    sbRow.append(recorder.getLong(i));
+                    break;
+                case ParameterRecorder.TYPE_BOOLEAN:
+                    sbRow.append(recorder.getBoolean(i) ? 't' : 'f');
+                    break;
+                default:
+                    appendValue(recorder.getParameter(i));
+            }
+        }
+
+        sbRow.append('\n');
+
+        final byte[] bytes = sbRow.toString().getBytes(StandardCharsets.UTF_8);
+
+        if (size + bytes.length > buffer.length) {
+            buffer = Arrays.copyOf(buffer,
+                    Math.max(size + bytes.length, buffer.length * 2));
+        }
+
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        rowCount++;
+    }
+
+    /**
+     * Sends buffered rows to database and clears the buffer.
+     *
+     * @return number of rows written to database
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public long flush() throws SQLException {
+        if (rowCount == 0) {
+            return 0;
+        }
+
+        final CopyManager copyManager =
+                connection.unwrap(PGConnection.class).getCopyAPI();
+
+        try {
+            return copyManager.copyIn(
+                    sqlCopy, new ByteArrayInputStream(buffer, 0, size));
+        } catch (final IOException ex) {
+            throw new RuntimeException("Failed to stream data to database", ex);
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * Discards buffered rows.
+     */
+    public void clear() {
+        size = 0;
+        rowCount = 0;
+    }
+
+    /**
+     * Appends value to the row in COPY text format.
+     *
+     * @param value value
+     */
+    private void appendValue(final Object value) {
+        if (value == null) {
+            sbRow.append("\\N");
+        } else if (value instanceof Boolean) {
+            sbRow.append((Boolean) value ? 't' : 'f');
+        } else if (value instanceof Number) {
+            sbRow.append(value);
+        } else if (value instanceof Timestamp) {
+            sbRow.append(timestampFormat.format(value));
+        } else if (value instanceof java.util.Date) {
+            sbRow.append(dateFormat.format(value));
+        } else if (value instanceof byte[]) {
+            sbRow.append("\\\\x");
+
+            for (final byte b : (byte[]) value) {
+                sbRow.append(HEX_DIGITS[(b >> 4) & 0x0f]);
+                sbRow.append(HEX_DIGITS[b & 0x0f]);
+            }
+        } else {
+            appendEscaped(value.toString());
+        }
+    }
+
+    /**
+     * Appends string to the row, escaping characters that have special
+     * meaning in COPY text format.
+     *
+     * @param string string
+     */
+    private void appendEscaped(final String string) {
+        for (int i = 0; i < string.length(); i++) {
+            final char chr = string.charAt(i);
+
+            switch (chr) {
+                case '\\':
+                    sbRow.append("\\\\");
+                    break;
+                case '\n':
+                    sbRow.append("\\n");
+                    break;
+                case '\r':
+                    sbRow.append("\\r");
+                    break;
+                case '\t':
+                    sbRow.append("\\t");
+                    break;
+                default:
+                    sbRow.append(chr);
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Table that maps namespace and local name of element to integer token, so
+ * that elements can be dispatched using switch on integers instead of nested
+ * switches on namespace and local name strings. Lookup uses the hash code of
+ * the local name, which is cached by the string, and compares names by
+ * identity first, which succeeds for names interned by the XML readers.
+ * Elements can be added without namespace, for dispatch in helpers that
+ * check the namespace themselves. Tables are created once in static initializers and are read-only
+ * afterwards, so they can be shared by threads.
+ *
+ * @author fordfrog
+ */
+public class ElementTable {
+
+    /**
+     * Token returned for elements that are not in the table.
+     */
+    public static final int UNKNOWN = 0;
+    /**
+     * Table entries, size is power of two.
+     */
+    private Entry[] entries = new Entry[16];
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Adds element that matches given local name in any namespace to the
+     * table.
+     *
+     * @param localName local name of the element
+     * @param token     token of the element, must be positive
+     *
+     * @return this table
+     */
+    public ElementTable add(final String localName, final int token) {
+        return add(null, localName, token);
+    }
+
+    /**
+     * Adds element to the table.
+     *
+     * @param namespace namespace of the element or null for any namespace
+     * @param localName local name of the element
+     * @param token     token of the element, must be positive
+     *
+     * @return this table
+     */
+    public ElementTable add(final String namespace, final String localName,
+            final int token) {
+        if (token <= UNKNOWN) {
+            throw new IllegalArgumentException(
+                    "Token must be positive: " + token);
+        } else if (get(namespace, localName) != UNKNOWN) {
+            throw new IllegalArgumentException("Element " + namespace + ' '
+                    + localName + " is already in the table");
+        }
+
+        if ((size + 1) * 2 > entries.length) {
+            final Entry[] oldEntries = entries;
+            entries = new Entry[oldEntries.length * 2];
+
+            for (final Entry entry : oldEntries) {
+                if (entry != null) {
+                    put(entry);
+                }
+            }
+        }
+
+        put(new Entry(namespace == null ? null : namespace.intern(),
+                localName.intern(), token));
+        size++;
+
+        return this;
+    }
+
+    /**
+     * Returns token of current element of the reader.
+     *
+     * @param reader XML stream reader positioned at start or end element
+     *
+     * @return token or {@link #UNKNOWN} if the element is not in the table
+     */
+    public int get(final XMLStreamReader reader) {
+        return get(reader.getNamespaceURI(), reader.getLocalName());
+    }
+
+    /**
+     * Returns token of given element.
+     *
+     * @param namespace namespace of the element
+     * @param localName local name of the element
+     *
+     * @return token or {@link #UNKNOWN} if the element is not in the table
+     */
+    @SuppressWarnings("StringEquality")
+    public int get(final String namespace, final String localName) {
+        final int mask = entries.length - 1;
+        int index = localName.hashCode() & mask;
+        Entry entry = entries[index];
+
+        while (entry != null) {
+            if ((entry.localName == localName
+                    || entry.localName.equals(localName))
+                    && (entry.namespace == namespace
+                    || entry.namespace == null
+                    || entry.namespace.equals(namespace))) {
+                return entry.token;
+            }
+
+            index = (index + 1) & mask;
+            entry = entries[index];
+        }
+
+        return UNKNOWN;
+    }
+
+    /**
+     * Puts entry to the first free slot.
+     *
+     * @param entry entry
+     */
+    private void put(final Entry entry) {
+        final int mask = entries.length - 1;
+        int index = entry.localName.hashCode() & mask;
+
+        while (entries[index] != null) {
+            index = (index + 1) & mask;
+        }
+
+        entries[index] = entry;
+    }
+
+    /**
+     * Table entry.
+     */
+    private static class Entry {
+
+        /**
+         * Namespace of the element, null for any namespace.
+         */
+        private final String namespace;
+        /**
+         * Local name of the element.
+         */
+        private final String localName;
+        /**
+         * Token of the element.
+         */
+        private final int token;
+
+        /**
+         * Creates new instance of Entry.
+         *
+         * @param namespace {@link #namespace}
+         * @param localName {@link #localName}
+         * @param token     {@link #token}
+         */
+        Entry(final String namespace, final String localName,
+                final int token) {
+            this.namespace = namespace;
+            this.localName = localName;
+            this.token = token;
+        }
+    }
+}
@@ -0,0 +1,553 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import com.fordfrog.ruian2pgsql.Config;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drops secondary indexes of RÚIAN tables before heavy data loads and creates
+ * them again afterwards, which is much faster than maintaining the indexes
+ * row by row. Only indexes defined in {@code schema_idx.sql} are dropped,
+ * indexes backing primary keys and other constraints and indexes that are
+ * created together with tables (they are used to find and delete existing
+ * items of child tables) are kept. Indexes can be created in parallel using
+ * multiple connections.
+ *
+ * @author fordfrog
+ */
+public class IndexManager {
+
+    /**
+     * Statement that reads secondary indexes of RÚIAN tables from catalog.
+     */
+    private static final String SQL_SELECT_INDEXES = "SELECT t.relname, "
+            + "i.relname, pg_get_indexdef(i.oid) FROM pg_index x "
+            + "JOIN pg_class i ON i.oid = x.indexrelid "
+            + "JOIN pg_class t ON t.oid = x.indrelid "
+            + "JOIN pg_namespace n ON n.oid = t.relnamespace "
+            + "WHERE n.nspname = current_schema() "
+            + "AND t.relname LIKE 'rn\\_%' AND NOT x.indisprimary "
+            + "AND NOT EXISTS (SELECT 1 FROM pg_constraint c "
+            + "WHERE c.conindid = x.indexrelid) "
+            + "ORDER BY t.relname, i.relname";
+    /**
+     * Resource with definitions of indexes that are dropped before data loads.
+     * Indexes of the resource without GIS columns are subset of these.
+     */
+    private static final String DROPPABLE_INDEXES_RESOURCE =
+            "/sql/schema_idx.sql";
+    /**
+     * Statement that reads sizes of RÚIAN tables.
+     */
+    private static final String SQL_SELECT_TABLE_SIZES = "SELECT t.relname, "
+            + "pg_relation_size(t.oid) FROM pg_class t "
+            + "JOIN pg_namespace n ON n.oid = t.relnamespace "
+            + "WHERE n.nspname = current_schema() AND t.relkind = 'r' "
+            + "AND t.relname LIKE 'rn\\_%'";
+
+    /**
+     * Creates new instance of IndexManager.
+     */
+    private IndexManager() {
+    }
+
+    /**
+     * Reads definitions of secondary indexes of RÚIAN tables from catalog.
+     *
+     * @param con database connection
+     *
+     * @return list of index definitions
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public static List<Index> getIndexes(final Connection con)
+            throws SQLException {
+        final List<Index> result = new ArrayList<>(100);
+
+        try (final Statement stm = con.createStatement();
+                final ResultSet rs = stm.executeQuery(SQL_SELECT_INDEXES)) {
+            while (rs.next()) {
+                result.add(new Index(
+                        rs.getString(1), rs.getString(2), rs.getString(3)));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Drops secondary indexes of RÚIAN tables that are defined in
+     * {@code schema_idx.sql}. Definitions of dropped indexes are taken from
+     * catalog and written to log so that the indexes can be created manually
+     * if the import is killed before they are created again.
+     *
+     * @param con database connection
+     *
+     * @return list of definitions of dropped indexes
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public static List<Index> dropIndexes(final Connection con)
+            throws SQLException {
+        if (Config.isDryRun()) {
+            return Collections.emptyList();
+        }
+
+        final Set<String> droppableNames = new HashSet<>(100);
+
+        for (final Index index : readIndexes(DROPPABLE_INDEXES_RESOURCE)) {
+            droppableNames.add(index.getName());
+        }
+
+        final List<Index> indexes = new ArrayList<>(droppableNames.size());
+
+        for (final Index index : getIndexes(con)) {
+            if (droppableNames.contains(index.getName())) {
+                indexes.add(index);
+            }
+        }
+
+        try (final Statement stm = con.createStatement()) {
+            for (final Index index : indexes) {
+                Log.write("Dropping index: " + index.getDefinition());
+                stm.execute("DROP INDEX " + index.getName());
+            }
+        }
+
+        return indexes;
+    }
+
+    /**
+     * Reads index definitions from SQL resource. Each statement of the
+     * resource must create single index.
+     *
+     * @param resourceName name of the resource
+     *
+     * @return list of index definitions
+     */
+    public static List<Index> readIndexes(final String resourceName) {
+        final List<Index> result = new ArrayList<>(100);
+        final StringBuilder sbSQL = new StringBuilder(1_024);
+
+        try (final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(IndexManager.class.getResourceAsStream(
+                                resourceName), "UTF-8"))) {
+            String line = reader.readLine();
+
+            while (line != null) {
+                if (!line.isEmpty()) {
+                    sbSQL.append(line);
+
+                    if (line.endsWith(";")) {
+                        result.add(Index.parse(sbSQL.toString()));
+                        sbSQL.setLength(0);
+                    } else {
+                        sbSQL.append('\n');
+                    }
+                }
+
+                line = reader.readLine();
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeException(
+                    "Failed to read SQL statements from resource", ex);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates indexes using {@link Config#getIndexThreads()} connections.
+     * Indexes of the largest tables are created first so that the longest
+     * builds do not end up running alone at the end. If concurrent creation
+     * is enabled, the indexes are created using
+     * {@code CREATE INDEX CONCURRENTLY} so that tables are not locked against
+     * writes while the indexes are built. Each index is created in its own
+     * transaction. If creation of an index fails, the other indexes are still
+     * created.
+     *
+     * @param con     database connection
+     * @param indexes list of index definitions
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    public static void createIndexes(final Connection con,
+            final List<Index> indexes) throws SQLException {
+        if (Config.isDryRun() || indexes.isEmpty()) {
+            return;
+        }
+
+        final long startTime = System.currentTimeMillis();
+        final Queue<Index> queue =
+                new ConcurrentLinkedQueue<>(sortByTableSize(con, indexes));
+        final List<String> failures =
+                Collections.synchronizedList(new ArrayList<String>(10));
+        final int threads = Math.min(Config.getIndexThreads(), indexes.size());
+        final boolean autoCommit = con.getAutoCommit();
+
+        if (!autoCommit) {
+            con.commit();
+            con.setAutoCommit(true);
+        }
+
+        try {
+            if (threads <= 1) {
+                createIndexes(con, queue, failures);
+            } else {
+                createIndexesParallel(con, queue, failures, threads);
+            }
+        } finally {
+            if (!autoCommit) {
+                con.setAutoCommit(false);
+            }
+        }
+
+        Log.write(indexes.size() - failures.size() + " indexes created in "
+                + (System.currentTimeMillis() - startTime) + " ms");
+
+        if (!failures.isEmpty()) {
+            throw new RuntimeException("Failed to create " + failures.size()
+                    + " index(es): " + failures);
+        }
+    }
+
+    /**
+     * Creates indexes using multiple threads, each with its own database
+     * connection.
+     *
+     * @param con      database connection that is used by the first thread
+     * @param queue    queue of indexes to create
+     * @param failures list of names of indexes that failed to be created
+     * @param threads  number of threads
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private static void createIndexesParallel(final Connection con,
+            final Queue<Index> queue, final List<String> failures,
+            final int threads) throws SQLException {
+        final List<Connection> connections = new ArrayList<>(threads);
+        connections.add(con);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            for (int i = 1; i < threads; i++) {
+                connections.add(DriverManager.getConnection(
+                        Config.getDbConnectionUrl()));
+            }
+
+            final List<Callable<Void>> tasks = new ArrayList<>(threads);
+
+            for (final Connection connection : connections) {
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() throws SQLException {
+                        createIndexes(connection, queue, failures);
+
+                        return null;
+                    }
+                });
+            }
+
+            for (final Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (final InterruptedException ex) {
+            throw new RuntimeException("Index creation was interrupted", ex);
+        } catch (final ExecutionException ex) {
+            throw new RuntimeException("Index creation failed", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+
+            for (final Connection connection : connections) {
+                if (connection != con) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates indexes from the queue until the queue is empty.
+     *
+     * @param con      database connection in auto-commit mode
+     * @param queue    queue of indexes to create
+     * @param failures list of names of indexes that failed to be created
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private static void createIndexes(final Connection con,
+            final Queue<Index> queue, final List<String> failures)
+            throws SQLException {
+        try (final Statement stm = con.createStatement()) {
+            setMaintenanceParameters(stm);
+
+            Index index = queue.poll();
+
+            while (index != null) {
+                final long startTime = System.currentTimeMillis();
+
+                try {
+                    stm.execute(Config.isConcurrentIndexes()
+                            ? index.getConcurrentDefinition()
+                            : index.getDefinition());
+                    Log.write("Index " + index.getName() + " created in "
+                            + (System.currentTimeMillis() - startTime)
+                            + " ms");
+                } catch (final SQLException ex) {
+                    Log.write("Failed to create index " + index.getName()
+                            + ": " + ex.getMessage());
+                    failures.add(index.getName());
+                }
+
+                index = queue.poll();
+            }
+        }
+    }
+
+    /**
+     * Sets session parameters that affect speed of index creation, if they
+     * are configured.
+     *
+     * @param stm statement
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private static void setMaintenanceParameters(final Statement stm)
+            throws SQLException {
+        if (Config.getMaintenanceWorkMem() != null) {
+            stm.execute("SET maintenance_work_mem = '"
+                    + Config.getMaintenanceWorkMem().replace("'", "''") + "'");
+        }
+
+        if (Config.getParallelMaintenanceWorkers() != null) {
+            stm.execute("SET max_parallel_maintenance_workers = "
+                    + Config.getParallelMaintenanceWorkers());
+        }
+    }
+
+    /**
+     * Sorts indexes by size of indexed table in descending order. GIST
+     * indexes of the same table are created before the other indexes because
+     * their creation takes longer.
+     *
+     * @param con     database connection
+     * @param indexes list of index definitions
+     *
+     * @return sorted list of index definitions
+     *
+     * @throws SQLException Thrown if problem occurred while communicating with
+     *                      database.
+     */
+    private static List<Index> sortByTableSize(final Connection con,
+            final List<Index> indexes) throws SQLException {
+        final Map<String, Long> sizes = new HashMap<>(64);
+
+        try (final Statement stm = con.createStatement();
+                final ResultSet rs = stm.executeQuery(SQL_SELECT_TABLE_SIZES)) {
+            while (rs.next()) {
+                sizes.put(rs.getString(1), rs.getLong(2));
+            }
+        }
+
+        final List<Index> result = new ArrayList<>(indexes);
+
+        Collections.sort(result, new Comparator<Index>() {
+            @Override
+            public int compare(final Index o1, final Index o2) {
+                final int result = Long.compare(getSize(o2), getSize(o1));
+
+                if (result != 0) {
+                    return result;
+                }
+
+                return Boolean.compare(o2.isGist(), o1.isGist());
+            }
+
+            private long getSize(final Index index) {
+                final Long size = sizes.get(index.getTableName());
+
+                return size == null ? 0 : size;
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Definition of single index.
+     */
+    public static class Index {
+
+        /**
+         * Prefix of index definition.
+         */
+        private static final String CREATE_INDEX = "CREATE INDEX ";
+        /**
+         * Prefix of unique index definition.
+         */
+        private static final String CREATE_UNIQUE_INDEX =
+                "CREATE UNIQUE INDEX ";
+        /**
+         * Pattern for parsing index name and table name from index definition.
+         */
+        private static final Pattern PATTERN_DEFINITION = Pattern.compile(
+                "^CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(\\S+)\\s+ON\\s+"
+                + "(?:ONLY\\s+)?(\\S+)", Pattern.CASE_INSENSITIVE);
+        /**
+         * Pattern for checking whether index is GIST index.
+         */
+        private static final Pattern PATTERN_GIST = Pattern.compile(
+                "\\sUSING\\s+GIST\\s", Pattern.CASE_INSENSITIVE);
+        /**
+         * Name of indexed table.
+         */
+        private final String tableName;
+        /**
+         * Index name.
+         */
+        private final String name;
+        /**
+         * Statement that creates the index.
+         */
+        private final String definition;
+
+        /**
+         * Creates new instance of Index.
+         *
+         * @param tableName  {@link #tableName}
+         * @param name       {@link #name}
+         * @param definition {@link #definition}
+         */
+        public Index(final String tableName, final String name,
+                final String definition) {
+            this.tableName = tableName;
+            this.name = name;
+            this.definition = definition;
+        }
+
+        /**
+         * Parses index definition.
+         *
+         * @param definition statement that creates the index
+         *
+         * @return index definition
+         */
+        public static Index parse(final String definition) {
+            final Matcher matcher = PATTERN_DEFINITION.matcher(definition);
+
+            if (!matcher.find()) {
+                throw new RuntimeException(
+                        "Unsupported index definition: " + definition);
+            }
+
+            final String tableName = matcher.group(2);
+
+            return new Index(tableName.substring(tableName.indexOf('.') + 1),
+                    matcher.group(1), definition);
+        }
+
+        /**
+         * Getter for {@link #tableName}.
+         *
+         * @return {@link #tableName}
+         */
+        public String getTableName() {
+            return tableName;
+        }
+
+        /**
+         * Getter for {@link #name}.
+         *
+         * @return {@link #name}
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Getter for {@link #definition}.
+         *
+         * @return {@link #definition}
+         */
+        public String getDefinition() {
+            return definition;
+        }
+
+        /**
+         * Checks whether the index is GIST index.
+         *
+         * @return true if the index is GIST index, otherwise false
+         */
+        public boolean isGist() {
+            return PATTERN_GIST.matcher(definition).find();
+        }
+
+        /**
+         * Returns statement that creates the index concurrently.
+         *
+         * @return statement that creates the index concurrently
+         */
+        public String getConcurrentDefinition() {
+            if (definition.startsWith(CREATE_INDEX)) {
+                return "CREATE INDEX CONCURRENTLY "
+                        + definition.substring(CREATE_INDEX.length());
+            } else if (definition.startsWith(CREATE_UNIQUE_INDEX)) {
+                return "CREATE UNIQUE INDEX CONCURRENTLY "
+                        + definition.substring(CREATE_UNIQUE_INDEX.length());
+            } else {
+                return definition;
+            }
+        }
+    }
+}
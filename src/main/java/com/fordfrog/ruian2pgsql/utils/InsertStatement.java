@@ -0,0 +1,178 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed form of simple INSERT statement in form
+ * {@code INSERT INTO table (columns) VALUES (values)} as used by the
+ * convertors. It is used to derive other statements from the column lists.
+ *
+ * @author fordfrog
+ */
+public class InsertStatement {
+
+    /**
+     * Pattern for parsing INSERT statement.
+     */
+    private static final Pattern PATTERN_INSERT = Pattern.compile(
+            "^\\s*INSERT\\s+INTO\\s+(\\w+)\\s*\\((.*?)\\)\\s*"
+            + "VALUES\\s*\\((.*)\\)\\s*$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    /**
+     * Table name.
+     */
+    private final String tableName;
+    /**
+     * Column names.
+     */
+    private final List<String> columns;
+    /**
+     * Value expressions, one for each column.
+     */
+    private final List<String> values;
+
+    /**
+     * Creates new instance of InsertStatement.
+     *
+     * @param tableName {@link #tableName}
+     * @param columns   {@link #columns}
+     * @param values    {@link #values}
+     */
+    private InsertStatement(final String tableName, final List<String> columns,
+            final List<String> values) {
+        this.tableName = tableName;
+        this.columns = Collections.unmodifiableList(columns);
+        this.values = Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Parses INSERT statement.
+     *
+     * @param sql INSERT statement
+     *
+     * @return parsed statement
+     */
+    public static InsertStatement parse(final String sql) {
+        final Matcher matcher = PATTERN_INSERT.matcher(sql);
+
+        if (!matcher.matches()) {
+            throw new RuntimeException("Unsupported INSERT statement: " + sql);
+        }
+
+        final List<String> columns = splitList(matcher.group(2));
+        final List<String> values = splitList(matcher.group(3));
+
+        if (columns.size() != values.size()) {
+            throw new RuntimeException("Number of columns does not match "
+                    + "number of values in statement: " + sql);
+        }
+
+        return new InsertStatement(matcher.group(1), columns, values);
+    }
+
+    /**
+     * Getter for {@link #tableName}.
+     *
+     * @return {@link #tableName}
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Getter for {@link #columns}.
+     *
+     * @return {@link #columns}
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Getter for {@link #values}.
+     *
+     * @return {@link #values}
+     */
+    public List<String> getValues() {
+        return values;
+    }
+
+    /**
+     * Returns column list joined with commas.
+     *
+     * @return column list
+     */
+    public String getColumnList() {
+        final StringBuilder sbColumns = new StringBuilder(512);
+
+        for (final String column : columns) {
+            if (sbColumns.length() > 0) {
+                sbColumns.append(", ");
+            }
+
+            sbColumns.append(column);
+        }
+
+        return sbColumns.toString();
+    }
+
+    /**
+     * Splits comma separated list, ignoring commas inside parentheses.
+     *
+     * @param list comma separated list
+     *
+     * @return list of trimmed items
+     */
+    private static List<String> splitList(final String list) {
+        final List<String> result = new ArrayList<>(32);
+        int depth = 0;
+        int start = 0;
+
+        for (int i = 0; i < list.length(); i++) {
+            switch (list.charAt(i)) {
+                case '(':
+                    depth++;
+                    break;
+                case ')':
+                    depth--;
+                    break;
+                case ',':
+                    if (depth == 0) {
+                        result.add(list.substring(start, i).trim());
+                        start = i + 1;
+                    }
+
+                    break;
+            }
+        }
+
+        result.add(list.substring(start).trim());
+
+        return result;
+    }
+}
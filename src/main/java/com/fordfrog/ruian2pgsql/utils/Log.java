@@ -50,7 +50,7 @@ public class Log {
      *
      * @param text text
      */
-    public static void write(final String text) {
+    public static synchronized void write(final String text) {
         try {
             writer.write(text);
             writer.write('\n');
@@ -62,7 +62,7 @@ public class Log {
     /**
      * Flushes log buffer.
      */
-    public static void flush() {
+    public static synchronized void flush() {
         try {
             writer.flush();
         } catch (final IOException ex) {
@@ -0,0 +1,134 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Input stream that reads file through memory mapping, so that data are
+ * copied from page cache directly, without read system calls. Files larger
+ * than {@link #SEGMENT_SIZE} are mapped in consecutive segments.
+ *
+ * @author fordfrog
+ */
+public class MappedInputStream extends InputStream {
+
+    /**
+     * Maximum size of single mapped segment.
+     */
+    private static final long SEGMENT_SIZE = 256L * 1_024L * 1_024L;
+    /**
+     * File channel.
+     */
+    private final FileChannel channel;
+    /**
+     * File size.
+     */
+    private final long size;
+    /**
+     * Position of the current segment in the file.
+     */
+    private long segmentPosition;
+    /**
+     * Current segment.
+     */
+    private MappedByteBuffer segment;
+
+    /**
+     * Creates new instance of MappedInputStream.
+     *
+     * @param file file path
+     *
+     * @throws IOException Thrown if problem occurred while opening the file.
+     */
+    public MappedInputStream(final Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        size = channel.size();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureSegment()) {
+            return -1;
+        }
+
+        return segment.get() & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length)
+            throws IOException {
+        if (length == 0) {
+            return 0;
+        } else if (!ensureSegment()) {
+            return -1;
+        }
+
+        final int count = Math.min(length, segment.remaining());
+        segment.get(bytes, offset, count);
+
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return segment == null ? 0 : segment.remaining();
+    }
+
+    /**
+     * Makes sure that current segment contains unread data, mapping next
+     * segment if needed.
+     *
+     * @return true if data are available, false at the end of file
+     *
+     * @throws IOException Thrown if problem occurred while mapping the file.
+     */
+    private boolean ensureSegment() throws IOException {
+        if (segment != null && segment.hasRemaining()) {
+            return true;
+        }
+
+        if (segment != null) {
+            segmentPosition += segment.capacity();
+        }
+
+        if (segmentPosition >= size) {
+            return false;
+        }
+
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentPosition,
+                Math.min(SEGMENT_SIZE, size - segmentPosition));
+
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        segment = null;
+        channel.close();
+    }
+}
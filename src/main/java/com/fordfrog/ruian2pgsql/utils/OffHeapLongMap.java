@@ -0,0 +1,304 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Open addressing hash map of primitive long keys to primitive long values
+ * that stores its entries in direct (off-heap) memory. Entries cannot be
+ * removed. Methods are not synchronized.
+ *
+ * @author fordfrog
+ */
+public class OffHeapLongMap {
+
+    /**
+     * Value that is returned if key is not present in the map.
+     */
+    public static final long NO_VALUE = Long.MIN_VALUE;
+    /**
+     * Size of single entry in bytes.
+     */
+    private static final int ENTRY_SIZE = 16;
+    /**
+     * Maximum capacity of the map, limited by maximum size of direct buffer.
+     */
+    private static final int MAX_CAPACITY = 1 << 26;
+    /**
+     * Minimum capacity of the map.
+     */
+    private static final int MIN_CAPACITY = 16;
+    /**
+     * Key that marks free slot. Entry with this key is stored outside the
+     * table.
+     */
+    private static final long FREE_KEY = 0;
+    /**
+     * Buffer with entries, each entry consists of key and value.
+     */
+    private ByteBuffer buffer;
+    /**
+     * Number of slots in the table, always power of two.
+     */
+    private int capacity;
+    /**
+     * Number of entries in the map.
+     */
+    private int size;
+    /**
+     * Whether the map contains entry with {@link #FREE_KEY}.
+     */
+    private boolean hasFreeKey;
+    /**
+     * Value of entry with {@link #FREE_KEY}.
+     */
+    private long freeKeyValue;
+
+    /**
+     * Creates new instance of OffHeapLongMap.
+     *
+     * @param expectedSize expected number of entries
+     */
+    public OffHeapLongMap(final int expectedSize) {
+        capacity = getCapacity(expectedSize);
+        buffer = allocate(capacity);
+    }
+
+    /**
+     * Returns amount of memory in bytes that map with given expected number of
+     * entries occupies.
+     *
+     * @param expectedSize expected number of entries
+     *
+     * @return amount of memory in bytes
+     */
+    public static long getMemoryUsage(final int expectedSize) {
+        return (long) getCapacity(expectedSize) * ENTRY_SIZE;
+    }
+
+    /**
+     * Returns amount of memory in bytes occupied by the map.
+     *
+     * @return amount of memory in bytes
+     */
+    public long getMemoryUsage() {
+        return (long) capacity * ENTRY_SIZE;
+    }
+
+    /**
+     * Returns amount of memory in bytes that the map will occupy after the
+     * next entry is added, which differs from {@link #getMemoryUsage()} only
+     * if the map has to grow.
+     *
+     * @return amount of memory in bytes
+     */
+    public long getMemoryUsageAfterPut() {
+        return needsGrow() ? getMemoryUsage() * 2 : getMemoryUsage();
+    }
+
+    /**
+     * Checks whether next entry can be added to the map without exceeding
+     * maximum capacity of the map.
+     *
+     * @return true if next entry can be added, otherwise false
+     */
+    public boolean canPut() {
+        return !needsGrow() || capacity < MAX_CAPACITY;
+    }
+
+    /**
+     * Getter for {@link #size}.
+     *
+     * @return {@link #size}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns value of the entry with given key.
+     *
+     * @param key key
+     *
+     * @return value or {@link #NO_VALUE} if key is not present in the map
+     */
+    public long get(final long key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey ? freeKeyValue : NO_VALUE;
+        }
+
+        final int mask = capacity - 1;
+        int slot = hash(key) & mask;
+
+        while (true) {
+            final long slotKey = buffer.getLong(slot * ENTRY_SIZE);
+
+            if (slotKey == key) {
+                return buffer.getLong(slot * ENTRY_SIZE + 8);
+            } else if (slotKey == FREE_KEY) {
+                return NO_VALUE;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Puts entry to the map. If entry with the key already exists, its value
+     * is replaced.
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void put(final long key, final long value) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+            }
+
+            freeKeyValue = value;
+
+            return;
+        }
+
+        if (needsGrow()) {
+            grow();
+        }
+
+        if (putEntry(buffer, capacity, key, value)) {
+            size++;
+        }
+    }
+
+    /**
+     * Checks whether the table has to grow before the next entry is added.
+     * Load factor of the table is kept at most 0.75.
+     *
+     * @return true if the table must grow, otherwise false
+     */
+    private boolean needsGrow() {
+        return size + 1 > capacity - (capacity >>> 2);
+    }
+
+    /**
+     * Doubles capacity of the table and rehashes the entries.
+     */
+    private void grow() {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException(
+                    "Maximum capacity of the map has been reached");
+        }
+
+        final int newCapacity = capacity * 2;
+        final ByteBuffer newBuffer = allocate(newCapacity);
+
+        for (int slot = 0; slot < capacity; slot++) {
+            final long key = buffer.getLong(slot * ENTRY_SIZE);
+
+            if (key != FREE_KEY) {
+                putEntry(newBuffer, newCapacity, key,
+                        buffer.getLong(slot * ENTRY_SIZE + 8));
+            }
+        }
+
+        buffer = newBuffer;
+        capacity = newCapacity;
+    }
+
+    /**
+     * Puts entry to the table.
+     *
+     * @param table         table buffer
+     * @param tableCapacity capacity of the table
+     * @param key           key
+     * @param value         value
+     *
+     * @return true if new entry was added, false if value of existing entry
+     *         was replaced
+     */
+    private static boolean putEntry(final ByteBuffer table,
+            final int tableCapacity, final long key, final long value) {
+        final int mask = tableCapacity - 1;
+        int slot = hash(key) & mask;
+
+        while (true) {
+            final long slotKey = table.getLong(slot * ENTRY_SIZE);
+
+            if (slotKey == key || slotKey == FREE_KEY) {
+                table.putLong(slot * ENTRY_SIZE, key);
+                table.putLong(slot * ENTRY_SIZE + 8, value);
+
+                return slotKey == FREE_KEY;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Computes hash of the key. Keys are often sequential so the bits are
+     * mixed to spread them over the table.
+     *
+     * @param key key
+     *
+     * @return hash
+     */
+    private static int hash(final long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+
+        return (int) (hash ^ (hash >>> 16));
+    }
+
+    /**
+     * Returns capacity of the table for given expected number of entries.
+     *
+     * @param expectedSize expected number of entries
+     *
+     * @return capacity
+     */
+    private static int getCapacity(final int expectedSize) {
+        final long minCapacity = (long) expectedSize * 4 / 3 + 1;
+        int result = MIN_CAPACITY;
+
+        while (result < minCapacity && result < MAX_CAPACITY) {
+            result *= 2;
+        }
+
+        return result;
+    }
+
+    /**
+     * Allocates zeroed direct buffer for the table.
+     *
+     * @param tableCapacity capacity of the table
+     *
+     * @return buffer
+     */
+    private static ByteBuffer allocate(final int tableCapacity) {
+        return ByteBuffer.allocateDirect(tableCapacity * ENTRY_SIZE).order(
+                ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,788 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Calendar;
+
+/**
+ * Records parameters that are set on prepared statement instead of sending
+ * them to database. This makes it possible to reuse the convertors' fill
+ * methods for other ways of writing the data, like COPY. Integral and
+ * boolean values are stored unboxed, methods that do not set parameters
+ * throw {@link UnsupportedOperationException}.
+ *
+ * @author fordfrog
+ */
+public class ParameterRecorder implements PreparedStatement {
+
+    /**
+     * Type of parameter that is null or was not set.
+     */
+    public static final byte TYPE_NULL = 0;
+    /**
+     * Type of integral parameter, value is available through
+     * {@link #getLong(int)}.
+     */
+    public static final byte TYPE_LONG = 1;
+    /**
+     * Type of boolean parameter, value is available through
+     * {@link #getBoolean(int)}.
+     */
+    public static final byte TYPE_BOOLEAN = 2;
+    /**
+     * Type of other parameters, value is available through
+     * {@link #getParameter(int)}.
+     */
+    public static final byte TYPE_OBJECT = 3;
+    /**
+     * Database connection, used for creation of arrays.
+     */
+    private final Connection connection;
+    /**
+     * Recorded parameter types, index 0 holds first parameter.
+     */
+    private byte[] types = new byte[32];
+    /**
+     * Recorded integral and boolean parameter values.
+     */
+    private long[] longValues = new long[32];
+    /**
+     * Recorded values of other parameters.
+     */
+    private Object[] objectValues = new Object[32];
+    /**
+     * Number of recorded parameters (highest parameter index that was set).
+     */
+    private int parameterCount;
+
+    /**
+     * Creates new instance of ParameterRecorder.
+     *
+     * @param connection {@link #connection}
+     */
+    public ParameterRecorder(final Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Returns statement that records the parameters, which is the recorder
+     * itself.
+     *
+     * @return statement
+     */
+    public PreparedStatement getStatement() {
+        return this;
+    }
+
+    /**
+     * Getter for {@link #parameterCount}.
+     *
+     * @return {@link #parameterCount}
+     */
+    public int getParameterCount() {
+        return parameterCount;
+    }
+
+    /**
+     * Returns type of recorded parameter.
+     *
+     * @param parameterIndex parameter index, first parameter is 1
+     *
+     * @return one of {@link #TYPE_NULL}, {@link #TYPE_LONG},
+     *         {@link #TYPE_BOOLEAN} and {@link #TYPE_OBJECT}
+     */
+    public byte getParameterType(final int parameterIndex) {
+        return types[parameterIndex - 1];
+    }
+
+    /**
+     * Returns value of recorded parameter of type {@link #TYPE_LONG}.
+     *
+     * @param parameterIndex parameter index, first parameter is 1
+     *
+     * @return parameter value
+     */
+    public long getLong(final int parameterIndex) {
+        return longValues[parameterIndex - 1];
+    }
+
+    /**
+     * Returns value of recorded parameter of type {@link #TYPE_BOOLEAN}.
+     *
+     * @param parameterIndex parameter index, first parameter is 1
+     *
+     * @return parameter value
+     */
+    public boolean getBoolean(final int parameterIndex) {
+        return longValues[parameterIndex - 1] != 0;
+    }
+
+    /**
+     * Returns value of recorded parameter, boxing integral and boolean values.
+     * Dates and timestamps are returned as {@link java.sql.Date} and
+     * {@link java.sql.Timestamp} instances that are expected to be
+     * interpreted in UTC time zone, as all dates are set through
+     * {@link PreparedStatementEx}.
+     *
+     * @param parameterIndex parameter index, first parameter is 1
+     *
+     * @return parameter value or null
+     */
+    public Object getParameter(final int parameterIndex) {
+        switch (types[parameterIndex - 1]) {
+            case TYPE_LONG:
+                return getLong(parameterIndex);
+            case TYPE_BOOLEAN:
+                return getBoolean(parameterIndex);
+            default:
+                return objectValues[parameterIndex - 1];
+        }
+    }
+
+    /**
+     * Clears recorded parameters.
+     */
+    public void clear() {
+        Arrays.fill(types, 0, parameterCount, TYPE_NULL);
+        Arrays.fill(objectValues, 0, parameterCount, null);
+        parameterCount = 0;
+    }
+
+    @Override
+    public void setNull(final int parameterIndex, final int sqlType) {
+        setObjectValue(parameterIndex, null);
+    }
+
+    @Override
+    public void setNull(final int parameterIndex, final int sqlType,
+            final String typeName) {
+        setObjectValue(parameterIndex, null);
+    }
+
+    @Override
+    public void setBoolean(final int parameterIndex, final boolean x) {
+        setLongValue(parameterIndex, TYPE_BOOLEAN, x ? 1 : 0);
+    }
+
+    @Override
+    public void setByte(final int parameterIndex, final byte x) {
+        setLongValue(parameterIndex, TYPE_LONG, x);
+    }
+
+    @Override
+    public void setShort(final int parameterIndex, final short x) {
+        setLongValue(parameterIndex, TYPE_LONG, x);
+    }
+
+    @Override
+    public void setInt(final int parameterIndex, final int x) {
+        setLongValue(parameterIndex, TYPE_LONG, x);
+    }
+
+    @Override
+    public void setLong(final int parameterIndex, final long x) {
+        setLongValue(parameterIndex, TYPE_LONG, x);
+    }
+
+    @Override
+    public void setFloat(final int parameterIndex, final float x) {
+        setObjectValue(parameterIndex, x);
+    }
+
+    @Override
+    public void setDouble(final int parameterIndex, final double x) {
+        setObjectValue(parameterIndex, x);
+    }
+
+    @Override
+    public void setBigDecimal(final int parameterIndex, final BigDecimal x) {
+        setObjectValue(parameterIndex, x);
+    }
+
+    @Override
+    public void setString(final int parameterIndex, final String x) {
+        setObjectValue(parameterIndex, x);
+    }
+
+    @Override
+    public void setNString(final int parameterIndex, final String value) {
+        setObjectValue(parameterIndex, value);
+    }
+
+    @Override
+    public void setBytes(final int parameterIndex, final byte[] x) {
+        setObjectValue(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(final int parameterIndex, final Date x) {
+        setObjectValue(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(final int parameterIndex, final Date x,
+            final Calendar cal) {
+        setObjectValue(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(final int parameterIndex, final Time x) {
+        setObjectValue(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(final int parameterIndex, final Time x,
+            final Calendar cal) {
+        setObjectValue(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(final int parameterIndex, final Timestamp x) {
+        setObjectValue(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(final int parameterIndex, final Timestamp x,
+            final Calendar cal) {
+        setObjectValue(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(final int parameterIndex, final Object x) {
+        if (x instanceof Integer || x instanceof Long || x instanceof Short
+                || x instanceof Byte) {
+            setLongValue(parameterIndex, TYPE_LONG, ((Number) x).longValue());
+        } else if (x instanceof Boolean) {
+            setBoolean(parameterIndex, (Boolean) x);
+        } else {
+            setObjectValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setObject(final int parameterIndex, final Object x,
+            final int targetSqlType) {
+        setObject(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(final int parameterIndex, final Object x,
+            final int targetSqlType, final int scaleOrLength) {
+        setObject(parameterIndex, x);
+    }
+
+    @Override
+    public void setArray(final int parameterIndex, final Array x) {
+        setObjectValue(parameterIndex, x);
+    }
+
+    @Override
+    public void clearParameters() {
+        clear();
+    }
+
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+
+    @Override
+    public boolean isClosed() {
+        return false;
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+
+        throw new SQLException("Cannot unwrap to " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ParameterRecorder[");
+
+        for (int i = 1; i <= parameterCount; i++) {
+            if (i > 1) {
+                sb.append(", ");
+            }
+
+            sb.append(getParameter(i));
+        }
+
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Stores integral or boolean parameter value.
+     *
+     * @param parameterIndex parameter index, first parameter is 1
+     * @param type           parameter type
+     * @param value          parameter value
+     */
+    private void setLongValue(final int parameterIndex, final byte type,
+            final long value) {
+        ensureCapacity(parameterIndex);
+        types[parameterIndex - 1] = type;
+        longValues[parameterIndex - 1] = value;
+        objectValues[parameterIndex - 1] = null;
+    }
+
+    /**
+     * Stores parameter value of other type.
+     *
+     * @param parameterIndex parameter index, first parameter is 1
+     * @param value          parameter value
+     */
+    private void setObjectValue(final int parameterIndex, final Object value) {
+        ensureCapacity(parameterIndex);
+        types[parameterIndex - 1] = value == null ? TYPE_NULL : TYPE_OBJECT;
+        objectValues[parameterIndex - 1] = value;
+    }
+
+    /**
+     * Makes sure the parameter fits to the arrays and updates
+     * {@link #parameterCount}.
+     *
+     * @param parameterIndex parameter index, first parameter is 1
+     */
+    private void ensureCapacity(final int parameterIndex) {
+        if (parameterIndex > types.length) {
+            final int length = Math.max(parameterIndex, types.length * 2);
+            types = Arrays.copyOf(types, length);
+            longValues = Arrays.copyOf(longValues, length);
+            objectValues = Arrays.copyOf(objectValues, length);
+        }
+
+        if (parameterIndex > parameterCount) {
+            parameterCount = parameterIndex;
+        }
+    }
+
+    /**
+     * Creates exception for methods that are not supported by the recorder.
+     *
+     * @return exception
+     */
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException(
+                "Method is not supported by ParameterRecorder");
+    }
+
+    @Override
+    public ResultSet executeQuery() {
+        throw unsupported();
+    }
+
+    @Override
+    public int executeUpdate() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setAsciiStream(final int parameterIndex, final InputStream x,
+            final int length) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setUnicodeStream(final int parameterIndex, final InputStream x,
+            final int length) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setBinaryStream(final int parameterIndex, final InputStream x,
+            final int length) {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean execute() {
+        throw unsupported();
+    }
+
+    @Override
+    public void addBatch() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setCharacterStream(final int parameterIndex,
+            final Reader reader, final int length) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setRef(final int parameterIndex, final Ref x) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setBlob(final int parameterIndex, final Blob x) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setClob(final int parameterIndex, final Clob x) {
+        throw unsupported();
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setURL(final int parameterIndex, final URL x) {
+        throw unsupported();
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setRowId(final int parameterIndex, final RowId x) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setNCharacterStream(final int parameterIndex,
+            final Reader value, final long length) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setNClob(final int parameterIndex, final NClob value) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setClob(final int parameterIndex, final Reader reader,
+            final long length) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setBlob(final int parameterIndex,
+            final InputStream inputStream, final long length) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setNClob(final int parameterIndex, final Reader reader,
+            final long length) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setSQLXML(final int parameterIndex, final SQLXML xmlObject) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setAsciiStream(final int parameterIndex, final InputStream x,
+            final long length) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setBinaryStream(final int parameterIndex, final InputStream x,
+            final long length) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setCharacterStream(final int parameterIndex,
+            final Reader reader, final long length) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setAsciiStream(final int parameterIndex, final InputStream x) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setBinaryStream(final int parameterIndex, final InputStream x) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setCharacterStream(final int parameterIndex,
+            final Reader reader) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setNCharacterStream(final int parameterIndex,
+            final Reader value) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setClob(final int parameterIndex, final Reader reader) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setBlob(final int parameterIndex,
+            final InputStream inputStream) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setNClob(final int parameterIndex, final Reader reader) {
+        throw unsupported();
+    }
+
+    @Override
+    public ResultSet executeQuery(final String sql) {
+        throw unsupported();
+    }
+
+    @Override
+    public int executeUpdate(final String sql) {
+        throw unsupported();
+    }
+
+    @Override
+    public int getMaxFieldSize() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setMaxFieldSize(final int max) {
+        throw unsupported();
+    }
+
+    @Override
+    public int getMaxRows() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setMaxRows(final int max) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setEscapeProcessing(final boolean enable) {
+        throw unsupported();
+    }
+
+    @Override
+    public int getQueryTimeout() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setQueryTimeout(final int seconds) {
+        throw unsupported();
+    }
+
+    @Override
+    public void cancel() {
+        throw unsupported();
+    }
+
+    @Override
+    public SQLWarning getWarnings() {
+        throw unsupported();
+    }
+
+    @Override
+    public void clearWarnings() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setCursorName(final String name) {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean execute(final String sql) {
+        throw unsupported();
+    }
+
+    @Override
+    public ResultSet getResultSet() {
+        throw unsupported();
+    }
+
+    @Override
+    public int getUpdateCount() {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean getMoreResults() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setFetchDirection(final int direction) {
+        throw unsupported();
+    }
+
+    @Override
+    public int getFetchDirection() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setFetchSize(final int rows) {
+        throw unsupported();
+    }
+
+    @Override
+    public int getFetchSize() {
+        throw unsupported();
+    }
+
+    @Override
+    public int getResultSetConcurrency() {
+        throw unsupported();
+    }
+
+    @Override
+    public int getResultSetType() {
+        throw unsupported();
+    }
+
+    @Override
+    public void addBatch(final String sql) {
+        throw unsupported();
+    }
+
+    @Override
+    public void clearBatch() {
+        throw unsupported();
+    }
+
+    @Override
+    public int[] executeBatch() {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean getMoreResults(final int current) {
+        throw unsupported();
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() {
+        throw unsupported();
+    }
+
+    @Override
+    public int executeUpdate(final String sql, final int autoGeneratedKeys) {
+        throw unsupported();
+    }
+
+    @Override
+    public int executeUpdate(final String sql, final int[] columnIndexes) {
+        throw unsupported();
+    }
+
+    @Override
+    public int executeUpdate(final String sql, final String[] columnNames) {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean execute(final String sql, final int autoGeneratedKeys) {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean execute(final String sql, final int[] columnIndexes) {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean execute(final String sql, final String[] columnNames) {
+        throw unsupported();
+    }
+
+    @Override
+    public int getResultSetHoldability() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setPoolable(final boolean poolable) {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean isPoolable() {
+        throw unsupported();
+    }
+
+    @Override
+    public void closeOnCompletion() {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() {
+        throw unsupported();
+    }
+}
@@ -21,6 +21,8 @@
  */
 package com.fordfrog.ruian2pgsql.utils;
 
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.containers.GeometryValue;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
@@ -36,6 +38,10 @@ import java.util.TimeZone;
  */
 public class PreparedStatementEx {
 
+    /**
+     * Number of milliseconds in day.
+     */
+    private static final long MILLIS_PER_DAY = 86_400_000L;
     /**
      * Calendar with UTC time zone for storing dates in database.
      */
@@ -72,6 +78,24 @@ public class PreparedStatementEx {
         }
     }
 
+    /**
+     * Sets boolean value or boolean null to the prepared statement.
+     *
+     * @param parameterIndex parameter index
+     * @param notNull        whether the value is not null
+     * @param value          boolean value, ignored if the value is null
+     *
+     * @throws SQLException Thrown if problem occurred while setting the value.
+     */
+    public void setBoolean(final int parameterIndex, final boolean notNull,
+            final boolean value) throws SQLException {
+        if (notNull) {
+            preparedStatement.setBoolean(parameterIndex, value);
+        } else {
+            preparedStatement.setNull(parameterIndex, Types.BOOLEAN);
+        }
+    }
+
     /**
      * Sets integer value or integer null to the prepared statement.
      *
@@ -89,6 +113,24 @@ public class PreparedStatementEx {
         }
     }
 
+    /**
+     * Sets integer value or integer null to the prepared statement.
+     *
+     * @param parameterIndex parameter index
+     * @param notNull        whether the value is not null
+     * @param value          integer value, ignored if the value is null
+     *
+     * @throws SQLException Thrown if problem occurred while setting the value.
+     */
+    public void setInt(final int parameterIndex, final boolean notNull,
+            final int value) throws SQLException {
+        if (notNull) {
+            preparedStatement.setInt(parameterIndex, value);
+        } else {
+            preparedStatement.setNull(parameterIndex, Types.INTEGER);
+        }
+    }
+
     /**
      * Sets long value or long null to the prepared statement.
      *
@@ -106,6 +148,24 @@ public class PreparedStatementEx {
         }
     }
 
+    /**
+     * Sets long value or long null to the prepared statement.
+     *
+     * @param parameterIndex parameter index
+     * @param notNull        whether the value is not null
+     * @param value          long value, ignored if the value is null
+     *
+     * @throws SQLException Thrown if problem occurred while setting the value.
+     */
+    public void setLong(final int parameterIndex, final boolean notNull,
+            final long value) throws SQLException {
+        if (notNull) {
+            preparedStatement.setLong(parameterIndex, value);
+        } else {
+            preparedStatement.setNull(parameterIndex, Types.BIGINT);
+        }
+    }
+
     /**
      * Sets date value in UTC time zone to the prepared statement.
      *
@@ -124,6 +184,26 @@ public class PreparedStatementEx {
         }
     }
 
+    /**
+     * Sets date value in UTC time zone to the prepared statement.
+     *
+     * @param parameterIndex parameter index
+     * @param notNull        whether the value is not null
+     * @param epochDays      number of days since epoch, ignored if the value
+     *                       is null
+     *
+     * @throws SQLException Thrown if problem occurred while setting the value.
+     */
+    public void setDate(final int parameterIndex, final boolean notNull,
+            final int epochDays) throws SQLException {
+        if (notNull) {
+            preparedStatement.setDate(parameterIndex,
+                    new java.sql.Date(epochDays * MILLIS_PER_DAY), TZ_CALENDAR);
+        } else {
+            preparedStatement.setNull(parameterIndex, Types.DATE);
+        }
+    }
+
     /**
      * Sets timestamp value in UTC time zone to the prepared statement.
      *
@@ -160,4 +240,53 @@ public class PreparedStatementEx {
                     createArrayOf("int", array));
         }
     }
+
+    /**
+     * Sets integer array value or null to the prepared statement.
+     *
+     * @param parameterIndex parameter index
+     * @param array          integer array or null
+     *
+     * @throws SQLException Thrown if problem occurred while setting the value.
+     */
+    public void setIntArray(final int parameterIndex, final int[] array)
+            throws SQLException {
+        if (array == null) {
+            setIntArray(parameterIndex, (Integer[]) null);
+        } else {
+            final Integer[] boxed = new Integer[array.length];
+
+            for (int i = 0; i < array.length; i++) {
+                boxed[i] = array[i];
+            }
+
+            setIntArray(parameterIndex, boxed);
+        }
+    }
+
+    /**
+     * Sets geometry value or null to the prepared statement. Geometry is
+     * set either as string (GML or EWKT) or as EWKB bytes. Null is set as
+     * bytes if geometries are encoded as EWKB so that the parameter type
+     * matches the geometry function.
+     *
+     * @param parameterIndex parameter index
+     * @param geometry       geometry or null
+     *
+     * @throws SQLException Thrown if problem occurred while setting the value.
+     */
+    public void setGeometry(final int parameterIndex,
+            final GeometryValue geometry) throws SQLException {
+        if (geometry == null) {
+            if (Config.isEWKB()) {
+                preparedStatement.setBytes(parameterIndex, null);
+            } else {
+                preparedStatement.setString(parameterIndex, null);
+            }
+        } else if (geometry.isBinary()) {
+            preparedStatement.setBytes(parameterIndex, geometry.getBytes());
+        } else {
+            preparedStatement.setString(parameterIndex, geometry.getText());
+        }
+    }
 }
@@ -0,0 +1,312 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Input stream that reads and decompresses data on dedicated reader thread.
+ * Compressed input is read in large chunks and inflated on the reader thread,
+ * decompressed data are passed to the consuming thread through a ring of
+ * reusable buffers. If all buffers are full, the reader thread waits until the
+ * consuming thread returns a buffer. Time that the consuming thread spent
+ * waiting for data and time that the reader thread spent reading and
+ * inflating are measured, so that it can be seen whether parsing is limited
+ * by input.
+ *
+ * @author fordfrog
+ */
+public class ReadAheadInputStream extends InputStream {
+
+    /**
+     * Buffer that marks end of data.
+     */
+    private static final Buffer END = new Buffer(0);
+    /**
+     * Buffers that can be filled by the reader thread.
+     */
+    private final BlockingQueue<Buffer> freeBuffers;
+    /**
+     * Buffers filled by the reader thread, in the order of data.
+     */
+    private final BlockingQueue<Buffer> filledBuffers;
+    /**
+     * Reader thread.
+     */
+    private final Thread thread;
+    /**
+     * Buffer that is being consumed, null if no buffer was taken yet.
+     */
+    private Buffer current;
+    /**
+     * Position of the next byte in {@link #current}.
+     */
+    private int position;
+    /**
+     * Time in nanoseconds that the consuming thread spent waiting for data.
+     */
+    private long waitTime;
+    /**
+     * Time in nanoseconds that the reader thread spent reading and inflating.
+     */
+    private volatile long readTime;
+    /**
+     * Failure of the reader thread, null if reading did not fail.
+     */
+    private volatile IOException failure;
+
+    /**
+     * Creates new instance of ReadAheadInputStream and starts the reader
+     * thread. The input stream is closed by the reader thread when all data
+     * are read or when this stream is closed.
+     *
+     * @param input       input stream
+     * @param gzip        whether the input is gzip compressed, in which case
+     *                    all concatenated gzip members are inflated
+     * @param bufferSize  size of each buffer in bytes, input is read in chunks
+     *                    of the same size
+     * @param bufferCount number of buffers
+     */
+    public ReadAheadInputStream(final InputStream input, final boolean gzip,
+            final int bufferSize, final int bufferCount) {
+        freeBuffers = new ArrayBlockingQueue<>(bufferCount);
+        // one extra place for END
+        filledBuffers = new ArrayBlockingQueue<>(bufferCount + 1);
+
+        for (int i = 0; i < bufferCount; i++) {
+            freeBuffers.add(new Buffer(bufferSize));
+        }
+
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                read(input, gzip, bufferSize);
+            }
+        }, "read-ahead");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Reads and inflates the input into free buffers. Runs on the reader
+     * thread.
+     *
+     * @param input      input stream
+     * @param gzip       whether the input is gzip compressed
+     * @param bufferSize size of each buffer in bytes
+     */
+    private void read(final InputStream input, final boolean gzip,
+            final int bufferSize) {
+        InputStream inputStream = input;
+
+        try {
+            long startTime = System.nanoTime();
+            inputStream = new BufferedInputStream(input, bufferSize);
+
+            if (gzip) {
+                // GZIPInputStream continues with next member while the
+                // underlying stream reports available data, which holds for
+                // files and ZIP entries until their end
+                inputStream = new GZIPInputStream(inputStream, bufferSize);
+            }
+
+            while (true) {
+                readTime += System.nanoTime() - startTime;
+
+                final Buffer buffer = freeBuffers.take();
+                startTime = System.nanoTime();
+                buffer.length = 0;
+
+                int count = 0;
+
+                while (buffer.length < buffer.data.length && count != -1) {
+                    count = inputStream.read(buffer.data, buffer.length,
+                            buffer.data.length - buffer.length);
+
+                    if (count > 0) {
+                        buffer.length += count;
+                    }
+                }
+
+                if (buffer.length > 0) {
+                    filledBuffers.put(buffer);
+                }
+
+                if (count == -1) {
+                    readTime += System.nanoTime() - startTime;
+
+                    break;
+                }
+            }
+        } catch (final IOException ex) {
+            failure = ex;
+        } catch (final InterruptedException ex) {
+            // stream was closed
+        } finally {
+            try {
+                inputStream.close();
+            } catch (final IOException ex) {
+                if (failure == null) {
+                    failure = ex;
+                }
+            }
+
+            filledBuffers.offer(END);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+
+        return current.data[position++] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length)
+            throws IOException {
+        if (length == 0) {
+            return 0;
+        } else if (!ensureData()) {
+            return -1;
+        }
+
+        final int count = Math.min(length, current.length - position);
+        System.arraycopy(current.data, position, bytes, offset, count);
+        position += count;
+
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current == null ? 0 : current.length - position;
+    }
+
+    /**
+     * Makes sure that current buffer contains unread data. Consumed buffer is
+     * returned to the reader thread.
+     *
+     * @return true if data are available, false at the end of data
+     *
+     * @throws IOException Thrown if the reader thread failed.
+     */
+    private boolean ensureData() throws IOException {
+        if (current != null && position < current.length) {
+            return true;
+        } else if (current == END) {
+            return false;
+        }
+
+        if (current != null) {
+            freeBuffers.offer(current);
+        }
+
+        final long startTime = System.nanoTime();
+
+        try {
+            current = filledBuffers.take();
+        } catch (final InterruptedException ex) {
+            throw new IOException("Reading was interrupted", ex);
+        } finally {
+            waitTime += System.nanoTime() - startTime;
+        }
+
+        position = 0;
+
+        if (current == END) {
+            if (failure != null) {
+                throw failure;
+            }
+
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Stops the reader thread and waits until it closes the input stream.
+     *
+     * @throws IOException Thrown if the thread was interrupted while waiting.
+     */
+    @Override
+    public void close() throws IOException {
+        thread.interrupt();
+
+        try {
+            thread.join();
+        } catch (final InterruptedException ex) {
+            throw new IOException("Closing was interrupted", ex);
+        }
+    }
+
+    /**
+     * Returns time that the consuming thread spent waiting for data.
+     *
+     * @return time in milliseconds
+     */
+    public long getWaitTime() {
+        return waitTime / 1_000_000;
+    }
+
+    /**
+     * Returns time that the reader thread spent reading and inflating data,
+     * without time spent waiting for free buffer.
+     *
+     * @return time in milliseconds
+     */
+    public long getReadTime() {
+        return readTime / 1_000_000;
+    }
+
+    /**
+     * Reusable buffer of data.
+     */
+    private static class Buffer {
+
+        /**
+         * Buffer data.
+         */
+        private final byte[] data;
+        /**
+         * Number of valid bytes in {@link #data}.
+         */
+        private int length;
+
+        /**
+         * Creates new instance of Buffer.
+         *
+         * @param size buffer size
+         */
+        Buffer(final int size) {
+            data = new byte[size];
+        }
+    }
+}
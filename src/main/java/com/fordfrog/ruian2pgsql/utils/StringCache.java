@@ -0,0 +1,82 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache of string values that repeat across items, so that items that are
+ * waiting to be written share single instance of each value. Cache is not
+ * thread safe and is cleared once it reaches its maximum size.
+ *
+ * @author fordfrog
+ */
+public class StringCache {
+
+    /**
+     * Maximum number of cached values.
+     */
+    private final int maxSize;
+    /**
+     * Cached values.
+     */
+    private final Map<String, String> values;
+
+    /**
+     * Creates new instance of StringCache.
+     *
+     * @param maxSize {@link #maxSize}
+     */
+    public StringCache(final int maxSize) {
+        this.maxSize = maxSize;
+        values = new HashMap<>(maxSize * 2);
+    }
+
+    /**
+     * Returns cached instance of the value. If the value is not cached yet, it
+     * is added to the cache.
+     *
+     * @param value value or null
+     *
+     * @return cached instance of the value or null
+     */
+    public String get(final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        final String cached = values.get(value);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        if (values.size() >= maxSize) {
+            values.clear();
+        }
+
+        values.put(value, value);
+
+        return value;
+    }
+}
@@ -0,0 +1,399 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import com.fordfrog.ruian2pgsql.Config;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory snapshot of keys and transaction ids of items stored in a table.
+ * The snapshot is loaded from the table on first use and then kept up to date
+ * with saved items, so that existence of items can be checked without querying
+ * the database. All caches share memory budget configured using
+ * {@link Config#getKeyCacheMemory()}, limited by maximum amount of direct
+ * memory of the JVM. If the budget is exceeded or the memory cannot be
+ * allocated, the cache is disabled and existence of items must be checked in
+ * database again. Saved
+ * items are visible in the cache before they are committed, so the caches can
+ * be used only by single connection.
+ *
+ * @author fordfrog
+ */
+public class TransactionIdCache {
+
+    /**
+     * Value that is returned if key is not present in the cache.
+     */
+    public static final long NO_VALUE = OffHeapLongMap.NO_VALUE;
+    /**
+     * Value that is returned if the cache cannot be used.
+     */
+    public static final long NOT_AVAILABLE = Long.MAX_VALUE;
+    /**
+     * Number of rows that are fetched at once while loading the snapshot.
+     */
+    private static final int FETCH_SIZE = 10_000;
+    /**
+     * Caches of the tables.
+     */
+    private static final Map<String, TransactionIdCache> CACHES =
+            new HashMap<>(32);
+    /**
+     * Amount of memory in bytes that is occupied by all caches.
+     */
+    private static long usedMemory;
+    /**
+     * Memory budget of all caches in bytes, -1 if it was not computed yet.
+     */
+    private static long memoryBudget = -1;
+    /**
+     * Table name.
+     */
+    private final String tableName;
+    /**
+     * Name of key column.
+     */
+    private final String keyColumn;
+    /**
+     * Map of keys to transaction ids, null if the cache was not loaded yet or
+     * it is disabled.
+     */
+    private OffHeapLongMap map;
+    /**
+     * Whether the cache is disabled.
+     */
+    private boolean disabled;
+    /**
+     * Whether the snapshot must be loaded again before it is used.
+     */
+    private boolean stale;
+
+    /**
+     * Creates new instance of TransactionIdCache.
+     *
+     * @param tableName {@link #tableName}
+     * @param keyColumn {@link #keyColumn}
+     */
+    private TransactionIdCache(final String tableName, final String keyColumn) {
+        this.tableName = tableName;
+        this.keyColumn = keyColumn;
+    }
+
+    /**
+     * Returns cache for given table. The cache is shared by all convertors
+     * that save items to the table.
+     *
+     * @param tableName table name
+     * @param keyColumn name of key column
+     *
+     * @return cache or null if caching is disabled
+     */
+    public static TransactionIdCache getInstance(final String tableName,
+            final String keyColumn) {
+        if (Config.getKeyCacheMemory() <= 0) {
+            return null;
+        }
+
+        synchronized (CACHES) {
+            TransactionIdCache cache = CACHES.get(tableName);
+
+            if (cache == null) {
+                cache = new TransactionIdCache(tableName, keyColumn);
+                CACHES.put(tableName, cache);
+            }
+
+            return cache;
+        }
+    }
+
+    /**
+     * Checks whether the cache can be used. If the snapshot has not been
+     * loaded yet, it is loaded using given connection.
+     *
+     * @param con database connection
+     *
+     * @return true if the cache can be used, otherwise false
+     *
+     * @throws SQLException Thrown if problem occurred while loading the
+     *                      snapshot.
+     */
+    public synchronized boolean isAvailable(final Connection con)
+            throws SQLException {
+        if ((map == null || stale) && !disabled) {
+            load(con);
+        }
+
+        return !disabled;
+    }
+
+    /**
+     * Returns transaction id of the item with given key.
+     *
+     * @param con database connection that is used if the snapshot has to be
+     *            loaded
+     * @param key item key
+     *
+     * @return transaction id, {@link #NO_VALUE} if the item does not exist or
+     *         {@link #NOT_AVAILABLE} if the cache cannot be used
+     *
+     * @throws SQLException Thrown if problem occurred while loading the
+     *                      snapshot.
+     */
+    public synchronized long get(final Connection con, final long key)
+            throws SQLException {
+        return isAvailable(con) ? map.get(key) : NOT_AVAILABLE;
+    }
+
+    /**
+     * Stores transaction id of the item with given key. If the memory budget
+     * would be exceeded, the cache is disabled.
+     *
+     * @param key           item key
+     * @param transactionId transaction id
+     */
+    public synchronized void put(final long key, final long transactionId) {
+        if (map == null) {
+            return;
+        }
+
+        final long increase = map.getMemoryUsageAfterPut()
+                - map.getMemoryUsage();
+
+        if (increase > 0 && (!map.canPut() || !reserveMemory(increase))) {
+            Log.write("Table " + tableName + ": key cache memory budget "
+                    + "exceeded, existence of items is checked in database");
+            disable();
+
+            return;
+        }
+
+        try {
+            map.put(key, transactionId);
+        } catch (final OutOfMemoryError ex) {
+            // memory reserved for growing the map was not used
+            synchronized (CACHES) {
+                usedMemory -= increase;
+            }
+
+            Log.write("Table " + tableName + ": failed to allocate key cache "
+                    + "memory, existence of items is checked in database");
+            disable();
+        }
+    }
+
+    /**
+     * Marks snapshots of all tables as stale so that they are loaded again on
+     * next use.
+     */
+    public static void resetAll() {
+        final List<TransactionIdCache> caches;
+
+        synchronized (CACHES) {
+            caches = new ArrayList<>(CACHES.values());
+        }
+
+        for (final TransactionIdCache cache : caches) {
+            cache.reset();
+        }
+    }
+
+    /**
+     * Marks the snapshot as stale so that it is loaded again on next use.
+     */
+    private synchronized void reset() {
+        stale = true;
+        disabled = false;
+    }
+
+    /**
+     * Loads the snapshot from the table.
+     *
+     * @param con database connection
+     *
+     * @throws SQLException Thrown if problem occurred while loading the
+     *                      snapshot.
+     */
+    private void load(final Connection con) throws SQLException {
+        final long startTime = System.currentTimeMillis();
+        final int count;
+
+        if (map != null) {
+            release();
+        }
+
+        stale = false;
+
+        try (final Statement stm = con.createStatement();
+                final ResultSet rs =
+                stm.executeQuery("SELECT count(*) FROM " + tableName)) {
+            rs.next();
+            count = rs.getInt(1);
+        }
+
+        final long memory = OffHeapLongMap.getMemoryUsage(count);
+
+        if (!reserveMemory(memory)) {
+            Log.write("Table " + tableName + ": " + count + " keys do not fit "
+                    + "into key cache memory budget, existence of items is "
+                    + "checked in database");
+            disabled = true;
+
+            return;
+        }
+
+        try {
+            map = new OffHeapLongMap(count);
+        } catch (final OutOfMemoryError ex) {
+            synchronized (CACHES) {
+                usedMemory -= memory;
+            }
+
+            Log.write("Table " + tableName + ": failed to allocate key cache "
+                    + "memory, existence of items is checked in database");
+            disabled = true;
+
+            return;
+        }
+
+        try (final Statement stm = con.createStatement()) {
+            stm.setFetchSize(FETCH_SIZE);
+
+            try (final ResultSet rs = stm.executeQuery("SELECT " + keyColumn
+                    + ", id_trans_ruian FROM " + tableName)) {
+                while (rs.next()) {
+                    put(rs.getLong(1), rs.getLong(2));
+                }
+            }
+        }
+
+        if (!disabled) {
+            Log.write("Table " + tableName + ": " + map.size()
+                    + " keys loaded into key cache in "
+                    + (System.currentTimeMillis() - startTime) + " ms, using "
+                    + (map.getMemoryUsage() / 1_024 / 1_024) + " MB");
+        }
+    }
+
+    /**
+     * Disables the cache and releases its memory.
+     */
+    private void disable() {
+        release();
+        disabled = true;
+    }
+
+    /**
+     * Releases memory of the snapshot.
+     */
+    private void release() {
+        synchronized (CACHES) {
+            usedMemory -= map.getMemoryUsage();
+        }
+
+        map = null;
+    }
+
+    /**
+     * Reserves memory from the memory budget.
+     *
+     * @param memory amount of memory in bytes
+     *
+     * @return true if the memory was reserved, false if the memory budget
+     *         would be exceeded
+     */
+    private static boolean reserveMemory(final long memory) {
+        synchronized (CACHES) {
+            if (memoryBudget == -1) {
+                memoryBudget = getMemoryBudget(
+                        Config.getKeyCacheMemory(), getMaxDirectMemory());
+            }
+
+            if (usedMemory + memory > memoryBudget) {
+                return false;
+            }
+
+            usedMemory += memory;
+
+            return true;
+        }
+    }
+
+    /**
+     * Computes memory budget of all caches. Direct buffers cannot be
+     * allocated beyond maximum amount of direct memory, so the budget is
+     * limited to it.
+     *
+     * @param megabytes       configured budget in megabytes
+     * @param maxDirectMemory maximum amount of direct memory in bytes
+     *
+     * @return memory budget in bytes
+     */
+    static long getMemoryBudget(final int megabytes,
+            final long maxDirectMemory) {
+        return Math.min(megabytes * 1_024L * 1_024L, maxDirectMemory);
+    }
+
+    /**
+     * Returns maximum amount of direct memory of the JVM. Unless it is set
+     * using {@code -XX:MaxDirectMemorySize}, it equals maximum heap size.
+     *
+     * @return amount of memory in bytes
+     */
+    private static long getMaxDirectMemory() {
+        try {
+            final long value = Long.parseLong(ManagementFactory
+                    .getPlatformMXBean(HotSpotDiagnosticMXBean.class)
+                    .getVMOption("MaxDirectMemorySize").getValue());
+
+            if (value > 0) {
+                return value;
+            }
+        } catch (final RuntimeException | LinkageError ex) {
+            // the option is not available on this JVM
+        }
+
+        return Runtime.getRuntime().maxMemory();
+    }
+
+    /**
+     * Writes memory usage of all caches to log.
+     */
+    public static void logStatistics() {
+        synchronized (CACHES) {
+            if (CACHES.isEmpty()) {
+                return;
+            }
+
+            Log.write("Key caches use " + (usedMemory / 1_024 / 1_024)
+                    + " MB of " + (memoryBudget / 1_024 / 1_024) + " MB");
+        }
+    }
+}
@@ -22,19 +22,19 @@
 package com.fordfrog.ruian2pgsql.utils;
 
 import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.containers.GeometryValue;
 import com.fordfrog.ruian2pgsql.containers.ItemWithDefinicniBod;
 import com.fordfrog.ruian2pgsql.containers.ItemWithDefinicniCara;
 import com.fordfrog.ruian2pgsql.containers.ItemWithEmergency;
 import com.fordfrog.ruian2pgsql.containers.ItemWithHranice;
 import com.fordfrog.ruian2pgsql.containers.ItemWithMluvCharPad;
 import com.fordfrog.ruian2pgsql.gml.GMLParser;
+import com.fordfrog.ruian2pgsql.gml.Geometry;
 import com.fordfrog.ruian2pgsql.gml.GMLReader;
 import java.sql.Connection;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
@@ -46,10 +46,117 @@ import javax.xml.stream.XMLStreamReader;
 public class Utils {
 
     /**
-     * Pattern for parsing timestamp value from string.
+     * Length of timestamp value in format yyyy-MM-ddTHH:mm:ss.
      */
-    private static final Pattern PATTERN_TIMESTAMP = Pattern.compile(
-            "^(\\d{4})-(\\d{2})-(\\d{2})T(\\d{2}):(\\d{2}):(\\d{2})$");
+    private static final int TIMESTAMP_LENGTH = 19;
+    /**
+     * First year of Gregorian calendar that is not affected by Julian
+     * calendar cutover. Earlier timestamps are parsed using
+     * {@link Calendar}.
+     */
+    private static final int GREGORIAN_YEAR = 1583;
+    /**
+     * Number of seconds in day.
+     */
+    private static final int SECONDS_PER_DAY = 86_400;
+    /**
+     * Number of days from 0000-03-01 to 1970-01-01.
+     */
+    private static final int DAYS_TO_EPOCH = 719_468;
+    /**
+     * Number of days in 400 years of Gregorian calendar.
+     */
+    private static final int DAYS_PER_ERA = 146_097;
+    /**
+     * Number of cached timestamp values, must be power of two.
+     */
+    private static final int TIMESTAMP_CACHE_SIZE = 4_096;
+    /**
+     * Recently parsed timestamp values indexed by hash code of the value.
+     * Entries are immutable, so the cache can be shared between threads
+     * without locking.
+     */
+    private static final CachedTimestamp[] TIMESTAMP_CACHE =
+            new CachedTimestamp[TIMESTAMP_CACHE_SIZE];
+    /**
+     * Token of DefinicniBod element.
+     */
+    private static final int DEFINICNI_BOD = 1;
+    /**
+     * Token of DefinicniCara element.
+     */
+    private static final int DEFINICNI_CARA = 2;
+    /**
+     * Token of OriginalniHranice element.
+     */
+    private static final int ORIGINALNI_HRANICE = 3;
+    /**
+     * Token of OriginalniHraniceOmpv element.
+     */
+    private static final int ORIGINALNI_HRANICE_OMPV = 4;
+    /**
+     * Token of GeneralizovaneHranice3 element.
+     */
+    private static final int GENERALIZOVANE_HRANICE3 = 5;
+    /**
+     * Token of AdresniBod element.
+     */
+    private static final int ADRESNI_BOD = 6;
+    /**
+     * Token of Hasici element.
+     */
+    private static final int HASICI = 7;
+    /**
+     * Token of Zachranka element.
+     */
+    private static final int ZACHRANKA = 8;
+    /**
+     * Tokens of sub-elements of Geometrie and DefinicniBod elements. Their
+     * namespace depends on the parent element, so it is checked separately.
+     */
+    private static final ElementTable GEOMETRIE_ELEMENTS = new ElementTable()
+            .add("DefinicniBod", DEFINICNI_BOD)
+            .add("DefinicniCara", DEFINICNI_CARA)
+            .add("OriginalniHranice", ORIGINALNI_HRANICE)
+            .add("OriginalniHraniceOmpv", ORIGINALNI_HRANICE_OMPV)
+            .add("GeneralizovaneHranice3", GENERALIZOVANE_HRANICE3)
+            .add("AdresniBod", ADRESNI_BOD)
+            .add("Hasici", HASICI)
+            .add("Zachranka", ZACHRANKA);
+    /**
+     * Token of Pad2 element.
+     */
+    private static final int PAD2 = 1;
+    /**
+     * Token of Pad3 element.
+     */
+    private static final int PAD3 = 2;
+    /**
+     * Token of Pad4 element.
+     */
+    private static final int PAD4 = 3;
+    /**
+     * Token of Pad5 element.
+     */
+    private static final int PAD5 = 4;
+    /**
+     * Token of Pad6 element.
+     */
+    private static final int PAD6 = 5;
+    /**
+     * Token of Pad7 element.
+     */
+    private static final int PAD7 = 6;
+    /**
+     * Tokens of sub-elements of MluvnickeCharakteristiky element.
+     */
+    private static final ElementTable MLUV_CHAR_ELEMENTS = new ElementTable()
+            .add(Namespaces.COMMON_TYPY, "Pad2", PAD2)
+            .add(Namespaces.COMMON_TYPY, "Pad3", PAD3)
+            .add(Namespaces.COMMON_TYPY, "Pad4", PAD4)
+            .add(Namespaces.COMMON_TYPY, "Pad5", PAD5)
+            .add(Namespaces.COMMON_TYPY, "Pad6", PAD6)
+            .add(Namespaces.COMMON_TYPY, "Pad7", PAD7);
 
     /**
      * Creates new instance of Utils.
@@ -65,24 +172,132 @@ public class Utils {
      * @return parsed timestamp value
      */
     public static Date parseTimestamp(final String value) {
-        final Matcher matcher = PATTERN_TIMESTAMP.matcher(value);
+        return new Date(parseEpochSeconds(value) * 1_000L);
+    }
+
+    /**
+     * Parses timestamp value from string and returns its date.
+     *
+     * @param value string value
+     *
+     * @return number of days since epoch
+     */
+    public static int parseEpochDays(final String value) {
+        final long seconds = parseEpochSeconds(value);
+        final long days = seconds / SECONDS_PER_DAY;
+
+        return (int) (seconds < 0 && days * SECONDS_PER_DAY != seconds
+                ? days - 1 : days);
+    }
+
+    /**
+     * Parses timestamp value in format yyyy-MM-ddTHH:mm:ss in UTC time zone
+     * from string. Values out of range are rolled over to following fields,
+     * the same way lenient {@link Calendar} does. Recently parsed values are
+     * taken from cache.
+     *
+     * @param value string value
+     *
+     * @return number of seconds since epoch
+     */
+    public static long parseEpochSeconds(final String value) {
+        final int index = value.hashCode() & (TIMESTAMP_CACHE_SIZE - 1);
+        final CachedTimestamp cached = TIMESTAMP_CACHE[index];
+
+        if (cached != null && cached.value.equals(value)) {
+            return cached.seconds;
+        }
+
+        final long seconds = parseEpochSecondsUncached(value);
+        TIMESTAMP_CACHE[index] = new CachedTimestamp(value, seconds);
+
+        return seconds;
+    }
 
-        if (!matcher.matches()) {
+    /**
+     * Parses timestamp value without using cache.
+     *
+     * @param value string value
+     *
+     * @return number of seconds since epoch
+     */
+    private static long parseEpochSecondsUncached(final String value) {
+        if (value.length() != TIMESTAMP_LENGTH || value.charAt(4) != '-'
+                || value.charAt(7) != '-' || value.charAt(10) != 'T'
+                || value.charAt(13) != ':' || value.charAt(16) != ':') {
             throw new RuntimeException("Invalid timestamp value: " + value);
         }
 
-        final Calendar calendar =
-                Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        calendar.clear();
-        calendar.set(
-                Integer.parseInt(matcher.group(1)),
-                Integer.parseInt(matcher.group(2)) - 1,
-                Integer.parseInt(matcher.group(3)),
-                Integer.parseInt(matcher.group(4)),
-                Integer.parseInt(matcher.group(5)),
-                Integer.parseInt(matcher.group(6)));
+        final int year = parseDigits(value, 0, 4);
+        final int month = parseDigits(value, 5, 2);
+        final int day = parseDigits(value, 8, 2);
+        final int hour = parseDigits(value, 11, 2);
+        final int minute = parseDigits(value, 14, 2);
+        final int second = parseDigits(value, 17, 2);
+
+        if (year < GREGORIAN_YEAR) {
+            final Calendar calendar =
+                    Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+            calendar.clear();
+            calendar.set(year, month - 1, day, hour, minute, second);
+
+            return calendar.getTimeInMillis() / 1_000L;
+        }
+
+        // month 0 and months over 12 roll over to neighbouring years
+        final int monthIndex = month + 11;
+        final long days = getEpochDays(year + monthIndex / 12 - 1,
+                monthIndex % 12 + 1) + day - 1;
+
+        return days * SECONDS_PER_DAY + hour * 3_600L + minute * 60L + second;
+    }
+
+    /**
+     * Computes number of days since epoch of the first day of the month.
+     *
+     * @param year  year, not lower than {@link #GREGORIAN_YEAR} - 1
+     * @param month month, 1 to 12
+     *
+     * @return number of days since epoch
+     */
+    private static long getEpochDays(final int year, final int month) {
+        // years start in March, so that leap day is the last day of year
+        final int marchYear = month <= 2 ? year - 1 : year;
+        final int era = marchYear / 400;
+        final int yearOfEra = marchYear - era * 400;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2)
+                / 5;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4
+                - yearOfEra / 100 + dayOfYear;
+
+        return (long) era * DAYS_PER_ERA + dayOfEra - DAYS_TO_EPOCH;
+    }
+
+    /**
+     * Parses non-negative decimal number from fixed position of string.
+     *
+     * @param value  string value
+     * @param offset offset of the first digit
+     * @param length number of digits
+     *
+     * @return parsed number
+     */
+    private static int parseDigits(final String value, final int offset,
+            final int length) {
+        int result = 0;
+
+        for (int i = offset; i < offset + length; i++) {
+            final int digit = value.charAt(i) - '0';
 
-        return calendar.getTime();
+            if (digit < 0 || digit > 9) {
+                throw new RuntimeException(
+                        "Invalid timestamp value: " + value);
+            }
+
+            result = result * 10 + digit;
+        }
+
+        return result;
     }
 
     /**
@@ -132,22 +347,20 @@ public class Utils {
             throws XMLStreamException {
         final String curNamespace = reader.getNamespaceURI();
 
-        if (namespace.equals(curNamespace)) {
-            final String localName = reader.getLocalName();
+        if (XMLUtils.isSameName(namespace, curNamespace)) {
+            final int token = GEOMETRIE_ELEMENTS.get(reader);
 
-            if ("AdresniBod".equals(localName)
-                    && item instanceof ItemWithDefinicniBod) {
+            if (token == ADRESNI_BOD && item instanceof ItemWithDefinicniBod) {
                 final ItemWithDefinicniBod itemDefinicniBod =
                         (ItemWithDefinicniBod) item;
                 itemDefinicniBod.setDefinicniBod(
                         processGML(reader, con, namespace, "AdresniBod"));
-            } else if ("Hasici".equals(localName)
-                    && item instanceof ItemWithEmergency) {
+            } else if (token == HASICI && item instanceof ItemWithEmergency) {
                 final ItemWithEmergency itemEmergency =
                         (ItemWithEmergency) item;
                 itemEmergency.setHasici(
                         processGML(reader, con, namespace, "Hasici"));
-            } else if ("Zachranka".equals(localName)
+            } else if (token == ZACHRANKA
                     && item instanceof ItemWithEmergency) {
                 final ItemWithEmergency itemEmergency =
                         (ItemWithEmergency) item;
@@ -156,7 +369,7 @@ public class Utils {
             } else {
                 XMLUtils.processUnsupported(reader);
             }
-        } else if (Namespaces.GML.equals(curNamespace)
+        } else if (XMLUtils.isSameName(Namespaces.GML, curNamespace)
                 && item instanceof ItemWithDefinicniBod) {
             final ItemWithDefinicniBod itemDefinicniBod =
                     (ItemWithDefinicniBod) item;
@@ -569,28 +782,21 @@ public class Utils {
     private static void processGeometrieElement(final XMLStreamReader reader,
             final Connection con, final Object item, final String namespace)
             throws XMLStreamException {
-        if (namespace.equals(reader.getNamespaceURI())) {
+        if (XMLUtils.isSameName(namespace, reader.getNamespaceURI())) {
             final String localName = reader.getLocalName();
+            final int token = GEOMETRIE_ELEMENTS.get(reader);
 
-            if ("DefinicniBod".equals(localName)) {
+            if (token == DEFINICNI_BOD) {
                 processDefinicniBod(reader, con, item, namespace);
-            } else if ("DefinicniCara".equals(localName)
+            } else if (token == DEFINICNI_CARA
                     && item instanceof ItemWithDefinicniCara) {
                 final ItemWithDefinicniCara itemDefinicniCara =
                         (ItemWithDefinicniCara) item;
                 itemDefinicniCara.setDefinicniCara(
                         processGML(reader, con, namespace, localName));
-            } else if ("OriginalniHranice".equals(localName)
-                    && item instanceof ItemWithHranice) {
-                final ItemWithHranice itemHranice = (ItemWithHranice) item;
-                itemHranice.setHranice(
-                        processGML(reader, con, namespace, localName));
-            } else if ("OriginalniHraniceOmpv".equals(localName)
-                    && item instanceof ItemWithHranice) {
-                final ItemWithHranice itemHranice = (ItemWithHranice) item;
-                itemHranice.setHranice(
-                        processGML(reader, con, namespace, localName));
-            } else if ("GeneralizovaneHranice3".equals(localName)
+            } else if ((token == ORIGINALNI_HRANICE
+                    || token == ORIGINALNI_HRANICE_OMPV
+                    || token == GENERALIZOVANE_HRANICE3)
                     && item instanceof ItemWithHranice) {
                 final ItemWithHranice itemHranice = (ItemWithHranice) item;
                 itemHranice.setHranice(
@@ -644,31 +850,24 @@ public class Utils {
     private static void processMluvnickeCharakteristikyElement(
             final XMLStreamReader reader, final ItemWithMluvCharPad item)
             throws XMLStreamException {
-        switch (reader.getNamespaceURI()) {
-            case Namespaces.COMMON_TYPY:
-                switch (reader.getLocalName()) {
-                    case "Pad2":
-                        item.setMluvCharPad2(reader.getElementText());
-                        break;
-                    case "Pad3":
-                        item.setMluvCharPad3(reader.getElementText());
-                        break;
-                    case "Pad4":
-                        item.setMluvCharPad4(reader.getElementText());
-                        break;
-                    case "Pad5":
-                        item.setMluvCharPad5(reader.getElementText());
-                        break;
-                    case "Pad6":
-                        item.setMluvCharPad6(reader.getElementText());
-                        break;
-                    case "Pad7":
-                        item.setMluvCharPad7(reader.getElementText());
-                        break;
-                    default:
-                        XMLUtils.processUnsupported(reader);
-                }
-
+        switch (MLUV_CHAR_ELEMENTS.get(reader)) {
+            case PAD2:
+                item.setMluvCharPad2(reader.getElementText());
+                break;
+            case PAD3:
+                item.setMluvCharPad3(reader.getElementText());
+                break;
+            case PAD4:
+                item.setMluvCharPad4(reader.getElementText());
+                break;
+            case PAD5:
+                item.setMluvCharPad5(reader.getElementText());
+                break;
+            case PAD6:
+                item.setMluvCharPad6(reader.getElementText());
+                break;
+            case PAD7:
+                item.setMluvCharPad7(reader.getElementText());
                 break;
             default:
                 XMLUtils.processUnsupported(reader);
@@ -676,7 +875,7 @@ public class Utils {
     }
 
     /**
-     * Processes GML XML. Depending on the output format (GML or EWKT)
+     * Processes GML XML. Depending on the output format (GML, EWKT or EWKB)
      * appropriate method is called.
      *
      * @param reader       XML stream reader
@@ -684,32 +883,70 @@ public class Utils {
      * @param endNamespace end namespace
      * @param endLocalName end local name
      *
-     * @return parsed GML as string (either GML or EWKT)
+     * @return parsed GML as string (either GML or EWKT) or as EWKB bytes, or
+     *         null if there is no geometry
      *
      * @throws XMLStreamException Thrown if problem occurred while reading XML
      *                            stream.
      */
-    private static String processGML(final XMLStreamReader reader,
+    private static GeometryValue processGML(final XMLStreamReader reader,
             final Connection con, final String endNamespace,
             final String endLocalName) throws XMLStreamException {
-        final String result;
+        final GeometryValue result;
 
         if (Config.isConvertToEWKT()) {
+            final Geometry geometry;
+
             if (Config.isLinearizeEWKT()) {
-                result =
-                    GMLParser.parseLinearized(reader, endNamespace, endLocalName, Config.getLinearPrecision()).toWKT();
+                geometry =
+                    GMLParser.parseLinearized(reader, endNamespace, endLocalName, Config.getLinearPrecision());
             } else {
-                result =
-                    GMLParser.parse(reader, endNamespace, endLocalName).toWKT();
+                geometry =
+                    GMLParser.parse(reader, endNamespace, endLocalName);
+            }
+
+            result = Config.isEWKB() ? new GeometryValue(geometry.toEWKB())
+                    : new GeometryValue(geometry.toWKT());
+
+            if (Config.isDebug()) {
+                Log.write(geometry.toWKT());
             }
         } else {
-            result = GMLReader.readGML(reader, con, endNamespace, endLocalName);
-        }
+            final String gml =
+                    GMLReader.readGML(reader, con, endNamespace, endLocalName);
+            result = gml == null ? null : new GeometryValue(gml);
 
-        if (Config.isDebug()) {
-            Log.write(result);
+            if (Config.isDebug()) {
+                Log.write(gml);
+            }
         }
 
         return result;
     }
+
+    /**
+     * Cached timestamp value.
+     */
+    private static class CachedTimestamp {
+
+        /**
+         * String value.
+         */
+        private final String value;
+        /**
+         * Number of seconds since epoch.
+         */
+        private final long seconds;
+
+        /**
+         * Creates new instance of CachedTimestamp.
+         *
+         * @param value   {@link #value}
+         * @param seconds {@link #seconds}
+         */
+        CachedTimestamp(final String value, final long seconds) {
+            this.value = value;
+            this.seconds = seconds;
+        }
+    }
 }
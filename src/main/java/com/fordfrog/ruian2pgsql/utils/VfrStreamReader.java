@@ -0,0 +1,1545 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Forward-only XML stream reader specialised for RÚIAN exchange format. It
+ * tokenizes UTF-8 bytes directly, without decoding the input into characters
+ * first. Element and attribute names are recognized by their bytes in table
+ * of interned names, so no strings are created for names and namespace URIs
+ * once they were seen, and the returned strings are interned so that they
+ * can be compared with string constants by identity. Strings are created only
+ * for text and attribute values that are requested.
+ *
+ * Only features used by the exchange format are supported: documents must be
+ * encoded in UTF-8 and must not contain document type declaration. Comments
+ * and processing instructions are skipped, CDATA sections are reported as
+ * characters. Character offset reported by {@link #getLocation()} is number
+ * of characters decoded before the current position, the same as reported by
+ * the standard reader reading decoded characters. Standard readers reading
+ * bytes report slightly different offsets, so checkpoints are not
+ * interchangeable between parsers.
+ *
+ * @author fordfrog
+ */
+public class VfrStreamReader implements XMLStreamReader {
+
+    /**
+     * Initial size of input buffer.
+     */
+    private static final int BUFFER_SIZE = 65_536;
+    /**
+     * Input stream.
+     */
+    private final InputStream input;
+    /**
+     * Table of interned names.
+     */
+    private final NameTable names = new NameTable();
+    /**
+     * Input buffer.
+     */
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    /**
+     * Position of the next unread byte in {@link #buffer}.
+     */
+    private int position;
+    /**
+     * Number of valid bytes in {@link #buffer}.
+     */
+    private int limit;
+    /**
+     * Position of start of the current token, bytes from this position are
+     * kept in the buffer when it is refilled.
+     */
+    private int mark;
+    /**
+     * Whether end of input was reached.
+     */
+    private boolean eof;
+    /**
+     * Position in {@link #buffer} up to which characters were counted.
+     */
+    private int countedPosition;
+    /**
+     * Number of characters before {@link #countedPosition}.
+     */
+    private long characterCount;
+    /**
+     * Current event type.
+     */
+    private int eventType = START_DOCUMENT;
+    /**
+     * Whether END_ELEMENT of empty element is the next event.
+     */
+    private boolean pendingEnd;
+    /**
+     * Number of open elements.
+     */
+    private int depth;
+    /**
+     * Names of open elements.
+     */
+    private Name[] elementNames = new Name[32];
+    /**
+     * Namespace URIs of open elements.
+     */
+    private String[] elementNamespaces = new String[32];
+    /**
+     * Number of namespace bindings in scope at each depth, the value at index
+     * depth is number of bindings of the current element.
+     */
+    private int[] namespaceCounts = new int[33];
+    /**
+     * Prefixes of namespace bindings.
+     */
+    private String[] namespacePrefixes = new String[16];
+    /**
+     * URIs of namespace bindings.
+     */
+    private String[] namespaceURIs = new String[16];
+    /**
+     * Number of namespace bindings in scope.
+     */
+    private int namespaceCount;
+    /**
+     * Number of attributes of the current element.
+     */
+    private int attributeCount;
+    /**
+     * Names of attributes.
+     */
+    private Name[] attributeNames = new Name[8];
+    /**
+     * Namespace URIs of attributes.
+     */
+    private String[] attributeNamespaces = new String[8];
+    /**
+     * Start positions of attribute values in {@link #buffer}.
+     */
+    private int[] attributeStarts = new int[8];
+    /**
+     * End positions of attribute values in {@link #buffer}.
+     */
+    private int[] attributeEnds = new int[8];
+    /**
+     * Start position of text of the current event in {@link #buffer}.
+     */
+    private int textStart;
+    /**
+     * End position of text of the current event in {@link #buffer}.
+     */
+    private int textEnd;
+    /**
+     * Whether text of the current event contains entity references or
+     * carriage returns.
+     */
+    private boolean textEscaped;
+    /**
+     * Text of the current event, null if it was not decoded yet.
+     */
+    private String text;
+    /**
+     * Characters of text of the current event, reused for all events.
+     */
+    private char[] textCharacters = new char[256];
+    /**
+     * Number of valid characters in {@link #textCharacters}, -1 if text of
+     * the current event was not decoded to characters yet.
+     */
+    private int textCharactersLength = -1;
+
+    /**
+     * Creates new instance of VfrStreamReader.
+     *
+     * @param input input stream with UTF-8 encoded XML document
+     */
+    public VfrStreamReader(final InputStream input) {
+        this.input = input;
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        if (eventType == END_ELEMENT) {
+            depth--;
+            namespaceCount = namespaceCounts[depth];
+        }
+
+        text = null;
+        textCharactersLength = -1;
+
+        if (pendingEnd) {
+            pendingEnd = false;
+            attributeCount = 0;
+            eventType = END_ELEMENT;
+
+            return eventType;
+        }
+
+        while (true) {
+            mark = position;
+
+            if (!ensurePosition()) {
+                if (depth > 0) {
+                    throw new XMLStreamException("Unexpected end of document");
+                }
+
+                eventType = END_DOCUMENT;
+
+                return eventType;
+            }
+
+            if (buffer[position] != '<') {
+                scanText();
+
+                // text outside root element is not reported
+                if (depth > 0) {
+                    eventType = CHARACTERS;
+
+                    return eventType;
+                }
+
+                continue;
+            }
+
+            ensureByte(position + 1);
+
+            switch (buffer[position + 1]) {
+                case '/':
+                    readEndTag();
+                    eventType = END_ELEMENT;
+
+                    return eventType;
+                case '?':
+                    skipProcessingInstruction();
+                    break;
+                case '!':
+                    if (readMarkup()) {
+                        eventType = CHARACTERS;
+
+                        return eventType;
+                    }
+                    break;
+                default:
+                    readStartTag();
+                    eventType = START_ELEMENT;
+
+                    return eventType;
+            }
+        }
+    }
+
+    @Override
+    public String getElementText() throws XMLStreamException {
+        if (eventType != START_ELEMENT) {
+            throw new XMLStreamException(
+                    "Element text can be read only at START_ELEMENT");
+        }
+
+        if (pendingEnd) {
+            next();
+
+            return "";
+        }
+
+        String result = "";
+        StringBuilder sbText = null;
+
+        while (true) {
+            final int event = next();
+
+            if (event == END_ELEMENT) {
+                return sbText == null ? result : sbText.toString();
+            } else if (event != CHARACTERS) {
+                throw new XMLStreamException(
+                        "Element text contains child element");
+            }
+
+            // text is decoded before buffer is refilled by the next call
+            if (result.isEmpty()) {
+                result = getText();
+            } else {
+                if (sbText == null) {
+                    sbText = new StringBuilder(result);
+                }
+
+                sbText.append(getText());
+            }
+        }
+    }
+
+    /**
+     * Scans text up to the next markup.
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading the
+     *                            input.
+     */
+    private void scanText() throws XMLStreamException {
+        boolean escaped = false;
+        int i = position;
+
+        while (true) {
+            if (i >= limit) {
+                final int shift = fill();
+                i -= shift;
+
+                if (i >= limit) {
+                    break;
+                }
+            }
+
+            final byte b = buffer[i];
+
+            if (b == '<') {
+                break;
+            } else if (b == '&' || b == '\r') {
+                escaped = true;
+            }
+
+            i++;
+        }
+
+        textStart = mark;
+        textEnd = i;
+        textEscaped = escaped;
+        position = i;
+    }
+
+    /**
+     * Reads comment, CDATA section or document type declaration.
+     *
+     * @return true if CDATA section was read, otherwise false
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading the
+     *                            input.
+     */
+    private boolean readMarkup() throws XMLStreamException {
+        if (startsWith(position, "<!--")) {
+            position = indexOf(position + 4, "-->") + 3;
+
+            return false;
+        } else if (startsWith(position, "<![CDATA[")) {
+            final int end = indexOf(position + 9, "]]>");
+            textStart = mark + 9;
+            textEnd = end;
+            textEscaped = false;
+            // CDATA is reported raw, carriage returns are kept
+            position = end + 3;
+
+            return true;
+        } else {
+            throw new XMLStreamException(
+                    "Document type declaration is not supported");
+        }
+    }
+
+    /**
+     * Skips processing instruction. Checks encoding of XML declaration.
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading the
+     *                            input or if the document is not encoded in
+     *                            UTF-8.
+     */
+    private void skipProcessingInstruction() throws XMLStreamException {
+        final int end = indexOf(position + 2, "?>");
+
+        if (startsWith(position, "<?xml ")) {
+            final String declaration = new String(buffer, position,
+                    end - position, StandardCharsets.UTF_8);
+            final int encodingIndex = declaration.indexOf("encoding");
+
+            if (encodingIndex != -1) {
+                final String encoding = declaration.substring(
+                        encodingIndex + 8).replaceAll("[\\s=\"']", "");
+
+                if (!"UTF-8".equalsIgnoreCase(encoding)
+                        && !"UTF8".equalsIgnoreCase(encoding)) {
+                    throw new XMLStreamException(
+                            "Unsupported encoding " + encoding);
+                }
+            }
+        }
+
+        position = end + 2;
+    }
+
+    /**
+     * Reads start tag including its attributes and namespace declarations.
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading the
+     *                            input.
+     */
+    private void readStartTag() throws XMLStreamException {
+        final int end = findTagEnd(position + 1);
+        int i = position + 1;
+        final int nameEnd = scanName(i, end);
+        final Name name = names.get(buffer, i, nameEnd);
+        i = nameEnd;
+
+        if (depth == elementNames.length) {
+            elementNames = Arrays.copyOf(elementNames, depth * 2);
+            elementNamespaces = Arrays.copyOf(elementNamespaces, depth * 2);
+            namespaceCounts = Arrays.copyOf(namespaceCounts, depth * 2 + 1);
+        }
+
+        attributeCount = 0;
+
+        while (true) {
+            i = skipWhitespace(i, end);
+
+            if (i >= end) {
+                break;
+            }
+
+            final int attrNameEnd = scanName(i, end);
+            final Name attrName = names.get(buffer, i, attrNameEnd);
+            i = skipWhitespace(attrNameEnd, end);
+
+            if (i >= end || buffer[i] != '=') {
+                throw new XMLStreamException("Invalid attribute "
+                        + attrName.qualifiedName);
+            }
+
+            i = skipWhitespace(i + 1, end);
+
+            final byte quote = i < end ? buffer[i] : 0;
+
+            if (quote != '"' && quote != '\'') {
+                throw new XMLStreamException("Invalid attribute "
+                        + attrName.qualifiedName);
+            }
+
+            final int valueStart = i + 1;
+            i = valueStart;
+
+            while (buffer[i] != quote) {
+                i++;
+            }
+
+            if (attrName.prefix == null
+                    && "xmlns".equals(attrName.localName)) {
+                bindNamespace(XMLConstants.DEFAULT_NS_PREFIX,
+                        names.getString(buffer, valueStart, i));
+            } else if ("xmlns".equals(attrName.prefix)) {
+                bindNamespace(attrName.localName,
+                        names.getString(buffer, valueStart, i));
+            } else {
+                addAttribute(attrName, valueStart, i);
+            }
+
+            i++;
+        }
+
+        for (int j = 0; j < attributeCount; j++) {
+            final Name attrName = attributeNames[j];
+            attributeNamespaces[j] = attrName.prefix == null
+                    ? null : resolvePrefix(attrName.prefix);
+        }
+
+        elementNames[depth] = name;
+        elementNamespaces[depth] = resolvePrefix(name.prefix == null
+                ? XMLConstants.DEFAULT_NS_PREFIX : name.prefix);
+        depth++;
+        namespaceCounts[depth] = namespaceCount;
+        pendingEnd = buffer[end - 1] == '/';
+        position = end + 1;
+    }
+
+    /**
+     * Reads end tag and checks that it matches the open element.
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading the
+     *                            input or if the end tag does not match.
+     */
+    private void readEndTag() throws XMLStreamException {
+        final int end = findTagEnd(position + 2);
+        final int nameEnd = scanName(position + 2, end);
+        final Name name = names.get(buffer, position + 2, nameEnd);
+
+        if (depth == 0 || elementNames[depth - 1] != name) {
+            throw new XMLStreamException("Unexpected end tag "
+                    + name.qualifiedName);
+        }
+
+        attributeCount = 0;
+        position = end + 1;
+    }
+
+    /**
+     * Binds namespace prefix in scope of the current element.
+     *
+     * @param prefix namespace prefix
+     * @param uri    namespace URI
+     */
+    private void bindNamespace(final String prefix, final String uri) {
+        if (namespaceCount == namespacePrefixes.length) {
+            namespacePrefixes = Arrays.copyOf(
+                    namespacePrefixes, namespaceCount * 2);
+            namespaceURIs = Arrays.copyOf(namespaceURIs, namespaceCount * 2);
+        }
+
+        namespacePrefixes[namespaceCount] = prefix;
+        namespaceURIs[namespaceCount] = uri.isEmpty() ? null : uri;
+        namespaceCount++;
+    }
+
+    /**
+     * Adds attribute of the current element.
+     *
+     * @param name  attribute name
+     * @param start start position of the value
+     * @param end   end position of the value
+     */
+    private void addAttribute(final Name name, final int start,
+            final int end) {
+        if (attributeCount == attributeNames.length) {
+            attributeNames = Arrays.copyOf(
+                    attributeNames, attributeCount * 2);
+            attributeNamespaces = Arrays.copyOf(
+                    attributeNamespaces, attributeCount * 2);
+            attributeStarts = Arrays.copyOf(
+                    attributeStarts, attributeCount * 2);
+            attributeEnds = Arrays.copyOf(attributeEnds, attributeCount * 2);
+        }
+
+        attributeNames[attributeCount] = name;
+        attributeStarts[attributeCount] = start;
+        attributeEnds[attributeCount] = end;
+        attributeCount++;
+    }
+
+    /**
+     * Resolves namespace prefix to namespace URI. Prefixes are interned, so
+     * they are compared by identity.
+     *
+     * @param prefix namespace prefix
+     *
+     * @return namespace URI or null if the prefix is not bound
+     *
+     * @throws XMLStreamException Thrown if non-empty prefix is not bound.
+     */
+    private String resolvePrefix(final String prefix)
+            throws XMLStreamException {
+        for (int i = namespaceCount - 1; i >= 0; i--) {
+            if (namespacePrefixes[i] == prefix) {
+                return namespaceURIs[i];
+            }
+        }
+
+        if ("xml".equals(prefix)) {
+            return XMLConstants.XML_NS_URI;
+        } else if (!prefix.isEmpty()) {
+            throw new XMLStreamException("Unbound prefix " + prefix);
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds end of tag, skipping quoted attribute values.
+     *
+     * @param from position from which to search
+     *
+     * @return position of closing '&gt;'
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading the
+     *                            input.
+     */
+    private int findTagEnd(final int from) throws XMLStreamException {
+        byte quote = 0;
+        int i = from;
+
+        while (true) {
+            i = ensureByte(i);
+
+            final byte b = buffer[i];
+
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '>') {
+                return i;
+            }
+
+            i++;
+        }
+    }
+
+    /**
+     * Scans name.
+     *
+     * @param from position of the first byte of the name
+     * @param end  position of the end of the tag
+     *
+     * @return position after the name
+     *
+     * @throws XMLStreamException Thrown if the name is empty.
+     */
+    private int scanName(final int from, final int end)
+            throws XMLStreamException {
+        int i = from;
+
+        while (i < end) {
+            final byte b = buffer[i];
+
+            if (b == ' ' || b == '\n' || b == '\t' || b == '\r' || b == '='
+                    || b == '/' || b == '>') {
+                break;
+            }
+
+            i++;
+        }
+
+        if (i == from) {
+            throw new XMLStreamException("Invalid name");
+        }
+
+        return i;
+    }
+
+    /**
+     * Skips whitespace.
+     *
+     * @param from position from which to skip
+     * @param end  position of the end of the tag
+     *
+     * @return position of the first non-whitespace byte, or end position
+     */
+    private int skipWhitespace(final int from, final int end) {
+        int i = from;
+
+        while (i < end) {
+            final byte b = buffer[i];
+
+            if (b != ' ' && b != '\n' && b != '\t' && b != '\r' && b != '/') {
+                break;
+            }
+
+            i++;
+        }
+
+        return i;
+    }
+
+    /**
+     * Checks whether the buffer contains given ASCII string at given
+     * position.
+     *
+     * @param from   position
+     * @param string ASCII string
+     *
+     * @return true if the string is present, otherwise false
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading the
+     *                            input.
+     */
+    private boolean startsWith(final int from, final String string)
+            throws XMLStreamException {
+        int i = from;
+
+        for (int j = 0; j < string.length(); j++) {
+            if (i >= limit) {
+                final int shift = fill();
+                i -= shift;
+
+                if (i >= limit) {
+                    return false;
+                }
+            }
+
+            if (buffer[i] != string.charAt(j)) {
+                return false;
+            }
+
+            i++;
+        }
+
+        return true;
+    }
+
+    /**
+     * Finds ASCII string in the input.
+     *
+     * @param from   position from which to search
+     * @param string ASCII string
+     *
+     * @return position of the string
+     *
+     * @throws XMLStreamException Thrown if the string was not found.
+     */
+    private int indexOf(final int from, final String string)
+            throws XMLStreamException {
+        final byte first = (byte) string.charAt(0);
+        int i = from;
+
+        while (true) {
+            i = ensureByte(i);
+
+            if (buffer[i] == first) {
+                final int offset = i - mark;
+
+                if (startsWith(i, string)) {
+                    // buffer might have been refilled
+                    return mark + offset;
+                }
+
+                i = mark + offset;
+            }
+
+            i++;
+        }
+    }
+
+    /**
+     * Makes sure that buffer contains byte at given position.
+     *
+     * @param index position of the byte
+     *
+     * @return adjusted position of the byte
+     *
+     * @throws XMLStreamException Thrown if end of input was reached.
+     */
+    private int ensureByte(final int index) throws XMLStreamException {
+        int i = index;
+
+        while (i >= limit) {
+            if (eof) {
+                throw new XMLStreamException("Unexpected end of document");
+            }
+
+            i -= fill();
+        }
+
+        return i;
+    }
+
+    /**
+     * Makes sure that buffer contains byte at {@link #position}, unless end
+     * of input was reached.
+     *
+     * @return true if the byte is available, false at the end of input
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading the
+     *                            input.
+     */
+    private boolean ensurePosition() throws XMLStreamException {
+        while (position >= limit) {
+            if (eof) {
+                return false;
+            }
+
+            fill();
+        }
+
+        return true;
+    }
+
+    /**
+     * Discards bytes before {@link #mark} and reads more input into the
+     * buffer. Buffer is enlarged if it is full.
+     *
+     * @return number of bytes by which positions in the buffer were shifted
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading the
+     *                            input.
+     */
+    private int fill() throws XMLStreamException {
+        final int shift = mark;
+
+        if (shift > 0) {
+            countCharacters(shift);
+            System.arraycopy(buffer, shift, buffer, 0, limit - shift);
+            limit -= shift;
+            position -= shift;
+            countedPosition -= shift;
+            textStart -= shift;
+            textEnd -= shift;
+            mark = 0;
+        }
+
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+
+        try {
+            final int count = input.read(buffer, limit, buffer.length - limit);
+
+            if (count == -1) {
+                eof = true;
+            } else {
+                limit += count;
+            }
+        } catch (final IOException ex) {
+            throw new XMLStreamException("Failed to read input", ex);
+        }
+
+        return shift;
+    }
+
+    /**
+     * Counts characters in the buffer up to given position. Each byte that is
+     * not UTF-8 continuation byte starts new character, four byte sequences
+     * are counted as two characters as they are decoded into surrogate pairs.
+     *
+     * @param end position up to which to count
+     */
+    private void countCharacters(final int end) {
+        if (end <= countedPosition) {
+            return;
+        }
+
+        long count = characterCount;
+
+        for (int i = countedPosition; i < end; i++) {
+            final int b = buffer[i] & 0xff;
+
+            if ((b & 0xc0) != 0x80) {
+                count++;
+
+                if (b >= 0xf0) {
+                    count++;
+                }
+            }
+        }
+
+        characterCount = count;
+        countedPosition = end;
+    }
+
+    @Override
+    public Location getLocation() {
+        countCharacters(position);
+
+        final int offset = (int) characterCount;
+
+        return new Location() {
+            @Override
+            public int getLineNumber() {
+                return -1;
+            }
+
+            @Override
+            public int getColumnNumber() {
+                return -1;
+            }
+
+            @Override
+            public int getCharacterOffset() {
+                return offset;
+            }
+
+            @Override
+            public String getPublicId() {
+                return null;
+            }
+
+            @Override
+            public String getSystemId() {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Decodes text from the buffer, replacing entity references and
+     * normalizing line ends.
+     *
+     * @param start     start position
+     * @param end       end position
+     * @param escaped   whether the text contains entity references or
+     *                  carriage returns
+     * @param attribute whether the text is attribute value, in which case
+     *                  whitespace characters are normalized to spaces
+     *
+     * @return decoded text
+     *
+     * @throws XMLStreamException Thrown if the text contains invalid entity
+     *                            reference.
+     */
+    private String decode(final int start, final int end,
+            final boolean escaped, final boolean attribute)
+            throws XMLStreamException {
+        if (!escaped) {
+            return new String(buffer, start, end - start,
+                    StandardCharsets.UTF_8);
+        }
+
+        final StringBuilder sbText = new StringBuilder(end - start);
+        int segmentStart = start;
+        int i = start;
+
+        while (i < end) {
+            final byte b = buffer[i];
+
+            if (b == '&' || b == '\r' || attribute
+                    && (b == '\n' || b == '\t')) {
+                sbText.append(new String(buffer, segmentStart,
+                        i - segmentStart, StandardCharsets.UTF_8));
+
+                if (b == '&') {
+                    int entityEnd = i + 1;
+
+                    while (entityEnd < end && buffer[entityEnd] != ';') {
+                        entityEnd++;
+                    }
+
+                    if (entityEnd == end) {
+                        throw new XMLStreamException(
+                                "Unterminated entity reference");
+                    }
+
+                    appendEntity(sbText, new String(buffer, i + 1,
+                            entityEnd - i - 1, StandardCharsets.US_ASCII));
+                    i = entityEnd + 1;
+                } else {
+                    sbText.append(attribute ? ' ' : '\n');
+                    i++;
+
+                    if (b == '\r' && i < end && buffer[i] == '\n') {
+                        i++;
+                    }
+                }
+
+                segmentStart = i;
+            } else {
+                i++;
+            }
+        }
+
+        sbText.append(new String(buffer, segmentStart, end - segmentStart,
+                StandardCharsets.UTF_8));
+
+        return sbText.toString();
+    }
+
+    /**
+     * Appends character referenced by entity.
+     *
+     * @param sbText string builder
+     * @param entity entity name without '&amp;' and ';'
+     *
+     * @throws XMLStreamException Thrown if the entity is not supported.
+     */
+    private static void appendEntity(final StringBuilder sbText,
+            final String entity) throws XMLStreamException {
+        switch (entity) {
+            case "amp":
+                sbText.append('&');
+                break;
+            case "lt":
+                sbText.append('<');
+                break;
+            case "gt":
+                sbText.append('>');
+                break;
+            case "quot":
+                sbText.append('"');
+                break;
+            case "apos":
+                sbText.append('\'');
+                break;
+            default:
+                if (entity.startsWith("#x")) {
+                    sbText.appendCodePoint(
+                            Integer.parseInt(entity.substring(2), 16));
+                } else if (entity.startsWith("#")) {
+                    sbText.appendCodePoint(
+                            Integer.parseInt(entity.substring(1)));
+                } else {
+                    throw new XMLStreamException(
+                            "Unsupported entity reference " + entity);
+                }
+        }
+    }
+
+    @Override
+    public Object getProperty(final String name) {
+        return null;
+    }
+
+    @Override
+    public void require(final int type, final String namespaceURI,
+            final String localName) throws XMLStreamException {
+        if (type != eventType
+                || namespaceURI != null
+                && !namespaceURI.equals(getNamespaceURI())
+                || localName != null && !localName.equals(getLocalName())) {
+            throw new XMLStreamException("Unexpected event " + eventType);
+        }
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+        int event = next();
+
+        while (event == CHARACTERS && isWhiteSpace()) {
+            event = next();
+        }
+
+        if (event != START_ELEMENT && event != END_ELEMENT) {
+            throw new XMLStreamException("Expected start or end tag");
+        }
+
+        return event;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return eventType != END_DOCUMENT;
+    }
+
+    @Override
+    public void close() {
+        // input stream is closed by its owner
+    }
+
+    @Override
+    public String getNamespaceURI(final String prefix) {
+        for (int i = namespaceCount - 1; i >= 0; i--) {
+            if (namespacePrefixes[i].equals(prefix)) {
+                return namespaceURIs[i];
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public boolean isStartElement() {
+        return eventType == START_ELEMENT;
+    }
+
+    @Override
+    public boolean isEndElement() {
+        return eventType == END_ELEMENT;
+    }
+
+    @Override
+    public boolean isCharacters() {
+        return eventType == CHARACTERS;
+    }
+
+    @Override
+    public boolean isWhiteSpace() {
+        if (eventType != CHARACTERS) {
+            return false;
+        }
+
+        for (int i = textStart; i < textEnd; i++) {
+            final byte b = buffer[i];
+
+            if (b != ' ' && b != '\n' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public String getAttributeValue(final String namespaceURI,
+            final String localName) {
+        for (int i = 0; i < attributeCount; i++) {
+            if (attributeNames[i].localName.equals(localName)
+                    && (namespaceURI == null
+                    || namespaceURI.equals(attributeNamespaces[i]))) {
+                return getAttributeValue(i);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public int getAttributeCount() {
+        return attributeCount;
+    }
+
+    @Override
+    public QName getAttributeName(final int index) {
+        return new QName(attributeNamespaces[index] == null
+                ? XMLConstants.NULL_NS_URI : attributeNamespaces[index],
+                getAttributeLocalName(index), getAttributePrefix(index));
+    }
+
+    @Override
+    public String getAttributeNamespace(final int index) {
+        return attributeNamespaces[index];
+    }
+
+    @Override
+    public String getAttributeLocalName(final int index) {
+        return attributeNames[index].localName;
+    }
+
+    @Override
+    public String getAttributePrefix(final int index) {
+        final String prefix = attributeNames[index].prefix;
+
+        return prefix == null ? XMLConstants.DEFAULT_NS_PREFIX : prefix;
+    }
+
+    @Override
+    public String getAttributeType(final int index) {
+        return "CDATA";
+    }
+
+    @Override
+    public String getAttributeValue(final int index) {
+        boolean escaped = false;
+
+        for (int i = attributeStarts[index]; i < attributeEnds[index]; i++) {
+            final byte b = buffer[i];
+
+            if (b == '&' || b == '\r' || b == '\n' || b == '\t') {
+                escaped = true;
+
+                break;
+            }
+        }
+
+        try {
+            return decode(attributeStarts[index], attributeEnds[index],
+                    escaped, true);
+        } catch (final XMLStreamException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public boolean isAttributeSpecified(final int index) {
+        return true;
+    }
+
+    @Override
+    public int getNamespaceCount() {
+        return eventType == START_ELEMENT || eventType == END_ELEMENT
+                ? namespaceCounts[depth] - namespaceCounts[depth - 1] : 0;
+    }
+
+    @Override
+    public String getNamespacePrefix(final int index) {
+        return namespacePrefixes[namespaceCounts[depth - 1] + index];
+    }
+
+    @Override
+    public String getNamespaceURI(final int index) {
+        return namespaceURIs[namespaceCounts[depth - 1] + index];
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return new NamespaceContext() {
+            @Override
+            public String getNamespaceURI(final String prefix) {
+                return VfrStreamReader.this.getNamespaceURI(prefix);
+            }
+
+            @Override
+            public String getPrefix(final String namespaceURI) {
+                for (int i = namespaceCount - 1; i >= 0; i--) {
+                    if (namespaceURI.equals(namespaceURIs[i])) {
+                        return namespacePrefixes[i];
+                    }
+                }
+
+                return null;
+            }
+
+            @Override
+            public Iterator<String> getPrefixes(final String namespaceURI) {
+                final String prefix = getPrefix(namespaceURI);
+
+                return prefix == null ? Collections.<String>emptyIterator()
+                        : Collections.singletonList(prefix).iterator();
+            }
+        };
+    }
+
+    @Override
+    public int getEventType() {
+        return eventType;
+    }
+
+    @Override
+    public String getText() {
+        if (eventType != CHARACTERS) {
+            throw new IllegalStateException("Text is available only for "
+                    + "CHARACTERS event");
+        }
+
+        if (text == null) {
+            try {
+                text = decode(textStart, textEnd, textEscaped, false);
+            } catch (final XMLStreamException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        return text;
+    }
+
+    @Override
+    public char[] getTextCharacters() {
+        decodeTextCharacters();
+
+        return textCharacters;
+    }
+
+    @Override
+    public int getTextCharacters(final int sourceStart, final char[] target,
+            final int targetStart, final int length) {
+        decodeTextCharacters();
+
+        final int count = Math.min(length, textCharactersLength - sourceStart);
+        System.arraycopy(textCharacters, sourceStart, target, targetStart,
+                count);
+
+        return count;
+    }
+
+    @Override
+    public int getTextStart() {
+        return 0;
+    }
+
+    @Override
+    public int getTextLength() {
+        decodeTextCharacters();
+
+        return textCharactersLength;
+    }
+
+    /**
+     * Decodes text of the current event to {@link #textCharacters}. ASCII
+     * text without entity references is copied from the buffer directly,
+     * without creating string.
+     */
+    private void decodeTextCharacters() {
+        if (textCharactersLength != -1) {
+            return;
+        } else if (eventType != CHARACTERS) {
+            throw new IllegalStateException("Text is available only for "
+                    + "CHARACTERS event");
+        }
+
+        if (text == null && !textEscaped) {
+            final int length = textEnd - textStart;
+            ensureTextCharactersCapacity(length);
+
+            final byte[] bytes = buffer;
+            final char[] chars = textCharacters;
+            final int offset = textStart;
+            int i = 0;
+
+            while (i < length && bytes[offset + i] >= 0) {
+                chars[i] = (char) bytes[offset + i];
+                i++;
+            }
+
+            if (i == length) {
+                textCharactersLength = length;
+
+                return;
+            }
+        }
+
+        final String value = getText();
+        ensureTextCharactersCapacity(value.length());
+        value.getChars(0, value.length(), textCharacters, 0);
+        textCharactersLength = value.length();
+    }
+
+    /**
+     * Makes sure that {@link #textCharacters} can hold given number of
+     * characters.
+     *
+     * @param length number of characters
+     */
+    private void ensureTextCharactersCapacity(final int length) {
+        if (textCharacters.length < length) {
+            textCharacters = new char[Math.max(length,
+                    textCharacters.length * 2)];
+        }
+    }
+
+    @Override
+    public String getEncoding() {
+        return "UTF-8";
+    }
+
+    @Override
+    public boolean hasText() {
+        return eventType == CHARACTERS;
+    }
+
+    @Override
+    public QName getName() {
+        return new QName(getNamespaceURI() == null
+                ? XMLConstants.NULL_NS_URI : getNamespaceURI(),
+                getLocalName(), getPrefix());
+    }
+
+    @Override
+    public String getLocalName() {
+        return elementNames[depth - 1].localName;
+    }
+
+    @Override
+    public boolean hasName() {
+        return eventType == START_ELEMENT || eventType == END_ELEMENT;
+    }
+
+    @Override
+    public String getNamespaceURI() {
+        return eventType == START_ELEMENT || eventType == END_ELEMENT
+                ? elementNamespaces[depth - 1] : null;
+    }
+
+    @Override
+    public String getPrefix() {
+        final String prefix = elementNames[depth - 1].prefix;
+
+        return prefix == null ? XMLConstants.DEFAULT_NS_PREFIX : prefix;
+    }
+
+    @Override
+    public String getVersion() {
+        return "1.0";
+    }
+
+    @Override
+    public boolean isStandalone() {
+        return false;
+    }
+
+    @Override
+    public boolean standaloneSet() {
+        return false;
+    }
+
+    @Override
+    public String getCharacterEncodingScheme() {
+        return "UTF-8";
+    }
+
+    @Override
+    public String getPITarget() {
+        return null;
+    }
+
+    @Override
+    public String getPIData() {
+        return null;
+    }
+
+    /**
+     * Qualified name split into interned prefix and local name.
+     */
+    private static class Name {
+
+        /**
+         * Bytes of qualified name.
+         */
+        private final byte[] bytes;
+        /**
+         * Hash of {@link #bytes}.
+         */
+        private final int hash;
+        /**
+         * Qualified name.
+         */
+        private final String qualifiedName;
+        /**
+         * Prefix, null if the name has no prefix.
+         */
+        private final String prefix;
+        /**
+         * Local name.
+         */
+        private final String localName;
+
+        /**
+         * Creates new instance of Name.
+         *
+         * @param bytes {@link #bytes}
+         * @param hash  {@link #hash}
+         */
+        Name(final byte[] bytes, final int hash) {
+            this.bytes = bytes;
+            this.hash = hash;
+            qualifiedName = new String(bytes, StandardCharsets.UTF_8).intern();
+
+            final int colon = qualifiedName.indexOf(':');
+
+            if (colon == -1) {
+                prefix = null;
+                localName = qualifiedName;
+            } else {
+                prefix = qualifiedName.substring(0, colon).intern();
+                localName = qualifiedName.substring(colon + 1).intern();
+            }
+        }
+
+        /**
+         * Checks whether the name consists of given bytes.
+         *
+         * @param buffer buffer
+         * @param start  start position
+         * @param end    end position
+         *
+         * @return true if the bytes match, otherwise false
+         */
+        boolean matches(final byte[] buffer, final int start, final int end) {
+            if (bytes.length != end - start) {
+                return false;
+            }
+
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] != buffer[start + i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Open addressing hash table of names keyed by their bytes.
+     */
+    private static class NameTable {
+
+        /**
+         * Table of names.
+         */
+        private Name[] table = new Name[512];
+        /**
+         * Number of names in the table.
+         */
+        private int size;
+
+        /**
+         * Returns name consisting of given bytes, creating it if it was not
+         * seen before.
+         *
+         * @param buffer buffer
+         * @param start  start position
+         * @param end    end position
+         *
+         * @return name
+         */
+        Name get(final byte[] buffer, final int start, final int end) {
+            int hash = 0;
+
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + buffer[i];
+            }
+
+            final int mask = table.length - 1;
+            int index = mix(hash) & mask;
+            Name name = table[index];
+
+            while (name != null) {
+                if (name.hash == hash && name.matches(buffer, start, end)) {
+                    return name;
+                }
+
+                index = (index + 1) & mask;
+                name = table[index];
+            }
+
+            name = new Name(Arrays.copyOfRange(buffer, start, end), hash);
+            table[index] = name;
+            size++;
+
+            if (size * 2 > table.length) {
+                rehash();
+            }
+
+            return name;
+        }
+
+        /**
+         * Returns interned string consisting of given bytes.
+         *
+         * @param buffer buffer
+         * @param start  start position
+         * @param end    end position
+         *
+         * @return string
+         */
+        String getString(final byte[] buffer, final int start,
+                final int end) {
+            return get(buffer, start, end).qualifiedName;
+        }
+
+        /**
+         * Doubles size of the table.
+         */
+        private void rehash() {
+            final Name[] oldTable = table;
+            table = new Name[oldTable.length * 2];
+
+            final int mask = table.length - 1;
+
+            for (final Name name : oldTable) {
+                if (name != null) {
+                    int index = mix(name.hash) & mask;
+
+                    while (table[index] != null) {
+                        index = (index + 1) & mask;
+                    }
+
+                    table[index] = name;
+                }
+            }
+        }
+
+        /**
+         * Spreads bits of hash.
+         *
+         * @param hash hash
+         *
+         * @return mixed hash
+         */
+        private static int mix(final int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
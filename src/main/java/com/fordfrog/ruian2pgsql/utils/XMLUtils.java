@@ -33,7 +33,8 @@ public class XMLUtils {
 
     /**
      * Checks whether XML stream reader namespace and local name match the one
-     * specified in the call.
+     * specified in the call. Local name is compared first because namespaces
+     * of the exchange format share long common prefix.
      *
      * @param namespace namespace
      * @param localName local name
@@ -43,8 +44,25 @@ public class XMLUtils {
      */
     public static boolean isSameElement(final String namespace,
             final String localName, final XMLStreamReader reader) {
-        return namespace.equals(reader.getNamespaceURI())
-                && localName.equals(reader.getLocalName());
+        return isSameName(localName, reader.getLocalName())
+                && isSameName(namespace, reader.getNamespaceURI());
+    }
+
+    /**
+     * Checks whether name read from document matches expected name. Names
+     * are compared by identity first, which succeeds for constant names and
+     * names interned by the XML readers, so that matching names are not
+     * compared character by character.
+     *
+     * @param name       expected name
+     * @param readerName name read from document
+     *
+     * @return true if the names match, otherwise false
+     */
+    @SuppressWarnings("StringEquality")
+    public static boolean isSameName(final String name,
+            final String readerName) {
+        return name == readerName || name.equals(readerName);
     }
 
     /**
@@ -0,0 +1,190 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import com.fordfrog.ruian2pgsql.Config;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Creates XML stream readers using configured parser. The StAX factory is
+ * created and configured once, so each instance should be kept for the whole
+ * import and used by single thread only. Readers are created on top of raw
+ * bytes, so input is decoded only once, by the parser. Coalescing, DTD
+ * support and external entities are disabled because the exchange format
+ * does not need them.
+ *
+ * @author fordfrog
+ */
+public class XmlReaderFactory {
+
+    /**
+     * Class name of Woodstox input factory.
+     */
+    private static final String WOODSTOX_FACTORY =
+            "com.ctc.wstx.stax.WstxInputFactory";
+    /**
+     * Class name of Aalto input factory.
+     */
+    private static final String AALTO_FACTORY =
+            "com.fasterxml.aalto.stax.InputFactoryImpl";
+    /**
+     * Class name of input factory of the JDK before Java 9.
+     */
+    private static final String JDK_FACTORY =
+            "com.sun.xml.internal.stream.XMLInputFactoryImpl";
+    /**
+     * StAX input factory, null if byte-level parser is used.
+     */
+    private final XMLInputFactory inputFactory;
+
+    /**
+     * Creates new instance of XmlReaderFactory.
+     *
+     * @param parser parser name, one of Config.XML_PARSER_* constants
+     */
+    public XmlReaderFactory(final String parser) {
+        switch (parser) {
+            case Config.XML_PARSER_VFR:
+                inputFactory = null;
+                break;
+            case Config.XML_PARSER_STAX:
+                inputFactory = configure(XMLInputFactory.newInstance());
+                break;
+            case Config.XML_PARSER_JDK:
+                inputFactory = configure(createJdkFactory());
+                break;
+            case Config.XML_PARSER_WOODSTOX:
+                inputFactory = configure(createFactory(WOODSTOX_FACTORY));
+                break;
+            case Config.XML_PARSER_AALTO:
+                inputFactory = configure(createFactory(AALTO_FACTORY));
+                break;
+            default:
+                throw new RuntimeException("Unsupported XML parser: " + parser);
+        }
+    }
+
+    /**
+     * Creates XML stream reader for given UTF-8 encoded input stream.
+     *
+     * @param inputStream input stream
+     *
+     * @return XML stream reader
+     *
+     * @throws XMLStreamException Thrown if problem occurred while creating
+     *                            reader.
+     */
+    public XMLStreamReader createReader(final InputStream inputStream)
+            throws XMLStreamException {
+        if (inputFactory == null) {
+            return new VfrStreamReader(inputStream);
+        }
+
+        return inputFactory.createXMLStreamReader(
+                inputStream, StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * Returns whether given parser name is supported.
+     *
+     * @param parser parser name
+     *
+     * @return true if the parser is supported, otherwise false
+     */
+    public static boolean isSupported(final String parser) {
+        switch (parser) {
+            case Config.XML_PARSER_AALTO:
+            case Config.XML_PARSER_JDK:
+            case Config.XML_PARSER_STAX:
+            case Config.XML_PARSER_VFR:
+            case Config.XML_PARSER_WOODSTOX:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Configures input factory for reading exchange format.
+     *
+     * @param factory input factory
+     *
+     * @return the input factory
+     */
+    private static XMLInputFactory configure(final XMLInputFactory factory) {
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(
+                XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        return factory;
+    }
+
+    /**
+     * Creates input factory of the JDK, regardless of other StAX
+     * implementations on class path.
+     *
+     * @return input factory
+     */
+    private static XMLInputFactory createJdkFactory() {
+        try {
+            // Java 9 and newer do not allow access to the implementation class
+            return (XMLInputFactory) XMLInputFactory.class.getMethod(
+                    "newDefaultFactory").invoke(null);
+        } catch (final NoSuchMethodException ex) {
+            return createFactory(JDK_FACTORY);
+        } catch (final IllegalAccessException
+                | InvocationTargetException ex) {
+            throw new RuntimeException(
+                    "Failed to create JDK XML input factory", ex);
+        }
+    }
+
+    /**
+     * Creates input factory of given class.
+     *
+     * @param className factory class name
+     *
+     * @return input factory
+     */
+    private static XMLInputFactory createFactory(final String className) {
+        try {
+            return (XMLInputFactory) Class.forName(className)
+                    .getDeclaredConstructor().newInstance();
+        } catch (final ClassNotFoundException ex) {
+            throw new RuntimeException("XML parser class " + className
+                    + " was not found, parser library must be on class path",
+                    ex);
+        } catch (final InstantiationException | IllegalAccessException
+                | InvocationTargetException | NoSuchMethodException ex) {
+            throw new RuntimeException(
+                    "Failed to create XML input factory " + className, ex);
+        }
+    }
+}
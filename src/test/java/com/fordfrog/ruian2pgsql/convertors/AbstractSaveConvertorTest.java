@@ -0,0 +1,225 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import com.fordfrog.ruian2pgsql.Config;
+import com.fordfrog.ruian2pgsql.containers.Reusable;
+import com.sun.management.ThreadMXBean;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link AbstractSaveConvertor}.
+ *
+ * @author fordfrog
+ */
+public class AbstractSaveConvertorTest {
+
+    /**
+     * Number of items in test document.
+     */
+    private static final int ITEM_COUNT = 1_000;
+    /**
+     * Size of payload of each test item in bytes. If items were not reused,
+     * at least this amount of memory would be allocated per item.
+     */
+    private static final int ITEM_PAYLOAD_SIZE = 4_096;
+    /**
+     * Namespace of test document.
+     */
+    private static final String NAMESPACE = "urn:test";
+    /**
+     * Number of created items.
+     */
+    private int createdCount;
+
+    /**
+     * Resets configuration changed by tests.
+     */
+    @After
+    public void tearDown() {
+        Config.setDryRun(false);
+    }
+
+    /**
+     * Tests that saved items are reset and reused for following items, so
+     * that single item is created for the whole document and memory
+     * allocated per item is much smaller than size of the item.
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     * @throws SQLException       Thrown if problem occurred while saving
+     *                            items.
+     */
+    @Test
+    public void testItemsAreReused() throws XMLStreamException,
+            SQLException {
+        Config.setDryRun(true);
+
+        final StringBuilder sbDocument = new StringBuilder(ITEM_COUNT * 32);
+        sbDocument.append("<Data xmlns=\"").append(NAMESPACE).append(
+                "\">");
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            sbDocument.append("<Item><Value>").append(i).append(
+                    "</Value></Item>");
+        }
+
+        sbDocument.append("</Data>");
+
+        final TestConvertor convertor = new TestConvertor(
+                new AbstractSaveConvertor.ItemFactory<TestItem>() {
+            @Override
+            public TestItem create() {
+                createdCount++;
+
+                return new TestItem();
+            }
+        }, createConnection());
+        final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        final XMLStreamReader reader = inputFactory.createXMLStreamReader(
+                new StringReader(sbDocument.toString()));
+        final ThreadMXBean threadBean =
+                (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBefore =
+                threadBean.getThreadAllocatedBytes(threadId);
+
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamReader.START_ELEMENT
+                    && "Item".equals(reader.getLocalName())) {
+                convertor.convert(reader);
+            }
+        }
+
+        final long bytesPerItem = (threadBean.getThreadAllocatedBytes(
+                threadId) - allocatedBefore) / ITEM_COUNT;
+
+        Assert.assertEquals(ITEM_COUNT, convertor.processedCount);
+        Assert.assertEquals(1, createdCount);
+
+        if (threadBean.isThreadAllocatedMemoryEnabled()) {
+            Assert.assertTrue("Allocated " + bytesPerItem + " bytes per item",
+                    bytesPerItem < ITEM_PAYLOAD_SIZE / 4);
+        }
+    }
+
+    /**
+     * Creates connection that does not support any operation. Test convertor
+     * does not use the connection in dry run.
+     *
+     * @return connection
+     */
+    private static Connection createConnection() {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy,
+                            final Method method, final Object[] args) {
+                        throw new UnsupportedOperationException(
+                                method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Test item.
+     */
+    private static class TestItem implements Reusable {
+
+        /**
+         * Item value.
+         */
+        private String value;
+        /**
+         * Payload that makes allocation of the item noticeable.
+         */
+        private final byte[] payload = new byte[ITEM_PAYLOAD_SIZE];
+
+        @Override
+        public void reset() {
+            value = null;
+        }
+    }
+
+    /**
+     * Convertor of test items that counts processed items.
+     */
+    private static class TestConvertor extends AbstractSaveConvertor<TestItem> {
+
+        /**
+         * Number of processed items.
+         */
+        private int processedCount;
+
+        /**
+         * Creates new instance of TestConvertor.
+         *
+         * @param factory factory of items
+         * @param con     database connection
+         *
+         * @throws SQLException Thrown if problem occurred while preparing
+         *                      statements.
+         */
+        TestConvertor(final ItemFactory<TestItem> factory,
+                final Connection con) throws SQLException {
+            super(factory, NAMESPACE, "Item", con, null, null, null, null,
+                    null);
+        }
+
+        @Override
+        protected void processElement(final XMLStreamReader reader,
+                final TestItem item) throws XMLStreamException {
+            if ("Value".equals(reader.getLocalName())) {
+                Assert.assertNull(item.value);
+                item.value = reader.getElementText();
+                processedCount++;
+            }
+        }
+
+        @Override
+        protected void fillExists(final PreparedStatement pstm,
+                final TestItem item) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void fill(final PreparedStatement pstm, final TestItem item,
+                final boolean update) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
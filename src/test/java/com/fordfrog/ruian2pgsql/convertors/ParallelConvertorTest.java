@@ -0,0 +1,74 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.convertors;
+
+import java.io.InputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ParallelConvertor}.
+ *
+ * @author fordfrog
+ */
+public class ParallelConvertorTest {
+
+    /**
+     * Tests that sources of unknown size are streamed instead of being read
+     * into memory.
+     */
+    @Test
+    public void testIsLargeSource() {
+        Assert.assertFalse(ParallelConvertor.isLargeSource(createSource(0)));
+        Assert.assertFalse(ParallelConvertor.isLargeSource(
+                createSource(1_024L * 1_024)));
+        Assert.assertTrue(ParallelConvertor.isLargeSource(
+                createSource(1_024L * 1_024 * 1_024)));
+        Assert.assertTrue(ParallelConvertor.isLargeSource(createSource(-1)));
+    }
+
+    /**
+     * Creates source of given size.
+     *
+     * @param size size of the source
+     *
+     * @return input source
+     */
+    private static InputSource createSource(final long size) {
+        return new InputSource("entry.xml", "entry.xml") {
+            @Override
+            public long getSize() {
+                return size;
+            }
+
+            @Override
+            public String getContentHash() {
+                return null;
+            }
+
+            @Override
+            public InputStream openStream() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
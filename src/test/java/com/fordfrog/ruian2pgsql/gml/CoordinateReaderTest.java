@@ -0,0 +1,124 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.gml;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CoordinateReader}.
+ *
+ * @author fordfrog
+ */
+public class CoordinateReaderTest {
+
+    /**
+     * Tests that parsed values are the same as values parsed by
+     * {@link Double#parseDouble(java.lang.String)}, including numbers that
+     * are split between text chunks.
+     */
+    @Test
+    public void testSameAsParseDouble() {
+        final Random random = new Random(1);
+        final String[] values = new String[20_000];
+        final StringBuilder sbText = new StringBuilder(values.length * 12);
+
+        for (int i = 0; i < values.length; i++) {
+            final long mantissa = random.nextLong() % 100_000_000_000L;
+            final int scale = random.nextInt(6);
+            values[i] = new BigDecimal(
+                    BigInteger.valueOf(mantissa), scale).toString();
+            sbText.append(values[i]).append(i % 7 == 0 ? "\n\t" : " ");
+        }
+
+        final CoordinateSequence sequence = read(sbText.toString(), 5);
+
+        Assert.assertEquals(values.length / 2, sequence.size());
+
+        for (int i = 0; i < sequence.size(); i++) {
+            Assert.assertEquals(values[i * 2],
+                    Double.parseDouble(values[i * 2]), sequence.getX(i), 0);
+            Assert.assertEquals(values[i * 2 + 1],
+                    Double.parseDouble(values[i * 2 + 1]), sequence.getY(i),
+                    0);
+        }
+    }
+
+    /**
+     * Tests numbers that are not computed arithmetically.
+     */
+    @Test
+    public void testOtherNumbers() {
+        final CoordinateSequence sequence = read(
+                "1e3 +2.5 12345678901234567890 -0.00 .5 7.", 1_000);
+
+        Assert.assertEquals(3, sequence.size());
+        Assert.assertEquals(1_000, sequence.getX(0), 0);
+        Assert.assertEquals(2.5, sequence.getY(0), 0);
+        Assert.assertEquals(12345678901234567890.0, sequence.getX(1), 0);
+        Assert.assertEquals(Double.doubleToLongBits(-0.0),
+                Double.doubleToLongBits(sequence.getY(1)));
+        Assert.assertEquals(0.5, sequence.getX(2), 0);
+        Assert.assertEquals(7, sequence.getY(2), 0);
+    }
+
+    /**
+     * Tests that invalid coordinates are rejected.
+     */
+    @Test
+    public void testInvalidCoordinates() {
+        for (final String text : new String[]{"1 2 3", "1 -", "1 2x"}) {
+            try {
+                read(text, 1_000);
+                Assert.fail("Invalid coordinates were parsed: " + text);
+            } catch (final RuntimeException ex) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * Reads coordinates from text that is split into chunks.
+     *
+     * @param text      coordinates text
+     * @param chunkSize maximum number of characters in chunk
+     *
+     * @return read coordinates
+     */
+    private static CoordinateSequence read(final String text,
+            final int chunkSize) {
+        final CoordinateSequence sequence = new CoordinateSequence(1);
+        final CoordinateReader reader = new CoordinateReader(sequence);
+        final char[] chars = text.toCharArray();
+
+        for (int i = 0; i < chars.length; i += chunkSize) {
+            reader.append(chars, i, Math.min(chunkSize, chars.length - i));
+        }
+
+        reader.finish();
+
+        return sequence;
+    }
+}
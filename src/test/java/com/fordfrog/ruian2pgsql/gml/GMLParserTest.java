@@ -24,6 +24,8 @@ package com.fordfrog.ruian2pgsql.gml;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
@@ -60,6 +62,10 @@ public class GMLParserTest {
                     {"multicurve", true}
                 });
     }
+    private static final String[] TYPE_NAMES = {null, "POINT",
+        "LINESTRING", "POLYGON", "MULTIPOINT", "MULTILINESTRING",
+        "MULTIPOLYGON", null, "CIRCULARSTRING", "COMPOUNDCURVE",
+        "CURVEPOLYGON", "MULTICURVE", "MULTISURFACE"};
     private String name;
     private boolean linearize;
 
@@ -81,7 +87,18 @@ public class GMLParserTest {
         Assert.assertEquals(expectedWKT, wkt);
     }
 
-    private String convertGMLtoWKT(final String fileName, final boolean linearize) {
+    @Test
+    public void testEWKB() {
+        final Geometry geometry = parseGML(name + ".xml", linearize);
+        final ByteBuffer buffer = ByteBuffer.wrap(geometry.toEWKB());
+        final StringBuilder sbWKT = new StringBuilder(1_024);
+        appendEWKB(sbWKT, buffer, false, false);
+
+        Assert.assertEquals(geometry.toWKT(), sbWKT.toString());
+        Assert.assertFalse(buffer.hasRemaining());
+    }
+
+    private Geometry parseGML(final String fileName, final boolean linearize) {
         final XMLInputFactory xMLInputFactory = XMLInputFactory.newInstance();
 
         try (final InputStream inputStream =
@@ -97,9 +114,9 @@ public class GMLParserTest {
                             reader.getNamespaceURI(), reader.getLocalName());
 
                     if (linearize) {
-                        return ((CurvedGeometry<Geometry>) geometry).linearize(1.0).toWKT();
+                        return ((CurvedGeometry<Geometry>) geometry).linearize(1.0);
                     } else {
-                        return geometry.toWKT();
+                        return geometry;
                     }
                 }
             }
@@ -112,6 +129,113 @@ public class GMLParserTest {
         return null;
     }
 
+    /**
+     * Decodes EWKB geometry and appends it in the same WKT form that
+     * {@link Geometry#toWKT()} produces, that is with line strings untagged
+     * inside polygons and multilines and polygons untagged inside
+     * multipolygons.
+     */
+    private static void appendEWKB(final StringBuilder sbWKT,
+            final ByteBuffer buffer, final boolean inPolygon,
+            final boolean untagged) {
+        buffer.order(buffer.get() == 1
+                ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+
+        int type = buffer.getInt();
+
+        if ((type & EWKBWriter.SRID_FLAG) != 0) {
+            type &= ~EWKBWriter.SRID_FLAG;
+            sbWKT.append("SRID=");
+            sbWKT.append(buffer.getInt());
+            sbWKT.append(';');
+        }
+
+        final boolean lineString = type == EWKBWriter.LINESTRING;
+
+        if (!(lineString && (inPolygon || untagged)
+                || type == EWKBWriter.POLYGON && untagged)) {
+            sbWKT.append(TYPE_NAMES[type]);
+        }
+
+        sbWKT.append('(');
+
+        switch (type) {
+            case EWKBWriter.POINT:
+                appendPoint(sbWKT, buffer);
+                break;
+            case EWKBWriter.LINESTRING:
+            case EWKBWriter.CIRCULARSTRING:
+                appendPoints(sbWKT, buffer);
+                break;
+            case EWKBWriter.POLYGON:
+                final int ringCount = buffer.getInt();
+
+                for (int i = 0; i < ringCount; i++) {
+                    sbWKT.append(i == 0 ? "(" : ",(");
+                    appendPoints(sbWKT, buffer);
+                    sbWKT.append(')');
+                }
+
+                break;
+            case EWKBWriter.MULTIPOINT:
+                final int pointCount = buffer.getInt();
+
+                for (int i = 0; i < pointCount; i++) {
+                    if (i > 0) {
+                        sbWKT.append(',');
+                    }
+
+                    buffer.get();
+                    Assert.assertEquals(EWKBWriter.POINT, buffer.getInt());
+                    appendPoint(sbWKT, buffer);
+                }
+
+                break;
+            default:
+                final int count = buffer.getInt();
+                final boolean multi = type == EWKBWriter.MULTILINESTRING
+                        || type == EWKBWriter.MULTICURVE
+                        || type == EWKBWriter.MULTIPOLYGON
+                        || type == EWKBWriter.MULTISURFACE;
+
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        sbWKT.append(',');
+                    }
+
+                    appendEWKB(sbWKT, buffer,
+                            inPolygon || type == EWKBWriter.CURVEPOLYGON,
+                            multi);
+                }
+        }
+
+        sbWKT.append(')');
+    }
+
+    private static void appendPoint(final StringBuilder sbWKT,
+            final ByteBuffer buffer) {
+        sbWKT.append(buffer.getDouble());
+        sbWKT.append(' ');
+        sbWKT.append(buffer.getDouble());
+    }
+
+    private static void appendPoints(final StringBuilder sbWKT,
+            final ByteBuffer buffer) {
+        final int count = buffer.getInt();
+
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sbWKT.append(',');
+            }
+
+            appendPoint(sbWKT, buffer);
+        }
+    }
+
+    private String convertGMLtoWKT(final String fileName, final boolean linearize) {
+        return parseGML(fileName, linearize).toWKT();
+    }
+
     private String readWKT(final String fileName) {
         try {
             final byte[] bytes = Files.readAllBytes(
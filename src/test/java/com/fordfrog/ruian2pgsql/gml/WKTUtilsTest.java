@@ -0,0 +1,80 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.gml;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link WKTUtils}.
+ *
+ * @author fordfrog
+ */
+public class WKTUtilsTest {
+
+    /**
+     * Tests formatting of coordinates snapped to grid.
+     */
+    @Test
+    public void testAppendCoordinate() {
+        Assert.assertEquals("743100", format(743_100.0, 100));
+        Assert.assertEquals("-743100.5", format(-743_100.5, 100));
+        Assert.assertEquals("-1043300.07", format(-1_043_300.07, 100));
+        Assert.assertEquals("0.001", format(0.0009, 1_000));
+        Assert.assertEquals("0", format(-0.004, 100));
+        Assert.assertEquals("12", format(12.345, 1));
+        Assert.assertEquals("1.0E300", format(1e300, 100));
+        Assert.assertEquals("12.345", format(12.345, 0));
+    }
+
+    /**
+     * Tests that snapped and formatted coordinates have the same value as
+     * decimal number of grid steps.
+     */
+    @Test
+    public void testSnappedValues() {
+        final Random random = new Random(1);
+
+        for (int i = 0; i < 20_000; i++) {
+            final int decimals = random.nextInt(7);
+            final long scale = BigDecimal.TEN.pow(decimals).longValue();
+            final double value = (random.nextDouble() - 0.5) * 2_000_000;
+            final double snapped = GeometryUtils.snap(value, scale);
+            final String expected = BigDecimal.valueOf(
+                    Math.round(value * scale), decimals).stripTrailingZeros()
+                    .toPlainString();
+
+            Assert.assertEquals(expected, format(snapped, scale));
+            Assert.assertEquals(snapped, Double.parseDouble(expected), 0);
+            Assert.assertEquals(snapped, GeometryUtils.snap(snapped, scale), 0);
+        }
+    }
+
+    private static String format(final double value, final long scale) {
+        final StringBuilder sbString = new StringBuilder(30);
+        WKTUtils.appendCoordinate(sbString, value, scale);
+
+        return sbString.toString();
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ElementTable}.
+ *
+ * @author fordfrog
+ */
+public class ElementTableTest {
+
+    /**
+     * Tests lookup of elements with the same local name in different
+     * namespaces, with names that are not interned and with table that grew
+     * after creation.
+     */
+    @Test
+    public void testGet() {
+        final ElementTable table = new ElementTable();
+
+        for (int i = 1; i <= 100; i++) {
+            table.add(Namespaces.COMMON_TYPY, "Element" + i, i);
+        }
+
+        table.add(Namespaces.ADR_MISTO_INT_TYPY, "Kod", 101);
+        table.add(Namespaces.PARCELA_INT_TYPY, "Kod", 102);
+
+        Assert.assertEquals(101, table.get(Namespaces.ADR_MISTO_INT_TYPY,
+                new String(new char[]{'K', 'o', 'd'})));
+        Assert.assertEquals(102, table.get(
+                new String(Namespaces.PARCELA_INT_TYPY), "Kod"));
+        Assert.assertEquals(57, table.get(Namespaces.COMMON_TYPY,
+                new StringBuilder("Element").append(57).toString()));
+        Assert.assertEquals(ElementTable.UNKNOWN,
+                table.get(Namespaces.STAT_INT_TYPY, "Kod"));
+        Assert.assertEquals(ElementTable.UNKNOWN,
+                table.get(Namespaces.COMMON_TYPY, "Element101"));
+    }
+
+    /**
+     * Tests lookup of elements that were added without namespace.
+     */
+    @Test
+    public void testGetAnyNamespace() {
+        final ElementTable table = new ElementTable().add("Hasici", 1)
+                .add(Namespaces.GML, "Point", 2);
+
+        Assert.assertEquals(1, table.get(Namespaces.ADR_MISTO_INT_TYPY,
+                new String(new char[]{'H', 'a', 's', 'i', 'c', 'i'})));
+        Assert.assertEquals(1, table.get(Namespaces.OBEC_INT_TYPY, "Hasici"));
+        Assert.assertEquals(2, table.get(Namespaces.GML, "Point"));
+        Assert.assertEquals(ElementTable.UNKNOWN,
+                table.get(Namespaces.COMMON_TYPY, "Point"));
+    }
+
+    /**
+     * Tests that element cannot be added twice.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicate() {
+        new ElementTable().add(Namespaces.GML, "Point", 1)
+                .add(Namespaces.GML, "Point", 2);
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link OffHeapLongMap}.
+ *
+ * @author fordfrog
+ */
+public class OffHeapLongMapTest {
+
+    /**
+     * Tests that entries survive growing of the map and that values of
+     * existing keys are replaced.
+     */
+    @Test
+    public void testPutAndGet() {
+        final OffHeapLongMap map = new OffHeapLongMap(0);
+        final long memoryUsage = map.getMemoryUsage();
+
+        for (long key = -1_000; key < 100_000; key++) {
+            map.put(key, key * 3);
+        }
+
+        map.put(5, 42);
+
+        Assert.assertEquals(101_000, map.size());
+        Assert.assertTrue(map.getMemoryUsage() > memoryUsage);
+        Assert.assertEquals(42, map.get(5));
+        Assert.assertEquals(0, map.get(0));
+        Assert.assertEquals(-3_000, map.get(-1_000));
+        Assert.assertEquals(299_997, map.get(99_999));
+        Assert.assertEquals(OffHeapLongMap.NO_VALUE, map.get(100_000));
+        Assert.assertEquals(OffHeapLongMap.NO_VALUE, map.get(Long.MAX_VALUE));
+    }
+
+    /**
+     * Tests that memory usage is estimated correctly for expected size.
+     */
+    @Test
+    public void testMemoryUsage() {
+        final OffHeapLongMap map = new OffHeapLongMap(1_000);
+
+        Assert.assertEquals(
+                OffHeapLongMap.getMemoryUsage(1_000), map.getMemoryUsage());
+
+        for (int key = 1; key <= 1_000; key++) {
+            map.put(key, key);
+        }
+
+        Assert.assertEquals(
+                OffHeapLongMap.getMemoryUsage(1_000), map.getMemoryUsage());
+    }
+}
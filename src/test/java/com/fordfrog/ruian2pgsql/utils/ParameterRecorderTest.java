@@ -0,0 +1,76 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ParameterRecorder}.
+ *
+ * @author fordfrog
+ */
+public class ParameterRecorderTest {
+
+    /**
+     * Tests that integral and boolean parameters are recorded unboxed and
+     * other parameters as objects.
+     *
+     * @throws SQLException Thrown if problem occurred while setting
+     *                      parameters.
+     */
+    @Test
+    public void testRecordParameters() throws SQLException {
+        final ParameterRecorder recorder = new ParameterRecorder(null);
+        final PreparedStatement pstm = recorder.getStatement();
+        pstm.setInt(1, 42);
+        pstm.setLong(2, Long.MAX_VALUE);
+        pstm.setBoolean(3, true);
+        pstm.setNull(4, Types.INTEGER);
+        pstm.setString(5, "text");
+        pstm.setObject(7, 7);
+
+        Assert.assertEquals(7, recorder.getParameterCount());
+        Assert.assertEquals(ParameterRecorder.TYPE_LONG,
+                recorder.getParameterType(1));
+        Assert.assertEquals(42, recorder.getLong(1));
+        Assert.assertEquals(Long.MAX_VALUE, recorder.getLong(2));
+        Assert.assertEquals(ParameterRecorder.TYPE_BOOLEAN,
+                recorder.getParameterType(3));
+        Assert.assertTrue(recorder.getBoolean(3));
+        Assert.assertEquals(ParameterRecorder.TYPE_NULL,
+                recorder.getParameterType(4));
+        Assert.assertEquals("text", recorder.getParameter(5));
+        Assert.assertEquals(ParameterRecorder.TYPE_NULL,
+                recorder.getParameterType(6));
+        Assert.assertEquals(7L, recorder.getParameter(7));
+
+        pstm.clearParameters();
+
+        Assert.assertEquals(0, recorder.getParameterCount());
+        Assert.assertEquals(ParameterRecorder.TYPE_NULL,
+                recorder.getParameterType(1));
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ReadAheadInputStream}.
+ *
+ * @author fordfrog
+ */
+public class ReadAheadInputStreamTest {
+
+    /**
+     * Tests that data larger than all buffers together are passed through the
+     * buffers unchanged.
+     *
+     * @throws IOException Thrown if reading failed.
+     */
+    @Test
+    public void testPlainData() throws IOException {
+        final byte[] data = createData(100_000, 0);
+
+        try (final ReadAheadInputStream inputStream = new ReadAheadInputStream(
+                new ByteArrayInputStream(data), false, 1_000, 3)) {
+            Assert.assertArrayEquals(data, readAll(inputStream));
+            Assert.assertEquals(-1, inputStream.read());
+        }
+    }
+
+    /**
+     * Tests that all members of multi-member gzip data are inflated.
+     *
+     * @throws IOException Thrown if reading failed.
+     */
+    @Test
+    public void testMultiMemberGzip() throws IOException {
+        final byte[] first = createData(50_000, 1);
+        final byte[] second = createData(30_000, 2);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        compress(first, compressed);
+        compress(second, compressed);
+
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(first);
+        expected.write(second);
+
+        try (final ReadAheadInputStream inputStream = new ReadAheadInputStream(
+                new ByteArrayInputStream(compressed.toByteArray()), true,
+                4_096, 2)) {
+            Assert.assertArrayEquals(
+                    expected.toByteArray(), readAll(inputStream));
+        }
+    }
+
+    /**
+     * Tests that failure of the reader thread is reported to the consuming
+     * thread.
+     *
+     * @throws IOException Thrown if reading failed.
+     */
+    @Test(expected = IOException.class)
+    public void testFailure() throws IOException {
+        try (final ReadAheadInputStream inputStream = new ReadAheadInputStream(
+                new ByteArrayInputStream(createData(1_000, 3)), true,
+                4_096, 2)) {
+            readAll(inputStream);
+        }
+    }
+
+    /**
+     * Creates test data.
+     *
+     * @param size data size
+     * @param seed seed of data values
+     *
+     * @return data
+     */
+    private static byte[] createData(final int size, final int seed) {
+        final byte[] data = new byte[size];
+
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i * 31 + seed);
+        }
+
+        return data;
+    }
+
+    /**
+     * Writes data compressed as single gzip member.
+     *
+     * @param data   data
+     * @param output output stream
+     *
+     * @throws IOException Thrown if writing failed.
+     */
+    private static void compress(final byte[] data,
+            final ByteArrayOutputStream output) throws IOException {
+        try (final GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(data);
+        }
+    }
+
+    /**
+     * Reads all data from input stream using both single byte and array
+     * reads.
+     *
+     * @param inputStream input stream
+     *
+     * @return data
+     *
+     * @throws IOException Thrown if reading failed.
+     */
+    private static byte[] readAll(final InputStream inputStream)
+            throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[777];
+        int value = inputStream.read();
+
+        while (value != -1) {
+            output.write(value);
+
+            final int count = inputStream.read(buffer);
+
+            if (count == -1) {
+                break;
+            }
+
+            output.write(buffer, 0, count);
+            value = inputStream.read();
+        }
+
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TransactionIdCache}.
+ *
+ * @author fordfrog
+ */
+public class TransactionIdCacheTest {
+
+    /**
+     * Tests that memory budget of gigabytes does not overflow and that it is
+     * limited by maximum amount of direct memory.
+     */
+    @Test
+    public void testMemoryBudget() {
+        Assert.assertEquals(2_048L * 1_024 * 1_024,
+                TransactionIdCache.getMemoryBudget(2_048, Long.MAX_VALUE));
+        Assert.assertEquals(4_096L * 1_024 * 1_024,
+                TransactionIdCache.getMemoryBudget(4_096, Long.MAX_VALUE));
+        final long maxDirectMemory = 1_024L * 1_024 * 1_024;
+        Assert.assertEquals(maxDirectMemory,
+                TransactionIdCache.getMemoryBudget(4_096, maxDirectMemory));
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.util.Calendar;
+import java.util.Random;
+import java.util.TimeZone;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Utils}.
+ *
+ * @author fordfrog
+ */
+public class UtilsTest {
+
+    /**
+     * Tests that parsed timestamps match values computed by lenient
+     * {@link Calendar}, including values out of range.
+     */
+    @Test
+    public void testParseEpochSeconds() {
+        final Random random = new Random(1);
+
+        for (int i = 0; i < 20_000; i++) {
+            final int year = 1500 + random.nextInt(600);
+            final int month = random.nextInt(14);
+            final int day = random.nextInt(33);
+            final int hour = random.nextInt(25);
+            final int minute = random.nextInt(61);
+            final int second = random.nextInt(61);
+            final String value = String.format("%04d-%02d-%02dT%02d:%02d:%02d",
+                    year, month, day, hour, minute, second);
+
+            final Calendar calendar =
+                    Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+            calendar.clear();
+            calendar.set(year, month - 1, day, hour, minute, second);
+
+            Assert.assertEquals(value, calendar.getTimeInMillis() / 1_000L,
+                    Utils.parseEpochSeconds(value));
+            // cached value
+            Assert.assertEquals(value, calendar.getTimeInMillis() / 1_000L,
+                    Utils.parseEpochSeconds(value));
+        }
+    }
+
+    /**
+     * Tests that dates are computed for timestamps before and after epoch.
+     */
+    @Test
+    public void testParseEpochDays() {
+        Assert.assertEquals(0, Utils.parseEpochDays("1970-01-01T00:00:00"));
+        Assert.assertEquals(0, Utils.parseEpochDays("1970-01-01T23:59:59"));
+        Assert.assertEquals(-1, Utils.parseEpochDays("1969-12-31T23:59:59"));
+        Assert.assertEquals(16_436, Utils.parseEpochDays("2015-01-01T12:00:00"));
+    }
+
+    /**
+     * Tests that invalid timestamps are rejected.
+     */
+    @Test
+    public void testInvalidTimestamps() {
+        final String[] values = {"2015-01-01", "2015-01-01 00:00:00",
+            "2015-01-01T00:00:0x", "2015-01-01T00:00:00Z",
+            "2015-+1-01T00:00:00"};
+
+        for (final String value : values) {
+            try {
+                Utils.parseEpochSeconds(value);
+                Assert.fail("Invalid timestamp was parsed: " + value);
+            } catch (final RuntimeException ex) {
+                Assert.assertTrue(ex.getMessage().startsWith(
+                        "Invalid timestamp value"));
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link VfrStreamReader}.
+ *
+ * @author fordfrog
+ */
+public class VfrStreamReaderTest {
+
+    /**
+     * Tests that events of sample document match events of the standard
+     * reader, including character offsets of end elements.
+     *
+     * @throws IOException        Thrown if problem occurred while reading
+     *                            test file.
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    @Test
+    public void testSameEventsAsStax() throws IOException, XMLStreamException {
+        final byte[] data = readResource("vfr-sample.xml");
+
+        Assert.assertEquals(readEvents(createStaxReader(data)),
+                readEvents(new VfrStreamReader(
+                        new ByteArrayInputStream(data))));
+    }
+
+    /**
+     * Tests that tokens spanning buffer boundaries are read correctly.
+     *
+     * @throws IOException        Thrown if problem occurred while reading
+     *                            test file.
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    @Test
+    public void testSmallReads() throws IOException, XMLStreamException {
+        final byte[] data = readResource("vfr-sample.xml");
+        // stream that returns at most 7 bytes per read
+        final InputStream inputStream = new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(final byte[] bytes,
+                    final int offset, final int length) {
+                return super.read(bytes, offset, Math.min(length, 7));
+            }
+        };
+
+        Assert.assertEquals(readEvents(createStaxReader(data)),
+                readEvents(new VfrStreamReader(inputStream)));
+    }
+
+    /**
+     * Tests reading of element text, attributes and element names.
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    @Test
+    public void testElementText() throws XMLStreamException {
+        final XMLStreamReader reader = new VfrStreamReader(
+                new ByteArrayInputStream(("<a:r xmlns:a=\"urn:a\" x='1 &amp;"
+                        + " 2'><a:b>t&lt;1<!-- c --><![CDATA[&]]></a:b>"
+                        + "<a:c/></a:r>").getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals(XMLStreamReader.START_ELEMENT, reader.next());
+        Assert.assertSame("r", reader.getLocalName());
+        Assert.assertEquals("urn:a", reader.getNamespaceURI());
+        Assert.assertEquals("1 & 2", reader.getAttributeValue(null, "x"));
+        Assert.assertEquals(XMLStreamReader.START_ELEMENT, reader.next());
+        Assert.assertEquals("t<1&", reader.getElementText());
+        Assert.assertEquals(XMLStreamReader.END_ELEMENT,
+                reader.getEventType());
+        Assert.assertEquals("b", reader.getLocalName());
+        Assert.assertEquals(XMLStreamReader.START_ELEMENT, reader.next());
+        Assert.assertEquals("", reader.getElementText());
+        Assert.assertEquals("c", reader.getLocalName());
+        Assert.assertEquals(XMLStreamReader.END_ELEMENT, reader.next());
+        Assert.assertEquals("r", reader.getLocalName());
+        Assert.assertEquals(XMLStreamReader.END_DOCUMENT, reader.next());
+        Assert.assertFalse(reader.hasNext());
+    }
+
+    /**
+     * Tests that document in other encoding than UTF-8 is rejected.
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    @Test(expected = XMLStreamException.class)
+    public void testUnsupportedEncoding() throws XMLStreamException {
+        final XMLStreamReader reader = new VfrStreamReader(
+                new ByteArrayInputStream(("<?xml version=\"1.0\" "
+                        + "encoding=\"windows-1250\"?><a/>").getBytes(
+                                StandardCharsets.US_ASCII)));
+
+        reader.next();
+    }
+
+    /**
+     * Reads events of the reader into list of strings. Adjacent text events
+     * are merged and whitespace-only text is ignored, as readers might split
+     * text differently. Comments are ignored.
+     *
+     * @param reader XML stream reader
+     *
+     * @return list of events
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    private static List<String> readEvents(final XMLStreamReader reader)
+            throws XMLStreamException {
+        final List<String> result = new ArrayList<>(100);
+        final StringBuilder sbText = new StringBuilder(100);
+
+        while (reader.hasNext()) {
+            final int event = reader.next();
+
+            if (event == XMLStreamReader.CHARACTERS
+                    || event == XMLStreamReader.CDATA) {
+                sbText.append(reader.getText());
+
+                continue;
+            } else if (event == XMLStreamReader.COMMENT) {
+                continue;
+            }
+
+            if (!sbText.toString().trim().isEmpty()) {
+                result.add("text " + sbText);
+            }
+
+            sbText.setLength(0);
+
+            if (event == XMLStreamReader.START_ELEMENT) {
+                final StringBuilder sbEvent = new StringBuilder(100);
+                sbEvent.append("start ").append(reader.getNamespaceURI())
+                        .append(' ').append(reader.getLocalName());
+
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    sbEvent.append(' ').append(reader.getAttributeNamespace(i))
+                            .append(':').append(reader.getAttributeLocalName(i))
+                            .append('=').append(reader.getAttributeValue(i));
+                }
+
+                result.add(sbEvent.toString());
+            } else if (event == XMLStreamReader.END_ELEMENT) {
+                result.add("end " + reader.getNamespaceURI() + ' '
+                        + reader.getLocalName() + ' '
+                        + reader.getLocation().getCharacterOffset());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates standard StAX reader.
+     *
+     * @param data XML data
+     *
+     * @return XML stream reader
+     *
+     * @throws XMLStreamException Thrown if problem occurred while creating the
+     *                            reader.
+     */
+    private static XMLStreamReader createStaxReader(final byte[] data)
+            throws XMLStreamException {
+        return XMLInputFactory.newInstance().createXMLStreamReader(
+                new InputStreamReader(new ByteArrayInputStream(data),
+                        StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads test resource.
+     *
+     * @param name resource name
+     *
+     * @return resource content
+     *
+     * @throws IOException Thrown if problem occurred while reading the
+     *                     resource.
+     */
+    private static byte[] readResource(final String name) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (final InputStream inputStream =
+                VfrStreamReaderTest.class.getResourceAsStream(name)) {
+            final byte[] buffer = new byte[4_096];
+            int count = inputStream.read(buffer);
+
+            while (count != -1) {
+                output.write(buffer, 0, count);
+                count = inputStream.read(buffer);
+            }
+        }
+
+        return output.toByteArray();
+    }
+}
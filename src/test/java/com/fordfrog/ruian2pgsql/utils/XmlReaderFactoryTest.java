@@ -0,0 +1,114 @@
+/**
+ * Copyright 2012 Miroslav Šulc
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.fordfrog.ruian2pgsql.utils;
+
+import com.fordfrog.ruian2pgsql.Config;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link XmlReaderFactory}.
+ *
+ * @author fordfrog
+ */
+public class XmlReaderFactoryTest {
+
+    /**
+     * Sample document.
+     */
+    private static final String DOCUMENT = "<?xml version=\"1.0\" "
+            + "encoding=\"UTF-8\"?><a xmlns=\"urn:test\"><b>Žluťoučký &amp; "
+            + "kůň</b><b>second</b></a>";
+
+    /**
+     * Tests that readers of JDK and byte-level parser created by the same
+     * factory instance decode UTF-8 bytes and entities.
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    @Test
+    public void testCreateReader() throws XMLStreamException {
+        for (final String parser : new String[]{Config.XML_PARSER_JDK,
+            Config.XML_PARSER_STAX, Config.XML_PARSER_VFR}) {
+            final XmlReaderFactory factory = new XmlReaderFactory(parser);
+
+            for (int i = 0; i < 2; i++) {
+                Assert.assertEquals(parser, "Žluťoučký & kůň|second|",
+                        readTexts(factory));
+            }
+        }
+    }
+
+    /**
+     * Tests that unsupported parser is reported.
+     */
+    @Test(expected = RuntimeException.class)
+    public void testUnsupportedParser() {
+        new XmlReaderFactory("unknown");
+    }
+
+    /**
+     * Tests supported parser names.
+     */
+    @Test
+    public void testIsSupported() {
+        Assert.assertTrue(XmlReaderFactory.isSupported(Config.XML_PARSER_AALTO));
+        Assert.assertTrue(
+                XmlReaderFactory.isSupported(Config.XML_PARSER_WOODSTOX));
+        Assert.assertFalse(XmlReaderFactory.isSupported("xerces"));
+    }
+
+    /**
+     * Reads texts of all b elements of the sample document.
+     *
+     * @param factory reader factory
+     *
+     * @return texts, each followed by |
+     *
+     * @throws XMLStreamException Thrown if problem occurred while reading XML
+     *                            stream.
+     */
+    private static String readTexts(final XmlReaderFactory factory)
+            throws XMLStreamException {
+        final XMLStreamReader reader = factory.createReader(
+                new ByteArrayInputStream(
+                        DOCUMENT.getBytes(StandardCharsets.UTF_8)));
+        final StringBuilder sbString = new StringBuilder(50);
+
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamReader.START_ELEMENT
+                    && "b".equals(reader.getLocalName())) {
+                sbString.append(reader.getElementText());
+                sbString.append('|');
+            }
+        }
+
+        reader.close();
+
+        return sbString.toString();
+    }
+}